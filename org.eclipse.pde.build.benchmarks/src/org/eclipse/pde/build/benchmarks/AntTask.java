@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import org.eclipse.ant.core.AntCorePlugin;
+
+/**
+ * A task of <code>lib/pdebuild-ant.jar</code>, configured once and executed many times.
+ * <p>
+ * The tasks are only visible to the class loader Ant runs with, so they are created and called by
+ * reflection. The attributes are set the way Ant sets them from a script. Only the call to
+ * <code>execute()</code> is left for the benchmarks, its reflective overhead is negligible
+ * compared to the tasks measured.
+ * </p>
+ */
+public class AntTask {
+	private final Object task;
+	private final Method execute;
+
+	public AntTask(String className, Map<String, String> attributes) throws ReflectiveOperationException {
+		ClassLoader loader = AntCorePlugin.getPlugin().getNewClassLoader();
+		Thread thread = Thread.currentThread();
+		ClassLoader previous = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			Class<?> projectClass = loader.loadClass("org.apache.tools.ant.Project");
+			Object project = projectClass.getConstructor().newInstance();
+			projectClass.getMethod("init").invoke(project);
+
+			Class<?> taskClass = loader.loadClass(className);
+			task = taskClass.getConstructor().newInstance();
+			taskClass.getMethod("setProject", projectClass).invoke(task, project);
+
+			Class<?> helperClass = loader.loadClass("org.apache.tools.ant.IntrospectionHelper");
+			Object helper = helperClass.getMethod("getHelper", projectClass, Class.class).invoke(null, project, taskClass);
+			Method setAttribute = helperClass.getMethod("setAttribute", projectClass, Object.class, String.class, String.class);
+			for (Map.Entry<String, String> attribute : attributes.entrySet())
+				setAttribute.invoke(helper, project, task, attribute.getKey(), attribute.getValue());
+			execute = taskClass.getMethod("execute");
+		} finally {
+			thread.setContextClassLoader(previous);
+		}
+	}
+
+	public void execute() throws Throwable {
+		try {
+			execute.invoke(task);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
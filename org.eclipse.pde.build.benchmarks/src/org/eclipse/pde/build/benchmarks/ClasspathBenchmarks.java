@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.pde.build.internal.tests.SyntheticTargetPlatform;
+import org.eclipse.pde.internal.build.AbstractScriptGenerator;
+import org.eclipse.pde.internal.build.IPDEBuildConstants;
+import org.eclipse.pde.internal.build.builder.*;
+import org.eclipse.pde.internal.build.builder.ModelBuildScriptGenerator.CompiledEntry;
+import org.eclipse.pde.internal.build.site.BuildTimeSiteFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compute the compile classpath of every source bundle of the synthetic platform.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ClasspathBenchmarks {
+
+	@State(Scope.Benchmark)
+	public static class Generators {
+		final List<ModelBuildScriptGenerator> generators = new ArrayList<>();
+		final List<CompiledEntry> entries = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setUp(PlatformState platform) throws CoreException {
+			BuildTimeSiteFactory factory = new BuildTimeSiteFactory();
+			factory.setSitePaths(platform.getSitePaths());
+			for (BundleDescription bundle : factory.createSite().getRegistry().getState().getResolvedBundles()) {
+				if (!bundle.getSymbolicName().startsWith(SyntheticTargetPlatform.BUNDLE_PREFIX))
+					continue;
+				ModelBuildScriptGenerator generator = new ModelBuildScriptGenerator();
+				generator.setBuildSiteFactory(factory);
+				generator.setModel(bundle);
+				generator.setFeatureGenerator(new BuildDirector());
+				CompiledEntry[] compiled = ModelBuildScriptGenerator.extractEntriesToCompile(AbstractScriptGenerator.readProperties(generator.getLocation(bundle), IPDEBuildConstants.PROPERTIES_FILE, IStatus.OK), bundle);
+				for (CompiledEntry entry : compiled) {
+					generators.add(generator);
+					entries.add(entry);
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void getClasspath(Generators generators, Blackhole blackhole) throws CoreException {
+		for (int i = 0; i < generators.generators.size(); i++) {
+			ModelBuildScriptGenerator generator = generators.generators.get(i);
+			blackhole.consume(new ClasspathComputer3_0(generator).getClasspath(generator.getModel(), generators.entries.get(i)));
+		}
+	}
+}
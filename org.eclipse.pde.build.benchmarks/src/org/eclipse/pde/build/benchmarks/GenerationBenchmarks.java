@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.pde.build.internal.tests.SyntheticTargetPlatform;
+import org.eclipse.pde.internal.build.BuildScriptGenerator;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Generate the scripts of the top feature of the synthetic platform, end to end from the site
+ * creation, with and without the assembly scripts. The difference between the two is the cost
+ * of the assembly generation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class GenerationBenchmarks {
+
+	@Benchmark
+	public void generateFeatures(PlatformState platform) throws CoreException {
+		generate(platform, false);
+	}
+
+	@Benchmark
+	public void generateWithAssembly(PlatformState platform) throws CoreException {
+		generate(platform, true);
+	}
+
+	private void generate(PlatformState platform, boolean assemble) throws CoreException {
+		BuildScriptGenerator generator = new BuildScriptGenerator();
+		generator.setWorkingDirectory(platform.getWorkingDirectory());
+		generator.setPluginPath(platform.getPluginPath());
+		generator.setElements(new String[] {"feature@" + SyntheticTargetPlatform.TOP_FEATURE});
+		generator.setChildren(true);
+		generator.setRecursiveGeneration(true);
+		generator.setGenerateAssembleScript(assemble);
+		generator.setImmutableAntProperties(new Properties());
+		generator.generate();
+	}
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.pde.build.internal.tests.SyntheticTargetPlatform;
+import org.eclipse.pde.internal.build.AbstractScriptGenerator;
+import org.eclipse.pde.internal.build.BuildScriptGenerator;
+import org.eclipse.pde.internal.build.builder.BuildDirector;
+import org.eclipse.pde.internal.build.site.BuildTimeSiteFactory;
+import org.eclipse.pde.internal.build.site.QualifierReplacer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A synthetic target platform and the sources of a build against it, written once per trial, and
+ * the static state of the generators set up for them. The repository of the sources is the working
+ * directory, the target is in the plug-in path.
+ */
+@State(Scope.Benchmark)
+public class PlatformState {
+	@Param({"500", "2000"})
+	public int bundles;
+
+	@Param({"1000"})
+	public int targetBundles;
+
+	@Param({"20"})
+	public int features;
+
+	@Param({"4"})
+	public int fanOut;
+
+	@Param({"10"})
+	public int fragmentPercent;
+
+	private File root;
+	private SyntheticTargetPlatform platform;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, CoreException {
+		root = Files.createTempDirectory("pde.build.benchmarks").toFile();
+		platform = new SyntheticTargetPlatform().setTargetBundles(targetBundles).setBundles(bundles).setFeatures(features).setFanOut(fanOut).setFragmentPercent(fragmentPercent);
+		platform.write(root);
+
+		clearStatics();
+		AbstractScriptGenerator.setConfigInfo("*,*,*");
+		new BuildScriptGenerator().setWorkingDirectory(getWorkingDirectory());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		clearStatics();
+		delete(root);
+	}
+
+	static void clearStatics() {
+		AbstractScriptGenerator.getConfigInfos().clear();
+		BuildTimeSiteFactory.setInstalledBaseSite(null);
+		AbstractScriptGenerator.setForceUpdateJar(false);
+		QualifierReplacer.setGlobalQualifier(null);
+		BuildDirector.p2Gathering = false;
+	}
+
+	static void delete(File directory) throws IOException {
+		Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	public String getWorkingDirectory() {
+		return platform.getRepositoryLocation().getAbsolutePath();
+	}
+
+	public String[] getPluginPath() {
+		return targetBundles > 0 ? new String[] {platform.getTargetLocation().getAbsolutePath()} : new String[0];
+	}
+
+	/**
+	 * @return the paths of the site, as set by the generators
+	 */
+	public String[] getSitePaths() {
+		String[] pluginPath = getPluginPath();
+		String[] result = new String[pluginPath.length + 1];
+		System.arraycopy(pluginPath, 0, result, 0, pluginPath.length);
+		result[pluginPath.length] = getWorkingDirectory();
+		return result;
+	}
+
+	/**
+	 * @return the locations of the binary and source bundles
+	 */
+	public List<File> getBundleLocations() {
+		List<File> result = new ArrayList<>(platform.getTargetBundleLocations());
+		result.addAll(platform.getBundleLocations());
+		return result;
+	}
+}
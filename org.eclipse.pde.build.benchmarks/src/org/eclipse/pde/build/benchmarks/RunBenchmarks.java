@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import org.eclipse.pde.internal.build.Utils;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks in the test runtime. They are not forked since the code measured needs the
+ * running framework. The allocation rates are reported with the throughputs and times.
+ * <p>
+ * The system properties <code>pde.build.benchmarks.include</code> (a regular expression),
+ * <code>pde.build.benchmarks.bundles</code> and <code>pde.build.benchmarks.entries</code> (comma
+ * separated sizes) and <code>pde.build.benchmarks.result</code> (the JSON result file) change what
+ * is run and where the results go.
+ * </p>
+ */
+public class RunBenchmarks {
+
+	@Test
+	public void run() throws RunnerException {
+		ChainedOptionsBuilder options = new OptionsBuilder();
+		options.include(System.getProperty("pde.build.benchmarks.include", RunBenchmarks.class.getPackage().getName() + "\\..*Benchmarks"));
+		options.forks(0);
+		options.shouldFailOnError(true);
+		options.addProfiler(GCProfiler.class);
+		options.resultFormat(ResultFormatType.JSON);
+		options.result(System.getProperty("pde.build.benchmarks.result", "jmh-result.json"));
+		String bundles = System.getProperty("pde.build.benchmarks.bundles");
+		if (bundles != null)
+			options.param("bundles", Utils.getArrayFromString(bundles));
+		String entries = System.getProperty("pde.build.benchmarks.entries");
+		if (entries != null)
+			options.param("entries", Utils.getArrayFromString(entries));
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.osgi.service.resolver.State;
+import org.eclipse.pde.internal.build.site.PDEState;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Load the bundles of the synthetic platform in a state, and resolve it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StateBenchmarks {
+
+	@State(Scope.Thread)
+	public static class LoadedState {
+		PDEState state;
+
+		@Setup(Level.Invocation)
+		public void load(PlatformState platform) {
+			state = new PDEState();
+			state.addBundles(platform.getBundleLocations());
+		}
+	}
+
+	@Benchmark
+	public PDEState addBundles(PlatformState platform) {
+		PDEState state = new PDEState();
+		state.addBundles(platform.getBundleLocations());
+		return state;
+	}
+
+	@Benchmark
+	public State resolveState(LoadedState loaded) {
+		loaded.state.resolveState();
+		return loaded.state.getState();
+	}
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import org.eclipse.pde.build.internal.tests.SyntheticTargetPlatform;
+
+/**
+ * The text of feature.xml, .product and plugin.xml files with a given number of entries, laid out
+ * like the files written by the PDE editors.
+ * <p>
+ * One entry in ten is an included feature, the others are plug-ins. The versions alternate between
+ * <code>0.0.0</code>, a version ending in <code>qualifier</code> and a released version, and one
+ * entry in fifty is commented out, so the rewriting tasks go through all their cases.
+ * </p>
+ */
+public class SyntheticDescriptors {
+	public static final String FEATURE_ID = "synthetic.text";
+	public static final String LICENSE_FEATURE_ID = "synthetic.license";
+	public static final String REPLACEMENT_QUALIFIER = "v20261019-1200";
+
+	private final int entries;
+
+	public SyntheticDescriptors(int entries) {
+		this.entries = entries;
+	}
+
+	public static String pluginId(int i) {
+		return SyntheticTargetPlatform.BUNDLE_PREFIX + i;
+	}
+
+	public static String featureId(int i) {
+		return "synthetic.included" + i;
+	}
+
+	private static boolean isFeature(int i) {
+		return i % 10 == 9;
+	}
+
+	private static boolean isCommented(int i) {
+		return i % 50 == 25;
+	}
+
+	/**
+	 * @return the version of the given entry in the descriptors
+	 */
+	public static String version(int i) {
+		switch (i % 3) {
+			case 0 :
+				return "0.0.0";
+			case 1 :
+				return "1." + (i % 7) + ".0.qualifier";
+			default :
+				return "2." + (i % 5) + ".1.v20250101-0800";
+		}
+	}
+
+	public String feature() {
+		StringBuilder xml = new StringBuilder(200 * entries + 1000);
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<feature\n");
+		xml.append("      id=\"").append(FEATURE_ID).append("\"\n");
+		xml.append("      label=\"%featureName\"\n");
+		xml.append("      version=\"1.0.0.qualifier\"\n");
+		xml.append("      provider-name=\"%providerName\"\n");
+		xml.append("      license-feature=\"").append(LICENSE_FEATURE_ID).append("\"\n");
+		xml.append("      license-feature-version=\"0.0.0\">\n\n");
+		xml.append("   <description url=\"%descriptionURL\">\n      %description\n   </description>\n\n");
+		xml.append("   <copyright>\n      %copyright\n   </copyright>\n\n");
+		xml.append("   <license url=\"%licenseURL\">\n      %license\n   </license>\n\n");
+		for (int i = 0; i < entries; i++) {
+			if (isCommented(i))
+				xml.append("   <!--\n");
+			if (isFeature(i)) {
+				xml.append("   <includes\n");
+				xml.append("         id=\"").append(featureId(i)).append("\"\n");
+				xml.append("         version=\"").append(version(i)).append("\"/>\n");
+			} else {
+				xml.append("   <plugin\n");
+				xml.append("         id=\"").append(pluginId(i)).append("\"\n");
+				xml.append("         download-size=\"0\"\n");
+				xml.append("         install-size=\"0\"\n");
+				xml.append("         version=\"").append(version(i)).append("\"\n");
+				xml.append("         unpack=\"false\"/>\n");
+			}
+			if (isCommented(i))
+				xml.append("   -->\n");
+			xml.append('\n');
+		}
+		xml.append("</feature>\n");
+		return xml.toString();
+	}
+
+	/**
+	 * @return a product listing the plug-ins without versions and the features with theirs
+	 */
+	public String product() {
+		StringBuilder xml = new StringBuilder(80 * entries + 1000);
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<?pde version=\"3.5\"?>\n\n");
+		xml.append("<product name=\"Synthetic\" uid=\"synthetic.product\" id=\"synthetic.product\" application=\"org.eclipse.ui.ide.workbench\" version=\"1.0.0.qualifier\" useFeatures=\"false\" includeLaunchers=\"true\">\n\n");
+		xml.append("   <configIni use=\"default\">\n   </configIni>\n\n");
+		xml.append("   <launcherArgs>\n      <vmArgs>-Xmx1g</vmArgs>\n   </launcherArgs>\n\n");
+		xml.append("   <plugins>\n");
+		for (int i = 0; i < entries; i++) {
+			if (!isFeature(i))
+				xml.append("      <plugin id=\"").append(pluginId(i)).append("\"/>\n");
+		}
+		xml.append("   </plugins>\n\n");
+		xml.append("   <features>\n");
+		for (int i = 0; i < entries; i++) {
+			if (isFeature(i))
+				xml.append("      <feature id=\"").append(featureId(i)).append("\" version=\"").append(version(i)).append("\"/>\n");
+		}
+		xml.append("   </features>\n\n");
+		xml.append("</product>\n");
+		return xml.toString();
+	}
+
+	/**
+	 * @return a plugin.xml declaring the plug-in in its header, followed by its extensions
+	 */
+	public String pluginXml() {
+		StringBuilder xml = new StringBuilder(250 * entries + 500);
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<?eclipse version=\"3.0\"?>\n");
+		xml.append("<!-- the plugin element below is the one to update -->\n");
+		xml.append("<plugin\n");
+		xml.append("   id=\"").append(pluginId(0)).append("\"\n");
+		xml.append("   name=\"%pluginName\"\n");
+		xml.append("   version=\"1.0.0.qualifier\"\n");
+		xml.append("   provider-name=\"%providerName\">\n\n");
+		for (int i = 0; i < entries; i++) {
+			xml.append("   <extension\n");
+			xml.append("         id=\"extension").append(i).append("\"\n");
+			xml.append("         point=\"org.eclipse.core.runtime.applications\">\n");
+			xml.append("      <application>\n");
+			xml.append("         <run class=\"synthetic.Application").append(i).append("\"/>\n");
+			xml.append("      </application>\n");
+			xml.append("   </extension>\n");
+		}
+		xml.append("</plugin>\n");
+		return xml.toString();
+	}
+
+	/**
+	 * @return the license feature the feature refers to
+	 */
+	public static String licenseFeature() {
+		StringBuilder xml = new StringBuilder();
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<feature\n");
+		xml.append("      id=\"").append(LICENSE_FEATURE_ID).append("\"\n");
+		xml.append("      label=\"%featureName\"\n");
+		xml.append("      version=\"1.0.0.qualifier\"\n");
+		xml.append("      provider-name=\"%providerName\">\n\n");
+		xml.append("   <license url=\"%licenseURL\">\n      %license\n   </license>\n\n");
+		xml.append("</feature>\n");
+		return xml.toString();
+	}
+
+	public static String licenseProperties() {
+		StringBuilder properties = new StringBuilder();
+		properties.append("licenseURL=license.html\n");
+		properties.append("license=\\\n");
+		for (int i = 0; i < 100; i++)
+			properties.append("Line ").append(i).append(" of the license agreement of the synthetic features.\\n\\\n");
+		properties.append("\n");
+		return properties.toString();
+	}
+
+	/**
+	 * @return the replacement versions of the plug-ins, in the form expected by the
+	 * <code>pluginIds</code> attribute of <code>eclipse.idReplacer</code>
+	 */
+	public String pluginIds() {
+		return ids(false);
+	}
+
+	/**
+	 * @return the replacement versions of the features, in the form expected by the
+	 * <code>featureIds</code> attribute of <code>eclipse.idReplacer</code>
+	 */
+	public String featureIds() {
+		return ids(true);
+	}
+
+	private String ids(boolean features) {
+		StringBuilder result = new StringBuilder(60 * entries);
+		for (int i = 0; i < entries; i++) {
+			if (isFeature(i) != features)
+				continue;
+			String id = features ? featureId(i) : pluginId(i);
+			String base = baseVersion(version(i));
+			String replacement = (base.equals("0.0.0") ? "1.0.0" : base) + '.' + REPLACEMENT_QUALIFIER;
+			if (result.length() > 0)
+				result.append(',');
+			//the plug-ins of the product have no version, they are looked up with 0.0.0
+			result.append(id).append(":0.0.0,").append(replacement);
+			if (!base.equals("0.0.0"))
+				result.append(',').append(id).append(':').append(base).append(',').append(replacement);
+		}
+		return result.toString();
+	}
+
+	private static String baseVersion(String version) {
+		int micro = version.indexOf('.', version.indexOf('.') + 1);
+		int end = version.indexOf('.', micro + 1);
+		return end == -1 ? version : version.substring(0, end);
+	}
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Run the tasks rewriting the descriptors of a build on files of 10 to 5000 entries. Each task
+ * rewrites its file in place, the file is written back before each invocation.
+ * <p>
+ * The number of bytes allocated per operation is reported by the GC profiler added by
+ * {@link RunBenchmarks}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TextTaskBenchmarks {
+	private static final String ID_REPLACER = "org.eclipse.pde.internal.build.tasks.IdReplaceTask";
+	private static final String PLUGIN_VERSION_REPLACER = "org.eclipse.pde.internal.build.tasks.PluginVersionReplaceTask";
+	private static final String LICENSE_REPLACER = "org.eclipse.pde.internal.build.tasks.LicenseReplaceTask";
+
+	@State(Scope.Benchmark)
+	public static class Descriptors {
+		@Param({"10", "100", "1000", "5000"})
+		public int entries;
+
+		File root;
+		SyntheticDescriptors descriptors;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException {
+			root = Files.createTempDirectory("pde.build.benchmarks").toFile();
+			descriptors = new SyntheticDescriptors(entries);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			PlatformState.delete(root);
+		}
+	}
+
+	/**
+	 * The files rewritten by a task, and their original content.
+	 */
+	public abstract static class RewrittenFile {
+		final Map<File, byte[]> originals = new HashMap<>();
+		AntTask task;
+
+		void create(File location, String text, String taskClass, Map<String, String> attributes) throws ReflectiveOperationException {
+			originals.put(location, text.getBytes(StandardCharsets.UTF_8));
+			task = new AntTask(taskClass, attributes);
+		}
+
+		@Setup(Level.Invocation)
+		public void restore() throws IOException {
+			for (Map.Entry<File, byte[]> original : originals.entrySet())
+				write(original.getKey(), original.getValue());
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class FeatureFile extends RewrittenFile {
+		@Setup(Level.Trial)
+		public void setUp(Descriptors descriptors) throws ReflectiveOperationException {
+			File location = new File(descriptors.root, "feature/feature.xml");
+			Map<String, String> attributes = new HashMap<>();
+			attributes.put("featureFilePath", location.getAbsolutePath());
+			attributes.put("selfVersion", "1.0.0." + SyntheticDescriptors.REPLACEMENT_QUALIFIER);
+			attributes.put("pluginIds", descriptors.descriptors.pluginIds());
+			attributes.put("featureIds", descriptors.descriptors.featureIds());
+			create(location, descriptors.descriptors.feature(), ID_REPLACER, attributes);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ProductFile extends RewrittenFile {
+		@Setup(Level.Trial)
+		public void setUp(Descriptors descriptors) throws ReflectiveOperationException {
+			File location = new File(descriptors.root, "product/synthetic.product");
+			Map<String, String> attributes = new HashMap<>();
+			attributes.put("productFilePath", location.getAbsolutePath());
+			attributes.put("selfVersion", "1.0.0." + SyntheticDescriptors.REPLACEMENT_QUALIFIER);
+			attributes.put("pluginIds", descriptors.descriptors.pluginIds());
+			attributes.put("featureIds", descriptors.descriptors.featureIds());
+			create(location, descriptors.descriptors.product(), ID_REPLACER, attributes);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class PluginFile extends RewrittenFile {
+		@Setup(Level.Trial)
+		public void setUp(Descriptors descriptors) throws ReflectiveOperationException {
+			File location = new File(descriptors.root, "plugin/plugin.xml");
+			Map<String, String> attributes = new HashMap<>();
+			attributes.put("pluginFilePath", location.getAbsolutePath());
+			attributes.put("versionNumber", "1.0.0." + SyntheticDescriptors.REPLACEMENT_QUALIFIER);
+			attributes.put("input", "plugin.xml");
+			create(location, descriptors.descriptors.pluginXml(), PLUGIN_VERSION_REPLACER, attributes);
+		}
+	}
+
+	/**
+	 * A feature taking its license from a license feature. The task also appends the license
+	 * properties to the ones of the feature, they are written back too.
+	 */
+	@State(Scope.Thread)
+	public static class LicensedFeature extends RewrittenFile {
+		private static final String PROPERTIES = "featureName=Synthetic Feature\nproviderName=Eclipse.org\ndescription=A synthetic feature.\ncopyright=Copyright (c) 2026\n";
+
+		@Setup(Level.Trial)
+		public void setUp(Descriptors descriptors) throws ReflectiveOperationException, IOException {
+			File feature = new File(descriptors.root, "licensed");
+			File license = new File(descriptors.root, "license");
+			write(new File(license, "feature.xml"), SyntheticDescriptors.licenseFeature().getBytes(StandardCharsets.UTF_8));
+			write(new File(license, "feature.properties"), SyntheticDescriptors.licenseProperties().getBytes(StandardCharsets.UTF_8));
+			write(new File(license, "license.html"), "<html><body>License</body></html>\n".getBytes(StandardCharsets.UTF_8));
+			originals.put(new File(feature, "feature.properties"), PROPERTIES.getBytes(StandardCharsets.UTF_8));
+
+			Map<String, String> attributes = new HashMap<>();
+			attributes.put("featureFilePath", feature.getAbsolutePath());
+			attributes.put("licenseFilePath", license.getAbsolutePath());
+			create(new File(feature, "feature.xml"), descriptors.descriptors.feature(), LICENSE_REPLACER, attributes);
+		}
+	}
+
+	@Benchmark
+	public void idReplaceFeature(FeatureFile feature) throws Throwable {
+		feature.task.execute();
+	}
+
+	@Benchmark
+	public void idReplaceProduct(ProductFile product) throws Throwable {
+		product.task.execute();
+	}
+
+	@Benchmark
+	public void pluginVersionReplace(PluginFile plugin) throws Throwable {
+		plugin.task.execute();
+	}
+
+	@Benchmark
+	public void licenseReplace(LicensedFeature feature) throws Throwable {
+		feature.task.execute();
+	}
+
+	static void write(File file, byte[] content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content);
+	}
+}
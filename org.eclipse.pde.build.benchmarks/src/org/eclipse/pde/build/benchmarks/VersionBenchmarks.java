@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.pde.internal.build.AbstractScriptGenerator;
+import org.eclipse.pde.internal.build.Utils;
+import org.eclipse.pde.internal.build.builder.BuildDirector;
+import org.eclipse.pde.internal.build.site.BuildTimeFeature;
+import org.eclipse.pde.internal.build.site.QualifierReplacer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Read and scan a feature.xml of 10 to 5000 entries with {@link Utils}, replace the qualifiers of
+ * as many versions, and compute the version suffix of a feature including as many entries.
+ * <p>
+ * The number of bytes allocated per operation is reported by the GC profiler added by
+ * {@link RunBenchmarks}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VersionBenchmarks {
+	private static final String PLUGIN_START_TAG = "<plugin";
+	private static final String[] ELEMENT_START_TAGS = new String[] {"<plugin", "<includes"};
+
+	/**
+	 * Expose the generation of the version suffix, and the setup of the static properties of the
+	 * generators.
+	 */
+	static class SuffixDirector extends BuildDirector {
+		static void setUpProperties() {
+			setStaticAntProperties(new Properties());
+		}
+
+		@Override
+		public String generateFeatureVersionSuffix(BuildTimeFeature buildFeature) throws CoreException {
+			return super.generateFeatureVersionSuffix(buildFeature);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Entries {
+		@Param({"10", "100", "1000", "5000"})
+		public int entries;
+
+		File root;
+		File featureFile;
+		StringBuffer featureText;
+
+		String[] ids;
+		String[] versions;
+		Properties newVersions;
+
+		SuffixDirector director;
+		BuildTimeFeature feature;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException, CoreException {
+			root = Files.createTempDirectory("pde.build.benchmarks").toFile();
+			SyntheticDescriptors descriptors = new SyntheticDescriptors(entries);
+			File features = new File(root, "features");
+			featureFile = new File(features, SyntheticDescriptors.FEATURE_ID + "/feature.xml");
+			write(featureFile, descriptors.feature());
+			featureText = Utils.readFile(featureFile);
+
+			//every other version has a replacement, the others get the default qualifier
+			ids = new String[entries];
+			versions = new String[entries];
+			newVersions = new Properties();
+			for (int i = 0; i < entries; i++) {
+				ids[i] = SyntheticDescriptors.pluginId(i);
+				versions[i] = "1." + (i % 7) + ".0.qualifier";
+				if (i % 2 == 0)
+					newVersions.put(QualifierReplacer.getQualifierKey(ids[i], versions[i]), SyntheticDescriptors.REPLACEMENT_QUALIFIER);
+			}
+
+			//the included features are looked up in the site
+			for (int i = 9; i < entries; i += 10) {
+				String id = SyntheticDescriptors.featureId(i);
+				write(new File(features, id + "/feature.xml"), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<feature id=\"" + id + "\" version=\"" + SyntheticDescriptors.version(i) + "\">\n</feature>\n");
+			}
+
+			PlatformState.clearStatics();
+			AbstractScriptGenerator.setConfigInfo("*,*,*");
+			SuffixDirector.setUpProperties();
+			director = new SuffixDirector();
+			director.setWorkingDirectory(root.getAbsolutePath());
+			director.setGenerateVersionSuffix(true);
+			feature = director.getSite(false).findFeature(SyntheticDescriptors.FEATURE_ID, null, true);
+			//load the registry the suffix computation looks the plug-ins up in
+			director.getSite(false).getRegistry();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			PlatformState.clearStatics();
+			PlatformState.delete(root);
+		}
+	}
+
+	@Benchmark
+	public StringBuffer readFile(Entries entries) throws IOException {
+		return Utils.readFile(entries.featureFile);
+	}
+
+	@Benchmark
+	public int scan(Entries entries) {
+		int count = 0;
+		for (int i = Utils.scan(entries.featureText, 0, PLUGIN_START_TAG); i != -1; i = Utils.scan(entries.featureText, i + 1, PLUGIN_START_TAG))
+			count++;
+		return count;
+	}
+
+	@Benchmark
+	public int scanTargets(Entries entries) {
+		int count = 0;
+		for (int i = Utils.scan(entries.featureText, 0, ELEMENT_START_TAGS); i != -1; i = Utils.scan(entries.featureText, i + 1, ELEMENT_START_TAGS))
+			count++;
+		return count;
+	}
+
+	@Benchmark
+	public void replaceQualifierInVersion(Entries entries, Blackhole blackhole) {
+		for (int i = 0; i < entries.versions.length; i++)
+			blackhole.consume(QualifierReplacer.replaceQualifierInVersion(entries.versions[i], entries.ids[i], null, entries.newVersions));
+	}
+
+	@Benchmark
+	public String generateFeatureVersionSuffix(Entries entries) throws CoreException {
+		return entries.director.generateFeatureVersionSuffix(entries.feature);
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
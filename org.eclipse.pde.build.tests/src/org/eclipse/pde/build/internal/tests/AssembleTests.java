@@ -15,9 +15,14 @@ package org.eclipse.pde.build.internal.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
-import java.io.File;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.pde.build.tests.BuildConfiguration;
@@ -207,4 +212,109 @@ public class AssembleTests extends PDETestCase {
 		assertResourceFile(buildFolder, "tmp/e4/plugins/A_1.0.0.jar");
 		assertResourceFile(buildFolder, "tmp/e4/plugins/B_1.0.0/META-INF/MANIFEST.MF");
 	}
+
+	@Test
+	public void testSharedGatheringIsolation() throws Exception {
+		IFolder buildFolder = newTest("sharedGatheringIsolation");
+
+		IFolder a = Utils.createFolder(buildFolder, "plugins/A");
+		Utils.generateBundleManifest(a, "A", "1.0.0", null);
+		Properties pluginProperties = new Properties();
+		pluginProperties.put("bin.includes", "META-INF/, data.txt");
+		Utils.storeBuildProperties(a, pluginProperties);
+		Utils.writeBuffer(a.getFile("data.txt"), new StringBuffer("original"));
+		Utils.generateFeature(buildFolder, "F", null, new String[] { "A" });
+
+		//the win32 configuration modifies the shared plug-in after the gathering
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"custom\" default=\"noDefault\">                                \n");
+		buffer.append("   <target name=\"noDefault\"/>                                                  \n");
+		buffer.append("   <target name=\"gather.bin.parts\"/>                                           \n");
+		buffer.append("   <target name=\"post.gather.bin.parts\">                                       \n");
+		buffer.append("      <condition property=\"modify\">                                            \n");
+		buffer.append("         <equals arg1=\"${os}\" arg2=\"win32\"/>                                 \n");
+		buffer.append("      </condition>                                                               \n");
+		buffer.append("      <antcall target=\"modify\"/>                                               \n");
+		buffer.append("   </target>                                                                     \n");
+		buffer.append("   <target name=\"modify\" if=\"modify\">                                        \n");
+		buffer.append("      <echo file=\"${eclipse.plugins}/A_1.0.0/data.txt\" append=\"true\" message=\" modified\"/>\n");
+		buffer.append("   </target>                                                                     \n");
+		buffer.append("   <target name=\"post.jarUp\"/>                                                 \n");
+		buffer.append("   <target name=\"pre.archive\"/>                                                \n");
+		buffer.append("</project>                                                                       \n");
+		Utils.writeBuffer(buildFolder.getFile("customAssembly.xml"), buffer);
+
+		Properties buildProperties = BuildConfiguration.getBuilderProperties(buildFolder);
+		buildProperties.put("topLevelElementId", "F");
+		buildProperties.put("baseLocation", "");
+		buildProperties.put("configs", "win32,win32,x86_64 & linux,gtk,x86_64");
+		buildProperties.put("archivesFormat", "win32,win32,x86_64-antZip & linux,gtk,x86_64-antZip");
+		buildProperties.put("sharedGathering", "true");
+		buildProperties.put("sharedGatheringCopy", "true");
+		Utils.storeBuildProperties(buildFolder, buildProperties);
+
+		runBuild(buildFolder);
+
+		assertEquals("original modified", readArchivedData(buildFolder, "win32.win32.x86_64.zip"));
+		assertEquals("original", readArchivedData(buildFolder, "linux.gtk.x86_64.zip"));
+	}
+
+	@Test
+	public void testSharedGatheringLinks() throws Exception {
+		IFolder buildFolder = newTest("sharedGatheringLinks");
+
+		IFolder a = Utils.createFolder(buildFolder, "plugins/A");
+		Utils.generateBundleManifest(a, "A", "1.0.0", null);
+		Properties pluginProperties = new Properties();
+		pluginProperties.put("bin.includes", "META-INF/, data.txt");
+		Utils.storeBuildProperties(a, pluginProperties);
+		Utils.writeBuffer(a.getFile("data.txt"), new StringBuffer("original"));
+		Utils.generateFeature(buildFolder, "F", null, new String[] { "A" });
+
+		//the stock custom assembly, the last configuration only moves the shared file aside before it gets deleted
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"custom\" default=\"noDefault\">                                \n");
+		buffer.append("   <import file=\"${eclipse.pdebuild.templates}/headless-build/customAssembly.xml\"/>\n");
+		buffer.append("   <target name=\"post.gather.bin.parts\">                                       \n");
+		buffer.append("      <condition property=\"keep\">                                              \n");
+		buffer.append("         <equals arg1=\"${os}\" arg2=\"linux\"/>                                 \n");
+		buffer.append("      </condition>                                                               \n");
+		buffer.append("      <antcall target=\"keep\"/>                                                 \n");
+		buffer.append("   </target>                                                                     \n");
+		buffer.append("   <target name=\"keep\" if=\"keep\">                                            \n");
+		buffer.append("      <move file=\"${assemblySharedDir}/plugins/A_1.0.0/data.txt\" tofile=\"${buildDirectory}/shared.txt\"/>\n");
+		buffer.append("   </target>                                                                     \n");
+		buffer.append("</project>                                                                       \n");
+		Utils.writeBuffer(buildFolder.getFile("customAssembly.xml"), buffer);
+
+		Properties buildProperties = BuildConfiguration.getBuilderProperties(buildFolder);
+		buildProperties.put("topLevelElementId", "F");
+		buildProperties.put("baseLocation", "");
+		buildProperties.put("configs", "win32,win32,x86_64 & linux,gtk,x86_64");
+		buildProperties.put("archivesFormat", "win32,win32,x86_64-folder & linux,gtk,x86_64-folder");
+		buildProperties.put("sharedGathering", "true");
+		Utils.storeBuildProperties(buildFolder, buildProperties);
+
+		runBuild(buildFolder);
+
+		File root = buildFolder.getLocation().toFile();
+		File shared = new File(root, "shared.txt");
+		File gathered = new File(root, "tmp/eclipse/plugins/A_1.0.0/data.txt");
+		assertTrue(shared.isFile());
+		assertTrue(gathered.isFile());
+		assertTrue(Files.isSameFile(shared.toPath(), gathered.toPath()));
+	}
+
+	private String readArchivedData(IFolder buildFolder, String archiveSuffix) throws IOException {
+		File[] archives = buildFolder.getFolder("I.TestBuild").getLocation().toFile().listFiles((dir, name) -> name.endsWith(archiveSuffix));
+		assertNotNull(archives);
+		assertEquals(1, archives.length);
+		try (ZipFile zip = new ZipFile(archives[0])) {
+			ZipEntry entry = zip.getEntry("eclipse/plugins/A_1.0.0/data.txt");
+			assertNotNull(entry);
+			try (InputStream input = zip.getInputStream(entry)) {
+				return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+			}
+		}
+	}
 }
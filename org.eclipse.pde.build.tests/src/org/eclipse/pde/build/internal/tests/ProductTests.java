@@ -17,6 +17,7 @@ import static org.junit.Assert.*;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.jar.Attributes;
 import org.apache.tools.ant.*;
@@ -327,6 +328,93 @@ public class ProductTests extends PDETestCase {
 		assertTrue(bundlesList.indexOf('c') > -1);
 	}
 
+	@Test
+	public void testConcurrentConfigs() throws Exception {
+		IFolder buildFolder = newTest("ConcurrentConfigs");
+		IFile product = buildFolder.getFile("foo.product");
+		StringBuffer extra = new StringBuffer();
+		extra.append("<launcherArgs>\n");
+		extra.append("  <programArgs>-common</programArgs>\n");
+		extra.append("  <programArgsWin>-win</programArgsWin>\n");
+		extra.append("  <programArgsLin>-linux</programArgsLin>\n");
+		extra.append("  <vmArgs>-Xmx512m</vmArgs>\n");
+		extra.append("  <vmArgsMac>-XstartOnFirstThread</vmArgsMac>\n");
+		extra.append("</launcherArgs>\n");
+		extra.append("<configurations>\n");
+		extra.append("  <plugin id=\"a\" autoStart=\"true\" startLevel=\"3\" />\n");
+		extra.append("  <property name=\"foo.property\" value=\"bar\" />\n");
+		extra.append("</configurations>\n");
+		Utils.generateProduct(product, "foo", "1.0.0", "foo.application",
+				new String[] { "a", "b", "c", "d", SIMPLE_CONFIGURATOR }, false, extra);
+
+		String[] configs = { "win32,win32,x86", "linux,gtk,x86", "macosx,cocoa,x86_64" };
+		AssemblyInformation assembly = new AssemblyInformation();
+		StateObjectFactory factory = Platform.getPlatformAdmin().getFactory();
+		BundleDescription a = factory.createBundleDescription(1, "a", Version.emptyVersion, null, null, null, null,
+				null, true, true, true, null, null, null, null);
+		BundleDescription b = factory.createBundleDescription(2, "b", Version.emptyVersion, null, null, null, null,
+				null, true, true, true, null, null, null, null);
+		BundleDescription simple = factory.createBundleDescription(3, SIMPLE_CONFIGURATOR, Version.emptyVersion, null,
+				null, null, null, null, true, true, true, null, null, null, null);
+		for (String config : configs) {
+			Config info = new Config(config);
+			assembly.addPlugin(info, a);
+			assembly.addPlugin(info, b);
+			assembly.addPlugin(info, simple);
+		}
+		assembly.addPlugin(new Config(configs[1]), factory.createBundleDescription(4, "c", Version.emptyVersion, null,
+				null, null, null, null, true, true, true, "(& (osgi.ws=gtk) (osgi.os=linux) (osgi.arch=x86))", null,
+				null, null));
+		assembly.addPlugin(new Config(configs[0]), factory.createBundleDescription(5, "d", Version.emptyVersion, null,
+				null, null, null, null, true, true, true, "(& (osgi.ws=win32) (osgi.os=win32) (osgi.arch=x86))", null,
+				null, null));
+
+		// all the configs at once, generated concurrently
+		AbstractScriptGenerator.setConfigInfo(String.join(" & ", configs));
+		IFolder all = Utils.createFolder(buildFolder, "all");
+		generateConfigs(assembly, buildFolder, all, product);
+
+		// each config on its own
+		for (String config : configs) {
+			AbstractScriptGenerator.setConfigInfo(config);
+			IFolder single = Utils.createFolder(buildFolder, "single/" + config.replace(',', '.'));
+			generateConfigs(assembly, buildFolder, single, product);
+
+			String folder = "productRootFiles/" + config.replace(',', '.');
+			Map<String, String> expected = readTree(single.getFolder(folder).getLocation().toFile());
+			assertFalse(expected.isEmpty());
+			assertEquals(expected, readTree(all.getFolder(folder).getLocation().toFile()));
+		}
+	}
+
+	private void generateConfigs(AssemblyInformation assembly, IFolder buildFolder, IFolder root, IFile product)
+			throws CoreException {
+		ProductGenerator generator = new ProductGenerator();
+		generator.setAssemblyInfo(assembly);
+		generator.setWorkingDirectory(buildFolder.getLocation().toOSString());
+		generator.setRoot(root.getLocation().toOSString() + "/");
+		generator.setProduct(product.getLocation().toOSString());
+		generator.generate();
+	}
+
+	private Map<String, String> readTree(File root) throws IOException {
+		Map<String, String> contents = new TreeMap<>();
+		readTree(root, "", contents);
+		return contents;
+	}
+
+	private void readTree(File folder, String prefix, Map<String, String> contents) throws IOException {
+		File[] children = folder.listFiles();
+		if (children == null)
+			return;
+		for (File child : children) {
+			if (child.isDirectory())
+				readTree(child, prefix + child.getName() + '/', contents);
+			else
+				contents.put(prefix + child.getName(), Files.readString(child.toPath()));
+		}
+	}
+
 	@Test
 	public void testBug252246() throws Exception {
 		IFolder buildFolder = newTest("252246");
@@ -17,6 +17,9 @@ import static org.junit.Assert.*;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
@@ -30,6 +33,8 @@ import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.equinox.internal.p2.publisher.eclipse.Messages;
 import org.eclipse.equinox.p2.publisher.eclipse.FeatureEntry;
+import org.eclipse.osgi.service.resolver.BundleDescription;
+import org.eclipse.osgi.service.resolver.StateObjectFactory;
 import org.eclipse.osgi.service.resolver.VersionRange;
 import org.eclipse.pde.build.internal.tests.ant.AntUtils;
 import org.eclipse.pde.build.tests.BuildConfiguration;
@@ -459,6 +464,60 @@ public class ScriptGenerationTests extends PDETestCase {
 		assertEquals(pluginEntryModels[2].getVersion(), "2.1.2");
 	}
 
+	@Test
+	public void testIdReplacerManyEntries() throws Exception {
+		final IFolder buildFolder = newTest("idReplacerManyEntries");
+
+		int count = 2000;
+		StringBuffer buffer = new StringBuffer();
+		StringBuffer pluginIds = new StringBuffer();
+		buffer.append("<!-- <feature id=\"commented\" version=\"0.0.0\"> -->\n");
+		buffer.append("<feature id=\"foo\" version=\"1.0.0.qualifier\">\n");
+		for (int i = 0; i < count; i++) {
+			if (i % 100 == 0)
+				buffer.append("  <!-- <plugin id=\"p" + i + "\" version=\"0.0.0\"/> -->\n");
+			buffer.append("  <plugin id=\"p" + i + "\" version=\"0.0.0\" unpack=\"false\"/>\n");
+			if (i > 0)
+				pluginIds.append(',');
+			pluginIds.append("p" + i + ":0.0.0,1.0." + i);
+		}
+		buffer.append("  <includes id=\"f\" version=\"1.0.0.qualifier\"/>\n");
+		buffer.append("</feature>\n");
+
+		IFile featureXML = buildFolder.getFile("feature.xml");
+		Utils.writeBuffer(featureXML, buffer);
+
+		buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">\n");
+		buffer.append("  <target name=\"default\">\n");
+		buffer.append("    <eclipse.idReplacer featureFilePath=\"" + featureXML.getLocation().toOSString() + "\"\n");
+		buffer.append("         selfVersion=\"1.0.0.v1\" featureIds=\"f:1.0.0,1.0.0.v2\"\n");
+		buffer.append("         pluginIds=\"" + pluginIds.toString() + "\"/>\n");
+		buffer.append("  </target>\n");
+		buffer.append("</project>\n");
+
+		final IFile buildXML = buildFolder.getFile("build.xml");
+		Utils.writeBuffer(buildXML, buffer);
+
+		runAntScript(buildXML.getLocation().toOSString(), new String[] { "default" },
+				buildFolder.getLocation().toOSString(), null);
+
+		assertLogContainsLine(featureXML, "<!-- <feature id=\"commented\" version=\"0.0.0\"> -->");
+		assertLogContainsLine(featureXML, "<!-- <plugin id=\"p100\" version=\"0.0.0\"/> -->");
+
+		BuildTimeFeatureFactory factory = new BuildTimeFeatureFactory();
+		BuildTimeFeature feature = factory.parseBuildFeature(featureXML.getLocationURI().toURL());
+		assertEquals("1.0.0.v1", feature.getVersion());
+		FeatureEntry[] pluginEntryModels = feature.getPluginEntries();
+		assertEquals(count, pluginEntryModels.length);
+		for (int i = 0; i < count; i++) {
+			assertEquals("p" + i, pluginEntryModels[i].getId());
+			assertEquals("1.0." + i, pluginEntryModels[i].getVersion());
+		}
+		FeatureEntry[] featureEntries = feature.getRawIncludedFeatureReferences();
+		assertEquals("1.0.0.v2", featureEntries[0].getVersion());
+	}
+
 	@Test
 	public void testBug207335() throws Exception {
 		IFolder buildFolder = newTest("207335");
@@ -870,6 +929,189 @@ public class ScriptGenerationTests extends PDETestCase {
 		assertEquals("plugins/F", tasks[0].getRuntimeConfigurableWrapper().getAttributeMap().get("dir"));
 	}
 
+	@Test
+	public void testBatchCompilation() throws Exception {
+		IFolder buildFolder = newTest("batchCompilation");
+		IFolder a = Utils.createFolder(buildFolder, "plugins/A");
+		IFolder b = Utils.createFolder(buildFolder, "plugins/B");
+		IFolder c = Utils.createFolder(buildFolder, "plugins/C");
+
+		Utils.generateFeature(buildFolder, "feature", null, new String[] { "A", "B", "C" });
+		Utils.generateBundle(a, "A");
+		Utils.generateBundle(b, "B");
+
+		Attributes attributes = new Attributes();
+		attributes.put(new Attributes.Name("Require-Bundle"), "A");
+		Utils.generateBundleManifest(c, "C", "1.0.0", attributes);
+		Properties buildProperties = new Properties();
+		buildProperties.put("compilerAdapter", "org.foo.someCompilerAdapter");
+		Utils.generatePluginBuildProperties(c, buildProperties);
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "feature");
+		properties.put("batchCompilation", "true");
+		generateScripts(buildFolder, properties);
+
+		//the waves are batched even without parallelCompilation
+		Project antProject = assertValidAntScript(buildFolder.getFile("compile.feature.xml"));
+		Target main = antProject.getTargets().get("main");
+		assertEquals(0, AntUtils.getChildrenByName(main, "parallel").length);
+		assertEquals(2, AntUtils.getChildrenByName(main, "eclipse.compileBatch").length);
+
+		antProject = assertValidAntScript(a.getFile("build.xml"));
+		Javac javac = (Javac) AntUtils.getFirstChildByName(antProject.getTargets().get("@dot"), "javac");
+		assertEquals("org.eclipse.pde.internal.build.tasks.BatchCompilerAdapter", javac.getRuntimeConfigurableWrapper().getAttributeMap().get("compiler"));
+
+		//a compiler adapter set in build.properties is kept
+		antProject = assertValidAntScript(c.getFile("build.xml"));
+		javac = (Javac) AntUtils.getFirstChildByName(antProject.getTargets().get("@dot"), "javac");
+		assertEquals("org.foo.someCompilerAdapter", javac.getRuntimeConfigurableWrapper().getAttributeMap().get("compiler"));
+	}
+
+	@Test
+	public void testSharedClasspathIndex() throws Exception {
+		IFolder buildFolder = newTest("sharedClasspathIndex");
+		IFolder a = Utils.createFolder(buildFolder, "plugins/A");
+		Utils.generateFeature(buildFolder, "feature", null, new String[] { "A" });
+		Utils.generateBundle(a, "A");
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "feature");
+		properties.put("sharedClasspathIndex", "true");
+		generateScripts(buildFolder, properties);
+
+		Project antProject = assertValidAntScript(buildFolder.getFile("compile.feature.xml"));
+		assertEquals(1, AntUtils.getChildrenByName(antProject.getTargets().get("main"), "eclipse.classpathIndex").length);
+
+		antProject = assertValidAntScript(a.getFile("build.xml"));
+		Javac javac = (Javac) AntUtils.getFirstChildByName(antProject.getTargets().get("@dot"), "javac");
+		assertEquals("org.eclipse.pde.internal.build.tasks.BatchCompilerAdapter", javac.getRuntimeConfigurableWrapper().getAttributeMap().get("compiler"));
+	}
+
+	@Test
+	public void testSharedCompilerSettings() throws Exception {
+		IFolder buildFolder = newTest("sharedCompilerSettings");
+		IFolder a = Utils.createFolder(buildFolder, "plugins/A");
+		IFolder b = Utils.createFolder(buildFolder, "plugins/B");
+		Utils.generateFeature(buildFolder, "feature", null, new String[] { "A", "B" });
+		Utils.generateBundle(a, "A");
+		Utils.generateBundle(b, "B");
+		Attributes manifestAdditions = new Attributes();
+		manifestAdditions.put(new Attributes.Name("Require-Bundle"), "A");
+		Utils.generateBundleManifest(b, "B", "1.0.0", manifestAdditions);
+		Properties props = new Properties();
+		props.put("javacErrors..", "error");
+		Utils.generatePluginBuildProperties(a, props);
+		Utils.generatePluginBuildProperties(b, props);
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "feature");
+		properties.put("sharedCompilerSettings", "true");
+		generateScripts(buildFolder, properties);
+
+		List<String> argsA = getCompilerArgsFiles(a);
+		assertEquals(1, argsA.size());
+		assertTrue(argsA.get(0), argsA.get(0).startsWith("@${basedir}/../../compilerSettings/javaCompiler."));
+		assertFalse(a.getFile("javaCompiler...args").exists());
+
+		//the access rules of B stay in its own file, after the shared one
+		List<String> argsB = getCompilerArgsFiles(b);
+		assertEquals(Arrays.asList(argsA.get(0), "@${basedir}/javaCompiler...args"), argsB);
+		String pluginArgs = Files.readString(b.getFile("javaCompiler...args").getLocation().toFile().toPath());
+		assertTrue(pluginArgs, pluginArgs.startsWith("#ADAPTER#ACCESS#"));
+
+		List<File> shared = getSharedCompilerSettings(buildFolder);
+		assertEquals(1, shared.size());
+		assertEquals("-err:error\n", Files.readString(shared.get(0).toPath()));
+
+		//the settings no plug-in uses anymore are deleted
+		props.put("javacErrors..", "warning");
+		Utils.generatePluginBuildProperties(a, props);
+		Utils.generatePluginBuildProperties(b, props);
+		generateScripts(buildFolder, properties);
+
+		shared = getSharedCompilerSettings(buildFolder);
+		assertEquals(1, shared.size());
+		assertEquals("-err:warning\n", Files.readString(shared.get(0).toPath()));
+		assertEquals(getCompilerArgsFiles(a).get(0), getCompilerArgsFiles(b).get(0));
+	}
+
+	private List<File> getSharedCompilerSettings(IFolder buildFolder) {
+		List<File> result = new ArrayList<>();
+		for (File file : buildFolder.getFolder("compilerSettings").getLocation().toFile().listFiles()) {
+			if (file.getName().startsWith("javaCompiler."))
+				result.add(file);
+		}
+		return result;
+	}
+
+	private List<String> getCompilerArgsFiles(IFolder plugin) throws Exception {
+		Project antProject = assertValidAntScript(plugin.getFile("build.xml"));
+		Javac javac = (Javac) AntUtils.getFirstChildByName(antProject.getTargets().get("@dot"), "javac");
+		Enumeration<RuntimeConfigurable> en = javac.getRuntimeConfigurableWrapper().getChildren();
+		List<String> result = new ArrayList<>();
+		while (en.hasMoreElements()) {
+			RuntimeConfigurable rc = en.nextElement();
+			String value = (String) rc.getAttributeMap().get("value");
+			if ("compilerarg".equals(rc.getElementTag()) && value != null && value.startsWith("@"))
+				result.add(value);
+		}
+		return result;
+	}
+
+	@Test
+	public void testSharedNestedJars() throws Exception {
+		IFolder buildFolder = newTest("sharedNestedJars");
+
+		// a jarred bundle with a nested jar
+		IFolder lib = Utils.createFolder(buildFolder, "plugins/lib");
+		Attributes libAttributes = new Attributes();
+		libAttributes.put(new Attributes.Name("Bundle-ClassPath"), "nested.jar");
+		Utils.generateBundleManifest(lib, "lib", "1.0.0", libAttributes);
+		try (ZipOutputStream jar = new ZipOutputStream(
+				new FileOutputStream(new File(lib.getLocation().toOSString() + "_1.0.0.jar")))) {
+			jar.putNextEntry(new ZipEntry(JarFile.MANIFEST_NAME));
+			Utils.transferStreams(lib.getFile(JarFile.MANIFEST_NAME).getContents(), true, jar, false);
+			jar.putNextEntry(new ZipEntry("nested.jar"));
+		}
+		lib.delete(true, null);
+
+		IFolder a = Utils.createFolder(buildFolder, "plugins/A");
+		Attributes attributes = new Attributes();
+		attributes.put(new Attributes.Name("Require-Bundle"), "lib");
+		Utils.generateBundleManifest(a, "A", "1.0.0", attributes);
+		Utils.generatePluginBuildProperties(a, null);
+		Utils.generateFeature(buildFolder, "feature", null, new String[] { "A" });
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "feature");
+		properties.put("sharedNestedJars", "true");
+		generateScripts(buildFolder, properties);
+
+		Project antProject = assertValidAntScript(buildFolder.getFile("compile.feature.xml"));
+		Target main = antProject.getTargets().get("main");
+		assertEquals(1, AntUtils.getChildrenByName(main, "parallel").length);
+
+		antProject = assertValidAntScript(a.getFile("build.xml"));
+		Task extract = (Task) AntUtils.getFirstChildByName(antProject.getTargets().get("@dot.nestedJars"), "eclipse.extractNestedJar");
+		assertNotNull(extract);
+		Map<String, Object> map = extract.getRuntimeConfigurableWrapper().getAttributeMap();
+		assertEquals("nested.jar", map.get("entry"));
+		String toDir = (String) map.get("todir");
+		assertTrue(toDir.startsWith("${buildDirectory}/nestedJars/lib_1.0.0_"));
+
+		//the other extraction folders are deleted before extracting
+		Task delete = (Task) AntUtils.getFirstChildByName(main, "delete");
+		assertNotNull(delete);
+		assertEquals("true", delete.getRuntimeConfigurableWrapper().getAttributeMap().get("includeemptydirs"));
+		String script = new String(Files.readAllBytes(buildFolder.getFile("compile.feature.xml").getLocation().toFile().toPath()), StandardCharsets.UTF_8);
+		assertTrue(script.indexOf("<exclude name=\"" + toDir.substring("${buildDirectory}/nestedJars/".length()) + "/**\"/>") > -1);
+
+		//a modified bundle is extracted to the same folder, the extraction checks its content
+		File jarFile = new File(lib.getLocation().toOSString() + "_1.0.0.jar");
+		jarFile.setLastModified(jarFile.lastModified() - 60000);
+		generateScripts(buildFolder, properties);
+		antProject = assertValidAntScript(a.getFile("build.xml"));
+		extract = (Task) AntUtils.getFirstChildByName(antProject.getTargets().get("@dot.nestedJars"), "eclipse.extractNestedJar");
+		assertEquals(toDir, extract.getRuntimeConfigurableWrapper().getAttributeMap().get("todir"));
+	}
+
 	public static class TestQualifierDirector extends BuildDirector {
 		public TestQualifierDirector() {
 			super();
@@ -1836,6 +2078,67 @@ public class ScriptGenerationTests extends PDETestCase {
 		}
 	}
 
+	@Test
+	public void testLinkWorkspaceBinaries() throws Exception {
+		IFolder buildFolder = newTest("linkWorkspaceBinaries");
+		IFolder a = Utils.createFolder(buildFolder, "plugins/A");
+		Utils.generateBundle(a, "A");
+		Utils.generateFeature(buildFolder, "f", null, new String[] { "A" });
+
+		// the state and the output folders of the workspace, as given by the export of the IDE
+		PDEState state = new PDEState();
+		state.addBundle(a.getLocation().toFile());
+		state.resolveState();
+		Map<String, Set<IPath>> folders = new HashMap<>();
+		folders.put(".", Collections.singleton(new org.eclipse.core.runtime.Path("bin")));
+		Map<String, Map<String, Set<IPath>>> outputFolders = new HashMap<>();
+		outputFolders.put("A", folders);
+
+		Properties antProperties = new Properties();
+		antProperties.put(IBuildPropertiesConstants.PROPERTY_LINK_WORKSPACE_BINARIES, "true");
+		BuildScriptGenerator generator = new BuildScriptGenerator();
+		generator.setImmutableAntProperties(antProperties);
+		generator.setWorkingDirectory(buildFolder.getLocation().toOSString());
+		generator.setElements(new String[] { "feature@f" });
+		generator.setUseWorkspaceBinaries(true);
+		generator.setReportResolutionErrors(false);
+		generator.setIgnoreMissingPropertiesFile(true);
+		generator.setPDEState(state.getState());
+		generator.setNextId(state.getState().getHighestBundleId() + 1);
+		generator.setStateExtraData(state.getExtraData(), state.getPatchData(), outputFolders);
+		generator.generate();
+
+		// the class files of the output folder are linked once the other files are copied
+		Project antProject = assertValidAntScript(a.getFile("build.xml"));
+		Target dot = antProject.getTargets().get("@dot");
+		List<String> names = new ArrayList<>();
+		for (Task task : dot.getTasks())
+			names.add(task.getTaskName());
+		assertTrue(names.lastIndexOf("copy") < names.indexOf("eclipse.linkTree"));
+		Task link = (Task) AntUtils.getFirstChildByName(dot, "eclipse.linkTree");
+		Map<String, Object> map = link.getRuntimeConfigurableWrapper().getAttributeMap();
+		assertEquals("${basedir}/bin", map.get("src"));
+		assertEquals("**/*.class", map.get("includes"));
+		assertNull(map.get("excludes"));
+		assertEquals("false", map.get("overwrite"));
+		String script = new String(Files.readAllBytes(a.getFile("build.xml").getLocation().toFile().toPath()), StandardCharsets.UTF_8);
+		assertTrue(script.indexOf("excludes=\"**/package.htm*,**/*.class\"") > -1);
+
+		// the gathered plug-in links the class files of @dot, the other files and the ones rewritten in it are copied
+		Target gather = antProject.getTargets().get("gather.bin.parts");
+		names.clear();
+		for (Task task : gather.getTasks())
+			names.add(task.getTaskName());
+		assertTrue(names.lastIndexOf("copy") < names.indexOf("eclipse.linkTree"));
+		link = (Task) AntUtils.getFirstChildByName(gather, "eclipse.linkTree");
+		map = link.getRuntimeConfigurableWrapper().getAttributeMap();
+		assertEquals("${build.result.folder}/@dot", map.get("src"));
+		assertEquals("**/*.class", map.get("includes"));
+		assertTrue(((String) map.get("excludes")).indexOf("META-INF/MANIFEST.MF,plugin.xml,fragment.xml") > -1);
+		assertEquals("false", map.get("overwrite"));
+		assertTrue(script.indexOf("includes=\"META-INF/MANIFEST.MF,plugin.xml,fragment.xml\"") > -1);
+	}
+
 	// Tests sourceFileExtensions attribute in build.properties
 	@Test
 	public void test303960sourceFileExtensions1() throws Exception {
@@ -2406,4 +2709,222 @@ public class ScriptGenerationTests extends PDETestCase {
 		Utils.storeBuildProperties(second, properties);
 		runBuild(second);
 	}
+
+	@Test
+	public void testSyntheticTargetPlatform() throws Exception {
+		IFolder root = newTest("syntheticTargetPlatform");
+		IFolder buildFolder = Utils.createFolder(root, "build");
+
+		SyntheticTargetPlatform platform = new SyntheticTargetPlatform().setTargetBundles(200).setBundles(50)
+				.setFeatures(6).setFeatureFanOut(2);
+		platform.write(root.getFolder("data").getLocation().toFile());
+		Utils.copy(platform.getMapFile(), buildFolder.getFile("directory.txt").getLocation().toFile());
+		String target = platform.getTargetLocation().getAbsolutePath();
+
+		// the map file copies the sources from the repository, the binary feature is found in the target
+		Properties properties = new Properties();
+		properties.put("buildDirectory", buildFolder.getLocation().toOSString());
+		properties.put("type", "feature");
+		properties.put("id", SyntheticTargetPlatform.TOP_FEATURE);
+		properties.put("pluginPath", target);
+		URL resource = FileLocator.find(Platform.getBundle("org.eclipse.pde.build"),
+				new org.eclipse.core.runtime.Path("/scripts/genericTargets.xml"), null);
+		runAntScript(FileLocator.toFileURL(resource).getPath(), new String[] { "fetchElement" },
+				buildFolder.getLocation().toOSString(), properties);
+
+		properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature",
+				SyntheticTargetPlatform.TOP_FEATURE);
+		properties.put("pluginPath", target);
+		generateScripts(buildFolder, properties);
+
+		buildFolder.refreshLocal(IResource.DEPTH_INFINITE, null);
+		for (File bundle : platform.getBundleLocations())
+			assertResourceFile(buildFolder, "plugins/" + bundle.getName() + "/build.xml");
+		assertResourceFile(buildFolder, "features/" + SyntheticTargetPlatform.TOP_FEATURE + "/build.xml");
+	}
+
+	@Test
+	public void testSharedShapeAdvisor() throws Exception {
+		IFolder buildFolder = newTest("SharedShapeAdvisor");
+		IFile stepsFile = buildFolder.getFile(IPDEBuildConstants.DEFAULT_PLUGINS_POSTPROCESSINGSTEPS_FILENAME_DESCRIPTOR);
+		Properties steps = new Properties();
+		steps.put("a", ShapeAdvisor.UPDATEJAR);
+		steps.put("b", ShapeAdvisor.FLAT);
+		Utils.storeProperties(stepsFile, steps);
+		new ProductGenerator().setWorkingDirectory(buildFolder.getLocation().toOSString());
+
+		StateObjectFactory factory = Platform.getPlatformAdmin().getFactory();
+		BundleDescription a = factory.createBundleDescription(1, "a", new Version("1.0.0"), null, null, null, null,
+				null, true, true, true, null, null, null, null);
+		BundleDescription b = factory.createBundleDescription(2, "b", new Version("1.0.0"), null, null, null, null,
+				null, true, true, true, null, null, null, null);
+		BundleDescription c = factory.createBundleDescription(3, "c", new Version("1.0.0"), null, null, null, null,
+				null, true, true, true, null, null, null, null);
+		BuildTimeFeature f = new BuildTimeFeature("f", "1.0.0");
+
+		ShapeAdvisor shared = ShapeAdvisor.createShared(false, Arrays.asList(a, b), Collections.singletonList(f));
+		Object[] shapeA = shared.getFinalShape(a);
+		assertArrayEquals(new Object[] { "a_1.0.0.jar", ShapeAdvisor.FILE }, shapeA);
+		assertArrayEquals(new Object[] { "b_1.0.0", ShapeAdvisor.FOLDER }, shared.getFinalShape(b));
+		assertArrayEquals(new Object[] { "f_1.0.0", ShapeAdvisor.FOLDER }, shared.getFinalShape(f));
+
+		// the decisions were taken once, when the advisor was created
+		assertSame(shapeA, shared.getFinalShape(a));
+		assertSame(shared.getFinalShape(b), shared.getFinalShape(b));
+		assertSame(shared.getFinalShape(f), shared.getFinalShape(f));
+		steps.put("a", ShapeAdvisor.FLAT);
+		Utils.storeProperties(stepsFile, steps);
+		assertSame(shapeA, shared.getFinalShape(a));
+		assertArrayEquals(new Object[] { "a_1.0.0", ShapeAdvisor.FOLDER }, new ShapeAdvisor().getFinalShape(a));
+
+		// the other elements are still answered, from the steps read when the advisor was created
+		assertArrayEquals(new Object[] { "c_1.0.0", ShapeAdvisor.FOLDER }, shared.getFinalShape(c));
+		assertNotSame(shared.getFinalShape(c), shared.getFinalShape(c));
+
+		// the shapes computed upfront only answer for the format they were computed with
+		shared.setForceUpdateJars(true);
+		assertArrayEquals(new Object[] { "b_1.0.0.jar", ShapeAdvisor.FILE }, shared.getFinalShape(b));
+		assertArrayEquals(new Object[] { "f_1.0.0.jar", ShapeAdvisor.FILE }, shared.getFinalShape(f));
+		shared.setForceUpdateJars(false);
+		assertSame(shapeA, shared.getFinalShape(a));
+	}
+
+	@Test
+	public void testReadBundlesInfo() throws Exception {
+		IFolder buildFolder = newTest("ReadBundlesInfo");
+		IFolder home = Utils.createFolder(buildFolder, "eclipse");
+		File homeDir = home.getLocation().toFile();
+		File other = buildFolder.getFolder("other").getLocation().toFile();
+
+		StringBuffer bundles = new StringBuffer();
+		bundles.append("#version=1\n");
+		bundles.append("a,1.0.0,plugins/a_1.0.0.jar,4,false\n");
+		bundles.append("b,1.0.0,file:plugins/b_1.0.0/,4,false\n");
+		bundles.append("c,1.0.0," + new File(other, "c_1.0.0.jar").toURI() + ",4,false\n");
+		bundles.append("d,1.0.0," + new File(other, "d_1.0.0.jar").getAbsolutePath() + ",4,false\n");
+		bundles.append("e,1.0.0,plugins/e%2Cf_1.0.0.jar,4,false\n");
+		bundles.append("g,1.0.0,http://example.org/g_1.0.0.jar,4,false\n");
+		Utils.writeBuffer(home.getFile("configuration/" + SIMPLE_CONFIGURATOR + "/bundles.info"), bundles);
+		StringBuffer sources = new StringBuffer();
+		sources.append("#version=1\n");
+		sources.append("a.source,1.0.0,plugins/a.source_1.0.0.jar,-1,false\n");
+		Utils.writeBuffer(home.getFile("configuration/" + SIMPLE_CONFIGURATOR + "/source.info"), sources);
+
+		File[] expected = new File[] { new File(homeDir, "plugins/a_1.0.0.jar"), new File(homeDir, "plugins/b_1.0.0"),
+				new File(other, "c_1.0.0.jar"), new File(other, "d_1.0.0.jar"),
+				new File(homeDir, "plugins/e,f_1.0.0.jar"), new File(homeDir, "plugins/a.source_1.0.0.jar") };
+		assertArrayEquals(expected, P2Utils.readBundlesInfo(homeDir.getAbsolutePath()));
+		assertArrayEquals(expected, PluginPathFinder.getPluginPaths(homeDir.getAbsolutePath(), true));
+	}
+
+	@Test
+	public void testPluginPathFinder() throws Exception {
+		IFolder buildFolder = newTest("PluginPathFinder");
+		IFolder home = Utils.createFolder(buildFolder, "eclipse");
+		File homeDir = home.getLocation().toFile();
+		File root = buildFolder.getLocation().toFile();
+		String[] bundles = { "eclipse/plugins/a.jar", "ext/eclipse/plugins/c.jar", "eclipse/dropins/d.jar",
+				"eclipse/dropins/plugins/e.jar", "eclipse/dropins/x/plugins/f.jar",
+				"eclipse/dropins/y/eclipse/plugins/g.jar", "ext2/eclipse/plugins/i.jar" };
+		for (String bundle : bundles)
+			Utils.writeBuffer(buildFolder.getFile(bundle), new StringBuffer());
+		Utils.createFolder(home, "plugins/b");
+		Utils.createFolder(home, "dropins/h/META-INF");
+		Utils.writeBuffer(home.getFile("links/ext.link"), new StringBuffer("path=ext\n"));
+		Utils.writeBuffer(home.getFile("links/missing.link"), new StringBuffer("path=missing\n"));
+		Utils.writeBuffer(home.getFile("dropins/ext2.link"), new StringBuffer("path=ext2\n"));
+
+		Set<File> expected = new HashSet<>();
+		for (String bundle : bundles)
+			expected.add(new File(root, bundle));
+		expected.add(new File(homeDir, "plugins/b"));
+		expected.add(new File(homeDir, "dropins/h"));
+
+		Map<File, BasicFileAttributes> attributes = new HashMap<>();
+		File[] found = PluginPathFinder.getPaths(homeDir.getAbsolutePath(), false, false, attributes);
+		assertEquals(expected.size(), found.length);
+		assertEquals(expected, new HashSet<>(Arrays.asList(found)));
+
+		// the attributes read when listing come along with the files
+		assertEquals(expected, attributes.keySet());
+		assertTrue(attributes.get(new File(homeDir, "plugins/a.jar")).isRegularFile());
+		assertTrue(attributes.get(new File(homeDir, "plugins/b")).isDirectory());
+		assertTrue(attributes.get(new File(homeDir, "dropins/h")).isDirectory());
+	}
+
+	@Test
+	public void testMetricsReport() throws Exception {
+		IFolder buildFolder = newTest("MetricsReport");
+		File csv = new File(buildFolder.getLocation().toFile(), "reports/metrics.csv");
+		File json = new File(buildFolder.getLocation().toFile(), "reports/metrics.json");
+
+		BuildMetrics outer = BuildMetrics.enable();
+		try (BuildMetrics.Phase a = BuildMetrics.phase("a")) {
+			try (BuildMetrics.Phase b = BuildMetrics.phase("b")) {
+				BuildMetrics.count(BuildMetrics.BUNDLES_LOADED, 3);
+			}
+		}
+
+		// nested metrics are recorded on their own, the outer ones are recorded again afterwards
+		BuildMetrics inner = BuildMetrics.enable();
+		BuildMetrics.count(BuildMetrics.MANIFESTS_PARSED);
+		BuildMetrics.disable(inner);
+		assertTrue(BuildMetrics.isEnabled());
+		BuildMetrics.count(BuildMetrics.BUNDLES_LOADED);
+
+		// the threads started meanwhile record into the same metrics
+		Thread worker = new Thread(() -> BuildMetrics.count("worker"));
+		worker.start();
+		worker.join();
+		BuildMetrics.disable(outer);
+		assertFalse(BuildMetrics.isEnabled());
+		BuildMetrics.count(BuildMetrics.BUNDLES_LOADED);
+
+		outer.appendReport(csv, "outer");
+		outer.appendReport(csv, "other, task");
+		List<String> lines = Files.readAllLines(csv.toPath());
+		assertEquals("task,start,kind,name,count,millis", lines.get(0));
+		assertEquals(9, lines.size());
+		List<String> rows = new ArrayList<>();
+		for (String line : lines.subList(1, 5)) {
+			String[] values = line.split(",");
+			assertEquals("outer", values[0]);
+			rows.add(values[2] + ',' + values[3] + ',' + values[4]);
+		}
+		assertEquals(Arrays.asList("phase,a,1", "phase,a/b,1", "counter,bundlesLoaded,4", "counter,worker,1"), rows);
+		assertTrue(lines.get(5).startsWith("\"other, task\","));
+
+		inner.appendReport(json, "inner");
+		lines = Files.readAllLines(json.toPath());
+		assertEquals(1, lines.size());
+		assertTrue(lines.get(0).startsWith("{\"task\":\"inner\",\"start\":"));
+		assertTrue(lines.get(0).endsWith(",\"phases\":{},\"counters\":{\"manifestsParsed\":1}}"));
+	}
+
+	@Test
+	public void testBundleTimingsPerBuild() throws Exception {
+		IFolder buildFolder = newTest("BundleTimingsPerBuild");
+		IFolder a = Utils.createFolder(buildFolder, "plugins/a");
+		IFolder b = Utils.createFolder(buildFolder, "plugins/b");
+		Utils.generateBundle(a, "a");
+		Attributes requires = new Attributes();
+		requires.put(new Attributes.Name("Require-Bundle"), "a");
+		Utils.generateBundleManifest(b, "b", "2.0.0", requires);
+		Utils.generatePluginBuildProperties(b, null);
+		Utils.writeBuffer(b.getFile("src/b.java"), new StringBuffer("public class b { int i; }"));
+
+		// the timings of a previous build are dropped when the scripts are generated
+		File timings = new File(buildFolder.getLocation().toFile(), "bundleTimings.csv");
+		Files.write(timings.toPath(), Arrays.asList("bundle,phase,start,millis,result,requires", "b,build.jars,0,1000,ok,a"));
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "plugin", "b");
+		properties.put("bundleTimings", "true");
+		generateScripts(buildFolder, properties);
+		assertFalse(timings.exists());
+
+		// the bundles are identified by name and version
+		IFile buildScript = b.getFile("build.xml");
+		assertLogContainsLine(buildScript, "<eclipse.bundleTiming bundle=\"b_2.0.0\" phase=\"build.jars\" requires=\"a_1.0.0\"");
+		assertLogContainsLine(buildScript, "<eclipse.bundleTiming bundle=\"b_2.0.0\" phase=\"gather.bin.parts\"");
+	}
 }
@@ -0,0 +1,424 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.build.internal.tests;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.jar.*;
+
+/**
+ * Write a large synthetic target platform and the sources of a build against it, to test and
+ * measure how the build scales without network access. The same seed always gives the same
+ * platform.
+ * <p>
+ * {@link #write(File)} creates three folders in the given directory:
+ * <ul>
+ * <li><code>target</code>, the binary bundles, some jarred and the others folders, and a binary
+ * feature including them. It is meant to be the <code>baseLocation</code> or in the
+ * <code>pluginPath</code> of the build.</li>
+ * <li><code>repository</code>, the source bundles with their fragments and their
+ * <code>build.properties</code>, and the source features. The features are nested, the top
+ * feature {@link #TOP_FEATURE} includes all the others and the binary feature. It can be used as
+ * the build directory.</li>
+ * <li><code>maps</code>, a map file fetching all the source elements from the repository with
+ * <code>COPY</code> entries.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Each bundle requires up to <code>fanOut</code> bundles and imports up to <code>imports</code>
+ * packages, all picked among the bundles before it, so the dependencies form a graph without
+ * cycles. The source bundles depend on source and binary bundles, and their code refers to the
+ * types of the source bundles they depend on so that they compile in dependency order.
+ * </p>
+ */
+public class SyntheticTargetPlatform {
+	public static final String TOP_FEATURE = "synthetic.all";
+	public static final String TARGET_FEATURE = "synthetic.target.feature";
+	public static final String BUNDLE_PREFIX = "synthetic.bundle";
+	public static final String TARGET_BUNDLE_PREFIX = "synthetic.target";
+	public static final String TARGET_VERSION = "1.0.0.v20260101-0000";
+	public static final String MAP_FILE = "synthetic.map";
+
+	private int targetBundles = 1000;
+	private int jarredPercent = 70;
+	private int bundles = 200;
+	private int fanOut = 3;
+	private int imports = 2;
+	private int fragmentPercent = 10;
+	private int features = 10;
+	private int featureFanOut = 4;
+	private long seed = 42;
+
+	private File targetLocation;
+	private File repositoryLocation;
+	private File mapFile;
+	private final List<File> bundleLocations = new ArrayList<>();
+	private final List<File> targetBundleLocations = new ArrayList<>();
+
+	/**
+	 * The number of binary bundles in the target, none to only write the sources.
+	 */
+	public SyntheticTargetPlatform setTargetBundles(int targetBundles) {
+		this.targetBundles = targetBundles;
+		return this;
+	}
+
+	/**
+	 * The share of binary bundles shaped as jars rather than folders.
+	 */
+	public SyntheticTargetPlatform setJarredPercent(int jarredPercent) {
+		this.jarredPercent = jarredPercent;
+		return this;
+	}
+
+	/**
+	 * The number of source bundles, not counting their fragments.
+	 */
+	public SyntheticTargetPlatform setBundles(int bundles) {
+		this.bundles = bundles;
+		return this;
+	}
+
+	/**
+	 * The maximum number of bundles each bundle requires.
+	 */
+	public SyntheticTargetPlatform setFanOut(int fanOut) {
+		this.fanOut = fanOut;
+		return this;
+	}
+
+	/**
+	 * The maximum number of packages each bundle imports.
+	 */
+	public SyntheticTargetPlatform setImports(int imports) {
+		this.imports = imports;
+		return this;
+	}
+
+	/**
+	 * The share of source bundles having a fragment.
+	 */
+	public SyntheticTargetPlatform setFragmentPercent(int fragmentPercent) {
+		this.fragmentPercent = fragmentPercent;
+		return this;
+	}
+
+	/**
+	 * The number of features including the source bundles, not counting the features including them.
+	 */
+	public SyntheticTargetPlatform setFeatures(int features) {
+		this.features = features;
+		return this;
+	}
+
+	/**
+	 * The number of features included by each of the features including other features.
+	 */
+	public SyntheticTargetPlatform setFeatureFanOut(int featureFanOut) {
+		this.featureFanOut = featureFanOut;
+		return this;
+	}
+
+	public SyntheticTargetPlatform setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	public File getTargetLocation() {
+		return targetLocation;
+	}
+
+	public File getRepositoryLocation() {
+		return repositoryLocation;
+	}
+
+	public File getMapFile() {
+		return mapFile;
+	}
+
+	/**
+	 * @return the locations of the source bundles and fragments in the repository
+	 */
+	public List<File> getBundleLocations() {
+		return bundleLocations;
+	}
+
+	/**
+	 * @return the locations of the binary bundles in the target
+	 */
+	public List<File> getTargetBundleLocations() {
+		return targetBundleLocations;
+	}
+
+	public static String bundleId(int i) {
+		return BUNDLE_PREFIX + i;
+	}
+
+	public static String fragmentId(int host) {
+		return bundleId(host) + ".fragment";
+	}
+
+	public static String targetBundleId(int i) {
+		return TARGET_BUNDLE_PREFIX + i;
+	}
+
+	public static String featureId(int level, int i) {
+		return "synthetic.feature" + level + '.' + i;
+	}
+
+	public void write(File root) throws IOException {
+		Random random = new Random(seed);
+		targetLocation = new File(root, "target");
+		repositoryLocation = new File(root, "repository");
+		mapFile = new File(root, "maps/" + MAP_FILE);
+		bundleLocations.clear();
+		targetBundleLocations.clear();
+
+		writeTarget(random);
+		List<Integer> fragmentHosts = writeSources(random);
+
+		StringBuilder map = new StringBuilder();
+		for (int i = 0; i < bundles; i++)
+			appendMapEntry(map, "plugin", bundleId(i), "plugins/");
+		for (Integer host : fragmentHosts)
+			appendMapEntry(map, "fragment", fragmentId(host.intValue()), "plugins/");
+		for (String feature : writeFeatures(fragmentHosts))
+			appendMapEntry(map, "feature", feature, "features/");
+		write(mapFile, map.toString());
+	}
+
+	private void writeTarget(Random random) throws IOException {
+		File plugins = new File(targetLocation, "plugins");
+		StringBuilder entries = new StringBuilder();
+		for (int i = 0; i < targetBundles; i++) {
+			String id = targetBundleId(i);
+			Manifest manifest = newManifest(id, TARGET_VERSION);
+			Attributes attributes = manifest.getMainAttributes();
+			attributes.putValue("Export-Package", id + ',' + id + ".api");
+			String requires = join(pick(random, i, fanOut), TARGET_BUNDLE_PREFIX, "", ",");
+			if (requires.length() > 0)
+				attributes.putValue("Require-Bundle", requires);
+			String imported = join(pick(random, i, imports), TARGET_BUNDLE_PREFIX, ".api", ",");
+			if (imported.length() > 0)
+				attributes.putValue("Import-Package", imported);
+
+			File location;
+			if (random.nextInt(100) < jarredPercent) {
+				location = new File(plugins, id + '_' + TARGET_VERSION + ".jar");
+				location.getParentFile().mkdirs();
+				try (JarOutputStream jar = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(location)), manifest)) {
+					jar.putNextEntry(new JarEntry("about.html"));
+					jar.write("<html><body>About</body></html>\n".getBytes(StandardCharsets.UTF_8));
+					jar.closeEntry();
+				}
+			} else {
+				location = new File(plugins, id + '_' + TARGET_VERSION);
+				File manifestFile = new File(location, JarFile.MANIFEST_NAME);
+				manifestFile.getParentFile().mkdirs();
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(manifestFile))) {
+					manifest.write(out);
+				}
+			}
+			targetBundleLocations.add(location);
+			entries.append("\t<plugin id=\"").append(id).append("\" version=\"").append(TARGET_VERSION).append("\" unpack=\"false\"/>\n");
+		}
+		if (targetBundles > 0)
+			writeFeature(new File(targetLocation, "features/" + TARGET_FEATURE + '_' + TARGET_VERSION), TARGET_FEATURE, TARGET_VERSION, entries.toString(), false);
+	}
+
+	private List<Integer> writeSources(Random random) throws IOException {
+		List<Integer> fragmentHosts = new ArrayList<>();
+		File plugins = new File(repositoryLocation, "plugins");
+		for (int i = 0; i < bundles; i++) {
+			//the dependencies are split between the source and the binary bundles
+			Set<Integer> requires = new TreeSet<>();
+			Set<Integer> targetRequires = new TreeSet<>();
+			for (int j = 0; j < fanOut; j++) {
+				if (i > 0 && (targetBundles == 0 || random.nextBoolean()))
+					requires.add(Integer.valueOf(random.nextInt(i)));
+				else if (targetBundles > 0)
+					targetRequires.add(Integer.valueOf(random.nextInt(targetBundles)));
+			}
+			Set<Integer> imported = new TreeSet<>();
+			Set<Integer> targetImported = new TreeSet<>();
+			for (int j = 0; j < imports; j++) {
+				if (i > 0 && (targetBundles == 0 || random.nextBoolean()))
+					imported.add(Integer.valueOf(random.nextInt(i)));
+				else if (targetBundles > 0)
+					targetImported.add(Integer.valueOf(random.nextInt(targetBundles)));
+			}
+			writeBundle(plugins, i, requires, targetRequires, imported, targetImported);
+			if (random.nextInt(100) < fragmentPercent) {
+				writeFragment(plugins, i);
+				fragmentHosts.add(Integer.valueOf(i));
+			}
+		}
+		return fragmentHosts;
+	}
+
+	private void writeBundle(File plugins, int i, Set<Integer> requires, Set<Integer> targetRequires, Set<Integer> imported, Set<Integer> targetImported) throws IOException {
+		String id = bundleId(i);
+		File bundle = new File(plugins, id);
+		StringBuilder manifest = new StringBuilder();
+		manifest.append("Manifest-Version: 1.0\n");
+		manifest.append("Bundle-ManifestVersion: 2\n");
+		manifest.append("Bundle-SymbolicName: ").append(id).append("\n");
+		manifest.append("Bundle-Version: 1.0.0.qualifier\n");
+		manifest.append("Bundle-RequiredExecutionEnvironment: JavaSE-11\n");
+		manifest.append("Export-Package: ").append(id).append(",\n ").append(id).append(".api\n");
+		String required = join(requires, BUNDLE_PREFIX, "") + (requires.isEmpty() || targetRequires.isEmpty() ? "" : ",\n ") + join(targetRequires, TARGET_BUNDLE_PREFIX, "");
+		if (required.length() > 0)
+			manifest.append("Require-Bundle: ").append(required).append("\n");
+		String packages = join(imported, BUNDLE_PREFIX, ".api") + (imported.isEmpty() || targetImported.isEmpty() ? "" : ",\n ") + join(targetImported, TARGET_BUNDLE_PREFIX, ".api");
+		if (packages.length() > 0)
+			manifest.append("Import-Package: ").append(packages).append("\n");
+		write(new File(bundle, JarFile.MANIFEST_NAME), manifest.toString());
+		write(new File(bundle, "build.properties"), "source.. = src/\noutput.. = bin/\nbin.includes = META-INF/,\\\n               .\n");
+
+		StringBuilder source = new StringBuilder();
+		source.append("package ").append(id).append(";\n\npublic class Type").append(i).append(" {\n");
+		for (Integer other : requires)
+			source.append("\tpublic ").append(bundleId(other.intValue())).append(".Type").append(other).append(" field").append(other).append(";\n");
+		for (Integer other : imported)
+			source.append("\tpublic ").append(bundleId(other.intValue())).append(".api.Api").append(other).append(" api").append(other).append(";\n");
+		source.append("}\n");
+		write(new File(bundle, "src/" + id + "/Type" + i + ".java"), source.toString());
+		write(new File(bundle, "src/" + id + "/api/Api" + i + ".java"), "package " + id + ".api;\n\npublic interface Api" + i + " {\n}\n");
+		bundleLocations.add(bundle);
+	}
+
+	private void writeFragment(File plugins, int host) throws IOException {
+		String id = fragmentId(host);
+		File fragment = new File(plugins, id);
+		StringBuilder manifest = new StringBuilder();
+		manifest.append("Manifest-Version: 1.0\n");
+		manifest.append("Bundle-ManifestVersion: 2\n");
+		manifest.append("Bundle-SymbolicName: ").append(id).append("\n");
+		manifest.append("Bundle-Version: 1.0.0.qualifier\n");
+		manifest.append("Bundle-RequiredExecutionEnvironment: JavaSE-11\n");
+		manifest.append("Fragment-Host: ").append(bundleId(host)).append("\n");
+		write(new File(fragment, JarFile.MANIFEST_NAME), manifest.toString());
+		write(new File(fragment, "build.properties"), "source.. = src/\noutput.. = bin/\nbin.includes = META-INF/,\\\n               .\n");
+		write(new File(fragment, "src/" + bundleId(host) + "/Fragment" + host + ".java"), "package " + bundleId(host) + ";\n\nclass Fragment" + host + " extends Type" + host + " {\n}\n");
+		bundleLocations.add(fragment);
+	}
+
+	/*
+	 * Write the features including the source bundles, and the features including them level by
+	 * level up to the top feature.
+	 * @return the ids of the features written
+	 */
+	private List<String> writeFeatures(List<Integer> fragmentHosts) throws IOException {
+		File featuresFolder = new File(repositoryLocation, "features");
+		List<String> result = new ArrayList<>();
+		List<String> level = new ArrayList<>();
+		int count = Math.max(1, features);
+		int perFeature = Math.max(1, (bundles + count - 1) / count);
+		for (int f = 0; f < count; f++) {
+			StringBuilder entries = new StringBuilder();
+			for (int i = f * perFeature; i < Math.min(bundles, (f + 1) * perFeature); i++) {
+				entries.append("\t<plugin id=\"").append(bundleId(i)).append("\" version=\"0.0.0\"/>\n");
+				if (fragmentHosts.contains(Integer.valueOf(i)))
+					entries.append("\t<plugin id=\"").append(fragmentId(i)).append("\" version=\"0.0.0\" fragment=\"true\"/>\n");
+			}
+			level.add(featureId(0, f));
+			writeFeature(new File(featuresFolder, featureId(0, f)), featureId(0, f), "1.0.0.qualifier", entries.toString(), true);
+		}
+		result.addAll(level);
+
+		int depth = 1;
+		int fanIn = Math.max(2, featureFanOut);
+		while (level.size() > fanIn) {
+			List<String> parents = new ArrayList<>();
+			for (int f = 0; f * fanIn < level.size(); f++) {
+				String id = featureId(depth, f);
+				writeFeature(new File(featuresFolder, id), id, "1.0.0.qualifier", includes(level.subList(f * fanIn, Math.min(level.size(), (f + 1) * fanIn))), true);
+				parents.add(id);
+			}
+			result.addAll(parents);
+			level = parents;
+			depth++;
+		}
+
+		String top = includes(level);
+		if (targetBundles > 0)
+			top += "\t<includes id=\"" + TARGET_FEATURE + "\" version=\"0.0.0\"/>\n";
+		writeFeature(new File(featuresFolder, TOP_FEATURE), TOP_FEATURE, "1.0.0.qualifier", top, true);
+		result.add(TOP_FEATURE);
+		return result;
+	}
+
+	private static String includes(List<String> features) {
+		StringBuilder result = new StringBuilder();
+		for (String feature : features)
+			result.append("\t<includes id=\"").append(feature).append("\" version=\"0.0.0\"/>\n");
+		return result.toString();
+	}
+
+	private static void writeFeature(File location, String id, String version, String entries, boolean source) throws IOException {
+		StringBuilder xml = new StringBuilder();
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<feature id=\"").append(id).append("\" version=\"").append(version).append("\">\n");
+		xml.append(entries);
+		xml.append("</feature>\n");
+		write(new File(location, "feature.xml"), xml.toString());
+		if (source)
+			write(new File(location, "build.properties"), "bin.includes = feature.xml\n");
+	}
+
+	private void appendMapEntry(StringBuilder map, String type, String id, String folder) {
+		map.append(type).append('@').append(id).append("=COPY,").append(repositoryLocation.getAbsolutePath()).append(',').append(folder).append(id).append('\n');
+	}
+
+	private static Manifest newManifest(String id, String version) {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue("Bundle-ManifestVersion", "2");
+		attributes.putValue("Bundle-SymbolicName", id);
+		attributes.putValue("Bundle-Version", version);
+		return manifest;
+	}
+
+	/*
+	 * Pick up to count distinct indexes below the given one.
+	 */
+	private static Set<Integer> pick(Random random, int below, int count) {
+		Set<Integer> result = new TreeSet<>();
+		for (int j = 0; below > 0 && j < count; j++)
+			result.add(Integer.valueOf(random.nextInt(below)));
+		return result;
+	}
+
+	private static String join(Set<Integer> indexes, String prefix, String suffix) {
+		return join(indexes, prefix, suffix, ",\n ");
+	}
+
+	private static String join(Set<Integer> indexes, String prefix, String suffix, String separator) {
+		StringBuilder result = new StringBuilder();
+		for (Integer index : indexes) {
+			if (result.length() > 0)
+				result.append(separator);
+			result.append(prefix).append(index).append(suffix);
+		}
+		return result.toString();
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,627 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which accompanies this distribution,
+ * and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors: IBM - Initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.pde.build.internal.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.zip.*;
+import org.apache.tools.tar.TarEntry;
+import org.apache.tools.tar.TarInputStream;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.pde.build.tests.PDETestCase;
+import org.junit.Test;
+
+/**
+ * Tests of the internal Ant tasks, run from small scripts.
+ */
+public class TaskTests extends PDETestCase {
+	private static final String LONG_NAME = "folder/" + "x".repeat(120) + '/' + "y".repeat(110) + ".txt";
+	private static final String ACCENTED_NAME = "\u00e9t\u00e9.txt";
+
+	private void runScript(IFolder buildFolder, StringBuffer buffer, String target) throws Exception {
+		IFile buildXML = buildFolder.getFile("build.xml");
+		Utils.writeBuffer(buildXML, buffer);
+		runAntScript(buildXML.getLocation().toOSString(), new String[] { target },
+				buildFolder.getLocation().toOSString(), null);
+	}
+
+	/*
+	 * Three parallel calls share a limit of one permit, each one fails if it finds the marker of another
+	 */
+	private StringBuffer limitScript(String permits) {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <eclipse.buildScope>                                          \n");
+		buffer.append("         <parallel>                                                 \n");
+		buffer.append("            <antcall target=\"work\"/>                              \n");
+		buffer.append("            <antcall target=\"work\"/>                              \n");
+		buffer.append("            <antcall target=\"work\"/>                              \n");
+		buffer.append("         </parallel>                                                \n");
+		buffer.append("      </eclipse.buildScope>                                         \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("   <target name=\"work\">                                           \n");
+		buffer.append("      <eclipse.limit name=\"test\" permits=\"" + permits + "\">     \n");
+		buffer.append("         <available file=\"${basedir}/busy\" property=\"busy\"/>    \n");
+		buffer.append("         <fail if=\"busy\" message=\"Overlapping limit\"/>          \n");
+		buffer.append("         <touch file=\"${basedir}/busy\"/>                          \n");
+		buffer.append("         <sleep milliseconds=\"200\"/>                              \n");
+		buffer.append("         <delete file=\"${basedir}/busy\"/>                         \n");
+		buffer.append("      </eclipse.limit>                                              \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		return buffer;
+	}
+
+	@Test
+	public void testLimit() throws Exception {
+		IFolder buildFolder = newTest("limit");
+		runScript(buildFolder, limitScript("1"), "default");
+		assertTrue(!buildFolder.getFile("busy").getLocation().toFile().exists());
+	}
+
+	@Test
+	public void testLimitPerBuild() throws Exception {
+		IFolder buildFolder = newTest("limitPerBuild");
+		runScript(buildFolder, limitScript("1"), "default");
+		//a later build may give the same limit a different number of permits
+		runScript(buildFolder, limitScript("2"), "work");
+		runScript(buildFolder, limitScript("1"), "default");
+	}
+
+	@Test
+	public void testNestedLimit() throws Exception {
+		IFolder buildFolder = newTest("nestedLimit");
+
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <eclipse.limit name=\"test\" permits=\"1\">                   \n");
+		buffer.append("         <parallel>                                                 \n");
+		buffer.append("            <antcall target=\"nested\"/>                            \n");
+		buffer.append("         </parallel>                                                \n");
+		buffer.append("      </eclipse.limit>                                              \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("   <target name=\"nested\">                                         \n");
+		buffer.append("      <eclipse.limit name=\"test\" permits=\"1\">                   \n");
+		buffer.append("         <touch file=\"${basedir}/nested\"/>                        \n");
+		buffer.append("      </eclipse.limit>                                              \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		runScript(buildFolder, buffer, "default");
+
+		assertTrue(buildFolder.getFile("nested").getLocation().toFile().exists());
+	}
+
+	@Test
+	public void testConflictingLimits() throws Exception {
+		IFolder buildFolder = newTest("conflictingLimits");
+
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <eclipse.limit name=\"test\" permits=\"1\">                   \n");
+		buffer.append("         <echo message=\"one\"/>                                    \n");
+		buffer.append("      </eclipse.limit>                                              \n");
+		buffer.append("      <eclipse.limit name=\"test\" permits=\"2\">                   \n");
+		buffer.append("         <echo message=\"two\"/>                                    \n");
+		buffer.append("      </eclipse.limit>                                              \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		try {
+			runScript(buildFolder, buffer, "default");
+			fail("Conflicting limits expected to fail.");
+		} catch (Exception e) {
+			assertTrue(e.getMessage().indexOf("already has 1 permits") > -1);
+		}
+	}
+
+	/*
+	 * Create the content to archive: a path longer than 100 characters, a non ASCII name, an empty folder,
+	 * an executable and a file big enough to span several compression blocks
+	 */
+	private Path createArchiveContent(IFolder buildFolder) throws IOException {
+		Path content = buildFolder.getLocation().toFile().toPath().resolve("content");
+		Files.createDirectories(content.resolve(LONG_NAME).getParent());
+		Files.write(content.resolve(LONG_NAME), "long".getBytes(StandardCharsets.UTF_8));
+		Files.write(content.resolve(ACCENTED_NAME), "accented".getBytes(StandardCharsets.UTF_8));
+		Files.createDirectories(content.resolve("empty"));
+		Path launcher = content.resolve("launcher");
+		Files.write(launcher, "#!/bin/sh".getBytes(StandardCharsets.UTF_8));
+		Files.setPosixFilePermissions(launcher, PosixFilePermissions.fromString("rwxr-x---"));
+		byte[] random = new byte[1024 * 1024];
+		new Random(0).nextBytes(random);
+		Files.write(content.resolve("random.bin"), random);
+		return content;
+	}
+
+	private void runArchive(IFolder buildFolder, String format, String fileSet, String destination) throws Exception {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <eclipse.archive destfile=\"${basedir}/" + destination + "\" format=\"" + format + "\" threadCount=\"4\">\n");
+		buffer.append("         <" + fileSet + " dir=\"${basedir}/content\" prefix=\"eclipse\"/>\n");
+		buffer.append("      </eclipse.archive>                                            \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		runScript(buildFolder, buffer, "default");
+	}
+
+	@Test
+	public void testParallelZip() throws Exception {
+		IFolder buildFolder = newTest("parallelZip");
+		Path content = createArchiveContent(buildFolder);
+		runArchive(buildFolder, "zip", "zipfileset", "result.zip");
+
+		File archive = buildFolder.getFile("result.zip").getLocation().toFile();
+		try (ZipFile zip = new ZipFile(archive, StandardCharsets.UTF_8)) {
+			assertEntryContent("long", zip, "eclipse/" + LONG_NAME);
+			assertEntryContent("accented", zip, "eclipse/" + ACCENTED_NAME);
+			ZipEntry empty = zip.getEntry("eclipse/empty/");
+			assertNotNull(empty);
+			assertTrue(empty.isDirectory());
+			ZipEntry random = zip.getEntry("eclipse/random.bin");
+			try (InputStream input = zip.getInputStream(random)) {
+				assertTrue(Arrays.equals(Files.readAllBytes(content.resolve("random.bin")), input.readAllBytes()));
+			}
+		}
+		try (org.apache.tools.zip.ZipFile zip = new org.apache.tools.zip.ZipFile(archive, "UTF-8")) {
+			assertEquals(0750, zip.getEntry("eclipse/launcher").getUnixMode() & 07777);
+			assertEquals(0755, zip.getEntry("eclipse/empty/").getUnixMode() & 07777);
+		}
+	}
+
+	private static void assertEntryContent(String expected, ZipFile zip, String name) throws IOException {
+		ZipEntry entry = zip.getEntry(name);
+		assertNotNull(name, entry);
+		try (InputStream input = zip.getInputStream(entry)) {
+			assertEquals(expected, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testParallelZip64() throws Exception {
+		IFolder buildFolder = newTest("parallelZip64");
+		Path content = buildFolder.getLocation().toFile().toPath().resolve("content");
+		//more entries than the classic format can count
+		for (int i = 0; i < 70000; i++) {
+			Path file = content.resolve("folder" + i / 1000).resolve("file" + i);
+			Files.createDirectories(file.getParent());
+			Files.write(file, String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+		}
+		//a sparse file bigger than 4GB
+		long hugeSize = 0x100000000L + 1024;
+		try (RandomAccessFile huge = new RandomAccessFile(content.resolve("huge.bin").toFile(), "rw")) {
+			huge.setLength(hugeSize);
+		}
+		runArchive(buildFolder, "zip", "zipfileset", "result.zip");
+
+		try (ZipFile zip = new ZipFile(buildFolder.getFile("result.zip").getLocation().toFile())) {
+			//the files, the 70 folders and the prefix folder
+			assertEquals(70000 + 70 + 1 + 1, zip.size());
+			assertEntryContent("69999", zip, "eclipse/folder69/file69999");
+			ZipEntry huge = zip.getEntry("eclipse/huge.bin");
+			assertEquals(hugeSize, huge.getSize());
+			try (InputStream input = zip.getInputStream(huge)) {
+				byte[] buffer = new byte[1024 * 1024];
+				long total = 0;
+				int n;
+				while ((n = input.read(buffer)) != -1)
+					total += n;
+				assertEquals(hugeSize, total);
+			}
+		}
+	}
+
+	@Test
+	public void testParallelTar() throws Exception {
+		IFolder buildFolder = newTest("parallelTar");
+		Path content = createArchiveContent(buildFolder);
+		runArchive(buildFolder, "tar", "tarfileset", "result.tar.gz");
+
+		File archive = buildFolder.getFile("result.tar.gz").getLocation().toFile();
+		Map<String, TarEntry> entries = new HashMap<>();
+		Map<String, byte[]> data = new HashMap<>();
+		try (TarInputStream input = new TarInputStream(new GZIPInputStream(new FileInputStream(archive)), "UTF-8")) {
+			TarEntry entry;
+			while ((entry = input.getNextEntry()) != null) {
+				entries.put(entry.getName(), entry);
+				if (!entry.isDirectory())
+					data.put(entry.getName(), input.readAllBytes());
+			}
+		}
+		assertEquals("long", new String(data.get("eclipse/" + LONG_NAME), StandardCharsets.UTF_8));
+		assertEquals("accented", new String(data.get("eclipse/" + ACCENTED_NAME), StandardCharsets.UTF_8));
+		assertTrue(Arrays.equals(Files.readAllBytes(content.resolve("random.bin")), data.get("eclipse/random.bin")));
+		assertTrue(entries.get("eclipse/empty/").isDirectory());
+		assertEquals(0755, entries.get("eclipse/empty/").getMode() & 07777);
+		assertEquals(0750, entries.get("eclipse/launcher").getMode() & 07777);
+		assertEquals(0644, entries.get("eclipse/random.bin").getMode() & 07777);
+
+		//the blocks compressed in parallel form a single gzip member, readers stopping after the first one see everything
+		byte[] gzip = Files.readAllBytes(archive.toPath());
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(gzip, 10, gzip.length - 10);
+			byte[] buffer = new byte[64 * 1024];
+			long total = 0;
+			while (!inflater.finished())
+				total += inflater.inflate(buffer);
+			assertEquals(8, inflater.getRemaining());
+			CRC32 crc = new CRC32();
+			try (InputStream input = new GZIPInputStream(new FileInputStream(archive))) {
+				int n;
+				long size = 0;
+				while ((n = input.read(buffer)) != -1) {
+					crc.update(buffer, 0, n);
+					size += n;
+				}
+				assertEquals(size, total);
+			}
+		} finally {
+			inflater.end();
+		}
+	}
+
+	@Test
+	public void testBundleTiming() throws Exception {
+		IFolder buildFolder = newTest("bundleTiming");
+
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <eclipse.bundleTiming bundle=\"a_1.0.0\" phase=\"build.jars\" requires=\"x_1.0.0,y_1.0.0\" file=\"timings.csv\">\n");
+		buffer.append("         <sleep milliseconds=\"100\"/>                              \n");
+		buffer.append("      </eclipse.bundleTiming>                                       \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("   <target name=\"failing\">                                        \n");
+		buffer.append("      <eclipse.bundleTiming bundle=\"b_1.0.0\" phase=\"build.jars\" file=\"timings.csv\">\n");
+		buffer.append("         <fail message=\"broken\"/>                                  \n");
+		buffer.append("      </eclipse.bundleTiming>                                       \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		runScript(buildFolder, buffer, "default");
+		try {
+			runScript(buildFolder, buffer, "failing");
+			fail("The failure of the nested tasks expected to be reported.");
+		} catch (Exception e) {
+			assertTrue(e.getMessage().indexOf("broken") > -1);
+		}
+
+		List<String> lines = Files.readAllLines(buildFolder.getFile("timings.csv").getLocation().toFile().toPath());
+		assertEquals(3, lines.size());
+		assertEquals("bundle,phase,start,millis,result,requires", lines.get(0));
+		String[] values = lines.get(1).split(",", -1);
+		assertEquals("a_1.0.0", values[0]);
+		assertEquals("build.jars", values[1]);
+		assertTrue(Long.parseLong(values[3]) >= 100);
+		assertEquals("ok", values[4]);
+		assertEquals("x_1.0.0 y_1.0.0", values[5]);
+		assertTrue(lines.get(2).startsWith("b_1.0.0,build.jars,"));
+		assertTrue(lines.get(2).endsWith(",failed,"));
+	}
+
+	@Test
+	public void testBundleTimingsCriticalPath() throws Exception {
+		IFolder buildFolder = newTest("bundleTimingsCriticalPath");
+
+		List<String> timings = new ArrayList<>();
+		timings.add("bundle,phase,start,millis,result,requires");
+		timings.add("a_1.0.0,build.jars,1000,1000,ok,");
+		timings.add("a_1.0.0,publish.bin.parts,5000,500,ok,");
+		//another version of the same bundle is timed on its own
+		timings.add("a_2.0.0,build.jars,1000,200,ok,");
+		//the prerequisites that are not timed are ignored
+		timings.add("b_1.0.0,build.jars,2000,3000,ok,a_1.0.0 x_1.0.0");
+		timings.add("c_1.0.0,build.jars,2000,500,ok,a_1.0.0");
+		timings.add("c_1.0.0,gather.bin.parts,3000,5000,ok,");
+		timings.add("d_1.0.0,build.jars,5000,1000,failed,b_1.0.0 c_1.0.0");
+		//binary bundles may require each other
+		timings.add("e_1.0.0,build.jars,1000,100,ok,f_1.0.0");
+		timings.add("f_1.0.0,build.jars,1000,100,ok,e_1.0.0");
+		//the publishing deferred to the end of a batch adds up with the rest of the phase
+		timings.add("a_1.0.0,publish.bin.parts,9000,500,ok,");
+		Files.write(buildFolder.getFile("timings.csv").getLocation().toFile().toPath(), timings);
+
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <eclipse.bundleTimingsSummary file=\"timings.csv\" output=\"summary.txt\" top=\"4\"/>\n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		runScript(buildFolder, buffer, "default");
+
+		//c waits for a and is gathered the longest, b compiles the longest but is not gathered
+		List<String> summary = Files.readAllLines(buildFolder.getFile("summary.txt").getLocation().toFile().toPath());
+		List<String> expected = new ArrayList<>();
+		expected.add("7 bundles, total work 11.9s, elapsed 8.5s");
+		expected.add("Critical path 6.5s, at most 1.8 bundles in parallel on average");
+		expected.add("    a_1.0.0 1.0s");
+		expected.add("    c_1.0.0 0.5s");
+		expected.add("Slowest bundles");
+		expected.add("   1. c_1.0.0 5.5s (46.2%), build.jars 0.5s, gather.bin.parts 5.0s");
+		expected.add("   2. b_1.0.0 3.0s (25.2%), build.jars 3.0s");
+		expected.add("   3. a_1.0.0 2.0s (16.8%), build.jars 1.0s, publish.bin.parts 1.0s");
+		expected.add("   4. d_1.0.0 1.0s (8.4%), build.jars 1.0s, failed");
+		assertEquals(expected, summary);
+	}
+
+	private void writeSource(IFolder buildFolder, String bundle, String type, String content) throws IOException {
+		Path source = buildFolder.getLocation().toFile().toPath().resolve(bundle + "/src/" + bundle + '/' + type + ".java");
+		Files.createDirectories(source.getParent());
+		Files.write(source, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/*
+	 * A wave compiling the given bundles like the generated compile scripts do, each bundle with its own log
+	 */
+	private StringBuffer compileBatchScript(String... bundles) {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <record name=\"${basedir}/record.log\" loglevel=\"verbose\"/>  \n");
+		buffer.append("      <eclipse.compileBatch threadCount=\"" + bundles.length + "\" linger=\"60000\">\n");
+		for (String bundle : bundles)
+			buffer.append("         <antcall target=\"" + bundle + "\"/>                     \n");
+		buffer.append("      </eclipse.compileBatch>                                       \n");
+		buffer.append("      <record name=\"${basedir}/record.log\" action=\"stop\"/>       \n");
+		buffer.append("   </target>                                                        \n");
+		for (String bundle : bundles) {
+			String classpath = bundle.equals("d") ? "${basedir}/lib/d.jar:${basedir}/lib" : "${basedir}/lib";
+			buffer.append("   <target name=\"" + bundle + "\">                               \n");
+			buffer.append("      <mkdir dir=\"${basedir}/" + bundle + "/bin\"/>              \n");
+			buffer.append("      <javac srcdir=\"${basedir}/" + bundle + "/src\" destdir=\"${basedir}/" + bundle + "/bin\" includeAntRuntime=\"false\"\n");
+			buffer.append("            classpath=\"" + classpath + "\" compiler=\"org.eclipse.pde.internal.build.tasks.BatchCompilerAdapter\">\n");
+			buffer.append("         <compilerarg line=\"-log '${basedir}/" + bundle + "/bin.log'\"/>\n");
+			buffer.append("         <compilerarg value=\"@${basedir}/javaCompiler.args\"/>   \n");
+			buffer.append("      </javac>                                                      \n");
+			buffer.append("   </target>                                                        \n");
+		}
+		buffer.append("</project>                                                          \n");
+		return buffer;
+	}
+
+	private void writeCompilerArguments(IFolder buildFolder) throws IOException {
+		//access rules containing a path separator, the classpath entries must not be split there
+		String rules = "#ADAPTER#ACCESS#lib[+lib/*" + File.pathSeparator + "-**/*]";
+		Files.write(buildFolder.getLocation().toFile().toPath().resolve("javaCompiler.args"), Arrays.asList("-warn:+unusedImport", rules));
+		Files.createDirectories(buildFolder.getLocation().toFile().toPath().resolve("lib"));
+	}
+
+	@Test
+	public void testCompileBatch() throws Exception {
+		IFolder buildFolder = newTest("compileBatch");
+		writeCompilerArguments(buildFolder);
+		writeSource(buildFolder, "a", "A", "package a; import java.util.List; public class A { }");
+		writeSource(buildFolder, "b", "B", "package b; public class B { }");
+		//a different classpath, compiled on its own
+		writeSource(buildFolder, "d", "D", "package d; public class D { }");
+		//left from a previous build, it must not be taken as written by the merged compilation
+		Path stale = buildFolder.getLocation().toFile().toPath().resolve("b/bin/b/Stale.class");
+		Files.createDirectories(stale.getParent());
+		Files.write(stale, new byte[] { 0 });
+		stale.toFile().setLastModified(0);
+
+		runScript(buildFolder, compileBatchScript("a", "b", "d"), "default");
+
+		for (String type : new String[] { "a/bin/a/A.class", "b/bin/b/B.class", "d/bin/d/D.class" })
+			assertTrue(type, buildFolder.getFile(type).getLocation().toFile().exists());
+		assertLogContainsLine(buildFolder.getFile("record.log"), "3 compilations in 2 compiler invocations");
+		//the problems of the merged compilation are reported in the log of their bundle
+		assertLogContainsLines(buildFolder.getFile("a/bin.log"), new String[] { "WARNING in", "a/src/a/A.java", "1 problem (1 warning)" });
+		assertTrue(Files.readAllLines(buildFolder.getFile("b/bin.log").getLocation().toFile().toPath()).isEmpty());
+	}
+
+	@Test
+	public void testCompileBatchCrossReference() throws Exception {
+		IFolder buildFolder = newTest("compileBatchCrossReference");
+		writeCompilerArguments(buildFolder);
+		writeSource(buildFolder, "a", "A", "package a; public class A { }");
+		//c does not have a on its classpath, the merged compilation must not hide it
+		writeSource(buildFolder, "c", "C", "package c; public class C extends a.A { }");
+
+		try {
+			runScript(buildFolder, compileBatchScript("a", "c"), "default");
+			fail("The compilation of c expected to fail.");
+		} catch (Exception e) {
+			assertTrue(e.getMessage().indexOf("Compile failed") > -1);
+		}
+
+		assertTrue(buildFolder.getFile("a/bin/a/A.class").getLocation().toFile().exists());
+		assertLogContainsLines(buildFolder.getFile("c/bin.log"), new String[] { "ERROR in", "c/src/c/C.java", "1 problem (1 error)" });
+		assertLogContainsLine(buildFolder.getFile("record.log"), "2 compilations in 2 compiler invocations");
+	}
+
+	private StringBuffer classpathIndexScript(String record) {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"jars\">                                           \n");
+		buffer.append("      <mkdir dir=\"${basedir}/lib/bin\"/>                           \n");
+		buffer.append("      <javac srcdir=\"${basedir}/lib/src\" destdir=\"${basedir}/lib/bin\" includeAntRuntime=\"false\"/>\n");
+		buffer.append("      <jar destfile=\"${basedir}/lib.jar\" basedir=\"${basedir}/lib/bin\"/>\n");
+		buffer.append("      <echo file=\"${basedir}/readme.txt\" message=\"readme\"/>   \n");
+		buffer.append("      <jar destfile=\"${basedir}/empty.jar\">                      \n");
+		buffer.append("         <fileset file=\"${basedir}/readme.txt\"/>                  \n");
+		buffer.append("      </jar>                                                        \n");
+		buffer.append("      <jar destfile=\"${basedir}/linked.jar\">                     \n");
+		buffer.append("         <manifest>                                                 \n");
+		buffer.append("            <attribute name=\"Class-Path\" value=\"lib.jar\"/>     \n");
+		buffer.append("         </manifest>                                                \n");
+		buffer.append("         <fileset file=\"${basedir}/readme.txt\"/>                  \n");
+		buffer.append("      </jar>                                                        \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <delete dir=\"${basedir}/a/bin\"/>                            \n");
+		buffer.append("      <mkdir dir=\"${basedir}/a/bin\"/>                             \n");
+		buffer.append("      <record name=\"${basedir}/" + record + "\" loglevel=\"verbose\"/>\n");
+		buffer.append("      <eclipse.classpathIndex>                                      \n");
+		buffer.append("         <javac srcdir=\"${basedir}/a/src\" destdir=\"${basedir}/a/bin\" includeAntRuntime=\"false\"\n");
+		buffer.append("               classpath=\"${basedir}/empty.jar:${basedir}/linked.jar\"\n");
+		buffer.append("               compiler=\"org.eclipse.pde.internal.build.tasks.BatchCompilerAdapter\"/>\n");
+		buffer.append("      </eclipse.classpathIndex>                                     \n");
+		buffer.append("      <record name=\"${basedir}/" + record + "\" action=\"stop\"/>  \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		return buffer;
+	}
+
+	@Test
+	public void testClasspathIndexPruning() throws Exception {
+		IFolder buildFolder = newTest("classpathIndexPruning");
+		writeSource(buildFolder, "lib", "L", "package lib; public class L { }");
+		//linked.jar has no class files, but its Class-Path brings lib.jar
+		writeSource(buildFolder, "a", "A", "package a; public class A extends lib.L { }");
+		runScript(buildFolder, classpathIndexScript("record.log"), "jars");
+
+		runScript(buildFolder, classpathIndexScript("record.log"), "default");
+		assertTrue(buildFolder.getFile("a/bin/a/A.class").getLocation().toFile().exists());
+		assertLogContainsLine(buildFolder.getFile("record.log"), "2 jars indexed, 2 opened for 2 lookups, 1 classpath entries without class files left out");
+
+		//the next build has its own index
+		runScript(buildFolder, classpathIndexScript("record2.log"), "default");
+		assertTrue(buildFolder.getFile("a/bin/a/A.class").getLocation().toFile().exists());
+		assertLogContainsLine(buildFolder.getFile("record2.log"), "2 jars indexed, 2 opened for 2 lookups");
+	}
+
+	private void writeBundleJar(IFolder buildFolder, String nested, boolean second) throws IOException {
+		File jar = buildFolder.getFile("bundle.jar").getLocation().toFile();
+		try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jar))) {
+			zip.putNextEntry(new ZipEntry("nested.jar"));
+			zip.write(nested.getBytes(StandardCharsets.UTF_8));
+			zip.putNextEntry(new ZipEntry("lib/one.txt"));
+			zip.write("one".getBytes(StandardCharsets.UTF_8));
+			if (second) {
+				zip.putNextEntry(new ZipEntry("lib/two.txt"));
+				zip.write("two".getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	private StringBuffer extractNestedJarScript(String record) {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <record name=\"${basedir}/" + record + "\" loglevel=\"verbose\"/>\n");
+		buffer.append("      <parallel>                                                    \n");
+		for (int i = 0; i < 3; i++)
+			buffer.append("         <eclipse.extractNestedJar jar=\"${basedir}/bundle.jar\" entry=\"nested.jar\" todir=\"${basedir}/cache\"/>\n");
+		buffer.append("      </parallel>                                                   \n");
+		buffer.append("      <eclipse.extractNestedJar jar=\"${basedir}/bundle.jar\" entry=\"lib/\" todir=\"${basedir}/cache\"/>\n");
+		buffer.append("      <record name=\"${basedir}/" + record + "\" action=\"stop\"/>  \n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		return buffer;
+	}
+
+	private List<String> readLines(IFolder buildFolder, String path) throws IOException {
+		return Files.readAllLines(buildFolder.getFile(path).getLocation().toFile().toPath(), StandardCharsets.UTF_8);
+	}
+
+	private int countLines(List<String> lines, String text) {
+		int count = 0;
+		for (String line : lines) {
+			if (line.indexOf(text) > -1)
+				count++;
+		}
+		return count;
+	}
+
+	@Test
+	public void testExtractNestedJar() throws Exception {
+		IFolder buildFolder = newTest("extractNestedJar");
+		writeBundleJar(buildFolder, "aaaa", true);
+		runScript(buildFolder, extractNestedJarScript("record.log"), "default");
+
+		//the concurrent extractions of the same entry wait for the first one, then find it up to date
+		List<String> record = readLines(buildFolder, "record.log");
+		assertEquals(1, countLines(record, "Extracted 1 files of " + buildFolder.getFile("bundle.jar").getLocation().toOSString() + "!nested.jar, 0 up to date"));
+		assertEquals(2, countLines(record, "!nested.jar, 1 up to date"));
+		assertEquals(1, countLines(record, "Extracted 2 files of "));
+		assertEquals(Collections.singletonList("aaaa"), readLines(buildFolder, "cache/nested.jar"));
+		assertEquals(Collections.singletonList("two"), readLines(buildFolder, "cache/lib/two.txt"));
+
+		//same sizes, and the same time to the second, only the content tells the new version apart
+		File jar = buildFolder.getFile("bundle.jar").getLocation().toFile();
+		long lastModified = jar.lastModified();
+		writeBundleJar(buildFolder, "bbbb", false);
+		jar.setLastModified(lastModified);
+		runScript(buildFolder, extractNestedJarScript("record2.log"), "default");
+
+		record = readLines(buildFolder, "record2.log");
+		assertEquals(1, countLines(record, "!nested.jar, 0 up to date"));
+		assertEquals(1, countLines(record, "!lib/, 1 up to date, 1 removed"));
+		assertEquals(Collections.singletonList("bbbb"), readLines(buildFolder, "cache/nested.jar"));
+		assertTrue(!buildFolder.getFile("cache/lib/two.txt").getLocation().toFile().exists());
+	}
+
+	private StringBuffer linkTreeScript(String destination, String attributes) {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">                       \n");
+		buffer.append("   <target name=\"default\">                                        \n");
+		buffer.append("      <eclipse.linkTree src=\"${basedir}/tree\" dest=\"${basedir}/" + destination + "\" " + attributes + "/>\n");
+		buffer.append("   </target>                                                        \n");
+		buffer.append("</project>                                                          \n");
+		return buffer;
+	}
+
+	@Test
+	public void testLinkTree() throws Exception {
+		IFolder buildFolder = newTest("linkTree");
+		Path tree = buildFolder.getLocation().toFile().toPath().resolve("tree");
+		Files.createDirectories(tree.resolve("a"));
+		Files.createDirectories(tree.resolve("b"));
+		Files.createDirectories(tree.resolve("e"));
+		Files.write(tree.resolve("a/X.class"), "class".getBytes(StandardCharsets.UTF_8));
+		Files.write(tree.resolve("a/y.txt"), "y".getBytes(StandardCharsets.UTF_8));
+		Files.write(tree.resolve("b/package.html"), "html".getBytes(StandardCharsets.UTF_8));
+
+		//with patterns only the folders of the selected files are created
+		runScript(buildFolder, linkTreeScript("selected", "includes=\"**/*.class,**/*.html\" excludes=\"**/package.htm*\""), "default");
+		Path selected = buildFolder.getLocation().toFile().toPath().resolve("selected");
+		assertTrue(Files.isSameFile(tree.resolve("a/X.class"), selected.resolve("a/X.class")));
+		assertTrue(!Files.exists(selected.resolve("a/y.txt")));
+		assertTrue(!Files.exists(selected.resolve("b")));
+		assertTrue(!Files.exists(selected.resolve("e")));
+
+		//without patterns the whole tree is mirrored, empty folders included
+		runScript(buildFolder, linkTreeScript("all", ""), "default");
+		Path all = buildFolder.getLocation().toFile().toPath().resolve("all");
+		assertTrue(Files.isSameFile(tree.resolve("a/y.txt"), all.resolve("a/y.txt")));
+		assertTrue(Files.isSameFile(tree.resolve("b/package.html"), all.resolve("b/package.html")));
+		assertTrue(Files.isDirectory(all.resolve("e")));
+
+		//a newer file of the destination is kept, an older one is replaced by a link
+		Path kept = buildFolder.getLocation().toFile().toPath().resolve("kept");
+		Files.createDirectories(kept.resolve("a"));
+		Files.write(kept.resolve("a/y.txt"), "newer".getBytes(StandardCharsets.UTF_8));
+		Files.write(kept.resolve("a/X.class"), "older".getBytes(StandardCharsets.UTF_8));
+		long lastModified = Files.getLastModifiedTime(tree.resolve("a/X.class")).toMillis();
+		Files.setLastModifiedTime(kept.resolve("a/y.txt"), FileTime.fromMillis(lastModified + 10000));
+		Files.setLastModifiedTime(kept.resolve("a/X.class"), FileTime.fromMillis(lastModified - 10000));
+		runScript(buildFolder, linkTreeScript("kept", "overwrite=\"false\""), "default");
+		assertEquals(Collections.singletonList("newer"), readLines(buildFolder, "kept/a/y.txt"));
+		assertTrue(Files.isSameFile(tree.resolve("a/X.class"), kept.resolve("a/X.class")));
+		assertTrue(Files.isSameFile(tree.resolve("b/package.html"), kept.resolve("b/package.html")));
+	}
+}
@@ -18,6 +18,7 @@ import java.io.File;
 import java.util.*;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.URIUtil;
 import org.eclipse.equinox.internal.p2.metadata.License;
@@ -526,4 +527,116 @@ public class LicenseTests extends P2TestCase {
 
 		assertEquals(feature.getLicense().trim(), "This is legal stuff");
 	}
+
+	@Test
+	public void testLicenseReplacerBatch() throws Exception {
+		IFolder buildFolder = newTest("licenseReplacerBatch");
+		IFolder licenseFolder = Utils.createFolder(buildFolder, "license");
+
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<feature id=\"license\" version=\"1.0.0\" >\n");
+		buffer.append("	<license url=\"%licenseURL\">%license</license>\n");
+		buffer.append("</feature>\n");
+		Utils.writeBuffer(licenseFolder.getFile("feature.xml"), buffer);
+
+		Properties licenseProperties = new Properties();
+		licenseProperties.put("license", "This is legal stuff");
+		licenseProperties.put("licenseURL", "license.html");
+		Utils.storeProperties(licenseFolder.getFile("feature.properties"), licenseProperties);
+
+		StringBuffer paths = new StringBuffer();
+		IFolder[] featureFolders = new IFolder[3];
+		for (int i = 0; i < featureFolders.length; i++) {
+			featureFolders[i] = Utils.createFolder(buildFolder, "f" + i);
+			buffer = new StringBuffer();
+			buffer.append("<feature id=\"f" + i + "\" version=\"1.0.0\" license-feature=\"license\" license-feature-version=\"1.0.0\">\n");
+			buffer.append("	<license url=\"http://old\">old</license>\n");
+			buffer.append("</feature>\n");
+			Utils.writeBuffer(featureFolders[i].getFile("feature.xml"), buffer);
+
+			Properties properties = new Properties();
+			properties.put("featureName", "F" + i);
+			Utils.storeProperties(featureFolders[i].getFile("feature.properties"), properties);
+
+			if (i > 1)
+				paths.append(File.pathSeparator);
+			if (i > 0)
+				paths.append(featureFolders[i].getLocation().toOSString());
+		}
+
+		// the license changes between the invocations, keeping its size and time
+		File licenseProperties = licenseFolder.getFile("feature.properties").getLocation().toFile();
+		buffer = new StringBuffer();
+		buffer.append("<project name=\"build\" basedir=\".\" >\n");
+		buffer.append("	<target name=\"test\">\n");
+		buffer.append("		<eclipse.licenseReplacer featureFilePath=\"" + featureFolders[0].getLocation().toOSString() + "\"\n");
+		buffer.append("			licenseFilePath=\"" + licenseFolder.getLocation().toOSString() + "\" />\n");
+		buffer.append("		<replace file=\"" + licenseProperties.getAbsolutePath() + "\" token=\"legal stuff\" value=\"LEGAL STUFF\" />\n");
+		buffer.append("		<touch file=\"" + licenseProperties.getAbsolutePath() + "\" millis=\"" + licenseProperties.lastModified() + "\" />\n");
+		buffer.append("		<eclipse.licenseReplacer featureFilePaths=\"" + paths.toString() + "\"\n");
+		buffer.append("			licenseFilePath=\"" + licenseFolder.getLocation().toOSString() + "\" />\n");
+		buffer.append("		<eclipse.licenseReplacer featureFilePath=\"" + featureFolders[0].getLocation().toOSString() + "\"\n");
+		buffer.append("			licenseFilePath=\"" + licenseFolder.getLocation().toOSString() + "\" unless=\"license.batched\" />\n");
+		buffer.append("	</target>\n");
+		buffer.append("</project>\n");
+		IFile buildXml = buildFolder.getFile("build.xml");
+		Utils.writeBuffer(buildXml, buffer);
+
+		Properties antProperties = new Properties();
+		antProperties.put("license.batched", "true");
+		runAntScript(buildXml.getLocation().toOSString(), new String[] { "test" },
+				buildFolder.getLocation().toOSString(), antProperties);
+
+		for (int i = 0; i < featureFolders.length; i++) {
+			IFolder featureFolder = featureFolders[i];
+			featureFolder.refreshLocal(IResource.DEPTH_INFINITE, null);
+			BuildTimeFeature feature = new BuildTimeFeatureFactory()
+					.parseBuildFeature(featureFolder.getFile("feature.xml").getLocationURI().toURL());
+			assertEquals("%license", feature.getLicense());
+			assertEquals("%licenseURL", feature.getLicenseURL());
+			assertNull(feature.getLicenseFeature());
+
+			Properties properties = Utils.loadProperties(featureFolder.getFile("feature.properties"));
+			assertEquals(3, properties.size());
+			assertEquals(i == 0 ? "This is legal stuff" : "This is LEGAL STUFF", properties.get("license"));
+		}
+	}
+
+	@Test
+	public void testLicenseReplacerBatchGeneration() throws Exception {
+		IFolder buildFolder = newTest("licenseReplacerBatchGeneration", "licenseFeature1");
+
+		// P and the F1 it includes share the license feature L1
+		IFolder p = Utils.createFolder(buildFolder, "features/P");
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<feature id=\"P\" version=\"1.0.0\" license-feature=\"L1\" license-feature-version=\"2.0.0.qualifier\">\n");
+		buffer.append("	<license url=\"replace my url\">replace my text</license>\n");
+		buffer.append("	<includes id=\"F1\" version=\"1.0.0\"/>\n");
+		buffer.append("</feature>\n");
+		Utils.writeBuffer(p.getFile("feature.xml"), buffer);
+		Properties properties = new Properties();
+		properties.put("featureName", "P");
+		Utils.storeProperties(p.getFile("feature.properties"), properties);
+		properties = new Properties();
+		properties.put("bin.includes", "feature.xml,feature.properties");
+		Utils.storeBuildProperties(p, properties);
+
+		properties = BuildConfiguration.getBuilderProperties(buildFolder);
+		properties.put("topLevelElementId", "P");
+		Utils.storeBuildProperties(buildFolder, properties);
+		runBuild(buildFolder);
+
+		// one call of P replaces the license of both, the one of F1 is left out
+		assertLogContainsLines(p.getFile("build.xml"), new String[] { "<param name=\"license.batched.F1_1.0.0\" value=\"true\"/>", "featureFilePaths=\"${feature.base}/features/F1_1.0.0\"" });
+		assertLogContainsLine(buildFolder.getFile("features/F1/build.xml"), "unless=\"license.batched.F1_1.0.0\"");
+
+		Properties licenseProperties = Utils.loadProperties(buildFolder.getFile("features/L1/feature.properties"));
+		for (String feature : new String[] { "P", "F1" }) {
+			IFile actualPropertiesFile = buildFolder.getFile("check" + feature);
+			Utils.extractFromZip(buildFolder, "I.TestBuild/P-TestBuild.zip", "eclipse/features/" + feature + "_1.0.0/feature.properties", actualPropertiesFile);
+			Properties actualProperties = Utils.loadProperties(actualPropertiesFile);
+			for (Object key : licenseProperties.keySet())
+				assertEquals(licenseProperties.get(key), actualProperties.get(key));
+		}
+	}
 }
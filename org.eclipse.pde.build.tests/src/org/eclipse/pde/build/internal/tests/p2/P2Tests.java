@@ -29,6 +29,7 @@ import org.eclipse.equinox.p2.metadata.IArtifactKey;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.query.IQueryResult;
 import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.repository.IRepository;
 import org.eclipse.equinox.p2.repository.artifact.*;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
 import org.eclipse.equinox.spi.p2.publisher.PublisherHelper;
@@ -1018,4 +1019,35 @@ public class P2Tests extends P2TestCase {
 		Bundle launcherBundle = Platform.getBundle("org.eclipse.equinox.launcher");
 		return FileLocator.getBundleFileLocation(launcherBundle).get().getAbsolutePath();
 	}
+
+	@Test
+	public void testResidentGenerator() throws Exception {
+		IFolder buildFolder = newTest("ResidentGenerator");
+		Utils.generateBundleManifest(Utils.createFolder(buildFolder, "src1/plugins/a"), "a", "1.0.0", null);
+		Utils.generateBundleManifest(Utils.createFolder(buildFolder, "src2/plugins/b"), "b", "1.0.0", null);
+		Utils.createFolder(buildFolder, "src1/features");
+		Utils.createFolder(buildFolder, "src2/features");
+
+		//the build ends without a final call, the second call asks for a compressed repository
+		String repoLocation = "file:" + buildFolder.getFolder("repo").getLocation().toOSString();
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"project\" default=\"default\">								\n");
+		buffer.append("   <target name=\"default\">													\n");
+		for (int i = 1; i <= 2; i++) {
+			buffer.append("      <p2.generator source=\"${basedir}/src" + i + "\" append=\"true\"			\n");
+			buffer.append("         metadataRepository=\"" + repoLocation + "\" artifactRepository=\"" + repoLocation + "\"\n");
+			buffer.append("         mode=\"incremental\" resident=\"true\" compress=\"" + (i == 2) + "\"/>	\n");
+		}
+		buffer.append("   </target>																	\n");
+		buffer.append("</project>																	\n");
+		IFile buildXML = buildFolder.getFile("build.xml");
+		Utils.writeBuffer(buildXML, buffer);
+		runAntScript(buildXML.getLocation().toOSString(), new String[] { "default" }, buildFolder.getLocation().toOSString(), null);
+
+		assertResourceFile(buildFolder, "repo/content.jar");
+		IMetadataRepository repository = loadMetadataRepository(repoLocation);
+		assertEquals("true", repository.getProperties().get(IRepository.PROP_COMPRESSED));
+		getIU(repository, "a");
+		getIU(repository, "b");
+	}
 }
@@ -15,14 +15,16 @@ package org.eclipse.pde.build.internal.tests.p2;
 
 import static org.junit.Assert.*;
 
-import java.io.File;
-import java.io.FilenameFilter;
+import java.io.*;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.jar.Attributes;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.apache.tools.ant.DirectoryScanner;
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.equinox.internal.p2.core.helpers.FileUtils;
@@ -30,6 +32,8 @@ import org.eclipse.equinox.internal.p2.metadata.IRequiredCapability;
 import org.eclipse.equinox.p2.metadata.*;
 import org.eclipse.equinox.p2.query.IQueryResult;
 import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
 import org.eclipse.equinox.spi.p2.publisher.PublisherHelper;
 import org.eclipse.osgi.util.ManifestElement;
@@ -2194,4 +2198,295 @@ public class PublishingTests extends P2TestCase {
 		getIU(repo, "org.eclipse.osgi.source");
 		getIU(repo, "bundle.source");
 	}
+
+	@Test
+	public void testPublishBatch_callbacks() throws Exception {
+		IFolder buildFolder = newTest("PublishBatch_callbacks");
+
+		IFolder a = Utils.createFolder(buildFolder, "plugins/a");
+		Utils.generateBundle(a, "a");
+		Utils.generateFeature(buildFolder, "f", null, new String[] { "a" });
+
+		//the custom gathering steps run once the elements are in the build repository
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"custom\" default=\"noDefault\">                                    \n");
+		buffer.append("   <target name=\"noDefault\"/>                                                      \n");
+		buffer.append("   <target name=\"gather.bin.parts\">                                                \n");
+		buffer.append("      <condition property=\"published\">                                             \n");
+		buffer.append("         <or>                                                                        \n");
+		buffer.append("            <available file=\"${buildDirectory}/buildRepo/plugins/${projectName}.jar\"/>\n");
+		buffer.append("            <available file=\"${buildDirectory}/buildRepo/features/${projectName}.jar\"/>\n");
+		buffer.append("         </or>                                                                       \n");
+		buffer.append("      </condition>                                                                   \n");
+		buffer.append("      <fail unless=\"published\" message=\"${projectName} is not published\"/>        \n");
+		buffer.append("      <echo message=\"published ${projectName}\"/>                                   \n");
+		buffer.append("   </target>                                                                         \n");
+		buffer.append("   <target name=\"post.gather.bin.parts\"/>                                          \n");
+		buffer.append("   <target name=\"post.jarUp\"/>                                                     \n");
+		buffer.append("   <target name=\"pre.archive\"/>                                                    \n");
+		buffer.append("</project>                                                                           \n");
+		Utils.writeBuffer(buildFolder.getFile("customAssembly.xml"), buffer);
+
+		Properties properties = BuildConfiguration.getBuilderProperties(buildFolder);
+		properties.put("topLevelElementId", "f");
+		properties.put("p2.gathering", "true");
+		properties.put("batchPublishing", "true");
+		Utils.storeBuildProperties(buildFolder, properties);
+		runBuild(buildFolder);
+
+		assertLogContainsLines(buildFolder.getFile("log.log"), new String[] { "published a_1.0.0", "published f_1.0.0" });
+	}
+
+	@Test
+	public void testPublishBatch_otherThreads() throws Exception {
+		IFolder buildFolder = newTest("PublishBatch_otherThreads");
+
+		IFolder a = Utils.createFolder(buildFolder, "plugins/a");
+		Utils.generateBundle(a, "a");
+		IFolder b = Utils.createFolder(buildFolder, "plugins/b");
+		Utils.generateBundle(b, "b");
+		Utils.generateFeature(buildFolder, "f", null, new String[] { "a", "b" });
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "f");
+		properties.put("p2.gathering", "true");
+		generateScripts(buildFolder, properties);
+		runAntScript(a.getFile("build.xml").getLocation().toOSString(), new String[] { "build.jars" }, buildFolder.getLocation().toOSString(), properties);
+		runAntScript(b.getFile("build.xml").getLocation().toOSString(), new String[] { "build.jars" }, buildFolder.getLocation().toOSString(), properties);
+
+		//b is published from another thread while the batch publishing a is open, it must not wait for the batch
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"batch\" default=\"default\">                                           \n");
+		buffer.append("   <target name=\"default\">                                                            \n");
+		buffer.append("      <parallel>                                                                        \n");
+		buffer.append("         <eclipse.publish.batch>                                                        \n");
+		buffer.append("            <ant antfile=\"build.xml\" dir=\"${basedir}/plugins/a\" target=\"publish.bin.parts\"/>\n");
+		buffer.append("            <waitfor maxwait=\"60\" maxwaitunit=\"second\">                              \n");
+		buffer.append("               <available file=\"${basedir}/b.done\"/>                                   \n");
+		buffer.append("            </waitfor>                                                                  \n");
+		buffer.append("         </eclipse.publish.batch>                                                       \n");
+		buffer.append("         <sequential>                                                                   \n");
+		buffer.append("            <ant antfile=\"build.xml\" dir=\"${basedir}/plugins/b\" target=\"publish.bin.parts\"/>\n");
+		buffer.append("            <available file=\"${basedir}/buildRepo/plugins/b_1.0.0.jar\" property=\"b.published\"/>\n");
+		buffer.append("            <available file=\"${basedir}/buildRepo/plugins/a_1.0.0.jar\" property=\"a.published\"/>\n");
+		buffer.append("            <fail unless=\"b.published\" message=\"b was queued in the batch of another thread\"/>\n");
+		buffer.append("            <fail if=\"a.published\" message=\"a was published before the end of its batch\"/>\n");
+		buffer.append("            <touch file=\"${basedir}/b.done\"/>                                          \n");
+		buffer.append("         </sequential>                                                                  \n");
+		buffer.append("      </parallel>                                                                       \n");
+		buffer.append("   </target>                                                                            \n");
+		buffer.append("</project>                                                                              \n");
+		IFile buildXML = buildFolder.getFile("batch.xml");
+		Utils.writeBuffer(buildXML, buffer);
+		runAntScript(buildXML.getLocation().toOSString(), new String[] { "default" }, buildFolder.getLocation().toOSString(), properties);
+
+		assertResourceFile(buildFolder, "buildRepo/plugins/a_1.0.0.jar");
+		assertResourceFile(buildFolder, "buildRepo/plugins/b_1.0.0.jar");
+	}
+
+	@Test
+	public void testPublishBundles_parallel() throws Exception {
+		IFolder buildFolder = newTest("PublishBundles_parallel");
+		IFolder repo = Utils.createFolder(buildFolder, "repo/plugins");
+
+		//the bundles are already in the repository, they must be added in place instead of copied onto themselves
+		for (int i = 0; i < 8; i++) {
+			IFolder bundle = Utils.createFolder(buildFolder, "bundles/b" + i);
+			Utils.generateBundleManifest(bundle, "b" + i, "1.0.0", null);
+			Utils.writeBuffer(bundle.getFile("META-INF/p2.inf"), new StringBuffer("instructions.install=myAction" + i + "(foo: bar);"));
+			File root = bundle.getLocation().toFile();
+			try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(new File(repo.getLocation().toFile(), "b" + i + "_1.0.0.jar")))) {
+				FileUtils.zip(output, root, Collections.emptySet(), FileUtils.createRootPathComputer(root));
+			}
+		}
+
+		String repoLocation = URIUtil.toUnencodedString(buildFolder.getFolder("repo").getLocationURI());
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"test\" default=\"publish\">			\n");
+		buffer.append("   <target name=\"publish\">							\n");
+		buffer.append("      <eclipse.publish.featuresAndBundles threadCount=\"4\"	\n");
+		buffer.append("          artifactrepository=\"" + repoLocation + "\" 	\n");
+		buffer.append("          metadatarepository=\"" + repoLocation + "\">	\n");
+		buffer.append("         <bundles dir=\"${basedir}/repo/plugins\" includes=\"*.jar\"/>	\n");
+		buffer.append("      </eclipse.publish.featuresAndBundles>				\n");
+		buffer.append("   </target>												\n");
+		buffer.append("</project>												\n");
+		IFile script = buildFolder.getFile("publish.xml");
+		Utils.writeBuffer(script, buffer);
+
+		runAntScript(script.getLocation().toOSString(), new String[] { "publish" }, buildFolder.getLocation().toOSString(), null);
+
+		IMetadataRepository metadata = loadMetadataRepository(repoLocation);
+		IArtifactRepository artifacts = loadArtifactRepository(repoLocation);
+		for (int i = 0; i < 8; i++) {
+			IInstallableUnit iu = getIU(metadata, "b" + i);
+			assertTouchpoint(iu, "install", "myAction" + i);
+			assertEquals(1, artifacts.getArtifactDescriptors(iu.getArtifacts().iterator().next()).length);
+			try (ZipFile zip = new ZipFile(new File(repo.getLocation().toFile(), "b" + i + "_1.0.0.jar"))) {
+				assertNotNull(zip.getEntry("META-INF/p2.inf"));
+			}
+		}
+	}
+
+	@Test
+	public void testGatherBundle_patterns() throws Exception {
+		IFolder buildFolder = newTest("GatherBundle_patterns");
+		IFolder bundle = Utils.createFolder(buildFolder, "bundle");
+		Utils.generateBundleManifest(bundle, "bundle", "1.0.0", null);
+		Utils.generateBundleManifest(Utils.createFolder(buildFolder, "result"), "bundle", "1.0.0", null);
+
+		String[] files = new String[] { "about.html", "notIncluded.txt", "icons/a.png", "icons/b.bak", "icons/skip/c.png",
+				"icons/CVS/Entries", "icons/.svn/entries", "icons/sub/.gitignore", "icons/sub/d.png", "data/one.txt",
+				"data/deep/two.txt", "data/deep/THREE.TXT", "data/Four.Txt", "data/five.xml", "Docs/readme.txt",
+				"Docs/private/secret.txt", "docs2/lower.txt", "lib/a.jar", "lib/b.zip", "lib/nested/c.jar" };
+		for (String file : files)
+			Utils.writeBuffer(bundle.getFile(file), new StringBuffer(file));
+
+		String[] includes = new String[] { "META-INF/", "about.html", "icons/", "data/**/*.txt", "Docs/", "docs2/", "lib/*.jar" };
+		String[] excludes = new String[] { "icons/skip/", "**/*.bak", "Docs/private/**", "DOCS2/" };
+		Properties properties = new Properties();
+		properties.put("bin.includes", String.join(",", includes));
+		properties.put("bin.excludes", String.join(",", excludes));
+		Utils.storeBuildProperties(bundle, properties);
+
+		String repoLocation = URIUtil.toUnencodedString(buildFolder.getFolder("repo").getLocationURI());
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"test\" default=\"gather\">				\n");
+		buffer.append("   <target name=\"gather\">								\n");
+		buffer.append("      <eclipse.gatherBundle repository=\"" + repoLocation + "\"	\n");
+		buffer.append("          baseDirectory=\"${basedir}/bundle\"				\n");
+		buffer.append("          buildResultFolder=\"${basedir}/result\"/>		\n");
+		buffer.append("   </target>													\n");
+		buffer.append("</project>													\n");
+		IFile script = buildFolder.getFile("gather.xml");
+		Utils.writeBuffer(script, buffer);
+		runAntScript(script.getLocation().toOSString(), new String[] { "gather" }, buildFolder.getLocation().toOSString(), null);
+
+		//the gathered files are the ones of a fileset with the same patterns
+		DirectoryScanner scanner = new DirectoryScanner();
+		scanner.setBasedir(bundle.getLocation().toFile());
+		scanner.setIncludes(includes);
+		List<String> allExcludes = new ArrayList<>(Arrays.asList(excludes));
+		allExcludes.add("META-INF/MANIFEST.MF");
+		scanner.setExcludes(allExcludes.toArray(new String[allExcludes.size()]));
+		scanner.addDefaultExcludes();
+		scanner.scan();
+		Set<String> expected = new TreeSet<>();
+		expected.add("META-INF/MANIFEST.MF");
+		for (String file : scanner.getIncludedFiles())
+			expected.add(file.replace(File.separatorChar, '/'));
+		assertTrue(expected.contains("data/deep/two.txt"));
+		assertFalse(expected.contains("data/deep/THREE.TXT"));
+		assertFalse(expected.contains("icons/CVS/Entries"));
+
+		assertResourceFile(buildFolder, "repo/plugins/bundle_1.0.0.jar");
+		Set<String> gathered = new TreeSet<>();
+		try (ZipFile zip = new ZipFile(buildFolder.getFile("repo/plugins/bundle_1.0.0.jar").getLocation().toFile())) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				if (!entry.isDirectory())
+					gathered.add(entry.getName());
+			}
+		}
+		assertEquals(expected, gathered);
+	}
+
+	@Test
+	public void testBuildRepository_compress() throws Exception {
+		IFolder buildFolder = newTest("BuildRepository_compress");
+		IFolder a = Utils.createFolder(buildFolder, "plugins/a");
+		Utils.generateBundleManifest(a, "a", "1.0.0", null);
+		IFolder b = Utils.createFolder(buildFolder, "plugins/b");
+		Utils.generateBundleManifest(b, "b", "1.0.0", null);
+
+		//a first publish creates the repository uncompressed, the nested one appends without asking for compression
+		String repoLocation = URIUtil.toUnencodedString(buildFolder.getFolder("repo").getLocationURI());
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"test\" default=\"publish\">									\n");
+		buffer.append("   <target name=\"publish\">													\n");
+		buffer.append("      <eclipse.publish.featuresAndBundles repository=\"" + repoLocation + "\">	\n");
+		buffer.append("         <bundles dir=\"${basedir}/plugins\" includes=\"a\"/>					\n");
+		buffer.append("      </eclipse.publish.featuresAndBundles>										\n");
+		buffer.append("      <eclipse.publish.buildRepository repository=\"" + repoLocation + "\" compress=\"true\">\n");
+		buffer.append("         <eclipse.publish.featuresAndBundles repository=\"" + repoLocation + "\" append=\"true\">\n");
+		buffer.append("            <bundles dir=\"${basedir}/plugins\" includes=\"b\"/>				\n");
+		buffer.append("         </eclipse.publish.featuresAndBundles>									\n");
+		buffer.append("      </eclipse.publish.buildRepository>											\n");
+		buffer.append("   </target>																		\n");
+		buffer.append("</project>																		\n");
+		IFile script = buildFolder.getFile("publish.xml");
+		Utils.writeBuffer(script, buffer);
+		runAntScript(script.getLocation().toOSString(), new String[] { "publish" }, buildFolder.getLocation().toOSString(), null);
+
+		assertResourceFile(buildFolder, "repo/content.jar");
+		assertResourceFile(buildFolder, "repo/artifacts.jar");
+		IMetadataRepository metadata = loadMetadataRepository(repoLocation);
+		assertEquals("true", metadata.getProperties().get(IRepository.PROP_COMPRESSED));
+		IArtifactRepository artifacts = loadArtifactRepository(repoLocation);
+		assertEquals("true", artifacts.getProperties().get(IRepository.PROP_COMPRESSED));
+		getIU(metadata, "a");
+		getIU(metadata, "b");
+	}
+
+	@Test
+	public void testBrand_archiveRoundTrip() throws Exception {
+		IFolder buildFolder = newTest("Brand_archiveRoundTrip");
+		IFolder f = Utils.createFolder(buildFolder, "features/f");
+		Utils.generateFeature(buildFolder, "f", null, null);
+		String[] files = new String[] { "launcher", "about.html", "a/b/c.txt", "a/d.txt", "\u00e9t\u00e9/x.txt" };
+		for (String file : files)
+			Utils.writeBuffer(f.getFile("app/" + file), new StringBuffer("content of " + file));
+		Properties rootProperties = new Properties();
+		rootProperties.put("root.linux.gtk.x86_64", "app");
+		Utils.storeBuildProperties(f, rootProperties);
+
+		Properties properties = BuildConfiguration.getScriptGenerationProperties(buildFolder, "feature", "f");
+		properties.put("p2.gathering", "true");
+		properties.put("configs", "linux,gtk,x86_64");
+		generateScripts(buildFolder, properties);
+		runAntScript(f.getFile("build.xml").getLocation().toOSString(), new String[] { "publish.bin.parts" }, buildFolder.getLocation().toOSString(), properties);
+
+		String repoLocation = URIUtil.toUnencodedString(buildFolder.getFolder("buildRepo").getLocationURI());
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<project name=\"test\" default=\"brand\">										\n");
+		buffer.append("   <target name=\"brand\">														\n");
+		buffer.append("      <eclipse.brand.p2.artifacts launcherName=\"branded\" config=\"linux.gtk.x86_64\"	\n");
+		buffer.append("          launcherProvider=\"f\" productId=\"org.example.rcp\" productVersion=\"1.0.0\"	\n");
+		buffer.append("          repository=\"" + repoLocation + "\" tempDirectory=\"${basedir}/tmp\"/>		\n");
+		buffer.append("   </target>																		\n");
+		buffer.append("</project>																		\n");
+		IFile script = buildFolder.getFile("brand.xml");
+		Utils.writeBuffer(script, buffer);
+		runAntScript(script.getLocation().toOSString(), new String[] { "brand" }, buildFolder.getLocation().toOSString(), null);
+
+		//the archive reusing the original entries reads like the branded folder zipped by FileUtils
+		File branded = buildFolder.getFile("buildRepo/binary/org.example.rcp_root.gtk.linux.x86_64_1.0.0").getLocation().toFile();
+		assertTrue(branded.isFile());
+		File extracted = buildFolder.getFolder("extracted").getLocation().toFile();
+		FileUtils.unzipFile(branded, extracted);
+		File reference = buildFolder.getFile("reference.zip").getLocation().toFile();
+		try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(reference))) {
+			FileUtils.zip(output, extracted, Collections.emptySet(), FileUtils.createRootPathComputer(extracted));
+		}
+
+		Map<String, String> brandedEntries = readEntries(branded);
+		assertEquals(readEntries(reference), brandedEntries);
+		assertEquals("content of launcher", brandedEntries.get("branded"));
+		assertEquals("content of \u00e9t\u00e9/x.txt", brandedEntries.get("\u00e9t\u00e9/x.txt"));
+		assertTrue(brandedEntries.containsKey("a/b/"));
+	}
+
+	private Map<String, String> readEntries(File archive) throws IOException {
+		Map<String, String> result = new TreeMap<>();
+		try (ZipFile zip = new ZipFile(archive)) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				try (InputStream stream = zip.getInputStream(entry)) {
+					result.put(entry.getName(), new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return result;
+	}
 }
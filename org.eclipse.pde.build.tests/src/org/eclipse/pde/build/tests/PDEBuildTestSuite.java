@@ -20,6 +20,6 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ SourceTests.class, ScriptGenerationTests.class, ProductTests.class, LicenseTests.class,
-		AssembleTests.class, P2TestSuite.class, FetchTests.class })
+		AssembleTests.class, P2TestSuite.class, FetchTests.class, TaskTests.class })
 public class PDEBuildTestSuite {
 }
@@ -208,6 +208,7 @@ public abstract class AbstractScriptGenerator implements IXMLConstants, IPDEBuil
 		File file = new File(location, fileName);
 		try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
 			result.load(input);
+			BuildMetrics.count(BuildMetrics.PROPERTIES_READ);
 		} catch (FileNotFoundException e) {
 			if (errorLevel != IStatus.INFO && errorLevel != IStatus.OK) {
 				String message = NLS.bind(Messages.exception_missingFile, file);
@@ -230,7 +231,7 @@ public abstract class AbstractScriptGenerator implements IXMLConstants, IPDEBuil
 	protected static AntScript newAntScript(String scriptLocation, String scriptName) throws CoreException {
 		AntScript result = null;
 		try {
-			OutputStream scriptStream = new BufferedOutputStream(new FileOutputStream(scriptLocation + '/' + scriptName));
+			OutputStream scriptStream = new BufferedOutputStream(BuildMetrics.countScript(new FileOutputStream(scriptLocation + '/' + scriptName)));
 			try {
 				result = new AntScript(scriptStream);
 			} catch (IOException e) {
@@ -310,7 +311,10 @@ public abstract class AbstractScriptGenerator implements IXMLConstants, IPDEBuil
 		factory.setEESources(getEESources());
 		factory.setInitialState(pdeUIState);
 
-		BuildTimeSite result = factory.createSite();
+		BuildTimeSite result;
+		try (BuildMetrics.Phase phase = BuildMetrics.phase("createSite")) { //$NON-NLS-1$
+			result = factory.createSite();
+		}
 		siteFactory = factory;
 
 		if (platformProperties != null)
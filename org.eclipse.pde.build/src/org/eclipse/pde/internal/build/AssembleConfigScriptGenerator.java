@@ -49,6 +49,7 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 
 	private static final String PROPERTY_SOURCE = "source"; //$NON-NLS-1$
 	private static final String PROPERTY_ELEMENT_NAME = "elementName"; //$NON-NLS-1$
+	private static final String PROPERTY_SHARED_GATHERED = "sharedPluginsGathered"; //$NON-NLS-1$
 
 	private static final byte BUNDLE_TYPE = 0;
 	private static final byte FEATURE_TYPE = 1;
@@ -64,6 +65,9 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 	private ProductFile productFile = null;
 	protected ShapeAdvisor shapeAdvisor = null;
 	private Boolean p2Bundles = null;
+	private boolean parallel = false;
+	private int archiveCount = -1;
+	private Set<BundleDescription> sharedPlugins = Collections.emptySet();
 
 	public AssembleConfigScriptGenerator() {
 		super();
@@ -85,8 +89,17 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 		this.plugins = elementList.toArray(this.plugins);
 
 		openScript(directoryName, getTargetName() + ".xml"); //$NON-NLS-1$
-		shapeAdvisor = new ShapeAdvisor();
-		shapeAdvisor.setForceUpdateJars(forceUpdateJarFormat);
+		if (shapeAdvisor == null) {
+			shapeAdvisor = new ShapeAdvisor();
+			shapeAdvisor.setForceUpdateJars(forceUpdateJarFormat);
+		}
+	}
+
+	/**
+	 * The advisor shared by the generators of the build, a new one is created otherwise.
+	 */
+	public void setShapeAdvisor(ShapeAdvisor shapeAdvisor) {
+		this.shapeAdvisor = shapeAdvisor;
 	}
 
 	protected String computeIconsList() {
@@ -157,12 +170,16 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 	}
 
 	protected void generateP2Assembling() {
+		if (parallel)
+			script.printLimit("p2", "1"); //$NON-NLS-1$ //$NON-NLS-2$
 		if (productFile != null) {
 			script.printAntCallTask(TARGET_RUN_DIRECTOR, true, null);
 			script.printAntCallTask(TARGET_MIRROR_PRODUCT, true, null);
 		} else {
 			script.printAntCallTask(TARGET_MIRROR_ARCHIVE, true, null);
 		}
+		if (parallel)
+			script.printEndLimit();
 	}
 
 	protected void generateMirrorProductTask() {
@@ -310,7 +327,11 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 	}
 
 	private void generateArchivingCalls() {
+		if (parallel)
+			script.printLimit("archive", Utils.getPropertyFormat(PROPERTY_PARALLEL_ARCHIVE_COUNT)); //$NON-NLS-1$
 		script.printAntCallTask(TARGET_ASSEMBLE_ARCHIVE, true, null);
+		if (parallel)
+			script.printEndLimit();
 	}
 
 	protected void generateMainBegin() {
@@ -344,7 +365,11 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 			return;
 		if (rootFileProviders.size() == 0 && features.length == 0 && plugins.length == 0)
 			return;
+		if (parallel)
+			script.printLimit("p2", "1"); //$NON-NLS-1$ //$NON-NLS-2$
 		script.printAntCallTask(TARGET_P2_METADATA, true, null);
+		if (parallel)
+			script.printEndLimit();
 		script.println();
 	}
 
@@ -388,6 +413,10 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 			generateAntTarTarget();
 		} else if (FORMAT_TAR.equalsIgnoreCase(archiveFormat)) {
 			generateTarGZTasks(true);
+		} else if (FORMAT_PARALLEL_ZIP.equalsIgnoreCase(archiveFormat)) {
+			generateParallelArchiveTarget("zip"); //$NON-NLS-1$
+		} else if (FORMAT_PARALLEL_TAR.equalsIgnoreCase(archiveFormat)) {
+			generateParallelArchiveTarget("tar"); //$NON-NLS-1$
 		}
 		script.printTargetEnd();
 		script.println();
@@ -539,6 +568,12 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 		if (productFile != null && productFile.getLauncherName() != null)
 			script.printProperty(PROPERTY_LAUNCHER_NAME, productFile.getLauncherName());
 		script.printProperty(PROPERTY_TAR_ARGS, ""); //$NON-NLS-1$
+		if (parallel)
+			script.printProperty(PROPERTY_PARALLEL_ARCHIVE_COUNT, String.valueOf(archiveCount));
+		if (!sharedPlugins.isEmpty()) {
+			script.printProperty(PROPERTY_ASSEMBLY_SHARED, getSharedGatherFolder(featureId));
+			script.printProperty(PROPERTY_SHARED_GATHERING_COPY, FALSE);
+		}
 		script.println();
 
 		generateCustomGatherMacro();
@@ -576,7 +611,11 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 	}
 
 	protected void printCustomGatherCall(String fullName, String dir, String propertyName, String propertyValue, String subFolder) {
-		script.println("<" + PROPERTY_CUSTOM_GATHER + " dir=\"" + dir + "\" projectName=\"" + fullName + "\" propertyName=\"" + propertyName + "\" propertyValue=\"" + propertyValue + "\" subFolder=\"" + (subFolder != null ? subFolder : "") + "\" />"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+		printCustomGatherCall(PROPERTY_CUSTOM_GATHER, fullName, dir, propertyName, propertyValue, subFolder);
+	}
+
+	protected void printCustomGatherCall(String macro, String fullName, String dir, String propertyName, String propertyValue, String subFolder) {
+		script.println("<" + macro + " dir=\"" + dir + "\" projectName=\"" + fullName + "\" propertyName=\"" + propertyName + "\" propertyValue=\"" + propertyValue + "\" subFolder=\"" + (subFolder != null ? subFolder : "") + "\" />"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
 	}
 
 	private void generateInitializationSteps() {
@@ -623,8 +662,24 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 	}
 
 	protected void generateGatherBinPartsTarget() {
+		boolean sharing = !sharedPlugins.isEmpty();
 		script.printTargetDeclaration(TARGET_GATHER_BIN_PARTS, null, null, null, null);
+		if (sharing) {
+			//the first configuration gathers the shared plug-ins, the others only link them
+			script.printLimit(TARGET_GATHER_SHARED_BIN_PARTS, "1"); //$NON-NLS-1$
+			script.printAvailableTask(PROPERTY_SHARED_GATHERED, Utils.getPropertyFormat(PROPERTY_ASSEMBLY_SHARED) + "/.gathered"); //$NON-NLS-1$
+			script.printAntCallTask(TARGET_GATHER_SHARED_BIN_PARTS, true, null);
+			script.printEndLimit();
+			//custom steps modifying the gathered plug-ins in place must ask for a copy, the changes would otherwise reach the other configurations
+			Map<String, String> args = new LinkedHashMap<>(3);
+			args.put("src", Utils.getPropertyFormat(PROPERTY_ASSEMBLY_SHARED) + '/' + DEFAULT_PLUGIN_LOCATION); //$NON-NLS-1$
+			args.put("dest", Utils.getPropertyFormat(PROPERTY_ECLIPSE_PLUGINS)); //$NON-NLS-1$
+			args.put("copy", Utils.getPropertyFormat(PROPERTY_SHARED_GATHERING_COPY)); //$NON-NLS-1$
+			script.printElement("eclipse.linkTree", args); //$NON-NLS-1$
+		}
 		for (BundleDescription plugin : plugins) {
+			if (sharing && sharedPlugins.contains(plugin))
+				continue;
 			String placeToGather = getLocation(plugin);
 			printCustomGatherCall(ModelBuildScriptGenerator.getNormalizedName(plugin), Utils.makeRelative(new Path(placeToGather), new Path(workingDirectory)).toOSString(), PROPERTY_DESTINATION_TEMP_FOLDER, Utils.getPropertyFormat(PROPERTY_ECLIPSE_PLUGINS), null);
 		}
@@ -647,6 +702,22 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 		}
 		script.printTargetEnd();
 		script.println();
+
+		if (sharing)
+			generateGatherSharedBinPartsTarget();
+	}
+
+	private void generateGatherSharedBinPartsTarget() {
+		script.printTargetDeclaration(TARGET_GATHER_SHARED_BIN_PARTS, null, null, PROPERTY_SHARED_GATHERED, null);
+		for (BundleDescription plugin : plugins) {
+			if (!sharedPlugins.contains(plugin))
+				continue;
+			String placeToGather = getLocation(plugin);
+			printCustomGatherCall(ModelBuildScriptGenerator.getNormalizedName(plugin), Utils.makeRelative(new Path(placeToGather), new Path(workingDirectory)).toOSString(), PROPERTY_DESTINATION_TEMP_FOLDER, Utils.getPropertyFormat(PROPERTY_ASSEMBLY_SHARED) + '/' + DEFAULT_PLUGIN_LOCATION, null);
+		}
+		script.printEchoTask(Utils.getPropertyFormat(PROPERTY_ASSEMBLY_SHARED) + "/.gathered", featureId); //$NON-NLS-1$
+		script.printTargetEnd();
+		script.println();
 	}
 
 	private void generateSignJarCall(String name, String version, byte type) {
@@ -768,6 +839,7 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 					script.printAttribute("mode", "incremental", true); //$NON-NLS-1$ //$NON-NLS-2$
 				else
 					script.printAttribute("mode", Utils.getPropertyFormat(PROPERTY_P2_GENERATION_MODE), true); //$NON-NLS-1$
+				script.printAttribute("resident", Utils.getPropertyFormat(PROPERTY_P2_RESIDENT), true); //$NON-NLS-1$
 				script.println("/>"); //$NON-NLS-1$
 			}
 			if (rootFileProviders.size() > 0) {
@@ -795,6 +867,7 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 					script.printAttribute("mode", "incremental", true); //$NON-NLS-1$ //$NON-NLS-2$
 				else
 					script.printAttribute("mode", Utils.getPropertyFormat(PROPERTY_P2_GENERATION_MODE), true); //$NON-NLS-1$
+				script.printAttribute("resident", Utils.getPropertyFormat(PROPERTY_P2_RESIDENT), true); //$NON-NLS-1$
 				if (productFile != null) {
 					script.printAttribute("exe", rootFolder + '/' + Utils.getPropertyFormat(PROPERTY_LAUNCHER_NAME), true); //$NON-NLS-1$
 					script.printAttribute("productFile", Utils.getPropertyFormat(PROPERTY_P2_PRODUCT_MOD), true); //$NON-NLS-1$
@@ -894,7 +967,7 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 	}
 
 	protected String computeArchiveName() {
-		String extension = (FORMAT_TAR.equalsIgnoreCase(archiveFormat) || FORMAT_ANTTAR.equalsIgnoreCase(archiveFormat)) ? ".tar.gz" : ".zip"; //$NON-NLS-1$ //$NON-NLS-2$
+		String extension = (FORMAT_TAR.equalsIgnoreCase(archiveFormat) || FORMAT_ANTTAR.equalsIgnoreCase(archiveFormat) || FORMAT_PARALLEL_TAR.equalsIgnoreCase(archiveFormat)) ? ".tar.gz" : ".zip"; //$NON-NLS-1$ //$NON-NLS-2$
 		return featureId + "-" + Utils.getPropertyFormat(PROPERTY_BUILD_ID_PARAM) + (configInfo.equals(Config.genericConfig()) ? "" : ("-" + configInfo.toStringReplacingAny(".", ANY_STRING))) + extension; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 	}
 
@@ -926,6 +999,25 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 
 	//TODO this code and the generateAntTarTarget() should be refactored using a factory or something like that.
 	protected void generateAntZipTarget() {
+		List<FileSet> fileSets = getZipFileSets();
+		if (fileSets.size() > 0) {
+			FileSet[] sets = fileSets.toArray(new FileSet[fileSets.size()]);
+			script.printZipTask(Utils.getPropertyFormat(PROPERTY_ARCHIVE_FULLPATH), null, false, true, sets);
+		}
+	}
+
+	/**
+	 * Archive with the in-process archiver, the content is the same as for antZip.
+	 */
+	protected void generateParallelArchiveTarget(String format) {
+		List<FileSet> fileSets = getZipFileSets();
+		if (fileSets.size() > 0) {
+			FileSet[] sets = fileSets.toArray(new FileSet[fileSets.size()]);
+			script.printArchiveTask(Utils.getPropertyFormat(PROPERTY_ARCHIVE_FULLPATH), format, sets);
+		}
+	}
+
+	private List<FileSet> getZipFileSets() {
 		List<FileSet> fileSets = new ArrayList<>();
 
 		if (BuildDirector.p2Gathering) {
@@ -959,10 +1051,7 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 				}
 			}
 		}
-		if (fileSets.size() > 0) {
-			FileSet[] sets = fileSets.toArray(new FileSet[fileSets.size()]);
-			script.printZipTask(Utils.getPropertyFormat(PROPERTY_ARCHIVE_FULLPATH), null, false, true, sets);
-		}
+		return fileSets;
 	}
 
 	protected Collection<BuildTimeFeature> getArchiveRootFileProviders() {
@@ -1079,4 +1168,24 @@ public class AssembleConfigScriptGenerator extends AbstractScriptGenerator {
 	public void setGroupConfigs(boolean group) {
 		groupConfigs = group;
 	}
+
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	public void setArchiveCount(int archiveCount) {
+		this.archiveCount = archiveCount;
+	}
+
+	/**
+	 * Set the plug-ins that are gathered once in a folder shared by all the configurations
+	 * and hard linked into the archive root of each configuration.
+	 */
+	public void setSharedPlugins(Set<BundleDescription> sharedPlugins) {
+		this.sharedPlugins = sharedPlugins != null ? sharedPlugins : Collections.emptySet();
+	}
+
+	public static String getSharedGatherFolder(String feature) {
+		return Utils.getPropertyFormat(PROPERTY_BUILD_DIRECTORY) + "/sharedAssembly/" + feature; //$NON-NLS-1$
+	}
 }
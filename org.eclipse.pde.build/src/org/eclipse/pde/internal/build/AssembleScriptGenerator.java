@@ -16,6 +16,7 @@ package org.eclipse.pde.internal.build;
 import java.io.File;
 import java.util.*;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.equinox.internal.p2.publisher.eclipse.ProductFile;
 import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.pde.internal.build.builder.BuildDirector;
@@ -29,8 +30,15 @@ public class AssembleScriptGenerator extends AbstractScriptGenerator {
 	protected boolean groupConfigs = false;
 	protected boolean versionsList = false;
 	protected String productLocation = null;
+	protected boolean parallel = false;
+	protected int threadCount = -1;
+	protected boolean sharedGathering = false;
+	protected boolean batchPublishing = false;
+	protected boolean residentBuildRepository = false;
 
 	protected AssembleConfigScriptGenerator configScriptGenerator;
+	//shared by the config script generators and the p2 one, the shapes are computed once for the build
+	protected ShapeAdvisor shapeAdvisor;
 
 	public AssembleScriptGenerator(String directory, AssemblyInformation assemblageInformation, String featureId) {
 		this.directory = directory;
@@ -55,6 +63,8 @@ public class AssembleScriptGenerator extends AbstractScriptGenerator {
 	public void generate() throws CoreException {
 		//make sure the script generator is initialized with the site before we try doing anything with it.
 		configScriptGenerator.setBuildSiteFactory(siteFactory);
+		shapeAdvisor = ShapeAdvisor.createShared(forceUpdateJarFormat, assemblageInformation.getAllPlugins(), assemblageInformation.getAllFeatures());
+		configScriptGenerator.setShapeAdvisor(shapeAdvisor);
 
 		try {
 			openScript(directory, getScriptName());
@@ -79,6 +89,8 @@ public class AssembleScriptGenerator extends AbstractScriptGenerator {
 	protected void generatePrologue() {
 		if (productQualifier != null)
 			script.printProperty(PROPERTY_P2_PRODUCT_QUALIFIER, productQualifier);
+		if (parallel)
+			script.printProperty(PROPERTY_ASSEMBLY_TMP, Utils.getPropertyFormat(PROPERTY_BUILD_DIRECTORY) + "/tmp"); //$NON-NLS-1$
 		script.println();
 	}
 
@@ -100,6 +112,9 @@ public class AssembleScriptGenerator extends AbstractScriptGenerator {
 		properties.put("assembleScriptName", "@{scriptPrefix}.@{element}@{dot}@{config}.xml"); //$NON-NLS-1$ //$NON-NLS-2$
 		properties.put("element", "@{element}"); //$NON-NLS-1$//$NON-NLS-2$
 		properties.put("config", "@{config}"); //$NON-NLS-1$//$NON-NLS-2$
+		//configurations assembled concurrently can't share the same temporary folder
+		if (parallel)
+			properties.put(PROPERTY_ASSEMBLY_TMP, Utils.getPropertyFormat(PROPERTY_ASSEMBLY_TMP) + "/@{config}"); //$NON-NLS-1$
 		script.printAntTask(Utils.getPropertyFormat(DEFAULT_CUSTOM_TARGETS), null, "${customOrDefault.@{config}}", null, null, properties); //$NON-NLS-1$
 		script.printEndMacroDef();
 	}
@@ -129,17 +144,75 @@ public class AssembleScriptGenerator extends AbstractScriptGenerator {
 			}
 			basicGenerateAssembleConfigFileTargetCall(new Config("group", "group", "group"), allPlugins, allFeatures, features, rootFiles); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		} else {
+			Set<BundleDescription> sharedPlugins = computeSharedPlugins();
+			configScriptGenerator.setSharedPlugins(sharedPlugins);
+			String sharedFolder = AssembleConfigScriptGenerator.getSharedGatherFolder(featureId);
+			if (!sharedPlugins.isEmpty())
+				script.printDeleteTask(sharedFolder, null, null);
+
+			boolean parallelConfigs = parallel && getConfigInfos().size() > 1;
+			if (parallelConfigs) {
+				//the configurations share the limits of the build
+				script.printBuildScope();
+				script.printParallel(threadCount, 0);
+			}
 			for (Config current : getConfigInfos()) {
 				@SuppressWarnings("rawtypes")
 				Collection[] configInfo = getConfigInfos(current);
 				basicGenerateAssembleConfigFileTargetCall(current, configInfo[0], configInfo[1], configInfo[2], configInfo[3]);
 			}
+			if (parallelConfigs) {
+				script.printEndParallel();
+				script.printEndBuildScope();
+			}
+
+			if (!sharedPlugins.isEmpty())
+				script.printDeleteTask(sharedFolder, null, null);
+			configScriptGenerator.setSharedPlugins(null);
 		}
 		if (configScriptGenerator.haveP2Bundles() && !BuildDirector.p2Gathering)
 			script.printAntCallTask(TARGET_P2_METADATA, true, null);
 		script.printTargetEnd();
 	}
 
+	/**
+	 * Return the plug-ins which are assembled the same way in all the configurations and can
+	 * therefore be gathered only once. Plug-ins with a platform filter or whose build.properties
+	 * refer to $os$, $ws$, $arch$ or $nl$ are always gathered for each configuration.
+	 * Nothing is shared when the jars are signed since signing modifies them in place.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Set<BundleDescription> computeSharedPlugins() throws CoreException {
+		Collection<Config> configs = getConfigInfos();
+		if (!sharedGathering || BuildDirector.p2Gathering || configs.size() < 2 || configScriptGenerator.isSigning())
+			return Collections.emptySet();
+
+		Set<BundleDescription> result = null;
+		for (Config config : configs) {
+			Collection<BundleDescription> configPlugins = getConfigInfos(config)[0];
+			if (result == null)
+				result = new LinkedHashSet<>(configPlugins);
+			else
+				result.retainAll(configPlugins);
+		}
+		for (Iterator<BundleDescription> iterator = result.iterator(); iterator.hasNext();) {
+			BundleDescription plugin = iterator.next();
+			if (plugin.getPlatformFilter() != null || usesPlatformVariables(plugin))
+				iterator.remove();
+		}
+		return result;
+	}
+
+	private boolean usesPlatformVariables(BundleDescription plugin) throws CoreException {
+		Properties properties = readProperties(getLocation(plugin), PROPERTIES_FILE, IStatus.OK);
+		for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+			String value = entry.getKey().toString() + entry.getValue();
+			if (value.contains(DESCRIPTION_VARIABLE_OS) || value.contains(DESCRIPTION_VARIABLE_WS) || value.contains(DESCRIPTION_VARIABLE_ARCH) || value.contains(DESCRIPTION_VARIABLE_NL))
+				return true;
+		}
+		return false;
+	}
+
 	protected boolean shouldGroupConfigs() {
 		if (!BuildDirector.p2Gathering)
 			return groupConfigs;
@@ -167,12 +240,15 @@ public class AssembleScriptGenerator extends AbstractScriptGenerator {
 		P2ConfigScriptGenerator p2ConfigGenerator = new P2ConfigScriptGenerator(assemblageInformation, true);
 		p2ConfigGenerator.setProduct(productLocation);
 		p2ConfigGenerator.setBuildSiteFactory(siteFactory);
+		p2ConfigGenerator.setShapeAdvisor(shapeAdvisor);
 		p2ConfigGenerator.initialize(directory, featureId);
 		p2ConfigGenerator.setSignJars(configScriptGenerator.isSigning());
 		p2ConfigGenerator.setVersionsList(versionsList);
 		p2ConfigGenerator.setContextMetadata(contextMetadata);
 		p2ConfigGenerator.setContextArtifacts(contextArtifacts);
 		p2ConfigGenerator.setProductQualifier(productQualifier);
+		p2ConfigGenerator.setBatchPublishing(batchPublishing);
+		p2ConfigGenerator.setResidentBuildRepository(residentBuildRepository);
 		p2ConfigGenerator.generate();
 
 		script.printTab();
@@ -246,6 +322,7 @@ public class AssembleScriptGenerator extends AbstractScriptGenerator {
 			script.printAttribute("artifactRepositoryName", Utils.getPropertyFormat(PROPERTY_P2_ARTIFACT_REPO_NAME), true); //$NON-NLS-1$
 			script.printAttribute("publishArtifacts", Utils.getPropertyFormat(PROPERTY_P2_PUBLISH_ARTIFACTS), true); //$NON-NLS-1$ 
 			script.printAttribute("mode", "${mode}", true); //$NON-NLS-1$ //$NON-NLS-2$
+			script.printAttribute("resident", Utils.getPropertyFormat(PROPERTY_P2_RESIDENT), true); //$NON-NLS-1$
 
 			if (product != null) {
 				script.printAttribute("productFile", Utils.getPropertyFormat(PROPERTY_P2_PRODUCT_MOD), true); //$NON-NLS-1$
@@ -289,4 +366,50 @@ public class AssembleScriptGenerator extends AbstractScriptGenerator {
 	public void setVersionsList(boolean versionsList) {
 		this.versionsList = versionsList;
 	}
+
+	/**
+	 * Assemble the configurations concurrently, each one in its own temporary folder.
+	 * The p2 steps of the configurations are still run one at a time.
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+		configScriptGenerator.setParallel(parallel);
+	}
+
+	/**
+	 * The maximum number of configurations assembled at the same time, -1 for Ant's default.
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Gather the plug-ins common to all the configurations once and hard link them into each configuration.
+	 */
+	public void setSharedGathering(boolean sharedGathering) {
+		this.sharedGathering = sharedGathering;
+	}
+
+	/**
+	 * When gathering with p2, publish all the bundles and features in a single publisher session
+	 * instead of loading and saving the build repository for each of them.
+	 */
+	public void setBatchPublishing(boolean batchPublishing) {
+		this.batchPublishing = batchPublishing;
+	}
+
+	/**
+	 * When gathering with p2, keep the build repository loaded while the elements are published
+	 * to it and write it once at the end, compressed when p2.compress is set.
+	 */
+	public void setResidentBuildRepository(boolean residentBuildRepository) {
+		this.residentBuildRepository = residentBuildRepository;
+	}
+
+	/**
+	 * The maximum number of archives written at the same time, -1 for no limit.
+	 */
+	public void setArchiveCount(int archiveCount) {
+		configScriptGenerator.setArchiveCount(archiveCount);
+	}
 }
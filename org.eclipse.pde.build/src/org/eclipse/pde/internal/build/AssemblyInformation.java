@@ -102,6 +102,15 @@ public class AssemblyInformation implements IPDEBuildConstants {
 		return result;
 	}
 
+	public Set<BuildTimeFeature> getAllFeatures() {
+		Set<BuildTimeFeature> result = new LinkedHashSet<>();
+		for (AssemblyLevelConfigInfo assemblyLevelConfigInfo : assembleInformation.values()) {
+			result.addAll(assemblyLevelConfigInfo.getFeatures());
+			result.addAll(assemblyLevelConfigInfo.getRootFileProvider());
+		}
+		return result;
+	}
+
 	public Set<BundleDescription> getAllCompiledPlugins() {
 		Collection<AssemblyLevelConfigInfo> pluginsByConfig = assembleInformation.values();
 		Set<BundleDescription> result = new LinkedHashSet<>();
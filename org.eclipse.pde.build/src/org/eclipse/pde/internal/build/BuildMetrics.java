@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time the phases of the generation and count what it reads and writes.
+ * <p>
+ * The metrics are only recorded between {@link #enable()} and {@link #disable(BuildMetrics)}, otherwise
+ * starting a phase or counting costs a single check. They are recorded by the thread which enabled
+ * them and the threads it starts meanwhile, so the tasks of builds running next to each other record
+ * their own metrics. Metrics enabled while others are recorded by the same thread replace them until
+ * they are disabled.
+ * </p>
+ * <p>
+ * Phases nest, a phase started while another one is running on the same thread is recorded under the
+ * path of the running one, like <code>buildScript/createSite</code>. The phases started on the worker
+ * threads of the generators are recorded at the top level.
+ * </p>
+ */
+public final class BuildMetrics {
+	public static final String BUNDLES_LOADED = "bundlesLoaded"; //$NON-NLS-1$
+	public static final String MANIFESTS_PARSED = "manifestsParsed"; //$NON-NLS-1$
+	public static final String PROPERTIES_READ = "propertiesRead"; //$NON-NLS-1$
+	public static final String SCRIPTS_WRITTEN = "scriptsWritten"; //$NON-NLS-1$
+	public static final String BYTES_WRITTEN = "bytesWritten"; //$NON-NLS-1$
+
+	public static final String PHASE_WRITE_SCRIPTS = "writeScripts"; //$NON-NLS-1$
+
+	private static final InheritableThreadLocal<BuildMetrics> current = new InheritableThreadLocal<>();
+
+	private final BuildMetrics previous;
+	private final long start = System.currentTimeMillis();
+	private final Map<String, Statistic> phases = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+	private final ThreadLocal<String> running = new ThreadLocal<>();
+
+	private BuildMetrics(BuildMetrics previous) {
+		//use enable()
+		this.previous = previous;
+	}
+
+	/**
+	 * A running phase, its time is recorded when it is closed.
+	 */
+	public static class Phase implements AutoCloseable {
+		static final Phase NONE = new Phase(null, null, null);
+
+		private final BuildMetrics metrics;
+		private final String path;
+		private final String parent;
+		private final long begin;
+
+		Phase(BuildMetrics metrics, String path, String parent) {
+			this.metrics = metrics;
+			this.path = path;
+			this.parent = parent;
+			this.begin = metrics != null ? System.nanoTime() : 0;
+		}
+
+		@Override
+		public void close() {
+			if (metrics == null)
+				return;
+			metrics.record(path, System.nanoTime() - begin);
+			if (parent != null)
+				metrics.running.set(parent);
+			else
+				metrics.running.remove();
+		}
+	}
+
+	private static class Statistic {
+		final LongAdder count = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+	}
+
+	/**
+	 * Start recording new metrics on the current thread.
+	 * @return the metrics to give to {@link #disable(BuildMetrics)}
+	 */
+	public static BuildMetrics enable() {
+		BuildMetrics metrics = new BuildMetrics(current.get());
+		current.set(metrics);
+		return metrics;
+	}
+
+	/**
+	 * Stop recording the given metrics, the ones recorded when they were enabled are recorded again.
+	 */
+	public static void disable(BuildMetrics metrics) {
+		if (current.get() == metrics) {
+			if (metrics.previous != null)
+				current.set(metrics.previous);
+			else
+				current.remove();
+		}
+	}
+
+	public static boolean isEnabled() {
+		return current.get() != null;
+	}
+
+	/**
+	 * Start timing the given phase, to be used in a try-with-resources statement.
+	 */
+	public static Phase phase(String name) {
+		BuildMetrics metrics = current.get();
+		if (metrics == null)
+			return Phase.NONE;
+		String parent = metrics.running.get();
+		String path = parent != null ? parent + '/' + name : name;
+		metrics.running.set(path);
+		return new Phase(metrics, path, parent);
+	}
+
+	public static void count(String counter) {
+		count(counter, 1);
+	}
+
+	public static void count(String counter, long amount) {
+		BuildMetrics metrics = current.get();
+		if (metrics != null)
+			metrics.counters.computeIfAbsent(counter, c -> new LongAdder()).add(amount);
+	}
+
+	/**
+	 * Count the scripts written to the given stream, its bytes and the time spent writing them.
+	 * @return the stream to write to, the given one if the metrics are not enabled
+	 */
+	public static OutputStream countScript(OutputStream out) {
+		final BuildMetrics metrics = current.get();
+		if (metrics == null)
+			return out;
+		metrics.counters.computeIfAbsent(SCRIPTS_WRITTEN, c -> new LongAdder()).increment();
+		return new FilterOutputStream(out) {
+			@Override
+			public void write(int b) throws IOException {
+				long begin = System.nanoTime();
+				out.write(b);
+				written(1, begin, false);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				long begin = System.nanoTime();
+				out.write(b, off, len);
+				written(len, begin, false);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				long begin = System.nanoTime();
+				out.flush();
+				written(0, begin, false);
+			}
+
+			@Override
+			public void close() throws IOException {
+				long begin = System.nanoTime();
+				out.close();
+				written(0, begin, true);
+			}
+
+			private void written(int length, long begin, boolean closed) {
+				metrics.record(PHASE_WRITE_SCRIPTS, System.nanoTime() - begin, closed);
+				if (length > 0)
+					metrics.counters.computeIfAbsent(BYTES_WRITTEN, c -> new LongAdder()).add(length);
+			}
+		};
+	}
+
+	void record(String path, long nanos) {
+		record(path, nanos, true);
+	}
+
+	void record(String path, long nanos, boolean occurrence) {
+		Statistic statistic = phases.computeIfAbsent(path, p -> new Statistic());
+		statistic.nanos.add(nanos);
+		if (occurrence)
+			statistic.count.increment();
+	}
+
+	/**
+	 * Append these metrics to the given report. The report is written as CSV if its name ends with
+	 * <code>.csv</code>, otherwise as one JSON object per line.
+	 * @param location the report file
+	 * @param task the name of the task which recorded the metrics
+	 */
+	public void appendReport(File location, String task) throws IOException {
+		boolean csv = location.getName().toLowerCase(Locale.ENGLISH).endsWith(".csv"); //$NON-NLS-1$
+		boolean header = !location.exists() || location.length() == 0;
+		File parent = location.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(location, true), StandardCharsets.UTF_8))) {
+			if (csv)
+				writeCSV(out, task, header);
+			else
+				writeJSON(out, task);
+		}
+	}
+
+	private void writeCSV(Writer out, String task, boolean header) throws IOException {
+		if (header)
+			out.write("task,start,kind,name,count,millis\n"); //$NON-NLS-1$
+		String prefix = csvValue(task) + ',' + start + ',';
+		for (Map.Entry<String, Statistic> phase : new TreeMap<>(phases).entrySet()) {
+			Statistic statistic = phase.getValue();
+			out.write(prefix + "phase," + csvValue(phase.getKey()) + ',' + statistic.count.sum() + ',' + toMillis(statistic.nanos.sum()) + '\n'); //$NON-NLS-1$
+		}
+		for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet())
+			out.write(prefix + "counter," + csvValue(counter.getKey()) + ',' + counter.getValue().sum() + ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void writeJSON(Writer out, String task) throws IOException {
+		StringBuilder json = new StringBuilder();
+		json.append("{\"task\":").append(jsonValue(task)); //$NON-NLS-1$
+		json.append(",\"start\":").append(start); //$NON-NLS-1$
+		json.append(",\"phases\":{"); //$NON-NLS-1$
+		boolean first = true;
+		for (Map.Entry<String, Statistic> phase : new TreeMap<>(phases).entrySet()) {
+			if (!first)
+				json.append(',');
+			first = false;
+			Statistic statistic = phase.getValue();
+			json.append(jsonValue(phase.getKey())).append(":{\"count\":").append(statistic.count.sum()); //$NON-NLS-1$
+			json.append(",\"millis\":").append(toMillis(statistic.nanos.sum())).append('}'); //$NON-NLS-1$
+		}
+		json.append("},\"counters\":{"); //$NON-NLS-1$
+		first = true;
+		for (Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+			if (!first)
+				json.append(',');
+			first = false;
+			json.append(jsonValue(counter.getKey())).append(':').append(counter.getValue().sum());
+		}
+		json.append("}}\n"); //$NON-NLS-1$
+		out.write(json.toString());
+	}
+
+	private static String toMillis(long nanos) {
+		return String.format(Locale.ENGLISH, "%.3f", Double.valueOf(nanos / 1e6)); //$NON-NLS-1$
+	}
+
+	private static String csvValue(String value) {
+		if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1)
+			return value;
+		return '"' + value.replace("\"", "\"\"") + '"'; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static String jsonValue(String value) {
+		StringBuilder result = new StringBuilder(value.length() + 2);
+		result.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\')
+				result.append('\\').append(c);
+			else if (c < 0x20)
+				result.append(String.format("\\u%04x", Integer.valueOf(c))); //$NON-NLS-1$
+			else
+				result.append(c);
+		}
+		return result.append('"').toString();
+	}
+}
@@ -61,6 +61,12 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 	protected boolean workspaceBinaries = false;
 	protected int threadCount = -1;
 	protected int threadsPerProcessor = -1;
+	protected boolean parallelAssembly = false;
+	protected int assemblyThreadCount = -1;
+	protected int archiveCount = -1;
+	protected boolean sharedGathering = false;
+	protected boolean batchPublishing = false;
+	protected boolean residentBuildRepository = false;
 	protected String[] eeSources = null;
 
 	protected String product;
@@ -126,7 +132,9 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 
 			// It is not required to filter in the two first generateModels, since
 			// it is only for the building of a single plugin
-			generateModels(plugins);
+			try (BuildMetrics.Phase phase = BuildMetrics.phase("generateBundles")) { //$NON-NLS-1$
+				generateModels(plugins);
+			}
 			generateFeatures(features);
 			flushState();
 		} finally {
@@ -247,28 +255,34 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 		if (generator != null) {
 			try {
 				String[] featureInfo = null;
-				for (String feature2 : features) {
-					featureInfo = getNameAndVersion(feature2);
-					BuildTimeFeature feature = getSite(false).findFeature(featureInfo[0], featureInfo[1], true);
-					generator.generate(feature);
+				try (BuildMetrics.Phase phase = BuildMetrics.phase("generateFeatures")) { //$NON-NLS-1$
+					for (String feature2 : features) {
+						featureInfo = getNameAndVersion(feature2);
+						BuildTimeFeature feature = getSite(false).findFeature(featureInfo[0], featureInfo[1], true);
+						generator.generate(feature);
+					}
+
+					if (sourceBundleMode != null)
+						generateSourceBundles(generator);
 				}
 
-				if (sourceBundleMode != null)
-					generateSourceBundles(generator);
-
 				if (features.size() != 1)
 					featureInfo = new String[] {"all"}; //$NON-NLS-1$
 
 				if (flatten)
-					generateCompileScript(assemblageInformation, featureInfo);
+					generateCompileScript(generator, assemblageInformation, featureInfo);
 
 				if (generateAssembleScript == true) {
-					generateAssembleScripts(assemblageInformation, featureInfo, generator.siteFactory);
+					try (BuildMetrics.Phase phase = BuildMetrics.phase("generateAssembly")) { //$NON-NLS-1$
+						generateAssembleScripts(assemblageInformation, featureInfo, generator.siteFactory);
+					}
 
 					if (features.size() != 1)
 						featureInfo = new String[] {""}; //$NON-NLS-1$
 
-					generatePackageScripts(assemblageInformation, featureInfo, generator.siteFactory);
+					try (BuildMetrics.Phase phase = BuildMetrics.phase("generatePackaging")) { //$NON-NLS-1$
+						generatePackageScripts(assemblageInformation, featureInfo, generator.siteFactory);
+					}
 				}
 				if (generateVersionsList)
 					generateVersionsLists(assemblageInformation);
@@ -419,6 +433,9 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 		assembler.setVersionsList(generateVersionsList);
 		assembler.setContextMetadata(contextMetadata);
 		assembler.setContextArtifacts(contextArtifacts);
+		assembler.setParallel(parallelAssembly);
+		assembler.setThreadCount(assemblyThreadCount);
+		assembler.setArchiveCount(archiveCount);
 		assembler.generate();
 	}
 
@@ -434,11 +451,18 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 		assembler.setVersionsList(generateVersionsList);
 		assembler.setContextMetadata(contextMetadata);
 		assembler.setContextArtifacts(contextArtifacts);
+		assembler.setParallel(parallelAssembly);
+		assembler.setThreadCount(assemblyThreadCount);
+		assembler.setArchiveCount(archiveCount);
+		assembler.setSharedGathering(sharedGathering);
+		assembler.setBatchPublishing(batchPublishing);
+		assembler.setResidentBuildRepository(residentBuildRepository);
 		assembler.generate();
 	}
 
-	private void generateCompileScript(AssemblyInformation assemblageInformation, String[] featureInfo) throws CoreException {
+	private void generateCompileScript(BuildDirector director, AssemblyInformation assemblageInformation, String[] featureInfo) throws CoreException {
 		CompilationScriptGenerator generator = new CompilationScriptGenerator();
+		generator.setDirector(director);
 		generator.setBuildSiteFactory(siteFactory);
 		generator.setWorkingDirectory(workingDirectory);
 		generator.setAssemblyData(assemblageInformation);
@@ -662,6 +686,30 @@ public class BuildScriptGenerator extends AbstractScriptGenerator {
 		this.threadsPerProcessor = threadsPerProcessor;
 	}
 
+	public void setParallelAssembly(boolean parallelAssembly) {
+		this.parallelAssembly = parallelAssembly;
+	}
+
+	public void setAssemblyThreadCount(int assemblyThreadCount) {
+		this.assemblyThreadCount = assemblyThreadCount;
+	}
+
+	public void setArchiveCount(int archiveCount) {
+		this.archiveCount = archiveCount;
+	}
+
+	public void setSharedGathering(boolean sharedGathering) {
+		this.sharedGathering = sharedGathering;
+	}
+
+	public void setBatchPublishing(boolean batchPublishing) {
+		this.batchPublishing = batchPublishing;
+	}
+
+	public void setResidentBuildRepository(boolean residentBuildRepository) {
+		this.residentBuildRepository = residentBuildRepository;
+	}
+
 	public void setEESources(String[] eeSources) {
 		this.eeSources = eeSources;
 	}
@@ -495,7 +495,7 @@ public class FetchScriptGenerator extends AbstractScriptGenerator {
 		File target = new File(root, DEFAULT_RETRIEVE_FILENAME_DESCRIPTOR);
 		IPath destination = new Path(root.getAbsolutePath()).append("tempFeature/"); //$NON-NLS-1$
 		try {
-			AntScript retrieve = new AntScript(new BufferedOutputStream(new FileOutputStream(target)));
+			AntScript retrieve = new AntScript(new BufferedOutputStream(BuildMetrics.countScript(new FileOutputStream(target))));
 			try {
 				retrieve.printProjectDeclaration("RetrieveFeature", "main", "."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 				retrieve.printTargetDeclaration(TARGET_MAIN, null, null, null, null);
@@ -522,7 +522,7 @@ public class FetchScriptGenerator extends AbstractScriptGenerator {
 
 		// Run the Ant script to go to and retrieve the feature.xml. Call the Update
 		// code to construct the feature object to return.
-		try {
+		try (BuildMetrics.Phase phase = BuildMetrics.phase("retrieveFeature")) { //$NON-NLS-1$
 			Map<String, String> retrieveProp = new HashMap<>();
 			retrieveProp.put("fetch.failonerror", "true"); //$NON-NLS-1$//$NON-NLS-2$
 			retrieveProp.put("buildDirectory", getWorkingDirectory()); //$NON-NLS-1$
@@ -120,6 +120,8 @@ public interface IBuildPropertiesConstants {
 	public static final String PROPERTY_P2_MIRROR_SLICING_INCLUDE_OPTIONAL = "p2.mirror.slicing.includeOptional"; //$NON-NLS-1$
 	public static final String PROPERTY_P2_MIRROR_SLICING_LATEST_VERSION_ONLY = "p2.mirror.slicing.latestVersionOnly"; //$NON-NLS-1$
 	public static final String PROPERTY_P2_MIRROR_SLICING_PLATFORM_FILTER = "p2.mirror.slicing.platformFilter"; //$NON-NLS-1$
+	public static final String PROPERTY_P2_PUBLISH_THREAD_COUNT = "p2.publish.threadCount"; //$NON-NLS-1$
+	public static final String PROPERTY_P2_RESIDENT = "p2.resident"; //$NON-NLS-1$
 	public static final String PROPERTY_SKIP_MIRRORING = "skipMirroring"; //$NON-NLS-1$
 	public static final String PROPERTY_SKIP_DIRECTOR = "skipDirector"; //$NON-NLS-1$
 
@@ -158,4 +160,13 @@ public interface IBuildPropertiesConstants {
 	public static final String PROPERTY_GENERATE_ECLIPSEPRODUCT = "generateEclipseProduct"; //$NON-NLS-1$
 	public static final String PROPERTY_GENERATED_FEATURE_LABEL = "generatedFeatureLabel"; //$NON-NLS-1$
 	public static final String PROPERTY_FETCH_CACHE = "fetchCacheLocation"; //$NON-NLS-1$
+	public static final String PROPERTY_METRICS_REPORT = "metricsReport"; //$NON-NLS-1$
+	public static final String PROPERTY_BUNDLE_TIMINGS = "bundleTimings"; //$NON-NLS-1$
+	public static final String PROPERTY_BUNDLE_TIMINGS_FILE = "bundleTimingsFile"; //$NON-NLS-1$
+	public static final String PROPERTY_SHARED_GATHERING_COPY = "sharedGatheringCopy"; //$NON-NLS-1$
+	public static final String PROPERTY_BATCH_COMPILATION = "batchCompilation"; //$NON-NLS-1$
+	public static final String PROPERTY_SHARED_CLASSPATH_INDEX = "sharedClasspathIndex"; //$NON-NLS-1$
+	public static final String PROPERTY_SHARED_COMPILER_SETTINGS = "sharedCompilerSettings"; //$NON-NLS-1$
+	public static final String PROPERTY_SHARED_NESTED_JARS = "sharedNestedJars"; //$NON-NLS-1$
+	public static final String PROPERTY_LINK_WORKSPACE_BINARIES = "linkWorkspaceBinaries"; //$NON-NLS-1$
 }
@@ -55,6 +55,7 @@ public interface IPDEBuildConstants {
 	public final static String DEFAULT_FETCH_SCRIPT_FILENAME = "fetch.xml"; //$NON-NLS-1$
 	public final static String DEFAULT_ASSEMBLE_FILENAME = "assemble.xml"; //$NON-NLS-1$
 	public final static String DEFAULT_PLUGIN_LOCATION = "plugins"; //$NON-NLS-1$
+	public final static String DEFAULT_COMPILER_SETTINGS_LOCATION = "compilerSettings"; //$NON-NLS-1$
 	public final static String DEFAULT_TEMPLATE_SCRIPT_FILENAME = "template.xml"; //$NON-NLS-1$
 	public final static String GENERIC_VERSION_NUMBER = "0.0.0"; //$NON-NLS-1$ 
 	public final static String ANY_STRING = "ANY"; //$NON-NLS-1$
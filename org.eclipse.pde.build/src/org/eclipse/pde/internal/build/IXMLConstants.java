@@ -22,6 +22,7 @@ public interface IXMLConstants {
 	public static final String MACRO_ASSIGNMENT_PREFIX = "@{"; //$NON-NLS-1$
 	public static final String PROPERTY_ASSIGNMENT_SUFFIX = "}"; //$NON-NLS-1$
 	public static final String JDT_COMPILER_ADAPTER = "org.eclipse.jdt.core.JDTCompilerAdapter"; //$NON-NLS-1$
+	public static final String BATCH_COMPILER_ADAPTER = "org.eclipse.pde.internal.build.tasks.BatchCompilerAdapter"; //$NON-NLS-1$
 
 	// element description variables (used in files like plugin.xml, e.g. $ws$)
 	public static final String DESCRIPTION_VARIABLE_NL = "$nl$"; //$NON-NLS-1$
@@ -42,6 +43,7 @@ public interface IXMLConstants {
 	public static final String TARGET_FETCH = "fetch"; //$NON-NLS-1$
 	public static final String TARGET_API_GENERATION = "apitools.generation"; //$NON-NLS-1$
 	public static final String TARGET_GATHER_BIN_PARTS = "gather.bin.parts"; //$NON-NLS-1$
+	public static final String TARGET_GATHER_SHARED_BIN_PARTS = "gather.shared.bin.parts"; //$NON-NLS-1$
 	public static final String TARGET_P2_SYNCH_CONTEXT = "p2.synch.context"; //$NON-NLS-1$
 	public static final String TARGET_P2_COMPATIBILITY_GATHER_EXECUTABLE = "p2.compatibility.gather.executable"; //$NON-NLS-1$
 	public static final String TARGET_P2_CONTEXT_EXISTS = "p2.context.exists"; //$NON-NLS-1$
@@ -109,6 +111,8 @@ public interface IXMLConstants {
 	public static final String PROPERTY_FEATURE_VERSION_SUFFIX = "feature.version.suffix"; //$NON-NLS-1$
 	public static final String PROPERTY_FULL_NAME = "full.name"; //$NON-NLS-1$
 	public static final String PROPERTY_INCLUDE_CHILDREN = "include.children"; //$NON-NLS-1$
+	//prefix of the properties set for the included features whose license is replaced by the feature including them
+	public static final String PROPERTY_LICENSE_BATCHED = "license.batched."; //$NON-NLS-1$
 	public static final String PROPERTY_LAUNCHER_ICONS = "launcherIcons"; //$NON-NLS-1$
 	public static final String PROPERTY_LAUNCHER_NAME = "launcherName"; //$NON-NLS-1$
 	public static final String PROPERTY_LAUNCHER_PROVIDER = "launcherProvider"; //$NON-NLS-1$
@@ -163,6 +167,8 @@ public interface IXMLConstants {
 	public static final String PROPERTY_CLASSPATH = ".classpath"; //$NON-NLS-1$
 	public static final String PROPERTY_RUN_PACKAGER = "runPackager"; //$NON-NLS-1$
 	public static final String PROPERTY_ASSEMBLY_TMP = "assemblyTempDir"; //$NON-NLS-1$
+	public static final String PROPERTY_PARALLEL_ARCHIVE_COUNT = "parallelArchiveCount"; //$NON-NLS-1$
+	public static final String PROPERTY_ASSEMBLY_SHARED = "assemblySharedDir"; //$NON-NLS-1$
 	public static final String PROPERTY_CUSTOM_ASSEMBLY = "customAssembly"; //$NON-NLS-1$
 	public static final String PROPERTY_CUSTOM_GATHER = "customGather"; //$NON-NLS-1$
 	public static final String PROPERTY_PROJECT_LOCATION = "projectLocation"; //$NON-NLS-1$
@@ -200,4 +206,6 @@ public interface IXMLConstants {
 	public static final String FORMAT_ZIP = "zip"; //$NON-NLS-1$
 	public static final String FORMAT_ANTZIP = "antZip"; //$NON-NLS-1$
 	public static final String FORMAT_FOLDER = "folder"; //$NON-NLS-1$
+	public static final String FORMAT_PARALLEL_ZIP = "parallelZip"; //$NON-NLS-1$
+	public static final String FORMAT_PARALLEL_TAR = "parallelTar"; //$NON-NLS-1$
 }
@@ -33,9 +33,13 @@ import org.osgi.framework.Version;
 
 public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 	private static final VersionRange OLD_EXECUTABLE_RANGE = new VersionRange(Version.emptyVersion, true, new Version(3, 3, 200, "v20090306-1900"), false); //$NON-NLS-1$
+	private static final String CUSTOM_GATHER_CALLBACK = PROPERTY_CUSTOM_GATHER + "Callback"; //$NON-NLS-1$
 	private AssemblyInformation assemblyInformation = null;
 	private boolean assembling = false;
 	private boolean versionsList = false;
+	private boolean batchPublishing = false;
+	private final List<String[]> gatherCallbacks = new ArrayList<>();
+	private boolean residentBuildRepository = false;
 
 	public P2ConfigScriptGenerator(AssemblyInformation assemblyInformation, boolean assembling) {
 		this.assemblyInformation = assemblyInformation;
@@ -45,6 +49,10 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 	public void initialize(String directoryName, String feature) {
 		this.directory = directoryName;
 		this.featureId = feature;
+		if (shapeAdvisor == null) {
+			shapeAdvisor = new ShapeAdvisor();
+			shapeAdvisor.setForceUpdateJars(forceUpdateJarFormat);
+		}
 	}
 
 	@Override
@@ -112,13 +120,25 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 		script.printProperty(PROPERTY_P2_MIRROR_SLICING_INCLUDE_OPTIONAL, havePDEUIState() ? FALSE : TRUE);
 		script.printProperty(PROPERTY_P2_MIRROR_SLICING_LATEST_VERSION_ONLY, FALSE);
 		script.printProperty(PROPERTY_P2_MIRROR_SLICING_PLATFORM_FILTER, ""); //$NON-NLS-1$
+		script.printProperty(PROPERTY_P2_PUBLISH_THREAD_COUNT, "1"); //$NON-NLS-1$
+		if (residentBuildRepository)
+			script.printProperty(PROPERTY_P2_COMPRESS, FALSE);
 
 		script.println();
 		generateCustomGatherMacro();
 	}
 
+	@Override
+	protected void generateMainBegin() {
+		super.generateMainBegin();
+		if (residentBuildRepository)
+			script.printBuildRepository(Utils.getPropertyFormat(PROPERTY_P2_BUILD_REPO), Utils.getPropertyFormat(PROPERTY_P2_COMPRESS));
+	}
+
 	@Override
 	protected void generateMainEnd() {
+		if (residentBuildRepository)
+			script.printEndBuildRepository();
 		script.printTargetEnd();
 		script.println();
 	}
@@ -141,6 +161,10 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 		ProductFile product = getProductFile();
 		if (product != null) {
 			List<Config> configs = getConfigInfos();
+			//load the build repository once for all the configs
+			boolean shareRepository = !residentBuildRepository && configs.size() - (configs.contains(Config.genericConfig()) ? 1 : 0) > 1;
+			if (shareRepository)
+				script.printBuildRepository(Utils.getPropertyFormat(PROPERTY_P2_BUILD_REPO), null);
 			for (Config config : configs) {
 				if (Config.genericConfig().equals(config))
 					continue;
@@ -156,6 +180,8 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 				script.printAttribute("tempDirectory", Utils.getPropertyFormat(PROPERTY_ASSEMBLY_TMP), true); //$NON-NLS-1$
 				script.println("/>"); //$NON-NLS-1$
 			}
+			if (shareRepository)
+				script.printEndBuildRepository();
 		}
 		script.printDeleteTask(Utils.getPropertyFormat(PROPERTY_ASSEMBLY_TMP) + "/p2.branding", null, null); //$NON-NLS-1$
 		script.println();
@@ -425,6 +451,14 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 		params.put("@{propertyName}", "@{propertyValue}"); //$NON-NLS-1$//$NON-NLS-2$
 		script.printAntTask(DEFAULT_BUILD_SCRIPT_FILENAME, "@{dir}", TARGET_PUBLISH_BIN_PARTS, null, null, params); //$NON-NLS-1$
 
+		if (batchPublishing) {
+			//the custom steps must see the published elements, they are called once the batch is done
+			script.printEndMacroDef();
+			script.println();
+			script.printMacroDef(CUSTOM_GATHER_CALLBACK, attributes);
+			params = new HashMap<>();
+			params.put("@{propertyName}", "@{propertyValue}"); //$NON-NLS-1$//$NON-NLS-2$
+		}
 		params.put(PROPERTY_PROJECT_LOCATION, "${basedir}/@{dir}"); //$NON-NLS-1$
 		params.put(PROPERTY_PROJECT_NAME, "@{projectName}"); //$NON-NLS-1$
 		params.put(PROPERTY_TARGET_FOLDER, "@{propertyValue}@{subFolder}"); //$NON-NLS-1$
@@ -440,6 +474,9 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 		ArrayList<FileSet> binaryFeatures = new ArrayList<>();
 		ArrayList<FileSet> binaryBundles = new ArrayList<>();
 		script.printTargetDeclaration(TARGET_GATHER_BIN_PARTS, null, null, null, null);
+		gatherCallbacks.clear();
+		if (batchPublishing)
+			script.printPublishBatch(Utils.getPropertyFormat(PROPERTY_P2_PUBLISH_THREAD_COUNT));
 		for (BundleDescription plugin : plugins) {
 			Path pluginLocation = new Path(plugin.getLocation());
 			if (Utils.isBinary(plugin))
@@ -473,10 +510,15 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 				printCustomGatherCall(featureFullName, Utils.makeRelative(featureLocation, new Path(workingDirectory)).toOSString(), PROPERTY_FEATURE_BASE, Utils.getPropertyFormat(PROPERTY_ECLIPSE_BASE), '/' + DEFAULT_FEATURE_LOCATION);
 			}
 		}
+		if (batchPublishing) {
+			script.printEndPublishBatch();
+			for (String[] call : gatherCallbacks)
+				printCustomGatherCall(CUSTOM_GATHER_CALLBACK, call[0], call[1], call[2], call[3], call[4]);
+		}
 
 		String repo = Utils.getPropertyFormat(PROPERTY_P2_BUILD_REPO);
 		URI[] context = getContextMetadata();
-		script.printP2PublishFeaturesAndBundles(repo, repo, binaryBundles.toArray(new FileSet[binaryBundles.size()]), binaryFeatures.toArray(new FileSet[binaryFeatures.size()]), Utils.getPropertyFormat(PROPERTY_P2_CATEGORY_SITE), Utils.getPropertyFormat(PROPERTY_P2_CATEGORY_PREFIX), Utils.getPropertyFormat(PROPERTY_P2_CATEGORY_DEFINITION), Utils.getPropertyFormat(PROPERTY_P2_CATEGORY_VERSION), context);
+		script.printP2PublishFeaturesAndBundles(repo, repo, binaryBundles.toArray(new FileSet[binaryBundles.size()]), binaryFeatures.toArray(new FileSet[binaryFeatures.size()]), Utils.getPropertyFormat(PROPERTY_P2_CATEGORY_SITE), Utils.getPropertyFormat(PROPERTY_P2_CATEGORY_PREFIX), Utils.getPropertyFormat(PROPERTY_P2_CATEGORY_DEFINITION), Utils.getPropertyFormat(PROPERTY_P2_CATEGORY_VERSION), context, Utils.getPropertyFormat(PROPERTY_P2_PUBLISH_THREAD_COUNT));
 
 		script.printTargetEnd();
 		script.println();
@@ -486,6 +528,13 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 		}
 	}
 
+	@Override
+	protected void printCustomGatherCall(String fullName, String dir, String propertyName, String propertyValue, String subFolder) {
+		super.printCustomGatherCall(fullName, dir, propertyName, propertyValue, subFolder);
+		if (batchPublishing)
+			gatherCallbacks.add(new String[] {fullName, dir, propertyName, propertyValue, subFolder});
+	}
+
 	private boolean isOldExecutableFeature(BuildTimeFeature feature) {
 		if (!feature.getId().equals(FEATURE_EQUINOX_EXECUTABLE))
 			return false;
@@ -538,4 +587,18 @@ public class P2ConfigScriptGenerator extends AssembleConfigScriptGenerator {
 	public void setVersionsList(boolean versionsList) {
 		this.versionsList = versionsList;
 	}
+
+	/**
+	 * Publish the bundles and features being gathered in a single publisher session.
+	 */
+	public void setBatchPublishing(boolean batchPublishing) {
+		this.batchPublishing = batchPublishing;
+	}
+
+	/**
+	 * Keep the build repository loaded during the assembly and write it once at the end.
+	 */
+	public void setResidentBuildRepository(boolean residentBuildRepository) {
+		this.residentBuildRepository = residentBuildRepository;
+	}
 }
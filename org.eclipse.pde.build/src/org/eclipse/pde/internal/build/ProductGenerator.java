@@ -15,6 +15,7 @@ package org.eclipse.pde.internal.build;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.equinox.frameworkadmin.BundleInfo;
 import org.eclipse.equinox.internal.p2.publisher.QuotedTokenizer;
@@ -53,6 +54,20 @@ public class ProductGenerator extends AbstractScriptGenerator {
 	private Properties buildProperties;
 	private AssemblyInformation assembly = null;
 
+	//the parts that do not depend on the config, computed once before generating the configs. The configs
+	//are generated concurrently, they only read these values and never the product file nor the state.
+	private ShapeAdvisor shapeAdvisor = null;
+	private byte configStyle = 0;
+	private Properties configProperties = null;
+	private Map<String, BundleInfo> configurationInfo = null;
+	private boolean useFeatures = false;
+	private String application = null;
+	private String productId = null;
+	private String launcherName = null;
+	private Properties eclipseProductProperties = null;
+	private List<BundleDescription> productBundles = null;
+	private Map<BundleDescription, Filter> filters = null;
+
 	@Override
 	public void generate() throws CoreException {
 		initialize();
@@ -60,11 +75,14 @@ public class ProductGenerator extends AbstractScriptGenerator {
 		if (productFile == null)
 			return;
 
+		initializeSharedParts();
+
 		String location = null, fileList = null;
-		for (Config config : getConfigInfos()) {
+		List<Callable<Object>> configGenerators = new ArrayList<>();
+		for (final Config config : getConfigInfos()) {
 			location = DEFAULT_PRODUCT_ROOT_FILES_DIR + '/' + config.toStringReplacingAny(".", ANY_STRING); //$NON-NLS-1$
 
-			String rootLocation = root + location;
+			final String rootLocation = root + location;
 			File rootDir = new File(rootLocation);
 			if ((!rootDir.exists() && !rootDir.mkdirs()) || rootDir.isFile())
 				continue; //we will fail trying to create the files, TODO log warning/error
@@ -76,29 +94,143 @@ public class ProductGenerator extends AbstractScriptGenerator {
 				buildProperties.put(ROOT_PREFIX + config.toString("."), fileList); //$NON-NLS-1$
 			}
 
-			//configuration/config.ini
-			String custom = findConfigFile(productFile, config.getOs());
-			if (custom != null) {
-				try {
-					Utils.copyFile(custom, rootLocation + "/configuration/config.ini"); //$NON-NLS-1$
-				} catch (IOException e) {
-					//ignore
-				}
-			} else {
-				createConfigIni(config, rootLocation);
+			final ConfigInputs inputs = readInputs(config);
+			configGenerators.add(() -> {
+				generate(config, rootLocation, inputs);
+				return null;
+			});
+		}
+		runConfigGenerators(configGenerators);
+	}
+
+	/*
+	 * What the generation of a config reads from the product file and the state
+	 */
+	private static class ConfigInputs {
+		String customConfig;
+		String splash;
+		String programArgs;
+		String vmArgs;
+	}
+
+	private ConfigInputs readInputs(Config config) throws CoreException {
+		ConfigInputs inputs = new ConfigInputs();
+		inputs.customConfig = findConfigFile(productFile, config.getOs());
+		if (inputs.customConfig == null)
+			inputs.splash = getSplashLocation(config);
+		inputs.programArgs = productFile.getProgramArguments(config.getOs());
+		inputs.vmArgs = productFile.getVMArguments(config.getOs());
+		return inputs;
+	}
+
+	private void generate(Config config, String rootLocation, ConfigInputs inputs) throws CoreException {
+		//configuration/config.ini
+		if (inputs.customConfig != null) {
+			try {
+				Utils.copyFile(inputs.customConfig, rootLocation + "/configuration/config.ini"); //$NON-NLS-1$
+			} catch (IOException e) {
+				//ignore
 			}
+		} else {
+			createConfigIni(config, rootLocation, inputs.splash);
+		}
 
-			//only the config.ini makes sense in the any config
-			if (config.getOs().equals(Config.ANY))
-				continue;
+		//only the config.ini makes sense in the any config
+		if (config.getOs().equals(Config.ANY))
+			return;
+
+		//.eclipseproduct
+		createEclipseProductFile(rootLocation);
+
+		//eclipse.ini
+		createLauncherIniFile(rootLocation, config.getOs(), inputs.programArgs, inputs.vmArgs);
+	}
+
+	/*
+	 * The configs are written to separate folders, generate them concurrently
+	 */
+	private void runConfigGenerators(List<Callable<Object>> configGenerators) throws CoreException {
+		if (configGenerators.size() <= 1) {
+			for (Callable<Object> generator : configGenerators) {
+				getResult(generator);
+			}
+			return;
+		}
+
+		int threads = Math.min(configGenerators.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Product generator"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<Object>> results = new ArrayList<>(configGenerators.size());
+			for (Callable<Object> generator : configGenerators) {
+				results.add(executor.submit(generator));
+			}
+			for (Future<Object> result : results) {
+				getResult(result::get);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void getResult(Callable<Object> result) throws CoreException {
+		try {
+			result.call();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CoreException)
+				throw (CoreException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new IllegalStateException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (CoreException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
 
-			//.eclipseproduct
-			createEclipseProductFile(rootLocation);
+	private void initializeSharedParts() throws CoreException {
+		shapeAdvisor = new ShapeAdvisor();
+		configStyle = determineConfigStyle();
+		configProperties = productFile.getConfigProperties();
+		configurationInfo = productFile.getConfigurationInfo();
+		useFeatures = productFile.useFeatures();
+		application = productFile.getApplication();
+		productId = productFile.getProductId();
+		launcherName = getLauncherName();
+		eclipseProductProperties = getEclipseProductProperties();
 
-			//eclipse.ini
-			createLauncherIniFile(rootLocation, config.getOs());
+		List<FeatureEntry> pluginList = productFile.getProductEntries();
+		productBundles = new ArrayList<>(pluginList.size());
+		for (FeatureEntry entry : pluginList) {
+			if (!entry.isPlugin())
+				continue;
+			BundleDescription bundle = assembly.getPlugin(entry.getId(), entry.getVersion());
+			if (bundle != null)
+				productBundles.add(bundle);
+		}
+
+		BundleHelper helper = BundleHelper.getDefault();
+		filters = new HashMap<>();
+		for (BundleDescription bundle : productBundles)
+			filters.put(bundle, helper.getFilter(bundle));
+		for (BundleDescription bundle : assembly.getAllPlugins()) {
+			if (!filters.containsKey(bundle))
+				filters.put(bundle, helper.getFilter(bundle));
 		}
+	}
 
+	private Filter getFilter(BundleDescription bundle) {
+		if (filters.containsKey(bundle))
+			return filters.get(bundle);
+		return BundleHelper.getDefault().getFilter(bundle);
 	}
 
 	public void generateEclipseProduct() throws CoreException {
@@ -127,6 +259,7 @@ public class ProductGenerator extends AbstractScriptGenerator {
 			return;
 		}
 
+		eclipseProductProperties = getEclipseProductProperties();
 		createEclipseProductFile(rootLocation);
 	}
 
@@ -333,7 +466,7 @@ public class ProductGenerator extends AbstractScriptGenerator {
 		productFile = loadProduct(product);
 	}
 
-	private byte determineConfigStyle(Config config) {
+	private byte determineConfigStyle() {
 		byte result = 0;
 
 		if (assembly.getPlugin(BUNDLE_SIMPLE_CONFIGURATOR, null) != null) {
@@ -350,24 +483,16 @@ public class ProductGenerator extends AbstractScriptGenerator {
 	}
 
 	private List<BundleDescription> getBundlesFromProductFile(Config config) {
-		BundleHelper helper = BundleHelper.getDefault();
 		Dictionary<String, String> environment = new Hashtable<>(3);
 		environment.put("osgi.os", config.getOs()); //$NON-NLS-1$
 		environment.put("osgi.ws", config.getWs()); //$NON-NLS-1$
 		environment.put("osgi.arch", config.getArch()); //$NON-NLS-1$
 
-		List<FeatureEntry> pluginList = productFile.getProductEntries();
-		List<BundleDescription> results = new ArrayList<>(pluginList.size());
-		for (FeatureEntry entry : pluginList) {
-			if (!entry.isPlugin())
-				continue;
-
-			BundleDescription bundle = assembly.getPlugin(entry.getId(), entry.getVersion());
-			if (bundle != null) {
-				Filter filter = helper.getFilter(bundle);
-				if (filter == null || filter.match(environment))
-					results.add(bundle);
-			}
+		List<BundleDescription> results = new ArrayList<>(productBundles.size());
+		for (BundleDescription bundle : productBundles) {
+			Filter filter = getFilter(bundle);
+			if (filter == null || filter.match(environment))
+				results.add(bundle);
 		}
 		return results;
 	}
@@ -379,12 +504,12 @@ public class ProductGenerator extends AbstractScriptGenerator {
 		buffer.append("\n"); //$NON-NLS-1$
 
 		Collection<BundleDescription> plugins = null;
-		if (productFile.useFeatures())
+		if (useFeatures)
 			plugins = assembly.getPlugins(config);
 		else
 			plugins = getBundlesFromProductFile(config);
 
-		File bundlesTxt = P2Utils.writeBundlesTxt(plugins, configDir, productFile, (style & CONFIG_STYLE_REFACTORED) > 0);
+		File bundlesTxt = P2Utils.writeBundlesTxt(plugins, configDir, configProperties, configurationInfo, (style & CONFIG_STYLE_REFACTORED) > 0, shapeAdvisor);
 		if (bundlesTxt != null) {
 			buffer.append(SIMPLE_CONFIGURATOR_CONFIG_URL);
 			buffer.append("=file:"); //$NON-NLS-1$
@@ -407,7 +532,7 @@ public class ProductGenerator extends AbstractScriptGenerator {
 	}
 
 	private void printUpdateBundles(StringBuffer buffer, int style) {
-		Map<String, BundleInfo> infos = productFile.getConfigurationInfo();
+		Map<String, BundleInfo> infos = configurationInfo;
 		buffer.append("osgi.bundles="); //$NON-NLS-1$
 		if (infos.size() > 0) {
 			//user specified
@@ -454,18 +579,17 @@ public class ProductGenerator extends AbstractScriptGenerator {
 		environment.put("osgi.arch", config.getArch()); //$NON-NLS-1$
 
 		Collection<BundleDescription> bundles = null;
-		if (productFile.useFeatures())
+		if (useFeatures)
 			bundles = assembly.getPlugins(config);
 		else
 			bundles = getBundlesFromProductFile(config);
-		BundleHelper helper = BundleHelper.getDefault();
-		Map<String, BundleInfo> infos = productFile.getConfigurationInfo();
+		Map<String, BundleInfo> infos = configurationInfo;
 		boolean first = true;
 		for (BundleDescription bundle : bundles) {
 			String id = bundle.getSymbolicName();
 			if (BUNDLE_OSGI.equals(id) || BUNDLE_EQUINOX_LAUNCHER.equals(id))
 				continue;
-			Filter filter = helper.getFilter(bundle);
+			Filter filter = getFilter(bundle);
 			if (filter == null || filter.match(environment)) {
 				if (first)
 					first = false;
@@ -495,26 +619,22 @@ public class ProductGenerator extends AbstractScriptGenerator {
 		buffer.append('\n');
 	}
 
-	private void createConfigIni(Config config, String location) throws CoreException {
+	private void createConfigIni(Config config, String location, String splash) {
 		File configDir = new File(location + "/configuration"); //$NON-NLS-1$
 		if ((!configDir.exists() && !configDir.mkdirs()) || configDir.isFile())
 			return; //we will fail trying to create the file, TODO log warning/error
 
-		byte configStyle = determineConfigStyle(config);
-
 		StringBuffer buffer = new StringBuffer();
 		buffer.append("#Product Runtime Configuration File\n"); //$NON-NLS-1$
 
-		Properties properties = productFile.getConfigProperties();
-		String splash = getSplashLocation(config);
+		//each config gets its own copy, iterated in the same order
+		Properties properties = (Properties) configProperties.clone();
 		if (splash != null)
 			properties.put("osgi.splashPath", splash); //$NON-NLS-1$
 
-		String application = productFile.getApplication();
 		if (application != null)
 			properties.put("eclipse.application", application); //$NON-NLS-1$
 
-		String productId = productFile.getProductId();
 		if (productId != null)
 			properties.put("eclipse.product", productId); //$NON-NLS-1$
 
@@ -547,11 +667,7 @@ public class ProductGenerator extends AbstractScriptGenerator {
 		}
 	}
 
-	private void createEclipseProductFile(String directory) throws CoreException {
-		File dir = new File(directory);
-		if ((!dir.exists() && !dir.mkdirs()) || dir.isFile())
-			return; //we will fail trying to create the file, TODO log warning/error
-
+	private Properties getEclipseProductProperties() throws CoreException {
 		Properties properties = new Properties();
 		if (productFile.getProductName() != null)
 			properties.put("name", productFile.getProductName()); //$NON-NLS-1$
@@ -559,7 +675,7 @@ public class ProductGenerator extends AbstractScriptGenerator {
 			properties.put(ID, productFile.getProductId());
 
 		if (properties.size() == 0)
-			return;
+			return null;
 
 		String branding = getBrandingPlugin();
 		if (branding != null) {
@@ -567,9 +683,20 @@ public class ProductGenerator extends AbstractScriptGenerator {
 			if (bundle != null)
 				properties.put(VERSION, bundle.getVersion().toString());
 		}
+		return properties;
+	}
+
+	private void createEclipseProductFile(String directory) {
+		File dir = new File(directory);
+		if ((!dir.exists() && !dir.mkdirs()) || dir.isFile())
+			return; //we will fail trying to create the file, TODO log warning/error
+
+		if (eclipseProductProperties == null)
+			return;
+
 		File file = new File(dir, ".eclipseproduct"); //$NON-NLS-1$
 		try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(file));) {
-			properties.store(stream, "Eclipse Product File"); //$NON-NLS-1$
+			eclipseProductProperties.store(stream, "Eclipse Product File"); //$NON-NLS-1$
 			stream.flush();
 		} catch (IOException e) {
 			//nothing
@@ -621,8 +748,8 @@ public class ProductGenerator extends AbstractScriptGenerator {
 		return buffer.toString();
 	}
 
-	private void createLauncherIniFile(String directory, String os) {
-		String launcher = getLauncherName();
+	private void createLauncherIniFile(String directory, String os, String programArgs, String vmArgs) {
+		String launcher = launcherName;
 
 		if (os.equals(Platform.OS_MACOSX)) {
 			directory += "/" + launcher + ".app/Contents/MacOS"; //$NON-NLS-1$//$NON-NLS-2$
@@ -631,9 +758,6 @@ public class ProductGenerator extends AbstractScriptGenerator {
 		if ((!dir.exists() && !dir.mkdirs()) || dir.isFile())
 			return; //we will fail trying to create the file TODO log warning/error
 
-		String programArgs = productFile.getProgramArguments(os);
-		String vmArgs = productFile.getVMArguments(os);
-
 		if ((programArgs == null || programArgs.length() == 0) && (vmArgs == null || vmArgs.length() == 0))
 			return;
 
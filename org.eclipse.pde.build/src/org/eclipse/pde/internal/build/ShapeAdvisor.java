@@ -21,6 +21,15 @@ import org.eclipse.equinox.p2.publisher.eclipse.FeatureEntry;
 import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.pde.internal.build.site.BuildTimeFeature;
 
+/**
+ * Computes the final shape of the bundles and features. Once configured, an advisor
+ * can be shared by threads.
+ * <p>
+ * The advisors created by {@link #createShared(boolean, Collection, Collection)} answer from
+ * shapes computed once for all the elements of the build, the returned arrays must not be modified.
+ * The shapes are computed again if the advisor is later asked to force a different format.
+ * </p>
+ */
 public class ShapeAdvisor implements IPDEBuildConstants {
 	public static final String UPDATEJAR = "updateJar"; //$NON-NLS-1$
 	public static final String FLAT = "flat"; //$NON-NLS-1$
@@ -28,16 +37,48 @@ public class ShapeAdvisor implements IPDEBuildConstants {
 	public static final String FOLDER = "folder"; //$NON-NLS-1$
 	public static final String FILE = "file"; //$NON-NLS-1$
 
-	private Properties pluginsPostProcessingSteps;
-	private Properties featuresPostProcessingSteps;
-	private boolean forceUpdateJarFormat = false;
+	private final Properties pluginsPostProcessingSteps;
+	private final Properties featuresPostProcessingSteps;
+	private volatile boolean forceUpdateJarFormat = false;
+	//the precomputed shapes, by bundle description or feature, valid for the format they were computed with
+	private final Map<Object, Object[]> finalShapes;
+	private final boolean sharedForceUpdateJars;
 
 	public ShapeAdvisor() {
+		pluginsPostProcessingSteps = readProperties(DEFAULT_PLUGINS_POSTPROCESSINGSTEPS_FILENAME_DESCRIPTOR);
+		featuresPostProcessingSteps = readProperties(DEFAULT_FEATURES_POSTPROCESSINGSTEPS_FILENAME_DESCRIPTOR);
+		finalShapes = null;
+		sharedForceUpdateJars = false;
+	}
+
+	private ShapeAdvisor(boolean forceUpdateJars, Collection<BundleDescription> bundles, Collection<BuildTimeFeature> features) {
+		pluginsPostProcessingSteps = readProperties(DEFAULT_PLUGINS_POSTPROCESSINGSTEPS_FILENAME_DESCRIPTOR);
+		featuresPostProcessingSteps = readProperties(DEFAULT_FEATURES_POSTPROCESSINGSTEPS_FILENAME_DESCRIPTOR);
+		forceUpdateJarFormat = forceUpdateJars;
+		sharedForceUpdateJars = forceUpdateJars;
+
+		Map<Object, Object[]> shapes = new IdentityHashMap<>(bundles.size() + features.size());
+		for (BundleDescription bundle : bundles)
+			shapes.put(bundle, computeFinalShape(bundle));
+		for (BuildTimeFeature feature : features)
+			shapes.put(feature, computeFinalShape(feature));
+		finalShapes = shapes;
+	}
+
+	/**
+	 * Create an advisor to be shared by the generators of a build, with the shapes of the given elements
+	 * computed upfront. The shapes of other elements are computed when asked.
+	 */
+	public static ShapeAdvisor createShared(boolean forceUpdateJars, Collection<BundleDescription> bundles, Collection<BuildTimeFeature> features) {
+		return new ShapeAdvisor(forceUpdateJars, bundles, features);
+	}
+
+	private static Properties readProperties(String fileName) {
 		try {
-			pluginsPostProcessingSteps = AbstractScriptGenerator.readProperties(AbstractScriptGenerator.getWorkingDirectory(), DEFAULT_PLUGINS_POSTPROCESSINGSTEPS_FILENAME_DESCRIPTOR, IStatus.INFO);
-			featuresPostProcessingSteps = AbstractScriptGenerator.readProperties(AbstractScriptGenerator.getWorkingDirectory(), DEFAULT_FEATURES_POSTPROCESSINGSTEPS_FILENAME_DESCRIPTOR, IStatus.INFO);
+			return AbstractScriptGenerator.readProperties(AbstractScriptGenerator.getWorkingDirectory(), fileName, IStatus.INFO);
 		} catch (CoreException e) {
 			//Ignore
+			return new Properties();
 		}
 	}
 
@@ -45,12 +86,28 @@ public class ShapeAdvisor implements IPDEBuildConstants {
 		this.forceUpdateJarFormat = force;
 	}
 
+	private Object[] getSharedShape(Object element) {
+		if (finalShapes == null || forceUpdateJarFormat != sharedForceUpdateJars)
+			return null;
+		return finalShapes.get(element);
+	}
+
 	public Object[] getFinalShape(BundleDescription bundle) {
+		Object[] shape = getSharedShape(bundle);
+		return shape != null ? shape : computeFinalShape(bundle);
+	}
+
+	public Object[] getFinalShape(BuildTimeFeature feature) {
+		Object[] shape = getSharedShape(feature);
+		return shape != null ? shape : computeFinalShape(feature);
+	}
+
+	private Object[] computeFinalShape(BundleDescription bundle) {
 		String style = getUnpackClause(bundle) ? FLAT : UPDATEJAR;
 		return getFinalShape(bundle.getSymbolicName(), bundle.getVersion().toString(), style, true);
 	}
 
-	public Object[] getFinalShape(BuildTimeFeature feature) {
+	private Object[] computeFinalShape(BuildTimeFeature feature) {
 		return getFinalShape(feature.getId(), feature.getVersion(), FLAT, true);
 	}
 
@@ -981,6 +981,21 @@ public final class Utils implements IPDEBuildConstants, IBuildPropertiesConstant
 		}
 	}
 
+	/**
+	 * @return the public interfaces implemented by the class and its super classes, for a proxy
+	 * standing for one of its instances
+	 */
+	public static Class<?>[] getPublicInterfaces(Class<?> type) {
+		Set<Class<?>> interfaces = new LinkedHashSet<>();
+		for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+			for (Class<?> implemented : current.getInterfaces()) {
+				if (java.lang.reflect.Modifier.isPublic(implemented.getModifiers()))
+					interfaces.add(implemented);
+			}
+		}
+		return interfaces.toArray(new Class<?>[interfaces.size()]);
+	}
+
 	public static boolean guessUnpack(BundleDescription bundle, String[] classpath) {
 		return org.eclipse.pde.internal.publishing.Utils.guessUnpack(bundle, classpath);
 	}
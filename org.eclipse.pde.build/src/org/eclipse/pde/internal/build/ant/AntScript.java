@@ -92,6 +92,10 @@ public class AntScript implements IAntScript {
 	}
 
 	public void printP2PublishFeaturesAndBundles(String metadataRepository, String artifactRepository, FileSet[] bundles, FileSet[] features, String siteXML, String siteQualifier, String categoryDefintion, String categoryVersion, URI[] contextMetadata) {
+		printP2PublishFeaturesAndBundles(metadataRepository, artifactRepository, bundles, features, siteXML, siteQualifier, categoryDefintion, categoryVersion, contextMetadata, null);
+	}
+
+	public void printP2PublishFeaturesAndBundles(String metadataRepository, String artifactRepository, FileSet[] bundles, FileSet[] features, String siteXML, String siteQualifier, String categoryDefintion, String categoryVersion, URI[] contextMetadata, String threadCount) {
 		printTab();
 		output.print("<eclipse.publish.featuresAndBundles"); //$NON-NLS-1$
 		if (metadataRepository.equals(artifactRepository)) {
@@ -104,6 +108,7 @@ public class AntScript implements IAntScript {
 		printAttribute("category", categoryDefintion, false); //$NON-NLS-1$
 		printAttribute("siteQualifier", siteQualifier, false); //$NON-NLS-1$
 		printAttribute("categoryVersion", categoryVersion, false); //$NON-NLS-1$
+		printAttribute("threadCount", threadCount, false); //$NON-NLS-1$
 		output.println(">"); //$NON-NLS-1$
 		indent++;
 		for (FileSet feature : features) {
@@ -144,6 +149,94 @@ public class AntScript implements IAntScript {
 
 	}
 
+	public void printCompileBatch(int threadCount, int threadsPerProcessor) {
+		printTab();
+		output.print("<eclipse.compileBatch"); //$NON-NLS-1$
+		if (threadCount > 0)
+			output.print(" threadCount=\'" + String.valueOf(threadCount) + "\'"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (threadsPerProcessor > 0)
+			output.print(" threadsPerProcessor=\'" + String.valueOf(threadsPerProcessor) + "\'"); //$NON-NLS-1$ //$NON-NLS-2$
+		output.println(">"); //$NON-NLS-1$
+		indent++;
+	}
+
+	public void printEndCompileBatch() {
+		indent--;
+		printTab();
+		output.println("</eclipse.compileBatch>"); //$NON-NLS-1$
+	}
+
+	public void printLimit(String name, String permits) {
+		printTab();
+		output.print("<eclipse.limit"); //$NON-NLS-1$
+		printAttribute("name", name, true); //$NON-NLS-1$
+		printAttribute("permits", permits, true); //$NON-NLS-1$
+		output.println(">"); //$NON-NLS-1$
+		indent++;
+	}
+
+	public void printEndLimit() {
+		indent--;
+		printTab();
+		output.println("</eclipse.limit>"); //$NON-NLS-1$
+	}
+
+	public void printBuildScope() {
+		printStartTag("eclipse.buildScope"); //$NON-NLS-1$
+		indent++;
+	}
+
+	public void printEndBuildScope() {
+		indent--;
+		printEndTag("eclipse.buildScope"); //$NON-NLS-1$
+	}
+
+	public void printPublishBatch(String threadCount) {
+		printTab();
+		output.print("<eclipse.publish.batch"); //$NON-NLS-1$
+		printAttribute("threadCount", threadCount, false); //$NON-NLS-1$
+		output.println(">"); //$NON-NLS-1$
+		indent++;
+	}
+
+	public void printEndPublishBatch() {
+		indent--;
+		printTab();
+		output.println("</eclipse.publish.batch>"); //$NON-NLS-1$
+	}
+
+	public void printBuildRepository(String repository, String compress) {
+		printTab();
+		output.print("<eclipse.publish.buildRepository"); //$NON-NLS-1$
+		printAttribute("repository", repository, true); //$NON-NLS-1$
+		printAttribute("compress", compress, false); //$NON-NLS-1$
+		output.println(">"); //$NON-NLS-1$
+		indent++;
+	}
+
+	public void printEndBuildRepository() {
+		indent--;
+		printTab();
+		output.println("</eclipse.publish.buildRepository>"); //$NON-NLS-1$
+	}
+
+	public void printBundleTiming(String bundle, String phase, String requires, String file) {
+		printTab();
+		output.print("<eclipse.bundleTiming"); //$NON-NLS-1$
+		printAttribute("bundle", bundle, true); //$NON-NLS-1$
+		printAttribute("phase", phase, true); //$NON-NLS-1$
+		printAttribute("requires", requires, false); //$NON-NLS-1$
+		printAttribute("file", file, false); //$NON-NLS-1$
+		output.println(">"); //$NON-NLS-1$
+		indent++;
+	}
+
+	public void printEndBundleTiming() {
+		indent--;
+		printTab();
+		output.println("</eclipse.bundleTiming>"); //$NON-NLS-1$
+	}
+
 	public void printJarTask(String jarFile, FileSet[] files, String manifestAttribute) {
 		printTab();
 		output.print("<jar"); //$NON-NLS-1$
@@ -401,6 +494,15 @@ public class AntScript implements IAntScript {
 		}
 	}
 
+	public void printExtractNestedJar(String jar, String entry, String toDir) {
+		printTab();
+		output.print("<eclipse.extractNestedJar"); //$NON-NLS-1$
+		printAttribute("jar", jar, true); //$NON-NLS-1$
+		printAttribute("entry", entry, true); //$NON-NLS-1$
+		printAttribute("todir", toDir, true); //$NON-NLS-1$
+		output.println("/>"); //$NON-NLS-1$
+	}
+
 	public void printTarTask(String zipfile, String basedir, boolean filesOnly, boolean update, FileSet[] fileSets) {
 		printTab();
 		output.print("<tar"); //$NON-NLS-1$
@@ -421,6 +523,21 @@ public class AntScript implements IAntScript {
 		}
 	}
 
+	public void printArchiveTask(String archiveFile, String format, FileSet[] fileSets) {
+		printTab();
+		output.print("<eclipse.archive"); //$NON-NLS-1$
+		printAttribute("destfile", archiveFile, true); //$NON-NLS-1$
+		printAttribute("format", format, true); //$NON-NLS-1$
+		output.println(">"); //$NON-NLS-1$
+		indent++;
+		for (FileSet fileSet : fileSets)
+			if (fileSet != null)
+				fileSet.print(this);
+		indent--;
+		printTab();
+		output.println("</eclipse.archive>"); //$NON-NLS-1$
+	}
+
 	/**
 	 * Print an <code>arg</code> element to the Ant file.
 	 * 
@@ -560,11 +677,21 @@ public class AntScript implements IAntScript {
 	}
 
 	public void printDeleteTask(String dir, String file, String quiet, FileSet[] fileSets) {
+		printDeleteTask(dir, file, quiet, false, fileSets);
+	}
+
+	/**
+	 * Print a <code>delete</code> task to the Ant script, the folders left empty by the file sets are
+	 * deleted too when <code>includeEmptyDirs</code> is set.
+	 */
+	public void printDeleteTask(String dir, String file, String quiet, boolean includeEmptyDirs, FileSet[] fileSets) {
 		printTab();
 		output.print("<delete"); //$NON-NLS-1$
 		printAttribute("dir", dir, false); //$NON-NLS-1$
 		printAttribute("file", file, false); //$NON-NLS-1$
 		printAttribute("quiet", quiet, false); //$NON-NLS-1$
+		if (includeEmptyDirs)
+			printAttribute("includeemptydirs", "true", true); //$NON-NLS-1$ //$NON-NLS-2$
 		if (fileSets == null)
 			output.println("/>"); //$NON-NLS-1$
 		else {
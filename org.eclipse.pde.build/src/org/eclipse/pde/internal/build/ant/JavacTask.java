@@ -35,6 +35,7 @@ public class JavacTask implements ITask {
 	protected String compileArgs;
 	protected String specificCompileArgs;
 	protected String compileArgsFile;
+	protected String pluginArgsFile;
 	protected String encoding;
 	protected String logExtension;
 	protected String errorProperty;
@@ -112,16 +113,10 @@ public class JavacTask implements ITask {
 			script.println("/>"); //$NON-NLS-1$
 		}
 
-		if (compileArgsFile != null) {
-			script.printTabs();
-			script.print("<compilerarg"); //$NON-NLS-1$
-			script.printAttribute("value", "@" + compileArgsFile, true); //$NON-NLS-1$ //$NON-NLS-2$
-			if (compilerAdapter != null && adapterUseArgFile)
-				script.printAttribute("compiler", compilerAdapter, true); //$NON-NLS-1$
-			else
-				script.printAttribute("compiler", IXMLConstants.JDT_COMPILER_ADAPTER, true); //$NON-NLS-1$
-			script.println("/>"); //$NON-NLS-1$
-		}
+		if (compileArgsFile != null)
+			printArgsFile(script, compileArgsFile);
+		if (pluginArgsFile != null)
+			printArgsFile(script, pluginArgsFile);
 
 		if (destdir != null) {
 			script.printTabs();
@@ -137,6 +132,17 @@ public class JavacTask implements ITask {
 		script.printEndTag("javac"); //$NON-NLS-1$
 	}
 
+	private void printArgsFile(AntScript script, String file) {
+		script.printTabs();
+		script.print("<compilerarg"); //$NON-NLS-1$
+		script.printAttribute("value", "@" + file, true); //$NON-NLS-1$ //$NON-NLS-2$
+		if (compilerAdapter != null && adapterUseArgFile)
+			script.printAttribute("compiler", compilerAdapter, true); //$NON-NLS-1$
+		else
+			script.printAttribute("compiler", IXMLConstants.JDT_COMPILER_ADAPTER, true); //$NON-NLS-1$
+		script.println("/>"); //$NON-NLS-1$
+	}
+
 	/**
 	 * Set the javac task classpath refid to be the given value.
 	 * @param classpathId
@@ -268,6 +274,14 @@ public class JavacTask implements ITask {
 		this.compileArgsFile = file;
 	}
 
+	/**
+	 * Set the file holding the compiler settings specific to the plug-in, passed after the compile
+	 * arguments file when that one is shared with other plug-ins.
+	 */
+	public void setPluginArgsFile(String file) {
+		this.pluginArgsFile = file;
+	}
+
 	public void setErrorProperty(String errorProperty) {
 		this.errorProperty = errorProperty;
 	}
@@ -84,29 +84,41 @@ public class BuildDirector extends AbstractBuildScriptGenerator {
 	}
 
 	private final Map<String, String> extractedLocations = new HashMap<>();
+	private final Map<String, String[]> extractedEntries = new LinkedHashMap<>();
 
 	public String getExtractedRoot(ClasspathElement element) {
 		if (element.getSubPath() == null)
 			return element.getPath();
 
 		String absolute = element.getAbsolutePath();
-		if (extractedLocations.containsKey(absolute)) {
-			return extractedLocations.get(absolute);
-		}
-
-		//Use the jar name, append a suffix if that name is already taken
-		String name = new File(absolute).getName();
-		if (name.endsWith(".jar")) //$NON-NLS-1$
-			name = name.substring(0, name.length() - 4);
-		String destination = name;
-		while (extractedLocations.containsValue(destination)) {
-			destination = name + '_' + Integer.toHexString(destination.hashCode());
+		String destination = extractedLocations.get(absolute);
+		if (destination == null) {
+			//Use the jar name, append a suffix if that name is already taken
+			String name = new File(absolute).getName();
+			if (name.endsWith(".jar")) //$NON-NLS-1$
+				name = name.substring(0, name.length() - 4);
+			//the shared extractions are kept per location of the jar, the extraction task checks the content when it runs
+			if (getPropertyAsBoolean(PROPERTY_SHARED_NESTED_JARS))
+				name = name + '_' + Integer.toHexString(absolute.hashCode());
+			destination = name;
+			while (extractedLocations.containsValue(destination)) {
+				destination = name + '_' + Integer.toHexString(destination.hashCode());
+			}
+			extractedLocations.put(absolute, destination);
 		}
 
-		extractedLocations.put(absolute, destination);
+		extractedEntries.putIfAbsent(absolute + '!' + element.getSubPath(), new String[] {absolute, element.getSubPath(), destination});
 		return destination;
 	}
 
+	/**
+	 * @return the nested jars extracted for the compilations, as arrays of the location of the jar, 
+	 * the path of the nested jar and the root it is extracted to
+	 */
+	public Collection<String[]> getExtractedEntries() {
+		return extractedEntries.values();
+	}
+
 	/**
 	 * Returns a list of BundleDescription objects representing the elements delivered by the feature. 
 	 *  
@@ -585,6 +597,10 @@ public class BuildDirector extends AbstractBuildScriptGenerator {
 		analyseIncludedFeatures = recursiveGeneration;
 	}
 
+	public boolean isGenerateIncludedFeatures() {
+		return analyseIncludedFeatures;
+	}
+
 	protected void collectElementToAssemble(BuildTimeFeature featureToCollect) throws CoreException {
 		if (assemblyData == null || featureToCollect == null)
 			return;
@@ -149,25 +149,26 @@ public class ClasspathComputer3_0 implements IClasspathComputer, IPDEBuildConsta
 	 */
 	@Override
 	public List<Object> getClasspath(BundleDescription model, ModelBuildScriptGenerator.CompiledEntry jar) throws CoreException {
-		List<Object> classpath = new ArrayList<>(20);
-		List<BundleDescription> pluginChain = new ArrayList<>(10); //The list of plugins added to detect cycle
-		modelLocation = generator.getLocation(model);
-		Set<BundleDescription> addedPlugins = new HashSet<>(10); //The set of all the plugins already added to the classpath (this allows for optimization)
-		pathElements = new HashMap<>();
-		visiblePackages = getVisiblePackages(model);
-		requiredIds = new HashSet<>();
-		allowBinaryCycles = AbstractScriptGenerator.getPropertyAsBoolean(IBuildPropertiesConstants.PROPERTY_ALLOW_BINARY_CYCLES);
+		try (BuildMetrics.Phase phase = BuildMetrics.phase("classpath")) { //$NON-NLS-1$
+			List<Object> classpath = new ArrayList<>(20);
+			List<BundleDescription> pluginChain = new ArrayList<>(10); //The list of plugins added to detect cycle
+			modelLocation = generator.getLocation(model);
+			Set<BundleDescription> addedPlugins = new HashSet<>(10); //The set of all the plugins already added to the classpath (this allows for optimization)
+			pathElements = new HashMap<>();
+			visiblePackages = getVisiblePackages(model);
+			requiredIds = new HashSet<>();
+			allowBinaryCycles = AbstractScriptGenerator.getPropertyAsBoolean(IBuildPropertiesConstants.PROPERTY_ALLOW_BINARY_CYCLES);
 
-		//PREREQUISITE
-		addPrerequisites(model, classpath, modelLocation, pluginChain, addedPlugins);
+			//PREREQUISITE
+			addPrerequisites(model, classpath, modelLocation, pluginChain, addedPlugins);
 
-		//SELF
-		addSelf(model, jar, classpath, modelLocation, pluginChain, addedPlugins);
+			//SELF
+			addSelf(model, jar, classpath, modelLocation, pluginChain, addedPlugins);
 
-		recordRequiredIds(model);
-
-		return classpath;
+			recordRequiredIds(model);
 
+			return classpath;
+		}
 	}
 
 	private void recordRequiredIds(BundleDescription model) {
@@ -12,10 +12,12 @@
  ******************************************************************************/
 package org.eclipse.pde.internal.build.builder;
 
+import java.io.File;
 import java.util.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.service.resolver.BundleDescription;
 import org.eclipse.pde.internal.build.*;
+import org.eclipse.pde.internal.build.ant.FileSet;
 
 public class CompilationScriptGenerator extends AbstractScriptGenerator {
 
@@ -90,10 +92,21 @@ public class CompilationScriptGenerator extends AbstractScriptGenerator {
 		List<BundleDescription> sortedPlugins = Utils.extractPlugins(getSite(false).getRegistry().getSortedBundles(), plugins);
 		IPath basePath = new Path(workingDirectory);
 
+		//the compilations of a wave are batched, which also requires the waves
+		boolean batch = getPropertyAsBoolean(PROPERTY_BATCH_COMPILATION);
+		boolean waves = parallel || batch;
+		boolean index = getPropertyAsBoolean(PROPERTY_SHARED_CLASSPATH_INDEX);
+		if (index) {
+			script.printStartTag("eclipse.classpathIndex"); //$NON-NLS-1$
+			script.incrementIdent();
+		}
+		if (getPropertyAsBoolean(PROPERTY_SHARED_NESTED_JARS))
+			generateExtractNestedJars(basePath);
+
 		Set<Long> bucket = null;
-		if (parallel) {
+		if (waves) {
 			bucket = new HashSet<>();
-			script.printParallel(threadCount, threadsPerProcessor);
+			printWaveStart(batch);
 		}
 
 		for (BundleDescription bundle : sortedPlugins) {
@@ -101,10 +114,10 @@ public class CompilationScriptGenerator extends AbstractScriptGenerator {
 			if (Utils.isSourceBundle(bundle))
 				continue;
 
-			if (parallel) {
+			if (waves) {
 				if (requiredInBucket(bundle, bucket)) {
-					script.printEndParallel();
-					script.printParallel(threadCount, threadsPerProcessor);
+					printWaveEnd(batch);
+					printWaveStart(batch);
 					bucket.clear();
 				}
 				bucket.add(Long.valueOf(bundle.getBundleId()));
@@ -114,7 +127,67 @@ public class CompilationScriptGenerator extends AbstractScriptGenerator {
 			script.printAntTask(DEFAULT_BUILD_SCRIPT_FILENAME, location.toString(), TARGET_BUILD_JARS, null, null, null);
 		}
 
-		if (parallel)
+		if (waves)
+			printWaveEnd(batch);
+		if (index) {
+			script.decrementIdent();
+			script.printEndTag("eclipse.classpathIndex"); //$NON-NLS-1$
+		}
+	}
+
+	/*
+	 * Extract the nested jars the plug-ins compile against once, in parallel, before the first compilation.
+	 * The targets of the plug-ins then find them already extracted. The extraction folders of the jars no
+	 * longer compiled against, for example older versions of a bundle, are deleted first.
+	 */
+	private void generateExtractNestedJars(IPath basePath) {
+		if (director == null)
+			return;
+		List<String[]> entries = new ArrayList<>();
+		Set<String> roots = new TreeSet<>();
+		boolean prune = true;
+		for (String[] entry : director.getExtractedEntries()) {
+			roots.add(entry[2]);
+			//the names of the file set are separated by commas
+			prune &= entry[2].indexOf(',') == -1;
+			if (new File(entry[0]).isFile())
+				entries.add(entry);
+		}
+		if (roots.isEmpty())
+			return;
+
+		if (prune) {
+			StringBuilder excludes = new StringBuilder();
+			for (String root : roots) {
+				if (excludes.length() > 0)
+					excludes.append(',');
+				excludes.append(root).append("/**"); //$NON-NLS-1$
+			}
+			FileSet stale = new FileSet(Utils.getPropertyFormat(PROPERTY_BUILD_DIRECTORY) + "/nestedJars", "false", "**", null, excludes.toString(), null, null); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			script.printDeleteTask(null, null, "true", true, new FileSet[] {stale}); //$NON-NLS-1$
+		}
+		if (entries.isEmpty())
+			return;
+
+		script.printParallel(threadCount, threadsPerProcessor);
+		for (String[] entry : entries) {
+			IPath jar = Utils.makeRelative(new Path(entry[0]), basePath);
+			script.printExtractNestedJar(jar.toString(), entry[1], Utils.getPropertyFormat(PROPERTY_BUILD_DIRECTORY) + "/nestedJars/" + entry[2]); //$NON-NLS-1$
+		}
+		script.printEndParallel();
+	}
+
+	private void printWaveStart(boolean batch) {
+		if (batch)
+			script.printCompileBatch(threadCount, threadsPerProcessor);
+		else
+			script.printParallel(threadCount, threadsPerProcessor);
+	}
+
+	private void printWaveEnd(boolean batch) {
+		if (batch)
+			script.printEndCompileBatch();
+		else
 			script.printEndParallel();
 	}
 
@@ -324,7 +324,7 @@ public class FeatureBuildScriptGenerator extends AbstractScriptGenerator {
 		script.printCopyTask(null, featureTemp, new FileSet[] {fileSet}, true, true);
 
 		generateIdReplacerCall(featureTemp);
-		generateLicenseReplacerCall(featureTemp, customFeatureCallbacks != null);
+		generateLicenseReplacerCall(featureTemp, customFeatureCallbacks != null, null);
 
 		if (customFeatureCallbacks != null) {
 			script.printSubantTask(Utils.getPropertyFormat(PROPERTY_CUSTOM_BUILD_CALLBACKS), PROPERTY_POST + TARGET_GATHER_BIN_PARTS, customCallbacksBuildpath, customCallbacksFailOnError, customCallbacksInheritAll, callbackParams, null);
@@ -371,9 +371,16 @@ public class FeatureBuildScriptGenerator extends AbstractScriptGenerator {
 			script.printSubantTask(Utils.getPropertyFormat(PROPERTY_CUSTOM_BUILD_CALLBACKS), PROPERTY_PRE + TARGET_GATHER_BIN_PARTS, customCallbacksBuildpath, customCallbacksFailOnError, customCallbacksInheritAll, callbackParams, null);
 		}
 
-		Map<String, String> params = new HashMap<>(2);
+		//the license of the included features gathered with the same license feature is replaced along with this one
+		List<BuildTimeFeature> licenseBatch = new ArrayList<>();
+		if (include != null && getLicenseFeature() != null && director.isGenerateIncludedFeatures())
+			collectLicenseBatch(feature, licenseBatch);
+
+		Map<String, String> params = new LinkedHashMap<>(2 + licenseBatch.size());
 		params.put(PROPERTY_TARGET, TARGET_GATHER_BIN_PARTS);
 		params.put(PROPERTY_DESTINATION_TEMP_FOLDER, new Path(Utils.getPropertyFormat(PROPERTY_FEATURE_BASE)).append(DEFAULT_PLUGIN_LOCATION).toString());
+		for (BuildTimeFeature batched : licenseBatch)
+			params.put(PROPERTY_LICENSE_BATCHED + batched.getId() + '_' + batched.getVersion(), TRUE);
 		script.printAntCallTask(TARGET_CHILDREN, true, params);
 
 		if (include != null) {
@@ -382,7 +389,10 @@ public class FeatureBuildScriptGenerator extends AbstractScriptGenerator {
 
 			// Generate the parameters for the Id Replacer.
 			generateIdReplacerCall(root);
-			generateLicenseReplacerCall(root, true);
+			List<String> batchedRoots = new ArrayList<>(licenseBatch.size());
+			for (BuildTimeFeature batched : licenseBatch)
+				batchedRoots.add(Utils.getPropertyFormat(PROPERTY_FEATURE_BASE) + '/' + DEFAULT_FEATURE_LOCATION + '/' + batched.getId() + '_' + batched.getVersion());
+			generateLicenseReplacerCall(root, true, batchedRoots);
 		}
 		generateRootFilesAndPermissionsCalls();
 		if (customFeatureCallbacks != null) {
@@ -417,7 +427,30 @@ public class FeatureBuildScriptGenerator extends AbstractScriptGenerator {
 		return licenseFeature;
 	}
 
-	private void generateLicenseReplacerCall(String featureRoot, boolean printCopy) throws CoreException {
+	/*
+	 * Collect the features included in the given one, gathered by the scripts generated with this one,
+	 * whose license can be replaced after they are gathered, along with the license of this feature
+	 */
+	private void collectLicenseBatch(BuildTimeFeature parent, List<BuildTimeFeature> batch) throws CoreException {
+		for (FeatureEntry entry : parent.getIncludedFeatureReferences()) {
+			BuildTimeFeature includedFeature = getSite(false).findFeature(entry.getId(), entry.getVersion(), false);
+			if (includedFeature == null || includedFeature.isBinary() || batch.contains(includedFeature))
+				continue;
+			Properties properties = getBuildProperties(includedFeature.getRootLocation());
+			//custom scripts and callbacks may rely on the license being replaced when the feature is gathered
+			if (TRUE.equalsIgnoreCase(properties.getProperty(PROPERTY_CUSTOM)))
+				continue;
+			String callbacks = properties.getProperty(PROPERTY_CUSTOM_BUILD_CALLBACKS);
+			if (callbacks != null && !FALSE.equalsIgnoreCase(callbacks))
+				continue;
+			String licenseFeatureName = includedFeature.getLicenseFeature();
+			if (properties.getProperty(PROPERTY_BIN_INCLUDES) != null && licenseFeatureName != null && licenseFeatureName.length() > 0 && getSite(false).findFeature(licenseFeatureName, includedFeature.getLicenseFeatureVersion(), false) == getLicenseFeature())
+				batch.add(includedFeature);
+			collectLicenseBatch(includedFeature, batch);
+		}
+	}
+
+	private void generateLicenseReplacerCall(String featureRoot, boolean printCopy, List<String> batchedRoots) throws CoreException {
 		if (getLicenseFeature() == null) {
 			return;
 		}
@@ -440,7 +473,22 @@ public class FeatureBuildScriptGenerator extends AbstractScriptGenerator {
 			script.printCopyTask(null, featureRoot, new FileSet[] {fileSet}, true, true);
 		}
 
-		script.println("<eclipse.licenseReplacer featureFilePath=\"" + AntScript.getEscaped(featureRoot) + "\" licenseFilePath=\"" + AntScript.getEscaped(licensePath) + "\"/>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		Map<String, String> args = new LinkedHashMap<>(4);
+		args.put("featureFilePath", featureRoot); //$NON-NLS-1$
+		if (batchedRoots != null && batchedRoots.size() > 0) {
+			StringBuilder paths = new StringBuilder();
+			for (String batchedRoot : batchedRoots) {
+				if (paths.length() > 0)
+					paths.append(File.pathSeparatorChar);
+				paths.append(batchedRoot);
+			}
+			args.put("featureFilePaths", paths.toString()); //$NON-NLS-1$
+		}
+		args.put("licenseFilePath", licensePath); //$NON-NLS-1$
+		//left out when a feature including this one replaces the license of both
+		if (batchedRoots != null)
+			args.put("unless", PROPERTY_LICENSE_BATCHED + featureFullName); //$NON-NLS-1$
+		script.printElement("eclipse.licenseReplacer", args); //$NON-NLS-1$
 	}
 
 	/**
@@ -14,6 +14,10 @@
 package org.eclipse.pde.internal.build.builder;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.jar.JarFile;
@@ -26,6 +30,7 @@ import org.eclipse.pde.build.Constants;
 import org.eclipse.pde.internal.build.*;
 import org.eclipse.pde.internal.build.ant.*;
 import org.eclipse.pde.internal.build.builder.ClasspathComputer3_0.ClasspathElement;
+import org.eclipse.pde.internal.build.site.PDEState;
 import org.eclipse.pde.internal.build.site.ProfileManager;
 import org.osgi.framework.BundleException;
 import org.osgi.framework.Version;
@@ -37,6 +42,13 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 	public static final String SRC_ZIP = "src.zip"; //$NON-NLS-1$
 	public static final String EXPANDED_DOT = "@dot"; //$NON-NLS-1$
 	public static final String DOT = "."; //$NON-NLS-1$
+	//the files of a gathered plug-in rewritten by the id replacement
+	private static final String REPLACED_FILES = "META-INF/MANIFEST.MF,plugin.xml,fragment.xml"; //$NON-NLS-1$
+	private static final String PACKAGE_HTML = "**/package.htm*"; //$NON-NLS-1$
+	//the only files linked from the workspace output folders, the build never writes to them
+	private static final String CLASS_FILES = "**/*.class"; //$NON-NLS-1$
+	private static final String SHARED_SETTINGS_PREFIX = "javaCompiler."; //$NON-NLS-1$
+	private static final String SHARED_SETTINGS_USERS = "users.properties"; //$NON-NLS-1$
 
 	/**
 	 * Represents a entry that must be compiled and which is listed in the build.properties file.
@@ -637,6 +649,7 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 	private void generatePublishBinPartsTarget() throws CoreException {
 		script.println();
 		script.printTargetDeclaration(TARGET_PUBLISH_BIN_PARTS, TARGET_INIT, PROPERTY_P2_PUBLISH_PARTS, PROPERTY_COMPILE_PROBLEM_MARKER_EXISTS, null);
+		printBundleTiming(TARGET_PUBLISH_BIN_PARTS);
 		IPath destination = new Path(Utils.getPropertyFormat(PROPERTY_BUILD_RESULT_FOLDER));
 		destination = destination.append(fullName);
 		String root = destination.toString();
@@ -715,9 +728,36 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 				script.printEndTag("eclipse.gatherBundle"); //$NON-NLS-1$
 			}
 		}
+		printEndBundleTiming();
 		script.printTargetEnd();
 	}
 
+	/**
+	 * Wrap the content of the target with a hook recording how long it takes for this bundle,
+	 * if the timings are asked for.
+	 */
+	private void printBundleTiming(String phase) {
+		if (!getPropertyAsBoolean(PROPERTY_BUNDLE_TIMINGS))
+			return;
+		String requires = null;
+		if (phase.equals(TARGET_BUILD_JARS)) {
+			//the bundles to compile first, for the critical path, several versions of a bundle may be built
+			Set<String> prerequisites = new TreeSet<>();
+			if (model.getHost() != null && model.getHost().getSupplier() instanceof BundleDescription)
+				prerequisites.add(getNormalizedName((BundleDescription) model.getHost().getSupplier()));
+			for (BundleDescription prerequisite : PDEState.getDependentBundles(model))
+				prerequisites.add(getNormalizedName(prerequisite));
+			prerequisites.remove(fullName);
+			requires = Utils.getStringFromCollection(prerequisites, ","); //$NON-NLS-1$
+		}
+		script.printBundleTiming(fullName, phase, requires, Utils.getPropertyFormat(PROPERTY_BUNDLE_TIMINGS_FILE));
+	}
+
+	private void printEndBundleTiming() {
+		if (getPropertyAsBoolean(PROPERTY_BUNDLE_TIMINGS))
+			script.printEndBundleTiming();
+	}
+
 	private String[] getCompiledLocations() {
 		int count = 0;
 		String[] fileSetValues = new String[compiledJarNames.size()];
@@ -739,6 +779,7 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 	private void generateGatherBinPartsTarget() throws CoreException {
 		script.println();
 		script.printTargetDeclaration(TARGET_GATHER_BIN_PARTS, TARGET_INIT, PROPERTY_DESTINATION_TEMP_FOLDER, null, null);
+		printBundleTiming(TARGET_GATHER_BIN_PARTS);
 		IPath destination = new Path(Utils.getPropertyFormat(PROPERTY_DESTINATION_TEMP_FOLDER));
 		destination = destination.append(fullName);
 		String root = destination.toString();
@@ -758,6 +799,7 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 			script.printSubantTask(Utils.getPropertyFormat(PROPERTY_CUSTOM_BUILD_CALLBACKS), PROPERTY_POST + TARGET_GATHER_BIN_PARTS, customCallbacksBuildpath, customCallbacksFailOnError, customCallbacksInheritAll, params, null);
 		}
 
+		printEndBundleTiming();
 		script.printTargetEnd();
 	}
 
@@ -784,8 +826,17 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 			script.printCopyTask(null, root, new FileSet[] {fileSet}, true, false);
 		}
 		//Dot on the classpath need to be copied in a special way
-		if (dotIncluded) {
-			FileSet fileSet = new FileSet(Utils.getPropertyFormat(PROPERTY_BUILD_RESULT_FOLDER) + '/' + EXPANDED_DOT, null, "**", null, replaceVariables(exclude, true), null, null); //$NON-NLS-1$
+		String dot = Utils.getPropertyFormat(PROPERTY_BUILD_RESULT_FOLDER) + '/' + EXPANDED_DOT;
+		boolean linkDot = dotIncluded && linkWorkspaceClasses();
+		String rewritten = linkDot ? getRewrittenFiles() : null;
+		if (linkDot) {
+			//the class files of @dot link to the workspace output folders, the other files and the ones rewritten in the plug-in are copied
+			String excludes = replaceVariables(exclude, true);
+			FileSet resources = new FileSet(dot, null, "**", null, excludes != null ? excludes + ',' + CLASS_FILES : CLASS_FILES, null, null); //$NON-NLS-1$
+			FileSet rewrittenFiles = new FileSet(dot, null, rewritten, null, excludes, null, null);
+			script.printCopyTask(null, root, new FileSet[] {resources, rewrittenFiles}, true, false);
+		} else if (dotIncluded) {
+			FileSet fileSet = new FileSet(dot, null, "**", null, replaceVariables(exclude, true), null, null); //$NON-NLS-1$
 			script.printCopyTask(null, root, new FileSet[] {fileSet}, true, false);
 		}
 		//General copy of the files listed in the includes
@@ -796,6 +847,11 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 				script.printCopyTask(null, root, new FileSet[] {fileSet}, true, true);
 			}
 		}
+		if (linkDot) {
+			//the files already there win, as they did over the copy of @dot, and are never written through a link
+			String excludes = exclude != null ? replaceVariables(exclude, true) + ',' + rewritten : rewritten;
+			printLinkTree(dot, root, CLASS_FILES, excludes, false);
+		}
 
 		if (Utils.isSourceBundle(model)) {
 			Set<BundleDescription> pluginsToGatherSourceFrom = getPluginSourceProviders();
@@ -1028,7 +1084,7 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 		script.printTargetEnd();
 		script.println();
 		script.printTargetDeclaration(TARGET_PROPERTIES, null, PROPERTY_ECLIPSE_RUNNING, null, null);
-		script.printProperty(PROPERTY_BUILD_COMPILER, JDT_COMPILER_ADAPTER);
+		script.printProperty(PROPERTY_BUILD_COMPILER, useBatchCompilerAdapter() ? BATCH_COMPILER_ADAPTER : JDT_COMPILER_ADAPTER);
 		script.println();
 
 		script.printTargetEnd();
@@ -1239,6 +1295,7 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 		}
 		script.println();
 		script.printTargetDeclaration(TARGET_BUILD_JARS, TARGET_INIT, null, null, NLS.bind(Messages.build_plugin_buildJars, pluginModel.getSymbolicName()));
+		printBundleTiming(TARGET_BUILD_JARS);
 		script.printDeleteTask(null, Utils.getPropertyFormat(PROPERTY_COMPILE_PROBLEM_MARKER), TRUE, null);
 
 		Map<String, String> params = null;
@@ -1255,6 +1312,7 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 		if (customBuildCallbacks != null) {
 			script.printSubantTask(Utils.getPropertyFormat(PROPERTY_CUSTOM_BUILD_CALLBACKS), PROPERTY_POST + TARGET_BUILD_JARS, customCallbacksBuildpath, customCallbacksFailOnError, customCallbacksInheritAll, params, null);
 		}
+		printEndBundleTiming();
 		script.printTargetEnd();
 		script.println();
 
@@ -1371,75 +1429,184 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 		String warningLevels = properties.getProperty(PROPERTY_JAVAC_WARNINGS_PREFIX + name);
 		String errorLevels = properties.getProperty(PROPERTY_JAVAC_ERRORS_PREFIX + name);
 
+		String root = getLocation(model);
+		File file = new File(root, "javaCompiler." + name.replaceAll("[\\\\/]", "_") + ".args"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 		if (customEncodingsVal == null && warningLevels == null && errorLevels == null && classpath.size() == 0) {
+			releaseSharedCompilerSettings(root + '#' + file.getName());
 			return;
 		}
 
-		String root = getLocation(model);
-		File file = new File(root, "javaCompiler." + name.replaceAll("[\\\\/]", "_") + ".args"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 		if (file.exists()) {
 			file.delete();
 		}
-		Writer writer = null;
-		try {
-			try {
-				//only create the file if we are going to write something in it
-				if (warningLevels != null || customEncodingsVal != null || errorLevels != null)
-					writer = new BufferedWriter(new FileWriter(file));
 
-				if (warningLevels != null) {
-					writer.write("-warn:" + warningLevels + "\n"); //$NON-NLS-1$//$NON-NLS-2$
-				}
+		StringBuilder args = new StringBuilder();
+		if (warningLevels != null) {
+			args.append("-warn:" + warningLevels + "\n"); //$NON-NLS-1$//$NON-NLS-2$
+		}
 
-				if (errorLevels != null) {
-					writer.write("-err:" + errorLevels + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
-				}
+		if (errorLevels != null) {
+			args.append("-err:" + errorLevels + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
 
-				if (customEncodingsVal != null) {
-					String[] encodings = customEncodingsVal.split(","); //$NON-NLS-1$
-					if (encodings.length > 0) {
-						for (String encoding : encodings) {
-							writer.write(ADAPTER_ENCODING + encoding + "\n"); //$NON-NLS-1$
-						}
-					}
+		//the custom encodings and the access rules name the files and the classpath of the plug-in
+		StringBuilder pluginArgs = new StringBuilder();
+		if (customEncodingsVal != null) {
+			String[] encodings = customEncodingsVal.split(","); //$NON-NLS-1$
+			if (encodings.length > 0) {
+				for (String encoding : encodings) {
+					pluginArgs.append(ADAPTER_ENCODING + encoding + "\n"); //$NON-NLS-1$
 				}
-				//handle access rules if we are using ClasspathComputer3_0
-				Properties data = (Properties) model.getUserObject();
-				if (data == null || !data.containsKey(PROPERTY_CONVERTED_MANIFEST)) {
-					if (classpath.size() > 0 && classpath.get(0) instanceof ClasspathElement) {
-						for (Object object : classpath) {
-							ClasspathElement element = (ClasspathElement) object;
-							if (element.getPath() != null && element.getAccessRules().length() > 0) {
-								String path = null;
-								if (element.getSubPath() == null)
-									path = element.getPath();
-								else
-									path = featureGenerator.getExtractedRoot(element) + '/' + element.getSubPath();
-
-								if (path.startsWith(Utils.getPropertyFormat(PROPERTY_BUILD_RESULT_FOLDER))) {
-									//remove leading ${build.result.folder}/
-									path = path.substring(Utils.getPropertyFormat(PROPERTY_BUILD_RESULT_FOLDER).length() + 1);
-								}
-								//remove leading ../../..
-								path = path.replaceFirst("^(\\.\\.[\\\\/])*", ""); //$NON-NLS-1$//$NON-NLS-2$
-								if (writer == null)
-									writer = new BufferedWriter(new FileWriter(file));
-								writer.write(ADAPTER_ACCESS + path + element.getAccessRules() + "\n"); //$NON-NLS-1$
-							}
+			}
+		}
+		//handle access rules if we are using ClasspathComputer3_0
+		Properties data = (Properties) model.getUserObject();
+		if (data == null || !data.containsKey(PROPERTY_CONVERTED_MANIFEST)) {
+			if (classpath.size() > 0 && classpath.get(0) instanceof ClasspathElement) {
+				for (Object object : classpath) {
+					ClasspathElement element = (ClasspathElement) object;
+					if (element.getPath() != null && element.getAccessRules().length() > 0) {
+						String path = null;
+						if (element.getSubPath() == null)
+							path = element.getPath();
+						else
+							path = featureGenerator.getExtractedRoot(element) + '/' + element.getSubPath();
+
+						if (path.startsWith(Utils.getPropertyFormat(PROPERTY_BUILD_RESULT_FOLDER))) {
+							//remove leading ${build.result.folder}/
+							path = path.substring(Utils.getPropertyFormat(PROPERTY_BUILD_RESULT_FOLDER).length() + 1);
 						}
+						//remove leading ../../..
+						path = path.replaceFirst("^(\\.\\.[\\\\/])*", ""); //$NON-NLS-1$//$NON-NLS-2$
+						pluginArgs.append(ADAPTER_ACCESS + path + element.getAccessRules() + "\n"); //$NON-NLS-1$
 					}
 				}
-				if (writer != null)
-					javac.setCompileArgsFile(Utils.getPropertyFormat(PROPERTY_BASEDIR) + "/" + file.getName()); //$NON-NLS-1$
-			} finally {
-				if (writer != null)
-					writer.close();
+			}
+		}
+
+		try {
+			String sharedFile = null;
+			if (getPropertyAsBoolean(PROPERTY_SHARED_COMPILER_SETTINGS)) {
+				//only the plug-in specific lines stay in the file of the plug-in
+				if (args.length() > 0)
+					sharedFile = getSharedCompilerSettings(root + '#' + file.getName(), args.toString().getBytes(StandardCharsets.UTF_8), ".args"); //$NON-NLS-1$
+				else
+					releaseSharedCompilerSettings(root + '#' + file.getName());
+				args = pluginArgs;
+			} else {
+				args.append(pluginArgs);
+			}
+
+			//only create the file if we are going to write something in it
+			String pluginFile = null;
+			if (args.length() > 0) {
+				try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+					writer.write(args.toString());
+				}
+				pluginFile = Utils.getPropertyFormat(PROPERTY_BASEDIR) + "/" + file.getName(); //$NON-NLS-1$
+			}
+			if (sharedFile != null) {
+				javac.setCompileArgsFile(sharedFile);
+				javac.setPluginArgsFile(pluginFile);
+			} else {
+				javac.setCompileArgsFile(pluginFile);
 			}
 		} catch (IOException e1) {
 			//ignore
 		}
 	}
 
+	/**
+	 * Compiler settings with the same content are written once, in a file of the working directory named
+	 * after the hash of the content, and referenced by all the plug-ins using them. Which file each user
+	 * references is recorded along the files, the files no user references anymore are deleted.
+	 * @param user the plug-in location and the settings it uses the file for
+	 * @param content the compiler settings
+	 * @param extension the extension of the file
+	 * @return the location of the shared file, to be used from the script of the current plug-in
+	 * @throws IOException
+	 */
+	private String getSharedCompilerSettings(String user, byte[] content, String extension) throws IOException {
+		String hash = null;
+		try {
+			StringBuilder hex = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-1").digest(content)) //$NON-NLS-1$
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			hash = hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			hash = Integer.toHexString(Arrays.hashCode(content)) + '_' + content.length;
+		}
+
+		File folder = new File(workingDirectory, DEFAULT_COMPILER_SETTINGS_LOCATION);
+		File shared = new File(folder, SHARED_SETTINGS_PREFIX + hash + extension);
+		//a file left incomplete, or colliding, is written again
+		if (!shared.isFile() || !Arrays.equals(Files.readAllBytes(shared.toPath()), content)) {
+			folder.mkdirs();
+			try (OutputStream output = new BufferedOutputStream(new FileOutputStream(shared))) {
+				output.write(content);
+			}
+		}
+		pruneSharedCompilerSettings(folder, user, shared.getName());
+
+		IPath location = Utils.makeRelative(new Path(shared.getAbsolutePath()), new Path(new File(getLocation(model)).getAbsolutePath()));
+		if (location.isAbsolute())
+			return location.toString();
+		return Utils.getPropertyFormat(PROPERTY_BASEDIR) + '/' + location.toString();
+	}
+
+	/*
+	 * The user no longer references shared compiler settings
+	 */
+	private void releaseSharedCompilerSettings(String user) {
+		if (!getPropertyAsBoolean(PROPERTY_SHARED_COMPILER_SETTINGS))
+			return;
+		try {
+			pruneSharedCompilerSettings(new File(workingDirectory, DEFAULT_COMPILER_SETTINGS_LOCATION), user, null);
+		} catch (IOException e) {
+			//the files are pruned next time
+		}
+	}
+
+	/*
+	 * Record the shared settings file the user references, then delete the shared settings files no user
+	 * references. The users whose plug-in is gone from the disk no longer reference theirs.
+	 */
+	private static synchronized void pruneSharedCompilerSettings(File folder, String user, String name) throws IOException {
+		File index = new File(folder, SHARED_SETTINGS_USERS);
+		Properties users = new Properties();
+		if (index.isFile()) {
+			try (InputStream input = new BufferedInputStream(new FileInputStream(index))) {
+				users.load(input);
+			}
+		}
+		if (name != null)
+			users.setProperty(user, name);
+		else if (users.remove(user) == null)
+			return;
+
+		Set<Object> used = new HashSet<>();
+		for (Iterator<Entry<Object, Object>> iterator = users.entrySet().iterator(); iterator.hasNext();) {
+			Entry<Object, Object> entry = iterator.next();
+			String key = (String) entry.getKey();
+			if (key.indexOf('#') == -1 || !new File(key.substring(0, key.lastIndexOf('#'))).exists())
+				iterator.remove();
+			else
+				used.add(entry.getValue());
+		}
+		folder.mkdirs();
+		try (OutputStream output = new BufferedOutputStream(new FileOutputStream(index))) {
+			users.store(output, null);
+		}
+
+		File[] files = folder.listFiles();
+		if (files == null)
+			return;
+		for (File file : files) {
+			if (file.getName().startsWith(SHARED_SETTINGS_PREFIX) && !used.contains(file.getName()))
+				file.delete();
+		}
+	}
+
 	/**
 	 * Add a target to extract any nested jars we need to compile against
 	 * @param classpath
@@ -1463,8 +1630,13 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 			else {
 				String destPath = featureGenerator.getExtractedRoot(element);
 				String destDir = Utils.getPropertyFormat(PROPERTY_BUILD_DIRECTORY) + '/' + "nestedJars" + '/' + destPath.toString(); //$NON-NLS-1$
-				script.printMkdirTask(destDir);
-				script.printUnzipTask(element.getPath(), destDir, false, element.getSubPath(), null);
+				if (getPropertyAsBoolean(PROPERTY_SHARED_NESTED_JARS)) {
+					//nothing to do when the compile script already extracted it
+					script.printExtractNestedJar(element.getPath(), element.getSubPath(), destDir);
+				} else {
+					script.printMkdirTask(destDir);
+					script.printUnzipTask(element.getPath(), destDir, false, element.getSubPath(), null);
+				}
 				extracted.add(destDir + '/' + element.getSubPath());
 			}
 		}
@@ -1509,6 +1681,7 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 		}
 
 		FileSet[] workspaceFiles = null;
+		Set<IPath> linkedOutputFolders = null;
 		String outputKey = name.equals(EXPANDED_DOT) ? DOT : name;
 		if (workspaceOutputFolders != null && workspaceOutputFolders.containsKey(outputKey)) {
 			// this is a no-op when using p2Gathering on folders GatherBundleTask will collect the class files from where they are.
@@ -1520,11 +1693,19 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 
 				int i = 0;
 				for (IPath path : paths) {
-					workspaceFiles[i++] = new FileSet(Utils.getPropertyFormat(PROPERTY_BASEDIR) + "/" + path.toOSString(), null, null, null, "**/package.htm*", null, null); //$NON-NLS-1$ //$NON-NLS-2$
+					workspaceFiles[i++] = new FileSet(Utils.getPropertyFormat(PROPERTY_BASEDIR) + "/" + path.toOSString(), null, null, null, PACKAGE_HTML, null, null); //$NON-NLS-1$
 				}
 
 				//if entry is a folder, copy over the class files, otherwise they will be jarred from where they are.
-				if (isFolder) {
+				if (isFolder && customBuildCallbacks == null && getPropertyAsBoolean(PROPERTY_LINK_WORKSPACE_BINARIES)) {
+					//the class files are linked once the resources are copied from the source folders below, the other files may be rewritten
+					FileSet[] resources = new FileSet[paths.size()];
+					i = 0;
+					for (IPath path : paths)
+						resources[i++] = new FileSet(Utils.getPropertyFormat(PROPERTY_BASEDIR) + "/" + path.toOSString(), null, null, null, PACKAGE_HTML + ',' + CLASS_FILES, null, null); //$NON-NLS-1$
+					script.printCopyTask(null, destdir, resources, true, false);
+					linkedOutputFolders = paths;
+				} else if (isFolder) {
 					script.printCopyTask(null, destdir, workspaceFiles, true, false);
 				}
 			}
@@ -1567,9 +1748,15 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 			javac.setSrcdir(sources);
 			javac.setLogExtension(Utils.getPropertyFormat(PROPERTY_LOG_EXTENSION));
 			if (warningProperties != null)
-				javac.setWarningProperties(Utils.getPropertyFormat(PROPERTY_BASEDIR) + '/' + warningProperties);
+				javac.setWarningProperties(getWarningProperties());
 			if (generateErrorPropertyAttribute)
 				javac.setErrorProperty(PROPERTY_COMPILATION_ERROR);
+			if (useBatchCompilerAdapter()) {
+				//the batch adapter takes all the arguments of the JDT adapter, a compilerAdapter set in build.properties still wins
+				javac.setCompilerAdapter(BATCH_COMPILER_ADAPTER);
+				javac.setAdapterUseLog(true);
+				javac.setAdapterArgFile(true);
+			}
 			generateCompilerSettings(javac, entry, classpath);
 
 			script.print(javac);
@@ -1595,6 +1782,12 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 
 		script.printCopyTask(null, destdir, fileSets, true, false);
 
+		if (linkedOutputFolders != null) {
+			//the class files of the output folders, the files copied above are kept
+			for (IPath path : linkedOutputFolders)
+				printLinkTree(Utils.getPropertyFormat(PROPERTY_BASEDIR) + "/" + path.toString(), destdir, CLASS_FILES, null, false); //$NON-NLS-1$
+		}
+
 		if (customBuildCallbacks != null) {
 			script.printSubantTask(Utils.getPropertyFormat(PROPERTY_CUSTOM_BUILD_CALLBACKS), PROPERTY_POST_COMPILE + name, customCallbacksBuildpath, customCallbacksFailOnError, customCallbacksInheritAll, params, references);
 		}
@@ -1617,6 +1810,59 @@ public class ModelBuildScriptGenerator extends AbstractBuildScriptGenerator {
 		script.printTargetEnd();
 	}
 
+	/*
+	 * The class files of the workspace output folder of '.' are hard linked instead of copied
+	 */
+	private boolean linkWorkspaceClasses() {
+		return getPropertyAsBoolean(PROPERTY_LINK_WORKSPACE_BINARIES) && workspaceOutputFolders != null && workspaceOutputFolders.containsKey(DOT) && customBuildCallbacks == null;
+	}
+
+	/*
+	 * The patterns of the files rewritten in the gathered plug-in: the id replacement and the permissions
+	 */
+	private String getRewrittenFiles() throws CoreException {
+		StringBuilder result = new StringBuilder(REPLACED_FILES);
+		for (Entry<Object, Object> permission : getPermissionProperties().entrySet()) {
+			if (((String) permission.getKey()).indexOf(PERMISSIONS) != -1)
+				result.append(',').append((String) permission.getValue());
+		}
+		return result.toString();
+	}
+
+	private void printLinkTree(String source, String destination, String includes, String excludes, boolean overwrite) {
+		Map<String, String> args = new LinkedHashMap<>(5);
+		args.put("src", source); //$NON-NLS-1$
+		args.put("dest", destination); //$NON-NLS-1$
+		if (includes != null)
+			args.put("includes", includes); //$NON-NLS-1$
+		if (excludes != null)
+			args.put("excludes", excludes); //$NON-NLS-1$
+		if (!overwrite)
+			args.put("overwrite", "false"); //$NON-NLS-1$ //$NON-NLS-2$
+		script.printElement("eclipse.linkTree", args); //$NON-NLS-1$
+	}
+
+	/*
+	 * The warning settings of the plug-in, shared with the plug-ins having the same settings when asked to
+	 */
+	private String getWarningProperties() {
+		if (getPropertyAsBoolean(PROPERTY_SHARED_COMPILER_SETTINGS)) {
+			try (InputStream input = new BufferedInputStream(new FileInputStream(new File(getLocation(model), warningProperties)))) {
+				return getSharedCompilerSettings(getLocation(model) + '#' + warningProperties, input.readAllBytes(), ".prefs"); //$NON-NLS-1$
+			} catch (IOException e) {
+				//use the file of the plug-in
+			}
+		}
+		return Utils.getPropertyFormat(PROPERTY_BASEDIR) + '/' + warningProperties;
+	}
+
+	/*
+	 * The batched compilations and the shared classpath index go through the batch compiler adapter
+	 */
+	private boolean useBatchCompilerAdapter() {
+		return getPropertyAsBoolean(PROPERTY_BATCH_COMPILATION) || getPropertyAsBoolean(PROPERTY_SHARED_CLASSPATH_INDEX);
+	}
+
 	/*
 	 * The "errorProperty" attribute on the javac task requires ant 1.7.1 or greater
 	 */
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.equinox.internal.p2.publisher.eclipse.ProductFile;
 import org.eclipse.equinox.internal.p2.updatesite.SiteXMLAction;
+import org.eclipse.equinox.p2.core.ProvisionException;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.Version;
 import org.eclipse.equinox.p2.publisher.*;
@@ -41,6 +42,7 @@ public class GeneratorApplication extends AbstractPublisherApplication {
 	private String rootVersion;
 	private String versionAdvice;
 	private String rootId;
+	private ResidentRepositories residentRepositories = null;
 
 	@Override
 	protected IPublisherAction[] createActions() {
@@ -115,6 +117,17 @@ public class GeneratorApplication extends AbstractPublisherApplication {
 		return version;
 	}
 
+	@Override
+	protected void initializeRepositories(PublisherInfo publisherInfo) throws ProvisionException {
+		if (residentRepositories != null && residentRepositories.isOpen(metadataLocation, artifactLocation)) {
+			residentRepositories.configure(publisherInfo, compress);
+			return;
+		}
+		super.initializeRepositories(publisherInfo);
+		if (residentRepositories != null)
+			residentRepositories.open(metadataLocation, artifactLocation, publisherInfo, compress);
+	}
+
 	@Override
 	protected Publisher createPublisher(PublisherInfo publisherInfo) {
 		if (result != null)
@@ -155,6 +168,10 @@ public class GeneratorApplication extends AbstractPublisherApplication {
 		this.result = result;
 	}
 
+	public void setResidentRepositories(ResidentRepositories repositories) {
+		this.residentRepositories = repositories;
+	}
+
 	public void setFlavor(String flavor) {
 		this.flavor = flavor;
 	}
@@ -26,6 +26,8 @@ import org.eclipse.equinox.p2.publisher.*;
 public class IncrementalGenerator {
 	private static String MODE_INCREMENTAL = "incremental"; //$NON-NLS-1$
 	private String mode = null;
+	private boolean resident = false;
+	private ResidentRepositories repositories = null;
 	static private PublisherResult result = null;
 	static private ArrayList<String> configs = null;
 	static private ArrayList<IPublisherAdvice> advice = null;
@@ -34,8 +36,39 @@ public class IncrementalGenerator {
 		this.mode = mode;
 	}
 
+	/**
+	 * In incremental mode, keep the repositories open until the final call and write the
+	 * metadata repository only then.
+	 */
+	public void setResident(boolean resident) {
+		this.resident = resident;
+	}
+
+	/**
+	 * The repositories kept for the calls of the build, <code>null</code> if there are none.
+	 */
+	public void setResidentRepositories(ResidentRepositories repositories) {
+		this.repositories = repositories;
+	}
+
 	public void run(GeneratorApplication generator, PublisherInfo provider) throws Exception {
-		if (MODE_INCREMENTAL.equals(mode)) {
+		boolean incremental = MODE_INCREMENTAL.equals(mode);
+		if (incremental && !resident && repositories != null) {
+			//an incremental call which does not keep the repositories writes the pending units first
+			repositories.close();
+			repositories = null;
+		}
+		generator.setResidentRepositories(repositories);
+		try {
+			run(generator, provider, incremental);
+		} finally {
+			if (!incremental && repositories != null)
+				repositories.close();
+		}
+	}
+
+	private void run(GeneratorApplication generator, PublisherInfo provider, boolean incremental) throws Exception {
+		if (incremental) {
 			initialize();
 			generator.setIncrementalResult(result);
 		} else if ("final".equals(mode) && result != null) { //$NON-NLS-1$
@@ -51,7 +84,7 @@ public class IncrementalGenerator {
 
 		generator.run(provider);
 
-		if (MODE_INCREMENTAL.equals(mode)) {
+		if (incremental) {
 			configs.addAll(Arrays.asList(provider.getConfigurations()));
 			advice.addAll(provider.getAdvice());
 		} else {
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.publisher.compatibility;
+
+import java.lang.reflect.*;
+import java.net.URI;
+import java.util.*;
+import org.eclipse.core.runtime.*;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.publisher.PublisherInfo;
+import org.eclipse.equinox.p2.query.*;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.IRunnableWithProgress;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.pde.internal.build.IPDEBuildConstants;
+import org.eclipse.pde.internal.build.Utils;
+
+/**
+ * The repositories opened by the first call to the generator, kept for the following calls of
+ * the same build.
+ * <p>
+ * The installable units added to the metadata repository are held in memory, where they are
+ * visible to the queries, and are only written to the repository when closed. The repository
+ * is then saved once instead of after each call.
+ * </p><p>
+ * The artifact repository saves itself at the end of each batch, the batches of the publisher calls
+ * keep its saves disabled and it is saved once when closed. Repositories whose saves can't be
+ * deferred are saved after each call.
+ * </p>
+ */
+public class ResidentRepositories {
+	private URI metadataLocation = null;
+	private URI artifactLocation = null;
+	private IMetadataRepository metadataRepository = null;
+	private IMetadataRepository residentMetadataRepository = null;
+	private IArtifactRepository artifactRepository = null;
+	private IArtifactRepository residentArtifactRepository = null;
+	private boolean artifactsUnsaved = false;
+	private boolean compress = false;
+	private final Set<IInstallableUnit> pending = new LinkedHashSet<>();
+
+	public boolean isOpen(URI metadata, URI artifact) {
+		return metadataRepository != null && Objects.equals(metadataLocation, metadata) && Objects.equals(artifactLocation, artifact);
+	}
+
+	/**
+	 * Keep the repositories the generator just opened in the given info.
+	 */
+	public void open(URI metadata, URI artifact, PublisherInfo info, boolean compressed) {
+		close();
+		metadataLocation = metadata;
+		artifactLocation = artifact;
+		metadataRepository = info.getMetadataRepository();
+		artifactRepository = info.getArtifactRepository();
+		compress = compressed;
+		residentMetadataRepository = metadataRepository != null ? createResidentRepository(metadataRepository) : null;
+		residentArtifactRepository = artifactRepository != null ? createResidentRepository(artifactRepository) : null;
+		info.setMetadataRepository(residentMetadataRepository);
+		info.setArtifactRepository(residentArtifactRepository);
+	}
+
+	/**
+	 * Set the kept repositories in the given info. Like loading the repositories again, the compression
+	 * asked by the last call applies.
+	 */
+	public void configure(PublisherInfo info, boolean compressed) {
+		info.setMetadataRepository(residentMetadataRepository);
+		info.setArtifactRepository(residentArtifactRepository);
+		compress = compressed;
+	}
+
+	/**
+	 * Write the pending installable units to the metadata repository, save the artifact repository
+	 * and forget the repositories, the next call opens them again.
+	 */
+	public void close() {
+		if (metadataRepository == null)
+			return;
+		try {
+			String compressed = Boolean.toString(compress);
+			if (!compressed.equals(metadataRepository.getProperties().get(IRepository.PROP_COMPRESSED)))
+				metadataRepository.setProperty(IRepository.PROP_COMPRESSED, compressed);
+			if (artifactRepository != null && !compressed.equals(artifactRepository.getProperties().get(IRepository.PROP_COMPRESSED)))
+				artifactRepository.setProperty(IRepository.PROP_COMPRESSED, compressed);
+			if (!pending.isEmpty())
+				metadataRepository.addInstallableUnits(new ArrayList<>(pending));
+			//an empty batch ends with the save
+			if (artifactsUnsaved)
+				artifactRepository.executeBatch(monitor -> {
+					//nothing to do
+				}, null);
+		} finally {
+			pending.clear();
+			artifactsUnsaved = false;
+			metadataLocation = null;
+			artifactLocation = null;
+			metadataRepository = null;
+			residentMetadataRepository = null;
+			artifactRepository = null;
+			residentArtifactRepository = null;
+		}
+	}
+
+	private void flush() {
+		if (metadataRepository == null || pending.isEmpty())
+			return;
+		metadataRepository.addInstallableUnits(new ArrayList<>(pending));
+		pending.clear();
+	}
+
+	private IMetadataRepository createResidentRepository(final IMetadataRepository repository) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			String name = method.getName();
+			if (name.equals("addInstallableUnits") && args != null && args.length == 1) { //$NON-NLS-1$
+				@SuppressWarnings("unchecked")
+				Collection<IInstallableUnit> units = (Collection<IInstallableUnit>) args[0];
+				pending.addAll(units);
+				return null;
+			}
+			if (name.equals("query") && args != null && args.length == 2 && !pending.isEmpty()) { //$NON-NLS-1$
+				@SuppressWarnings("unchecked")
+				IQuery<IInstallableUnit> query = (IQuery<IInstallableUnit>) args[0];
+				IQueryable<IInstallableUnit> queryable = QueryUtil.compoundQueryable(repository, new CollectionResult<>(new ArrayList<>(pending)));
+				return queryable.query(query, (IProgressMonitor) args[1]);
+			}
+			if (name.startsWith("remove")) //$NON-NLS-1$
+				flush();
+			try {
+				return method.invoke(repository, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+		return (IMetadataRepository) Proxy.newProxyInstance(repository.getClass().getClassLoader(), Utils.getPublicInterfaces(repository.getClass()), handler);
+	}
+
+	private IArtifactRepository createResidentRepository(final IArtifactRepository repository) {
+		final Field disableSave = getDisableSave(repository.getClass());
+		if (disableSave == null)
+			return repository;
+		InvocationHandler handler = (proxy, method, args) -> {
+			if (method.getName().equals("executeBatch") && args != null && args.length == 2) { //$NON-NLS-1$
+				//same as the batch of the repository, without the save at the end
+				synchronized (repository) {
+					try {
+						disableSave.setBoolean(repository, true);
+						artifactsUnsaved = true;
+						((IRunnableWithProgress) args[0]).run((IProgressMonitor) args[1]);
+					} catch (OperationCanceledException e) {
+						return Status.CANCEL_STATUS;
+					} catch (Throwable e) {
+						return new Status(IStatus.ERROR, IPDEBuildConstants.PI_PDEBUILD, e.getMessage(), e);
+					}
+				}
+				return Status.OK_STATUS;
+			}
+			try {
+				return method.invoke(repository, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+		return (IArtifactRepository) Proxy.newProxyInstance(repository.getClass().getClassLoader(), Utils.getPublicInterfaces(repository.getClass()), handler);
+	}
+
+	/*
+	 * The flag of the simple artifact repository disabling its saves during a batch
+	 */
+	private static Field getDisableSave(Class<?> repositoryClass) {
+		for (Class<?> current = repositoryClass; current != null; current = current.getSuperclass()) {
+			try {
+				Field field = current.getDeclaredField("disableSave"); //$NON-NLS-1$
+				if (field.getType() != boolean.class || Modifier.isStatic(field.getModifiers()))
+					return null;
+				field.setAccessible(true);
+				return field;
+			} catch (NoSuchFieldException e) {
+				//look in the super class
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+		return null;
+	}
+}
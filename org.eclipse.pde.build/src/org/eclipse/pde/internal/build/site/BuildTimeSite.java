@@ -16,6 +16,7 @@ package org.eclipse.pde.internal.build.site;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.equinox.p2.publisher.eclipse.Feature;
@@ -85,9 +86,14 @@ public class BuildTimeSite /*extends Site*/ implements IPDEBuildConstants, IXMLC
 		return result;
 	}
 
-	private Collection<File> removeDuplicates(Collection<File> bundles) {
+	/*
+	 * The attributes of the bundles follow them to their canonical location
+	 */
+	private Collection<File> removeDuplicates(Collection<File> bundles, Map<File, BasicFileAttributes> attributes) {
 		Set<File> result = new LinkedHashSet<>(bundles.size() / 2);
+		Map<File, BasicFileAttributes> canonicalAttributes = new HashMap<>();
 		for (File bundle : bundles) {
+			BasicFileAttributes bundleAttributes = attributes.get(bundle);
 			try {
 				bundle = bundle.getCanonicalFile();
 			} catch (IOException e) {
@@ -96,7 +102,11 @@ public class BuildTimeSite /*extends Site*/ implements IPDEBuildConstants, IXMLC
 			if (result.contains(bundle))
 				continue;
 			result.add(bundle);
+			if (bundleAttributes != null)
+				canonicalAttributes.put(bundle, bundleAttributes);
 		}
+		attributes.clear();
+		attributes.putAll(canonicalAttributes);
 		return result;
 	}
 
@@ -110,7 +120,9 @@ public class BuildTimeSite /*extends Site*/ implements IPDEBuildConstants, IXMLC
 				state = new PDEState(provider.getInitialState());
 				state.setEESources(eeSources);
 				state.setPlatformProperties(getUIPlatformProperties());
-				state.resolveState();
+				try (BuildMetrics.Phase phase = BuildMetrics.phase("resolveState")) { //$NON-NLS-1$
+					state.resolveState();
+				}
 				return state;
 			}
 
@@ -123,15 +135,23 @@ public class BuildTimeSite /*extends Site*/ implements IPDEBuildConstants, IXMLC
 			if (platformProperties != null)
 				state.setPlatformProperties(platformProperties);
 
-			Collection<File> bundles = removeDuplicates(provider.getPluginPaths());
-			state.addBundles(bundles);
+			Collection<File> bundles;
+			Map<File, BasicFileAttributes> attributes = new HashMap<>();
+			try (BuildMetrics.Phase phase = BuildMetrics.phase("findBundles")) { //$NON-NLS-1$
+				bundles = removeDuplicates(provider.getPluginPaths(attributes), attributes);
+			}
+			try (BuildMetrics.Phase phase = BuildMetrics.phase("loadBundles")) { //$NON-NLS-1$
+				state.addBundles(bundles, attributes);
+			}
 			state.setEESources(eeSources);
 
 			//Once all the elements have been added to the state, the filter is removed to allow for the generated plug-ins to be added
 			if (state instanceof FilteringState) {
 				((FilteringState) state).setFilter(null);
 			}
-			state.resolveState();
+			try (BuildMetrics.Phase phase = BuildMetrics.phase("resolveState")) { //$NON-NLS-1$
+				state.resolveState();
+			}
 			BundleDescription[] allBundles = state.getState().getBundles();
 			BundleDescription[] resolvedBundles = state.getState().getResolvedBundles();
 			if (allBundles.length == resolvedBundles.length)
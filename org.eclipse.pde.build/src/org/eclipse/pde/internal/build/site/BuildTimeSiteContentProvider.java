@@ -15,6 +15,7 @@ package org.eclipse.pde.internal.build.site;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.jar.JarFile;
 import org.eclipse.core.runtime.CoreException;
@@ -44,10 +45,17 @@ public class BuildTimeSiteContentProvider implements IPDEBuildConstants {
 		return installedBaseURL;
 	}
 
-	public Collection<File> getPluginPaths() {
+	public Collection<File> getPluginPaths() throws CoreException {
+		return getPluginPaths(null);
+	}
+
+	/**
+	 * @param attributes receives the attributes of the installed plug-ins read when listing them, can be <code>null</code>
+	 */
+	public Collection<File> getPluginPaths(Map<File, BasicFileAttributes> attributes) throws CoreException {
 		Collection<File> pluginsToCompile = findPluginXML(Utils.asFile(urls));
 		if (installedBaseURL != null) {
-			pluginsToCompile.addAll(Arrays.asList(PluginPathFinder.getPluginPaths(installedBaseURL, filterP2Base)));
+			pluginsToCompile.addAll(Arrays.asList(PluginPathFinder.getPaths(installedBaseURL, false, filterP2Base, attributes)));
 		}
 		return pluginsToCompile;
 	}
@@ -76,6 +76,88 @@ public class P2Utils {
 		return bundles;
 	}
 
+	/**
+	 * Returns the bundles listed by the 'bundles.info' and 'source.info' files of the specified
+	 * installation, like {@link #readBundlesTxt(String)}. The files are parsed directly, without
+	 * going through the simple configurator manipulator service.
+	 * 
+	 * @param platformHome absolute path in the local file system to an installation
+	 * @return the bundles in the installation or <code>null</code> if there is no bundles.info
+	 */
+	public static File[] readBundlesInfo(String platformHome) {
+		File root = new File(platformHome);
+		File bundlesTxt = new File(root, "configuration/" + SimpleConfiguratorManipulator.BUNDLES_INFO_PATH); //$NON-NLS-1$
+		File sourceTxt = new File(root, "configuration/" + SimpleConfiguratorManipulator.SOURCE_INFO_PATH); //$NON-NLS-1$
+		if (!bundlesTxt.isFile())
+			return null;
+
+		List<File> result = new ArrayList<>();
+		URI base = root.toURI();
+		try {
+			readBundlesInfo(bundlesTxt, base, result);
+			if (sourceTxt.isFile())
+				readBundlesInfo(sourceTxt, base, result);
+		} catch (IOException e) {
+			return null;
+		}
+		return result.toArray(new File[result.size()]);
+	}
+
+	/*
+	 * Lines are "symbolicName,version,location,startLevel,markedAsStarted", commas in the
+	 * location being encoded as %2C. Relative locations are relative to the installation.
+	 */
+	private static void readBundlesInfo(File file, URI base, List<File> result) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"))) { //$NON-NLS-1$
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.length() == 0 || line.charAt(0) == '#')
+					continue;
+				int first = line.indexOf(',');
+				int second = first == -1 ? -1 : line.indexOf(',', first + 1);
+				if (second == -1)
+					continue;
+				int third = line.indexOf(',', second + 1);
+				String location = (third == -1 ? line.substring(second + 1) : line.substring(second + 1, third)).trim();
+				File bundle = toFile(location.replace("%2C", ","), base); //$NON-NLS-1$ //$NON-NLS-2$
+				if (bundle != null)
+					result.add(bundle);
+			}
+		}
+	}
+
+	private static File toFile(String location, URI base) {
+		if (File.separatorChar != '/')
+			location = location.replace(File.separatorChar, '/');
+		URI uri;
+		try {
+			uri = new URI(location);
+		} catch (URISyntaxException e) {
+			try {
+				uri = new URI(null, null, location, null);
+			} catch (URISyntaxException e1) {
+				return null;
+			}
+		}
+		if (uri.isOpaque()) {
+			//old style "file:plugins/..." locations
+			if (!"file".equalsIgnoreCase(uri.getScheme())) //$NON-NLS-1$
+				return null;
+			File file = new File(uri.getSchemeSpecificPart());
+			return file.isAbsolute() ? file : new File(new File(base), file.getPath());
+		}
+		if (!uri.isAbsolute())
+			uri = base.resolve(uri);
+		if (!"file".equalsIgnoreCase(uri.getScheme())) //$NON-NLS-1$
+			return null;
+		try {
+			return new File(uri);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Creates a bundles.info file in the given directory containing the name,
 	 * version, location, start level and expected state of every bundle in the
@@ -90,12 +172,29 @@ public class P2Utils {
 	 * @return URL location of the bundles.info or <code>null</code>
 	 */
 	public static File writeBundlesTxt(Collection<BundleDescription> bundles, File directory, ProductFile productFile, boolean refactoredRuntime) {
+		return writeBundlesTxt(bundles, directory, productFile, refactoredRuntime, new ShapeAdvisor());
+	}
+
+	/**
+	 * Same as {@link #writeBundlesTxt(Collection, File, ProductFile, boolean)}, the final location
+	 * of the bundles being given by the given advisor.
+	 */
+	public static File writeBundlesTxt(Collection<BundleDescription> bundles, File directory, ProductFile productFile, boolean refactoredRuntime, ShapeAdvisor advisor) {
+		Properties props = productFile != null ? productFile.getConfigProperties() : null;
+		Map<String, BundleInfo> userInfos = productFile != null ? productFile.getConfigurationInfo() : null;
+		return writeBundlesTxt(bundles, directory, props, userInfos, refactoredRuntime, advisor);
+	}
+
+	/**
+	 * Same as {@link #writeBundlesTxt(Collection, File, ProductFile, boolean, ShapeAdvisor)}, given the
+	 * configuration properties and bundle infos already read from the product file, or <code>null</code>.
+	 * The arguments are only read, so configs can be written concurrently from the same values.
+	 */
+	public static File writeBundlesTxt(Collection<BundleDescription> bundles, File directory, Properties props, Map<String, BundleInfo> userInfos, boolean refactoredRuntime, ShapeAdvisor advisor) {
 		List<BundleInfo> bundleInfos = new ArrayList<>(bundles.size());
 		List<BundleInfo> sourceInfos = new ArrayList<>(bundles.size());
-		ShapeAdvisor advisor = new ShapeAdvisor();
 
 		int defaultStartLevel = 4;
-		Properties props = productFile != null ? productFile.getConfigProperties() : null;
 		if (props != null && props.containsKey("osgi.bundles.defaultStartLevel")) { //$NON-NLS-1$
 			try {
 				defaultStartLevel = Integer.parseInt(props.getProperty("osgi.bundles.defaultStartLevel")); //$NON-NLS-1$
@@ -104,8 +203,6 @@ public class P2Utils {
 			}
 		}
 
-		Map<String, BundleInfo> userInfos = productFile != null ? productFile.getConfigurationInfo() : null;
-
 		for (BundleDescription desc : bundles) {
 			if (desc != null) {
 				String modelName = desc.getSymbolicName();
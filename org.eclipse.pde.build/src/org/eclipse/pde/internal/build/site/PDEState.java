@@ -16,6 +16,7 @@ package org.eclipse.pde.internal.build.site;
 import java.io.*;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
@@ -100,6 +101,7 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 			rememberSourceReference(descriptor, oldVersion);
 			if (addBundleDescription(descriptor) == true && addedBundle != null)
 				addedBundle.add(descriptor);
+			BuildMetrics.count(BuildMetrics.BUNDLES_LOADED);
 		} catch (BundleException e) {
 			IStatus status = new Status(IStatus.WARNING, IPDEBuildConstants.PI_PDEBUILD, EXCEPTION_STATE_PROBLEM, NLS.bind(Messages.exception_stateAddition, BundleHelper.getManifestHeader(enhancedManifest, Constants.BUNDLE_NAME)), e);
 			BundleHelper.getDefault().getLog().log(status);
@@ -206,8 +208,15 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 	}
 
 	public boolean addBundle(File bundleLocation) {
+		return addBundle(bundleLocation, null);
+	}
+
+	/*
+	 * The attributes of the bundle read when it was found, null if they are not known
+	 */
+	private boolean addBundle(File bundleLocation, BasicFileAttributes attributes) {
 		Dictionary<String, String> manifest;
-		manifest = loadManifest(bundleLocation);
+		manifest = loadManifest(bundleLocation, attributes);
 		if (manifest == null) {
 			return addFlexibleRoot(bundleLocation);
 		}
@@ -280,11 +289,11 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 	}
 
 	//Return a dictionary representing a manifest. The data may result from plugin.xml conversion  
-	private Dictionary<String, String> basicLoadManifest(File bundleLocation) {
+	private Dictionary<String, String> basicLoadManifest(File bundleLocation, BasicFileAttributes attributes) {
 		InputStream manifestStream = null;
 		ZipFile jarFile = null;
 		try {
-			if ("jar".equalsIgnoreCase(new Path(bundleLocation.getName()).getFileExtension()) && bundleLocation.isFile()) { //$NON-NLS-1$
+			if (ScannedFile.isJar(bundleLocation, attributes)) {
 				jarFile = new ZipFile(bundleLocation, ZipFile.OPEN_READ);
 				ZipEntry manifestEntry = jarFile.getEntry(JarFile.MANIFEST_NAME);
 				if (manifestEntry != null) {
@@ -304,6 +313,7 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 		try {
 			Hashtable<String, String> result = new Hashtable<>();
 			result.putAll(ManifestElement.parseBundleManifest(manifestStream, null));
+			BuildMetrics.count(BuildMetrics.MANIFESTS_PARSED);
 			return result;
 		} catch (IOException | BundleException e) {
 			return null;
@@ -341,8 +351,8 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 			manifest.put(Constants.BUNDLE_VERSION, "0.0.0"); //$NON-NLS-1$
 	}
 
-	private Dictionary<String, String> loadManifest(File bundleLocation) {
-		Dictionary<String, String> manifest = basicLoadManifest(bundleLocation);
+	private Dictionary<String, String> loadManifest(File bundleLocation, BasicFileAttributes attributes) {
+		Dictionary<String, String> manifest = basicLoadManifest(bundleLocation, attributes);
 		if (manifest == null)
 			return null;
 
@@ -355,8 +365,15 @@ public class PDEState implements IPDEBuildConstants, IBuildPropertiesConstants {
 	}
 
 	public void addBundles(Collection<File> bundles) {
+		addBundles(bundles, Collections.emptyMap());
+	}
+
+	/**
+	 * Add the given bundles, their type being answered from the given attributes read when they were found.
+	 */
+	public void addBundles(Collection<File> bundles, Map<File, BasicFileAttributes> attributes) {
 		for (File bundle : bundles) {
-			addBundle(bundle);
+			addBundle(bundle, attributes.get(bundle));
 		}
 	}
 
@@ -14,12 +14,12 @@
 package org.eclipse.pde.internal.build.site;
 
 import java.io.*;
-import java.net.URL;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
-import org.eclipse.core.runtime.IPath;
-import org.eclipse.core.runtime.Path;
-import org.eclipse.pde.internal.build.IPDEBuildConstants;
-import org.eclipse.pde.internal.build.Utils;
+import java.util.concurrent.*;
+import org.eclipse.core.runtime.*;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.pde.internal.build.*;
 
 public class PluginPathFinder {
 	private static final String DROPINS = "dropins"; //$NON-NLS-1$
@@ -61,118 +61,214 @@ public class PluginPathFinder {
 	 * 
 	 * @param platformHome
 	 * @param features false for plugin sites, true for feature sites
-	 * @return array of ".../plugins" or ".../features" Files
+	 * @return the listings of the ".../plugins" or ".../features" sites
 	 */
-	private static File[] getSites(String platformHome, boolean features) {
-		ArrayList<File> sites = new ArrayList<>();
+	private static List<Callable<List<ScannedFile>>> getSites(String platformHome, boolean features) {
+		List<Callable<List<ScannedFile>>> sites = new ArrayList<>();
 
 		File file = new File(platformHome, features ? IPDEBuildConstants.DEFAULT_FEATURE_LOCATION : IPDEBuildConstants.DEFAULT_PLUGIN_LOCATION);
 		if (!features && !file.exists())
 			file = new File(platformHome);
 		if (file.exists())
-			sites.add(file);
+			sites.add(listSite(file));
 
-		File[] linkFiles = new File(platformHome + IPath.SEPARATOR + "links").listFiles(); //$NON-NLS-1$	
+		List<ScannedFile> linkFiles = ScannedFile.list(new File(platformHome + IPath.SEPARATOR + "links")); //$NON-NLS-1$	
 		if (linkFiles != null) {
-			for (File linkFile : linkFiles) {
-				String path = getSitePath(platformHome, linkFile, features);
-				if (path != null) {
-					sites.add(new File(path));
-				}
-			}
+			for (ScannedFile linkFile : linkFiles)
+				sites.add(listLinkedSite(platformHome, linkFile.getFile(), features));
 		}
-		return sites.toArray(new File[sites.size()]);
+		return sites;
 	}
 
-	private static List<File> getDropins(String platformHome, boolean features) {
+	private static List<Callable<List<ScannedFile>>> getDropins(String platformHome, boolean features) {
 		File dropins = new File(platformHome, DROPINS);
 		if (!dropins.exists())
 			return Collections.emptyList();
 
-		ArrayList<File> sites = new ArrayList<>();
-		ArrayList<File> results = new ArrayList<>();
+		List<Callable<List<ScannedFile>>> sites = new ArrayList<>();
+		List<Callable<List<ScannedFile>>> results = new ArrayList<>();
 
-		File[] contents = dropins.listFiles();
-		for (File content : contents) {
-			if (content.isFile()) {
+		List<ScannedFile> contents = ScannedFile.list(dropins);
+		if (contents == null)
+			return Collections.emptyList();
+		for (ScannedFile scanned : contents) {
+			File content = scanned.getFile();
+			if (scanned.isFile()) {
 				if (content.getName().endsWith(LINK)) {
-					String path = getSitePath(platformHome, content, features);
-					if (path != null)
-						sites.add(new File(path));
+					sites.add(listLinkedSite(platformHome, content, features));
 				} else {
 					//bundle
-					results.add(content);
+					results.add(new Found(scanned));
 				}
 			} else { //folder
 				//dropins/features or dropins/plugins
-				if (content.isDirectory() && content.getName().equals(features ? IPDEBuildConstants.DEFAULT_FEATURE_LOCATION : IPDEBuildConstants.DEFAULT_PLUGIN_LOCATION)) {
-					results.addAll(Arrays.asList(content.listFiles()));
+				if (scanned.isDirectory() && content.getName().equals(features ? IPDEBuildConstants.DEFAULT_FEATURE_LOCATION : IPDEBuildConstants.DEFAULT_PLUGIN_LOCATION)) {
+					results.add(listSite(content));
 					continue;
 				}
 
 				//dropins/*/features or dropins/*/plugins
 				File temp = new File(content, features ? IPDEBuildConstants.DEFAULT_FEATURE_LOCATION : IPDEBuildConstants.DEFAULT_PLUGIN_LOCATION);
 				if (temp.isDirectory()) {
-					sites.add(temp);
+					sites.add(listSite(temp));
 					continue;
 				}
 
 				//dropins/*/eclipse/features or dropins/*/eclipse/plugins
 				temp = new File(content, ECLIPSE + File.separator + (features ? IPDEBuildConstants.DEFAULT_FEATURE_LOCATION : IPDEBuildConstants.DEFAULT_PLUGIN_LOCATION));
 				if (temp.isDirectory()) {
-					sites.add(temp);
+					sites.add(listSite(temp));
 					continue;
 				}
 
 				//else treat as a bundle/feature
-				results.add(content);
+				results.add(new Found(scanned));
 			}
 		}
 
-		results.addAll(scanLocations(sites.toArray(new File[sites.size()])));
+		results.addAll(sites);
 		return results;
 	}
 
-	public static File[] getFeaturePaths(String platformHome) {
+	public static File[] getFeaturePaths(String platformHome) throws CoreException {
 		return getPaths(platformHome, true, false);
 	}
 
-	public static File[] getPluginPaths(String platformHome, boolean filterP2Base) {
+	public static File[] getPluginPaths(String platformHome, boolean filterP2Base) throws CoreException {
 		return getPaths(platformHome, false, filterP2Base);
 	}
 
-	public static File[] getPluginPaths(String platformHome) {
+	public static File[] getPluginPaths(String platformHome) throws CoreException {
 		return getPaths(platformHome, false, false);
 	}
 
-	public static File[] getPaths(String platformHome, boolean features, boolean filterP2Base) {
+	public static File[] getPaths(String platformHome, boolean features, boolean filterP2Base) throws CoreException {
+		return getPaths(platformHome, features, filterP2Base, null);
+	}
+
+	/**
+	 * Same as {@link #getPaths(String, boolean, boolean)}, the attributes of the files read when listing
+	 * the sites being put in the given map, if any.
+	 */
+	public static File[] getPaths(String platformHome, boolean features, boolean filterP2Base, Map<File, BasicFileAttributes> attributes) throws CoreException {
 
 		if (filterP2Base) {
-			URL[] urls = P2Utils.readBundlesTxt(platformHome);
-			if (urls != null && urls.length > 0) {
-				return Utils.asFile(urls);
+			File[] bundles = P2Utils.readBundlesInfo(platformHome);
+			if (bundles != null && bundles.length > 0) {
+				return bundles;
 			}
 		}
 
-		List<File> list = scanLocations(getSites(platformHome, features));
-		list.addAll(getDropins(platformHome, features));
-		return Utils.asFile(list);
+		List<Callable<List<ScannedFile>>> listings = getSites(platformHome, features);
+		listings.addAll(getDropins(platformHome, features));
+		List<ScannedFile> found = list(platformHome, listings);
+		File[] result = new File[found.size()];
+		for (int i = 0; i < result.length; i++) {
+			ScannedFile scanned = found.get(i);
+			result[i] = scanned.getFile();
+			if (attributes != null && scanned.getAttributes() != null)
+				attributes.put(result[i], scanned.getAttributes());
+		}
+		return result;
+	}
+
+	/*
+	 * The children are returned with their attributes, so that they are not read again when loading them
+	 */
+	private static Callable<List<ScannedFile>> listSite(File site) {
+		return () -> {
+			List<ScannedFile> children = ScannedFile.list(site);
+			return children != null ? children : Collections.<ScannedFile> emptyList();
+		};
 	}
 
-	/**
-	 * Scan given plugin/feature directories or jars for existence
-	 * @param sites
-	 * @return URLs to plugins/features
+	private static Callable<List<ScannedFile>> listLinkedSite(String platformHome, File linkFile, boolean features) {
+		return () -> {
+			String path = getSitePath(platformHome, linkFile, features);
+			return path != null ? listSite(new File(path)).call() : Collections.<ScannedFile> emptyList();
+		};
+	}
+
+	/*
+	 * A bundle or feature found while looking for the sites, there is nothing left to read
+	 */
+	private static class Found implements Callable<List<ScannedFile>> {
+		private final ScannedFile file;
+
+		Found(ScannedFile file) {
+			this.file = file;
+		}
+
+		@Override
+		public List<ScannedFile> call() {
+			return Collections.singletonList(file);
+		}
+	}
+
+	/*
+	 * Run the listings reading the disk concurrently, the results are in the order of the listings
 	 */
-	private static List<File> scanLocations(File[] sites) {
-		ArrayList<File> result = new ArrayList<>();
-		for (File site : sites) {
-			if (site == null || !site.exists())
-				continue;
-			File[] children = site.listFiles();
-			if (children != null)
-				result.addAll(Arrays.asList(children));
+	private static List<ScannedFile> list(String platformHome, List<Callable<List<ScannedFile>>> listings) throws CoreException {
+		List<Callable<List<ScannedFile>>> reads = new ArrayList<>(listings.size());
+		for (Callable<List<ScannedFile>> listing : listings) {
+			if (!(listing instanceof Found))
+				reads.add(listing);
+		}
+
+		List<ScannedFile> result = new ArrayList<>();
+		if (reads.size() <= 1) {
+			for (Callable<List<ScannedFile>> listing : listings)
+				result.addAll(call(platformHome, listing));
+			return result;
+		}
+
+		int threads = Math.min(reads.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Plugin path finder"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			Iterator<Future<List<ScannedFile>>> read = executor.invokeAll(reads).iterator();
+			for (Callable<List<ScannedFile>> listing : listings) {
+				if (listing instanceof Found)
+					result.addAll(((Found) listing).call());
+				else
+					result.addAll(get(platformHome, read.next()));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CoreException(new Status(IStatus.CANCEL, IPDEBuildConstants.PI_PDEBUILD, IPDEBuildConstants.EXCEPTION_READ_DIRECTORY, NLS.bind(Messages.exception_readingFile, platformHome), e));
+		} finally {
+			executor.shutdownNow();
 		}
 		return result;
 	}
+
+	private static List<ScannedFile> call(String platformHome, Callable<List<ScannedFile>> listing) throws CoreException {
+		try {
+			return listing.call();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw readError(platformHome, e);
+		}
+	}
+
+	private static List<ScannedFile> get(String platformHome, Future<List<ScannedFile>> listing) throws CoreException, InterruptedException {
+		try {
+			return listing.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw readError(platformHome, cause);
+		}
+	}
+
+	private static CoreException readError(String platformHome, Throwable cause) {
+		return new CoreException(new Status(IStatus.ERROR, IPDEBuildConstants.PI_PDEBUILD, IPDEBuildConstants.EXCEPTION_READ_DIRECTORY, NLS.bind(Messages.exception_readingFile, platformHome), cause));
+	}
 }
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.site;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * A file found while listing the locations of a platform, next to the attributes read when
+ * it was listed. Its type is answered from these attributes instead of asking the file system again.
+ */
+public final class ScannedFile {
+	private final File file;
+	private final BasicFileAttributes attributes;
+
+	ScannedFile(File file, BasicFileAttributes attributes) {
+		this.file = file;
+		this.attributes = attributes;
+	}
+
+	/**
+	 * List the given folder in a single pass, links are followed like {@link File#listFiles()} does.
+	 * @return the content of the folder or <code>null</code> if it can't be listed
+	 */
+	public static List<ScannedFile> list(File folder) {
+		List<ScannedFile> result = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder.toPath())) {
+			for (Path child : stream) {
+				BasicFileAttributes attributes = null;
+				try {
+					attributes = Files.readAttributes(child, BasicFileAttributes.class);
+				} catch (IOException e) {
+					//broken link or removed meanwhile, let the consumers find out
+				}
+				result.add(new ScannedFile(child.toFile(), attributes));
+			}
+		} catch (IOException | InvalidPathException e) {
+			return null;
+		}
+		return result;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the attributes read when the file was listed, <code>null</code> if they could not be read
+	 */
+	public BasicFileAttributes getAttributes() {
+		return attributes;
+	}
+
+	public boolean isFile() {
+		return attributes != null ? attributes.isRegularFile() : file.isFile();
+	}
+
+	public boolean isDirectory() {
+		return attributes != null ? attributes.isDirectory() : file.isDirectory();
+	}
+
+	/**
+	 * @param attributes the attributes of the file read when it was listed, or <code>null</code> to ask the file system
+	 * @return whether the given file is a jar
+	 */
+	public static boolean isJar(File file, BasicFileAttributes attributes) {
+		String name = file.getName();
+		if (!name.regionMatches(true, name.length() - 4, ".jar", 0, 4)) //$NON-NLS-1$
+			return false;
+		return attributes != null ? attributes.isRegularFile() : file.isFile();
+	}
+}
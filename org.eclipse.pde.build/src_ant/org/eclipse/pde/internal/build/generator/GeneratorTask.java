@@ -23,6 +23,8 @@ import org.eclipse.equinox.p2.publisher.PublisherInfo;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.pde.internal.build.publisher.compatibility.GeneratorApplication;
 import org.eclipse.pde.internal.build.publisher.compatibility.IncrementalGenerator;
+import org.eclipse.pde.internal.build.publisher.compatibility.ResidentRepositories;
+import org.eclipse.pde.internal.build.tasks.BuildScope;
 import org.eclipse.pde.internal.build.tasks.TaskMessages;
 
 /**
@@ -30,16 +32,20 @@ import org.eclipse.pde.internal.build.tasks.TaskMessages;
  */
 public class GeneratorTask extends Task {
 	private static final String ANT_PREFIX = "${"; //$NON-NLS-1$
+	private static final String RESIDENT_KEY = "p2.generator.resident"; //$NON-NLS-1$
 
 	protected PublisherInfo info = null;
 	private GeneratorApplication generator = null;
 	private String mode;
+	private boolean resident = false;
 
 	@Override
 	public void execute() throws BuildException {
 		try {
 			IncrementalGenerator incremental = new IncrementalGenerator();
 			incremental.setMode(mode);
+			incremental.setResident(resident);
+			incremental.setResidentRepositories(getResidentRepositories());
 			incremental.run(generator, info);
 
 			if (!"incremental".equals(mode)) { //$NON-NLS-1$
@@ -51,6 +57,23 @@ public class GeneratorTask extends Task {
 		}
 	}
 
+	/*
+	 * The repositories are kept for the calls of this build only, and written when it finishes if no final
+	 * call did it, even if the build failed
+	 */
+	private ResidentRepositories getResidentRepositories() {
+		if (!resident) {
+			BuildScope scope = BuildScope.find(getProject());
+			return scope != null ? scope.get(RESIDENT_KEY) : null;
+		}
+		BuildScope scope = BuildScope.get(getProject());
+		return scope.computeIfAbsent(RESIDENT_KEY, key -> {
+			ResidentRepositories repositories = new ResidentRepositories();
+			scope.whenFinished(repositories::close);
+			return repositories;
+		});
+	}
+
 	protected PublisherInfo getInfo() {
 		if (info == null) {
 			info = new PublisherInfo();
@@ -218,6 +241,13 @@ public class GeneratorTask extends Task {
 		this.mode = mode;
 	}
 
+	/**
+	 * Keep the repositories loaded between the incremental calls, they are written by the final call.
+	 */
+	public void setResident(String resident) {
+		this.resident = Boolean.valueOf(resident).booleanValue();
+	}
+
 	public void setVersionAdvice(String advice) {
 		if (advice != null && !advice.startsWith(ANT_PREFIX))
 			getGenerator().setVersionAdvice(advice);
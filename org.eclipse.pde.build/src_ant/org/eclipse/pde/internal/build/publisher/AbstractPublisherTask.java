@@ -19,8 +19,7 @@ import java.net.URISyntaxException;
 import java.util.*;
 import org.apache.tools.ant.Task;
 import org.eclipse.core.runtime.*;
-import org.eclipse.equinox.p2.publisher.IPublisherInfo;
-import org.eclipse.equinox.p2.publisher.PublisherInfo;
+import org.eclipse.equinox.p2.publisher.*;
 import org.eclipse.pde.internal.build.AbstractScriptGenerator;
 import org.eclipse.pde.internal.build.IPDEBuildConstants;
 
@@ -147,6 +146,30 @@ public abstract class AbstractPublisherTask extends Task {
 		return application;
 	}
 
+	/*
+	 * Tasks with the same key can share a publisher application
+	 */
+	String getApplicationKey() {
+		return metadataLocation + "|" + artifactLocation + "|" + append + "|" + compress + "|" + contextMetadataRepositories + "|" + contextArtifactRepositories; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+
+	/**
+	 * Publish the given action, or queue it if an eclipse.publish.batch task is running.
+	 */
+	protected void publish(IPublisherAction action) {
+		PublisherInfo info = getPublisherInfo();
+		if (PublishBatchTask.queue(this, action, info))
+			return;
+
+		BuildPublisherApplication application = createPublisherApplication();
+		application.addAction(action);
+		try {
+			application.run(info);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
 	public void setArtifactRepository(String location) {
 		try {
 			this.artifactLocation = URIUtil.fromString(location);
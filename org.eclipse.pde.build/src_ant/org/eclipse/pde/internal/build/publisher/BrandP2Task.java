@@ -15,8 +15,7 @@ t SPDX-License-Identifier: EPL-2.0
 
 package org.eclipse.pde.internal.build.publisher;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -42,6 +41,7 @@ import org.eclipse.equinox.p2.internal.repository.tools.tasks.Repo2RunnableTask;
 import org.eclipse.equinox.p2.metadata.*;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepositoryManager;
+import org.eclipse.equinox.p2.repository.artifact.IFileArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.spi.ArtifactDescriptor;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
@@ -231,7 +231,7 @@ public class BrandP2Task extends Repo2RunnableTask {
 		IInstallableUnit newIU = MetadataFactory.createInstallableUnit(newIUDescription);
 		metadataRepo.addInstallableUnits(Arrays.asList(new IInstallableUnit[] {newIU}));
 
-		publishBrandedArtifact(artifactRepo, key);
+		publishBrandedArtifact(artifactRepo, key, originalIU);
 	}
 
 	protected String createLDAPString() {
@@ -243,17 +243,30 @@ public class BrandP2Task extends Repo2RunnableTask {
 		return filter;
 	}
 
-	private void publishBrandedArtifact(IArtifactRepository artifactRepo, IArtifactKey key) {
+	private void publishBrandedArtifact(IArtifactRepository artifactRepo, IArtifactKey key, IInstallableUnit originalIU) {
 		ArtifactDescriptor descriptor = new ArtifactDescriptor(key);
-		ZipOutputStream output = null;
+		BrandedArchiveWriter writer = createArchiveWriter(artifactRepo, originalIU);
+		File root = new File(getRootFolder());
+		new File(root, "content.xml").delete(); //$NON-NLS-1$
+		new File(root, "artifacts.xml").delete(); //$NON-NLS-1$
+		new File(root, "content.jar").delete(); //$NON-NLS-1$
+		new File(root, "artifacts.jar").delete(); //$NON-NLS-1$
+		if (writer != null) {
+			try {
+				writeBrandedArchive(artifactRepo, descriptor, writer, root);
+				return;
+			} catch (IOException e) {
+				//the original archive can't be reused after all, the partial artifact is replaced by a new zip
+				getProject().log(NLS.bind(TaskMessages.warning_brandedArchive, e.getMessage()), Project.MSG_VERBOSE);
+				artifactRepo.removeDescriptor(descriptor);
+			}
+		}
+
+		OutputStream output = null;
 		try {
-			output = new ZipOutputStream(artifactRepo.getOutputStream(descriptor));
-			File root = new File(getRootFolder());
-			new File(root, "content.xml").delete(); //$NON-NLS-1$
-			new File(root, "artifacts.xml").delete(); //$NON-NLS-1$
-			new File(root, "content.jar").delete(); //$NON-NLS-1$
-			new File(root, "artifacts.jar").delete(); //$NON-NLS-1$
-			FileUtils.zip(output, root, Collections.<File> emptySet(), FileUtils.createRootPathComputer(root));
+			ZipOutputStream zip = new ZipOutputStream(artifactRepo.getOutputStream(descriptor));
+			output = zip;
+			FileUtils.zip(zip, root, Collections.<File> emptySet(), FileUtils.createRootPathComputer(root));
 		} catch (ProvisionException | IOException e) {
 			throw new BuildException(e.getMessage(), e);
 		} finally {
@@ -261,6 +274,36 @@ public class BrandP2Task extends Repo2RunnableTask {
 		}
 	}
 
+	private void writeBrandedArchive(IArtifactRepository artifactRepo, ArtifactDescriptor descriptor, BrandedArchiveWriter writer, File root) throws IOException {
+		OutputStream output = null;
+		try {
+			output = new BufferedOutputStream(artifactRepo.getOutputStream(descriptor));
+			writer.write(root, output);
+		} catch (ProvisionException e) {
+			throw new BuildException(e.getMessage(), e);
+		} finally {
+			Utils.close(output);
+		}
+	}
+
+	/*
+	 * The branded folder is the launcher artifact unzipped, when that artifact is a local file its
+	 * compressed entries can be reused for the files the branding did not touch.
+	 */
+	private BrandedArchiveWriter createArchiveWriter(IArtifactRepository artifactRepo, IInstallableUnit originalIU) {
+		if (!(artifactRepo instanceof IFileArtifactRepository) || originalIU.getArtifacts().size() != 1)
+			return null;
+		File original = ((IFileArtifactRepository) artifactRepo).getArtifactFile(originalIU.getArtifacts().iterator().next());
+		if (original == null || !original.isFile())
+			return null;
+		try {
+			return new BrandedArchiveWriter(original);
+		} catch (IOException e) {
+			getProject().log(NLS.bind(TaskMessages.warning_brandedArchive, e.getMessage()), Project.MSG_VERBOSE);
+			return null;
+		}
+	}
+
 	private static final String CHMOD = "chmod"; //$NON-NLS-1$
 	private static final String TARGET_FILE = "targetFile"; //$NON-NLS-1$
 	private static final String INSTALL = "install"; //$NON-NLS-1$
@@ -0,0 +1,359 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.publisher;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.pde.internal.build.tasks.TaskMessages;
+
+/**
+ * Zip a branded folder, reusing the compressed entries of the archive the folder was extracted from.
+ * <p>
+ * The files the branding left untouched are copied from the original archive as they are, only the
+ * renamed and rewritten files (launcher, icons, Info.plist) are compressed again. The archive content
+ * is the same as zipping the whole folder.
+ * </p>
+ */
+class BrandedArchiveWriter {
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int CENTRAL_HEADER = 0x02014b50;
+	private static final int END_OF_CENTRAL = 0x06054b50;
+	private static final int VERSION_DEFAULT = 20;
+	private static final int FLAG_ENCRYPTED = 1;
+	private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+	private static final int FLAG_UTF8 = 1 << 11;
+
+	private static class Entry {
+		byte[] name;
+		int madeBy = VERSION_DEFAULT;
+		int flags = FLAG_UTF8;
+		int method;
+		int dosTime;
+		long crc;
+		long size;
+		long compressedSize;
+		int externalAttributes;
+		long offset;
+	}
+
+	private final File original;
+	private final Map<String, Entry> originalEntries = new HashMap<>();
+
+	/**
+	 * @param original the archive the folder was extracted from
+	 * @throws IOException if the archive can't be read or uses a format that can't be copied (zip64, encryption),
+	 * the folder must then be zipped as a whole
+	 */
+	public BrandedArchiveWriter(File original) throws IOException {
+		this.original = original;
+		try (FileChannel channel = FileChannel.open(original.toPath(), StandardOpenOption.READ)) {
+			readCentralDirectory(channel);
+		}
+	}
+
+	private void readCentralDirectory(FileChannel channel) throws IOException {
+		long length = channel.size();
+		int tailLength = (int) Math.min(length, 22 + 0xFFFF);
+		ByteBuffer tail = read(channel, length - tailLength, tailLength);
+		int end = -1;
+		for (int i = tailLength - 22; i >= 0 && end == -1; i--) {
+			if (tail.getInt(i) == END_OF_CENTRAL)
+				end = i;
+		}
+		if (end == -1)
+			throw new IOException(NLS.bind(TaskMessages.error_notZipFile, original));
+		int count = Short.toUnsignedInt(tail.getShort(end + 10));
+		long centralSize = Integer.toUnsignedLong(tail.getInt(end + 12));
+		long centralOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+		if (count == 0xFFFF || centralSize == 0xFFFFFFFFL || centralOffset == 0xFFFFFFFFL)
+			throw new IOException(NLS.bind(TaskMessages.error_zip64Archive, original));
+
+		ByteBuffer central = read(channel, centralOffset, (int) centralSize);
+		int position = 0;
+		for (int i = 0; i < count; i++) {
+			if (central.getInt(position) != CENTRAL_HEADER)
+				throw new IOException(NLS.bind(TaskMessages.error_invalidCentralDirectory, original));
+			int flags = Short.toUnsignedInt(central.getShort(position + 8));
+			if ((flags & FLAG_ENCRYPTED) != 0)
+				throw new IOException(NLS.bind(TaskMessages.error_encryptedEntry, original));
+			Entry entry = new Entry();
+			entry.madeBy = Short.toUnsignedInt(central.getShort(position + 4));
+			//the sizes are written in the local header of the copy, it has no data descriptor
+			entry.flags = flags & ~FLAG_DATA_DESCRIPTOR;
+			entry.method = Short.toUnsignedInt(central.getShort(position + 10));
+			entry.dosTime = central.getInt(position + 12);
+			entry.crc = Integer.toUnsignedLong(central.getInt(position + 16));
+			entry.compressedSize = Integer.toUnsignedLong(central.getInt(position + 20));
+			entry.size = Integer.toUnsignedLong(central.getInt(position + 24));
+			int nameLength = Short.toUnsignedInt(central.getShort(position + 28));
+			int extraLength = Short.toUnsignedInt(central.getShort(position + 30));
+			int commentLength = Short.toUnsignedInt(central.getShort(position + 32));
+			entry.externalAttributes = central.getInt(position + 38);
+			entry.offset = Integer.toUnsignedLong(central.getInt(position + 42));
+			if (entry.size == 0xFFFFFFFFL || entry.compressedSize == 0xFFFFFFFFL || entry.offset == 0xFFFFFFFFL)
+				throw new IOException(NLS.bind(TaskMessages.error_zip64Archive, original));
+			byte[] name = new byte[nameLength];
+			central.position(position + 46);
+			central.get(name);
+			entry.name = name;
+			//the folder was extracted by java.util.zip, which reads the names as UTF-8 with or without the flag
+			originalEntries.put(new String(name, StandardCharsets.UTF_8), entry);
+			position += 46 + nameLength + extraLength + commentLength;
+		}
+	}
+
+	private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new EOFException();
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Zip the content of the given folder to the given stream, the stream is not closed.
+	 */
+	public void write(File root, OutputStream stream) throws IOException {
+		Output output = new Output(stream);
+		List<Entry> written = new ArrayList<>();
+		Set<String> folders = new HashSet<>();
+		try (FileChannel channel = FileChannel.open(original.toPath(), StandardOpenOption.READ)) {
+			File[] children = root.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children)
+					write(channel, child, child.getName(), output, written, folders);
+			}
+		}
+		writeCentralDirectory(output, written);
+	}
+
+	private void write(FileChannel channel, File file, String name, Output output, List<Entry> written, Set<String> folders) throws IOException {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children == null || children.length == 0) {
+				writeFolder(output, name, file.lastModified(), written, folders);
+				return;
+			}
+			Arrays.sort(children);
+			for (File child : children)
+				write(channel, child, name + '/' + child.getName(), output, written, folders);
+			return;
+		}
+
+		int parent = name.lastIndexOf('/');
+		if (parent > 0)
+			writeFolder(output, name.substring(0, parent), file.lastModified(), written, folders);
+		byte[] content = Files.readAllBytes(file.toPath());
+		Entry entry = originalEntries.get(name);
+		if (entry != null && entry.size == content.length && entry.crc == crc(content)) {
+			written.add(copyEntry(channel, entry, output));
+			return;
+		}
+		written.add(writeEntry(output, name, file.lastModified(), content));
+	}
+
+	/*
+	 * Like FileUtils.zip, a folder gets an entry after its parents and before its first file, with the time of
+	 * that file, or its own time when it is empty
+	 */
+	private static void writeFolder(Output output, String name, long time, List<Entry> written, Set<String> folders) throws IOException {
+		if (!folders.add(name))
+			return;
+		int parent = name.lastIndexOf('/');
+		if (parent > 0)
+			writeFolder(output, name.substring(0, parent), time, written, folders);
+		written.add(writeEntry(output, name + '/', time, new byte[0]));
+	}
+
+	private static long crc(byte[] content) {
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		return crc.getValue();
+	}
+
+	/*
+	 * Copy an unchanged entry, its compressed data is written as is
+	 */
+	private Entry copyEntry(FileChannel channel, Entry entry, Output output) throws IOException {
+		ByteBuffer header = read(channel, entry.offset, 30);
+		if (header.getInt(0) != LOCAL_HEADER)
+			throw new IOException(NLS.bind(TaskMessages.error_invalidEntryHeader, original));
+		long dataStart = entry.offset + 30 + Short.toUnsignedInt(header.getShort(26)) + Short.toUnsignedInt(header.getShort(28));
+
+		Entry copy = new Entry();
+		copy.name = entry.name;
+		copy.madeBy = entry.madeBy;
+		copy.flags = entry.flags;
+		copy.method = entry.method;
+		copy.dosTime = entry.dosTime;
+		copy.crc = entry.crc;
+		copy.size = entry.size;
+		copy.compressedSize = entry.compressedSize;
+		copy.externalAttributes = entry.externalAttributes;
+		copy.offset = output.position;
+		writeLocalHeader(output, copy);
+
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+		long position = dataStart;
+		long remaining = entry.compressedSize;
+		while (remaining > 0) {
+			buffer.clear();
+			if (remaining < buffer.capacity())
+				buffer.limit((int) remaining);
+			int count = channel.read(buffer, position);
+			if (count < 0)
+				throw new EOFException();
+			output.write(buffer.array(), 0, count);
+			position += count;
+			remaining -= count;
+		}
+		return copy;
+	}
+
+	private static Entry writeEntry(Output output, String name, long time, byte[] content) throws IOException {
+		Entry entry = new Entry();
+		entry.name = name.getBytes(StandardCharsets.UTF_8);
+		entry.dosTime = toDosTime(time);
+		entry.crc = crc(content);
+		entry.size = content.length;
+		entry.offset = output.position;
+		byte[] data = deflate(content);
+		if (data != null) {
+			entry.method = Deflater.DEFLATED;
+		} else {
+			entry.method = 0;
+			data = content;
+		}
+		entry.compressedSize = data.length;
+		writeLocalHeader(output, entry);
+		output.write(data, 0, data.length);
+		return entry;
+	}
+
+	/**
+	 * Deflate the given content, return null if that does not make it smaller.
+	 */
+	private static byte[] deflate(byte[] content) {
+		if (content.length == 0)
+			return null;
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(content);
+			deflater.finish();
+			byte[] buffer = new byte[content.length];
+			int count = 0;
+			while (!deflater.finished() && count < buffer.length)
+				count += deflater.deflate(buffer, count, buffer.length - count);
+			if (!deflater.finished() || count >= content.length)
+				return null;
+			return Arrays.copyOf(buffer, count);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static void writeLocalHeader(Output output, Entry entry) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(LOCAL_HEADER);
+		header.putShort((short) VERSION_DEFAULT);
+		header.putShort((short) entry.flags);
+		header.putShort((short) entry.method);
+		header.putInt(entry.dosTime);
+		header.putInt((int) entry.crc);
+		header.putInt((int) entry.compressedSize);
+		header.putInt((int) entry.size);
+		header.putShort((short) entry.name.length);
+		header.putShort((short) 0);
+		output.write(header.array(), 0, header.position());
+		output.write(entry.name, 0, entry.name.length);
+	}
+
+	private static void writeCentralDirectory(Output output, List<Entry> entries) throws IOException {
+		long centralStart = output.position;
+		ByteBuffer header = ByteBuffer.allocate(46).order(ByteOrder.LITTLE_ENDIAN);
+		for (Entry entry : entries) {
+			header.clear();
+			header.putInt(CENTRAL_HEADER);
+			header.putShort((short) entry.madeBy);
+			header.putShort((short) VERSION_DEFAULT);
+			header.putShort((short) entry.flags);
+			header.putShort((short) entry.method);
+			header.putInt(entry.dosTime);
+			header.putInt((int) entry.crc);
+			header.putInt((int) entry.compressedSize);
+			header.putInt((int) entry.size);
+			header.putShort((short) entry.name.length);
+			header.putShort((short) 0); //extra
+			header.putShort((short) 0); //comment
+			header.putShort((short) 0); //disk
+			header.putShort((short) 0); //internal attributes
+			header.putInt(entry.externalAttributes);
+			header.putInt((int) entry.offset);
+			output.write(header.array(), 0, header.position());
+			output.write(entry.name, 0, entry.name.length);
+		}
+		long centralSize = output.position - centralStart;
+		if (entries.size() >= 0xFFFF || output.position >= 0xFFFFFFFFL)
+			throw new IOException(NLS.bind(TaskMessages.error_brandedArchiveTooLarge, original));
+
+		header.clear();
+		header.putInt(END_OF_CENTRAL);
+		header.putShort((short) 0);
+		header.putShort((short) 0);
+		header.putShort((short) entries.size());
+		header.putShort((short) entries.size());
+		header.putInt((int) centralSize);
+		header.putInt((int) centralStart);
+		header.putShort((short) 0);
+		output.write(header.array(), 0, header.position());
+	}
+
+	private static int toDosTime(long time) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(time);
+		int year = calendar.get(Calendar.YEAR);
+		if (year < 1980)
+			return (1 << 21) | (1 << 16);
+		return (year - 1980) << 25 | (calendar.get(Calendar.MONTH) + 1) << 21 | calendar.get(Calendar.DAY_OF_MONTH) << 16 | calendar.get(Calendar.HOUR_OF_DAY) << 11 | calendar.get(Calendar.MINUTE) << 5 | calendar.get(Calendar.SECOND) >> 1;
+	}
+
+	/*
+	 * The stream being written, with the number of bytes written so far
+	 */
+	private static class Output {
+		final OutputStream stream;
+		long position = 0;
+
+		Output(OutputStream stream) {
+			this.stream = stream;
+		}
+
+		void write(byte[] bytes, int offset, int length) throws IOException {
+			stream.write(bytes, offset, length);
+			position += length;
+		}
+	}
+}
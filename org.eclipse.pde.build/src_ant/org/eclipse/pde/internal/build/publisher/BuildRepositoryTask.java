@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.publisher;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.*;
+import org.apache.tools.ant.*;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.URIUtil;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepositoryManager;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.pde.internal.build.BundleHelper;
+import org.eclipse.pde.internal.build.tasks.TaskMessages;
+
+/**
+ * Internal task.
+ * Keep the build repository loaded while the nested tasks run. The publisher tasks appending to it
+ * get the loaded repository from the repository managers and only add their own elements to it,
+ * the repository is written once when the nested tasks are done instead of after each append.
+ * The repository is then compressed if asked.
+ */
+public class BuildRepositoryTask extends Task implements TaskContainer {
+	private final List<Task> tasks = new ArrayList<>();
+	private URI location = null;
+	private boolean compress = false;
+
+	public void setRepository(String value) {
+		try {
+			location = URIUtil.fromString(value);
+		} catch (URISyntaxException e) {
+			throw new BuildException(NLS.bind(TaskMessages.error_metadataRepoNotURI, value));
+		}
+	}
+
+	public void setCompress(String value) {
+		compress = Boolean.valueOf(value).booleanValue();
+	}
+
+	@Override
+	public void addTask(Task task) {
+		tasks.add(task);
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		if (location == null)
+			throw new BuildException(TaskMessages.error_noMetadataRepo);
+
+		IProvisioningAgent agent = BundleHelper.getDefault().acquireService(IProvisioningAgent.class);
+		if (agent == null)
+			throw new BuildException(TaskMessages.error_agentService);
+		IMetadataRepositoryManager metadataManager = (IMetadataRepositoryManager) agent.getService(IMetadataRepositoryManager.SERVICE_NAME);
+		if (metadataManager == null)
+			throw new BuildException(TaskMessages.error_metadataRepoManagerService);
+		IArtifactRepositoryManager artifactManager = (IArtifactRepositoryManager) agent.getService(IArtifactRepositoryManager.SERVICE_NAME);
+		if (artifactManager == null)
+			throw new BuildException(TaskMessages.error_artifactRepoManagerService);
+
+		//the publishers leave the repositories they find in the managers there, so they keep using these ones
+		boolean removeMetadataRepo = !metadataManager.contains(location);
+		boolean removeArtifactRepo = !artifactManager.contains(location);
+		try {
+			final IMetadataRepository metadataRepository = loadMetadataRepository(metadataManager);
+			final IArtifactRepository artifactRepository = loadArtifactRepository(artifactManager);
+
+			//the compression is set inside the batches, where setting a property does not save the repository
+			final BuildException[] failure = new BuildException[1];
+			final IStatus[] artifactStatus = new IStatus[1];
+			IStatus status = metadataRepository.executeBatch(monitor -> {
+				artifactStatus[0] = artifactRepository.executeBatch(artifactMonitor -> {
+					try {
+						for (Task task : tasks)
+							task.perform();
+					} catch (BuildException e) {
+						failure[0] = e;
+					}
+					if (compress)
+						artifactRepository.setProperty(IRepository.PROP_COMPRESSED, Boolean.TRUE.toString());
+				}, monitor);
+				if (compress)
+					metadataRepository.setProperty(IRepository.PROP_COMPRESSED, Boolean.TRUE.toString());
+			}, null);
+
+			if (failure[0] != null)
+				throw failure[0];
+			if (status.matches(IStatus.ERROR))
+				throw new BuildException(status.getMessage(), status.getException());
+			if (artifactStatus[0] != null && artifactStatus[0].matches(IStatus.ERROR))
+				throw new BuildException(artifactStatus[0].getMessage(), artifactStatus[0].getException());
+		} finally {
+			if (removeMetadataRepo)
+				metadataManager.removeRepository(location);
+			if (removeArtifactRepo)
+				artifactManager.removeRepository(location);
+		}
+	}
+
+	private IMetadataRepository loadMetadataRepository(IMetadataRepositoryManager manager) throws BuildException {
+		try {
+			try {
+				return manager.loadRepository(location, null);
+			} catch (ProvisionException e) {
+				if (e.getStatus().getCode() != ProvisionException.REPOSITORY_NOT_FOUND)
+					throw e;
+			}
+			Map<String, String> properties = new HashMap<>();
+			if (compress)
+				properties.put(IRepository.PROP_COMPRESSED, Boolean.TRUE.toString());
+			return manager.createRepository(location, location + " - metadata", IMetadataRepositoryManager.TYPE_SIMPLE_REPOSITORY, properties); //$NON-NLS-1$
+		} catch (ProvisionException e) {
+			throw new BuildException(NLS.bind(TaskMessages.error_loadRepository, location.toString()), e);
+		}
+	}
+
+	private IArtifactRepository loadArtifactRepository(IArtifactRepositoryManager manager) throws BuildException {
+		try {
+			try {
+				return manager.loadRepository(location, null);
+			} catch (ProvisionException e) {
+				if (e.getStatus().getCode() != ProvisionException.REPOSITORY_NOT_FOUND)
+					throw e;
+			}
+			Map<String, String> properties = new HashMap<>();
+			if (compress)
+				properties.put(IRepository.PROP_COMPRESSED, Boolean.TRUE.toString());
+			return manager.createRepository(location, location + " - artifacts", IArtifactRepositoryManager.TYPE_SIMPLE_REPOSITORY, properties); //$NON-NLS-1$
+		} catch (ProvisionException e) {
+			throw new BuildException(NLS.bind(TaskMessages.error_loadRepository, location.toString()), e);
+		}
+	}
+}
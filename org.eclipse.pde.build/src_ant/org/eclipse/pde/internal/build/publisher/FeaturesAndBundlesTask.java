@@ -23,6 +23,7 @@ import org.apache.tools.ant.types.FileSet;
 import org.eclipse.core.runtime.URIUtil;
 import org.eclipse.equinox.internal.p2.updatesite.CategoryXMLAction;
 import org.eclipse.equinox.internal.p2.updatesite.SiteXMLAction;
+import org.eclipse.equinox.p2.publisher.IPublisherAction;
 import org.eclipse.equinox.p2.publisher.eclipse.BundlesAction;
 import org.eclipse.equinox.p2.publisher.eclipse.FeaturesAction;
 
@@ -33,6 +34,7 @@ public class FeaturesAndBundlesTask extends AbstractPublisherTask {
 	private URI categoryXML = null;
 	private String siteQualifier = ""; //$NON-NLS-1$
 	private String categoryVersion = null;
+	private int threadCount = 1;
 
 	@Override
 	public void execute() throws BuildException {
@@ -42,8 +44,15 @@ public class FeaturesAndBundlesTask extends AbstractPublisherTask {
 		BuildPublisherApplication application = createPublisherApplication();
 		if (f.length > 0)
 			application.addAction(new FeaturesAction(f));
-		if (b.length > 0)
-			application.addAction(new BundlesAction(b));
+		if (b.length > 0) {
+			if (threadCount > 1) {
+				List<IPublisherAction> actions = new ArrayList<>(b.length);
+				for (File bundle : b)
+					actions.add(new BundlesAction(new File[] {bundle}));
+				application.addAction(new ParallelPublisherAction(actions, threadCount));
+			} else
+				application.addAction(new BundlesAction(b));
+		}
 		if (siteXML != null) {
 			SiteXMLAction action = new SiteXMLAction(siteXML, siteQualifier);
 			if (categoryVersion != null)
@@ -91,6 +100,13 @@ public class FeaturesAndBundlesTask extends AbstractPublisherTask {
 		return set;
 	}
 
+	/**
+	 * Number of threads used to publish the bundles, they are published one after the other by default.
+	 */
+	public void setThreadCount(String threadCount) {
+		this.threadCount = ParallelPublisherAction.parseThreadCount(threadCount);
+	}
+
 	public void setSiteQualifier(String siteQualifier) {
 		if (siteQualifier != null && !siteQualifier.startsWith(ANT_PREFIX))
 			this.siteQualifier = siteQualifier;
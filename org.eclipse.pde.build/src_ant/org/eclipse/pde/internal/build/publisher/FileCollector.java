@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.publisher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import org.apache.tools.ant.DirectoryScanner;
+import org.apache.tools.ant.types.selectors.*;
+
+/**
+ * Collect the files of folders matching Ant include and exclude patterns, with the same result
+ * as the included files of a fileset using the default excludes.
+ * <p>
+ * Several selections can be added before collecting, each with its own folder and patterns. The
+ * patterns are parsed once and each folder is walked once, the folders nested in the folder of
+ * another selection are collected during the walk of the outer folder. Folders which can't contain
+ * an included file of any selection, or which are excluded as a whole, are not entered.
+ * </p>
+ */
+class FileCollector {
+	/**
+	 * The files of one folder matching a set of patterns.
+	 */
+	static class Selection {
+		final Path root;
+		private final TokenizedPattern[] includes;
+		private final TokenizedPattern[] excludes;
+		private final TokenizedPattern[] excludedFolders;
+		final List<String> files = new ArrayList<>();
+
+		Selection(File root, Collection<String> includes, Collection<String> excludes) {
+			this.root = root.getAbsoluteFile().toPath().normalize();
+			this.includes = compile(includes.isEmpty() ? Collections.singleton(SelectorUtils.DEEP_TREE_MATCH) : includes);
+
+			List<String> allExcludes = new ArrayList<>(excludes);
+			allExcludes.addAll(Arrays.asList(DirectoryScanner.getDefaultExcludes()));
+			this.excludes = compile(allExcludes);
+
+			//patterns like "bin/**" exclude the folder with all its content
+			List<TokenizedPattern> folders = new ArrayList<>();
+			for (TokenizedPattern exclude : this.excludes) {
+				if (exclude.endsWith(SelectorUtils.DEEP_TREE_MATCH))
+					folders.add(exclude.withoutLastToken());
+			}
+			this.excludedFolders = folders.toArray(new TokenizedPattern[folders.size()]);
+		}
+
+		/**
+		 * @return the included files, relative to the folder and using the platform separator
+		 */
+		public String[] getFiles() {
+			return files.toArray(new String[files.size()]);
+		}
+
+		boolean couldHoldIncluded(TokenizedPath folder) {
+			for (TokenizedPattern excluded : excludedFolders) {
+				if (excluded.matchPath(folder, true))
+					return false;
+			}
+			for (TokenizedPattern include : includes) {
+				if (include.matchStartOf(folder, true))
+					return true;
+			}
+			return false;
+		}
+
+		boolean isIncluded(TokenizedPath file) {
+			boolean included = false;
+			for (int i = 0; !included && i < includes.length; i++)
+				included = includes[i].matchPath(file, true);
+			if (!included)
+				return false;
+			for (TokenizedPattern exclude : excludes) {
+				if (exclude.matchPath(file, true))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private final List<Selection> selections = new ArrayList<>();
+
+	/**
+	 * Add the files of the folder selected by the patterns, all the files when there are no includes.
+	 * @return the selection holding the files once they are collected
+	 */
+	public Selection add(File root, Collection<String> includes, Collection<String> excludes) {
+		Selection selection = new Selection(root, includes, excludes);
+		selections.add(selection);
+		return selection;
+	}
+
+	private static TokenizedPattern[] compile(Collection<String> patterns) {
+		TokenizedPattern[] result = new TokenizedPattern[patterns.size()];
+		int i = 0;
+		for (String pattern : patterns) {
+			//same normalization as the DirectoryScanner
+			String normalized = pattern.replace('/', File.separatorChar).replace('\\', File.separatorChar);
+			if (normalized.endsWith(File.separator))
+				normalized += SelectorUtils.DEEP_TREE_MATCH;
+			result[i++] = new TokenizedPattern(normalized);
+		}
+		return result;
+	}
+
+	/**
+	 * Collect the files of all the selections.
+	 */
+	public void collect() {
+		//the outermost folders are walked, with all the selections of the folders they contain
+		Map<Path, List<Selection>> walks = new LinkedHashMap<>();
+		for (Selection selection : selections) {
+			Path outer = selection.root;
+			for (Selection other : selections) {
+				if (other.root.getNameCount() < outer.getNameCount() && selection.root.startsWith(other.root))
+					outer = other.root;
+			}
+			walks.computeIfAbsent(outer, key -> new ArrayList<>()).add(selection);
+		}
+		for (Map.Entry<Path, List<Selection>> walk : walks.entrySet()) {
+			if (Files.isDirectory(walk.getKey()))
+				collect(walk.getKey(), walk.getValue().toArray(new Selection[walk.getValue().size()]));
+		}
+	}
+
+	private static void collect(Path root, final Selection[] walked) {
+		//for each folder being visited, its path relative to each selection, null when the selection doesn't apply
+		final Deque<TokenizedPath[]> parents = new ArrayDeque<>();
+		try {
+			Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					TokenizedPath[] parent = parents.peek();
+					TokenizedPath[] paths = new TokenizedPath[walked.length];
+					boolean enter = false;
+					for (int i = 0; i < walked.length; i++) {
+						if (parent != null && parent[i] != null) {
+							TokenizedPath path = new TokenizedPath(parent[i], dir.getFileName().toString());
+							paths[i] = walked[i].couldHoldIncluded(path) ? path : null;
+						} else if (dir.equals(walked[i].root)) {
+							paths[i] = TokenizedPath.EMPTY_PATH;
+						} else if (walked[i].root.startsWith(dir)) {
+							//the folder of the selection is below
+							enter = true;
+						}
+						enter |= paths[i] != null;
+					}
+					if (!enter)
+						return FileVisitResult.SKIP_SUBTREE;
+					parents.push(paths);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					//like the DirectoryScanner, anything which is not a folder is a file, broken links included
+					if (!attrs.isDirectory()) {
+						TokenizedPath[] parent = parents.peek();
+						for (int i = 0; i < walked.length; i++) {
+							if (parent[i] == null)
+								continue;
+							TokenizedPath path = new TokenizedPath(parent[i], file.getFileName().toString());
+							if (walked[i].isIncluded(path))
+								walked[i].files.add(path.toString());
+						}
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					//loops and unreadable folders are skipped
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+					parents.pop();
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			//not thrown by the visitor
+		}
+	}
+}
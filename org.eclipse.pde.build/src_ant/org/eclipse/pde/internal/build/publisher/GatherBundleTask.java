@@ -18,9 +18,7 @@ import java.util.*;
 import java.util.jar.JarFile;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.types.FileSet;
-import org.apache.tools.ant.types.PatternSet.NameEntry;
 import org.eclipse.core.runtime.*;
-import org.eclipse.equinox.p2.publisher.PublisherInfo;
 import org.eclipse.pde.build.Constants;
 import org.eclipse.pde.internal.build.IBuildPropertiesConstants;
 import org.eclipse.pde.internal.build.Utils;
@@ -70,33 +68,21 @@ public class GatherBundleTask extends AbstractPublisherTask {
 		action.setComputer(computer);
 		action.setUnpack(unpack);
 
-		PublisherInfo info = getPublisherInfo();
-		BuildPublisherApplication application = createPublisherApplication();
-		application.addAction(action);
-		try {
-			application.run(info);
-		} catch (Exception e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+		publish(action);
 	}
 
 	protected GatheringComputer createComputer() {
 		Properties properties = getBuildProperties();
 		GatheringComputer computer = new GatheringComputer();
+		List<String> noPatterns = Collections.emptyList();
+		FileCollector collector = new FileCollector();
 
 		if (targetFolder != null) {
-			FileSet fileSet = new FileSet();
-			fileSet.setProject(getProject());
-			fileSet.setDir(new File(targetFolder));
-			NameEntry includes = fileSet.createInclude();
-			includes.setName("**"); //$NON-NLS-1$
-			NameEntry excludes = fileSet.createExclude();
-			excludes.setName(JarFile.MANIFEST_NAME);
-
+			FileCollector.Selection targetFiles = collector.add(new File(targetFolder), noPatterns, Collections.singletonList(JarFile.MANIFEST_NAME));
+			collector.collect();
 			if (new File(targetFolder, JarFile.MANIFEST_NAME).exists())
 				computer.addFile(targetFolder, JarFile.MANIFEST_NAME);
-			computer.addFiles(targetFolder, fileSet.getDirectoryScanner().getIncludedFiles());
+			computer.addFiles(targetFolder, targetFiles.getFiles());
 			return computer;
 		}
 
@@ -107,43 +93,58 @@ public class GatherBundleTask extends AbstractPublisherTask {
 			//nothing being compiled?
 		}
 
-		int numIncludes = 0;
 		String include = (String) properties.get(IBuildPropertiesConstants.PROPERTY_BIN_INCLUDES);
-		String[] splitIncludes = Utils.getArrayFromString(include);
 		String exclude = (String) properties.get(IBuildPropertiesConstants.PROPERTY_BIN_EXCLUDES);
+		List<String> binExcludes = Arrays.asList(Utils.getArrayFromString(exclude));
 
-		FileSet fileSet = new FileSet();
-		fileSet.setProject(getProject());
-		fileSet.setDir(new File(baseDirectory));
-
-		for (String entry : splitIncludes) {
-			if (entry.equals(ModelBuildScriptGenerator.DOT))
-				continue;
-
-			NameEntry fileInclude = fileSet.createInclude();
-			fileInclude.setName(entry);
-			++numIncludes;
+		List<String> includes = new ArrayList<>();
+		for (String entry : Utils.getArrayFromString(include)) {
+			if (!entry.equals(ModelBuildScriptGenerator.DOT))
+				includes.add(entry);
 		}
 
-		if (numIncludes > 0) {
+		//the folders are often nested, all the files are collected at once so that each folder is walked only once
+		FileCollector.Selection binFiles = null;
+		if (includes.size() > 0) {
 			//we want to exclude the manifest and compiled libraries from this set, they are added separately
-			String extraExcludes = JarFile.MANIFEST_NAME;
+			List<String> excludes = new ArrayList<>(binExcludes);
+			excludes.add(JarFile.MANIFEST_NAME);
 			for (int i = 0; entries != null && i < entries.length; i++) {
 				String name = entries[i].getName(false);
-				if (!name.equals(ModelBuildScriptGenerator.DOT)) {
-					String formatedName = name + (entries[i].getType() == CompiledEntry.FOLDER ? "/" : ""); //$NON-NLS-1$//$NON-NLS-2$
-					extraExcludes += "," + formatedName; //$NON-NLS-1$
-				}
+				if (!name.equals(ModelBuildScriptGenerator.DOT))
+					excludes.add(name + (entries[i].getType() == CompiledEntry.FOLDER ? "/" : "")); //$NON-NLS-1$//$NON-NLS-2$
 			}
+			binFiles = collector.add(new File(baseDirectory), includes, excludes);
+		}
 
-			String[] splitExcludes = Utils.getArrayFromString(exclude != null ? exclude + "," + extraExcludes : extraExcludes); //$NON-NLS-1$
-			for (String splitExclude : splitExcludes) {
-				NameEntry fileExclude = fileSet.createExclude();
-				fileExclude.setName(splitExclude);
+		boolean dotIncluded = false;
+		FileCollector.Selection libraryFiles = null;
+		if (entries != null) {
+			List<String> libraries = new ArrayList<>();
+			for (CompiledEntry entry : entries) {
+				String name = entry.getName(false);
+				if (name.equals(ModelBuildScriptGenerator.DOT))
+					dotIncluded = true;
+				else if (!sourceMap.containsKey(name) || entry.getType() != CompiledEntry.FOLDER)
+					libraries.add(name + ((entry.getType() == CompiledEntry.FOLDER) ? "/" : "")); //$NON-NLS-1$ //$NON-NLS-2$
 			}
+			if (libraries.size() > 0)
+				libraryFiles = collector.add(new File(buildResultFolder), libraries, noPatterns);
+		}
+
+		String dotFolder = buildResultFolder + '/' + ModelBuildScriptGenerator.EXPANDED_DOT;
+		FileCollector.Selection dotFiles = null;
+		if (dotIncluded && !sourceMap.containsKey(ModelBuildScriptGenerator.DOT))
+			dotFiles = collector.add(new File(dotFolder), noPatterns, binExcludes);
 
-			List<String> includedFiles = Arrays.asList(fileSet.getDirectoryScanner().getIncludedFiles());
-			LinkedHashSet<String> set = new LinkedHashSet<>(includedFiles);
+		FileCollector.Selection sourceFiles = null;
+		if (gatheredSource != null)
+			sourceFiles = collector.add(new File(gatheredSource), noPatterns, noPatterns);
+
+		collector.collect();
+
+		if (binFiles != null) {
+			LinkedHashSet<String> set = new LinkedHashSet<>(Arrays.asList(binFiles.getFiles()));
 
 			// Manifest must go first, and must have been specifically excluded earlier from the buildResultFolder to not get added.
 			if (new File(buildResultFolder, JarFile.MANIFEST_NAME).exists())
@@ -166,68 +167,27 @@ public class GatherBundleTask extends AbstractPublisherTask {
 			computer.addFiles(baseDirectory, set.toArray(new String[set.size()]));
 		}
 
-		boolean dotIncluded = false;
 		if (entries != null) {
 			//add all the compiled libraries
-			boolean haveEntries = false;
-			fileSet = new FileSet();
-			fileSet.setProject(getProject());
-			fileSet.setDir(new File(buildResultFolder));
 			for (CompiledEntry entry : entries) {
 				String name = entry.getName(false);
-				if (name.equals(ModelBuildScriptGenerator.DOT)) {
-					dotIncluded = true;
-					continue;
-				}
-
-				if (sourceMap.containsKey(name) && entry.getType() == CompiledEntry.FOLDER) {
-					Set<OutputFileSet> folders = sourceMap.get(name);
-					processOutputFolders(folders, name, computer);
-				} else {
-					NameEntry fileInclude = fileSet.createInclude();
-					fileInclude.setName(name + ((entry.getType() == CompiledEntry.FOLDER) ? "/" : "")); //$NON-NLS-1$ //$NON-NLS-2$
-					haveEntries = true;
-				}
-			}
-			if (haveEntries) {
-				computer.addFiles(buildResultFolder, fileSet.getDirectoryScanner().getIncludedFiles());
+				if (!name.equals(ModelBuildScriptGenerator.DOT) && sourceMap.containsKey(name) && entry.getType() == CompiledEntry.FOLDER)
+					processOutputFolders(sourceMap.get(name), name, computer);
 			}
+			if (libraryFiles != null)
+				computer.addFiles(buildResultFolder, libraryFiles.getFiles());
 		}
 
 		if (dotIncluded) {
 			//special handling for '.'
-			if (sourceMap.containsKey(ModelBuildScriptGenerator.DOT)) {
-				Set<OutputFileSet> folders = sourceMap.get(ModelBuildScriptGenerator.DOT);
-				processOutputFolders(folders, ModelBuildScriptGenerator.DOT, computer);
-			} else {
-				fileSet = new FileSet();
-				fileSet.setProject(getProject());
-				fileSet.setDir(new File(buildResultFolder, ModelBuildScriptGenerator.EXPANDED_DOT));
-				NameEntry fileInclude = fileSet.createInclude();
-				fileInclude.setName("**"); //$NON-NLS-1$
-				if (exclude != null) {
-					String[] splitExcludes = Utils.getArrayFromString(exclude);
-					for (String splitExclude : splitExcludes) {
-						NameEntry fileExclude = fileSet.createExclude();
-						fileExclude.setName(splitExclude);
-					}
-				}
-
-				computer.addFiles(buildResultFolder + '/' + ModelBuildScriptGenerator.EXPANDED_DOT, fileSet.getDirectoryScanner().getIncludedFiles());
-			}
+			if (dotFiles == null)
+				processOutputFolders(sourceMap.get(ModelBuildScriptGenerator.DOT), ModelBuildScriptGenerator.DOT, computer);
+			else
+				computer.addFiles(dotFolder, dotFiles.getFiles());
 		}
 
-		if (gatheredSource != null) {
-			File sourceFile = new File(gatheredSource);
-			if (sourceFile.exists()) {
-				fileSet = new FileSet();
-				fileSet.setProject(getProject());
-				fileSet.setDir(sourceFile);
-				NameEntry fileInclude = fileSet.createInclude();
-				fileInclude.setName("**"); //$NON-NLS-1$
-				computer.addFiles(gatheredSource, fileSet.getDirectoryScanner().getIncludedFiles());
-			}
-		}
+		if (sourceFiles != null)
+			computer.addFiles(gatheredSource, sourceFiles.getFiles());
 
 		return computer;
 	}
@@ -24,7 +24,6 @@ import org.apache.tools.ant.types.selectors.FilenameSelector;
 import org.apache.tools.ant.types.selectors.OrSelector;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
-import org.eclipse.equinox.p2.publisher.PublisherInfo;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.pde.internal.build.*;
 import org.eclipse.pde.internal.build.builder.ModelBuildScriptGenerator;
@@ -50,16 +49,8 @@ public class GatherFeatureTask extends AbstractPublisherTask {
 
 		FeatureRootAdvice advice = createRootAdvice();
 		action.setRootAdvice(advice);
-		PublisherInfo info = getPublisherInfo();
-		info.addAdvice(advice);
-		BuildPublisherApplication application = createPublisherApplication();
-		application.addAction(action);
-		try {
-			application.run(info);
-		} catch (Exception e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+		getPublisherInfo().addAdvice(advice);
+		publish(action);
 	}
 
 	private void setGroupId(GatherFeatureAction action) {
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.publisher;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.eclipse.core.runtime.*;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.publisher.*;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
+import org.eclipse.pde.internal.build.IPDEBuildConstants;
+import org.eclipse.pde.internal.build.Utils;
+
+/**
+ * Perform independent publisher actions concurrently.
+ * <p>
+ * Each action is given its own result and its own publisher info, which sees the advice of the
+ * shared info and keeps the advice the action adds. Once all of them are done, the results and
+ * the added advice are merged on the calling thread, in the order of the actions, so the
+ * published metadata does not depend on the scheduling.
+ * </p>
+ * <p>
+ * Calls to the artifact repository are serialized. The output stream of an artifact is handed
+ * out by one of those calls but written to after it returns, so the artifacts themselves are
+ * written concurrently.
+ * </p>
+ */
+public class ParallelPublisherAction implements IPublisherAction {
+	private final List<IPublisherAction> actions;
+	private final int threadCount;
+
+	public ParallelPublisherAction(List<IPublisherAction> actions, int threadCount) {
+		this.actions = actions;
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * Parse a thread count attribute, anything which is not a number greater than 1 means serial.
+	 */
+	static int parseThreadCount(String value) {
+		try {
+			return Math.max(1, Integer.parseInt(value));
+		} catch (NumberFormatException e) {
+			return 1;
+		}
+	}
+
+	@Override
+	public IStatus perform(IPublisherInfo info, IPublisherResult results, IProgressMonitor monitor) {
+		if (threadCount <= 1 || actions.size() <= 1)
+			return performSerially(info, results, monitor);
+
+		IArtifactRepository repository = info.getArtifactRepository();
+		IArtifactRepository synchronizedRepository = repository != null ? synchronizedRepository(repository) : null;
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, actions.size()), runnable -> {
+			Thread thread = new Thread(runnable, "Publisher"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<IStatus>> statuses = new ArrayList<>(actions.size());
+			List<PublisherResult> ownResults = new ArrayList<>(actions.size());
+			List<ActionInfo> ownInfos = new ArrayList<>(actions.size());
+			for (IPublisherAction action : actions) {
+				PublisherResult ownResult = new PublisherResult();
+				ownResults.add(ownResult);
+				ActionInfo ownInfo = new ActionInfo(info, synchronizedRepository);
+				ownInfos.add(ownInfo);
+				statuses.add(executor.submit(() -> {
+					if (monitor.isCanceled())
+						return Status.CANCEL_STATUS;
+					return action.perform(ownInfo, ownResult, new NullProgressMonitor());
+				}));
+			}
+
+			MultiStatus status = new MultiStatus(IPDEBuildConstants.PI_PDEBUILD, IStatus.OK, "Publishing", null); //$NON-NLS-1$
+			for (int i = 0; i < statuses.size(); i++) {
+				IStatus actionStatus = getStatus(statuses.get(i));
+				status.merge(actionStatus);
+				if (actionStatus.matches(IStatus.CANCEL))
+					return actionStatus;
+				for (IPublisherAdvice advice : ownInfos.get(i).added)
+					info.addAdvice(advice);
+				if (!actionStatus.matches(IStatus.ERROR))
+					results.merge(ownResults.get(i), IPublisherResult.MERGE_MATCHING);
+			}
+			return status;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private IStatus performSerially(IPublisherInfo info, IPublisherResult results, IProgressMonitor monitor) {
+		MultiStatus status = new MultiStatus(IPDEBuildConstants.PI_PDEBUILD, IStatus.OK, "Publishing", null); //$NON-NLS-1$
+		for (IPublisherAction action : actions) {
+			if (monitor.isCanceled())
+				return Status.CANCEL_STATUS;
+			status.merge(action.perform(info, results, monitor));
+		}
+		return status;
+	}
+
+	private static IStatus getStatus(Future<IStatus> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Status.CANCEL_STATUS;
+		} catch (ExecutionException e) {
+			return new Status(IStatus.ERROR, IPDEBuildConstants.PI_PDEBUILD, e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/*
+	 * The publisher info of one action. The advice of the shared info is not modified while the actions
+	 * run, so it is read concurrently, the advice added by the action is kept apart.
+	 */
+	private static class ActionInfo extends PublisherInfo {
+		private final IPublisherInfo shared;
+		final List<IPublisherAdvice> added = new ArrayList<>();
+
+		ActionInfo(IPublisherInfo shared, IArtifactRepository artifactRepository) {
+			this.shared = shared;
+			setArtifactOptions(shared.getArtifactOptions());
+			setArtifactRepository(artifactRepository);
+			setMetadataRepository(shared.getMetadataRepository());
+			setContextArtifactRepository(shared.getContextArtifactRepository());
+			setContextMetadataRepository(shared.getContextMetadataRepository());
+			setConfigurations(shared.getConfigurations());
+		}
+
+		@Override
+		public void addAdvice(IPublisherAdvice advice) {
+			super.addAdvice(advice);
+			added.add(advice);
+		}
+
+		@Override
+		public <T extends IPublisherAdvice> Collection<T> getAdvice(String configSpec, boolean includeDefault, String id, Version version, Class<T> type) {
+			Collection<T> result = new ArrayList<>(shared.getAdvice(configSpec, includeDefault, id, version, type));
+			result.addAll(super.getAdvice(configSpec, includeDefault, id, version, type));
+			return result;
+		}
+	}
+
+	/*
+	 * Wrap the repository so that only one thread at a time reads or modifies its descriptors. The proxy
+	 * implements all the public interfaces of the repository, so that the actions still recognize file
+	 * based repositories.
+	 */
+	private static IArtifactRepository synchronizedRepository(IArtifactRepository repository) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			synchronized (repository) {
+				try {
+					return method.invoke(repository, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		};
+		return (IArtifactRepository) Proxy.newProxyInstance(repository.getClass().getClassLoader(), Utils.getPublicInterfaces(repository.getClass()), handler);
+	}
+}
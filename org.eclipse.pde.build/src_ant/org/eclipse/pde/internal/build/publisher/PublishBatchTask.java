@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.publisher;
+
+import java.util.*;
+import org.apache.tools.ant.*;
+import org.eclipse.core.runtime.*;
+import org.eclipse.equinox.p2.publisher.*;
+import org.eclipse.pde.internal.build.tasks.BundleTimingTask;
+
+/**
+ * Internal task.
+ * Run the nested tasks and collect the actions of the eclipse.gatherBundle and eclipse.gatherFeature
+ * tasks they execute, including the ones run from other scripts. When the nested tasks are done,
+ * the collected actions are published in a single publisher session for each destination, so the
+ * repositories are loaded and saved once instead of once per element.
+ * <p>
+ * The batch belongs to the thread running the task and to the threads it starts, the gathering done
+ * meanwhile by other threads or other builds is published immediately. A batch started inside
+ * another one joins it. The collected actions are performed concurrently when a thread count greater
+ * than 1 is given.
+ * </p>
+ */
+public class PublishBatchTask extends Task implements TaskContainer {
+	private static final InheritableThreadLocal<Batch> current = new InheritableThreadLocal<>();
+
+	private final List<Task> tasks = new ArrayList<>();
+	private int threadCount = 1;
+
+	private static class Batch {
+		final Map<String, Session> sessions = new LinkedHashMap<>();
+		boolean closed = false;
+
+		synchronized boolean isClosed() {
+			return closed;
+		}
+	}
+
+	private static class Session {
+		final BuildPublisherApplication application;
+		final List<QueuedAction> actions = new ArrayList<>();
+
+		Session(BuildPublisherApplication application) {
+			this.application = application;
+		}
+	}
+
+	/*
+	 * Perform a queued action with the info of the task that created it, the repositories being the ones
+	 * opened for the whole batch. Each action gets its own result, merged only when it succeeded, so that
+	 * an element failing does not prevent the others from being published. The time it takes is added to
+	 * the timing of the phase that queued it, if any.
+	 */
+	private static class QueuedAction implements IPublisherAction {
+		private final AbstractPublisherTask task;
+		private final IPublisherAction action;
+		private final PublisherInfo info;
+		private final BundleTimingTask.Deferred timing;
+
+		QueuedAction(AbstractPublisherTask task, IPublisherAction action, PublisherInfo info) {
+			this.task = task;
+			this.action = action;
+			this.info = info;
+			this.timing = BundleTimingTask.defer();
+		}
+
+		@Override
+		public IStatus perform(IPublisherInfo batchInfo, IPublisherResult results, IProgressMonitor monitor) {
+			info.setMetadataRepository(batchInfo.getMetadataRepository());
+			info.setArtifactRepository(batchInfo.getArtifactRepository());
+			info.setContextMetadataRepository(batchInfo.getContextMetadataRepository());
+			info.setContextArtifactRepository(batchInfo.getContextArtifactRepository());
+
+			PublisherResult result = new PublisherResult();
+			long start = System.currentTimeMillis();
+			long begin = System.nanoTime();
+			IStatus status = null;
+			try {
+				status = action.perform(info, result, monitor);
+			} finally {
+				if (timing != null)
+					timing.record(start, (System.nanoTime() - begin) / 1000000, status != null && !status.matches(IStatus.ERROR | IStatus.CANCEL));
+			}
+			if (status.matches(IStatus.CANCEL))
+				return status;
+			if (status.matches(IStatus.ERROR)) {
+				task.log(status.getMessage(), Project.MSG_ERR);
+				return Status.OK_STATUS;
+			}
+			results.merge(result, IPublisherResult.MERGE_MATCHING);
+			return status;
+		}
+	}
+
+	/**
+	 * Queue the given action if a batch is open.
+	 * @return <code>true</code> if the action will be published when the batch ends, <code>false</code> if
+	 * the caller should publish it now.
+	 */
+	static boolean queue(AbstractPublisherTask task, IPublisherAction action, PublisherInfo info) {
+		Batch batch = current.get();
+		if (batch == null)
+			return false;
+		synchronized (batch) {
+			//a thread started in the batch may outlive it
+			if (batch.closed)
+				return false;
+			String key = task.getApplicationKey();
+			Session session = batch.sessions.get(key);
+			if (session == null) {
+				session = new Session(task.createPublisherApplication());
+				batch.sessions.put(key, session);
+			}
+			session.actions.add(new QueuedAction(task, action, info));
+			return true;
+		}
+	}
+
+	public void setThreadCount(String threadCount) {
+		this.threadCount = ParallelPublisherAction.parseThreadCount(threadCount);
+	}
+
+	@Override
+	public void addTask(Task task) {
+		tasks.add(task);
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		Batch outer = current.get();
+		if (outer != null && !outer.isClosed()) {
+			runTasks();
+			return;
+		}
+
+		Batch batch = new Batch();
+		current.set(batch);
+		try {
+			runTasks();
+		} finally {
+			synchronized (batch) {
+				batch.closed = true;
+			}
+			current.set(outer);
+		}
+
+		for (Session session : batch.sessions.values()) {
+			log("Publishing " + session.actions.size() + " elements", Project.MSG_VERBOSE); //$NON-NLS-1$ //$NON-NLS-2$
+			if (threadCount > 1)
+				session.application.addAction(new ParallelPublisherAction(new ArrayList<IPublisherAction>(session.actions), threadCount));
+			else {
+				for (QueuedAction action : session.actions)
+					session.application.addAction(action);
+			}
+			PublisherInfo info = new PublisherInfo();
+			info.setArtifactOptions(IPublisherInfo.A_PUBLISH);
+			try {
+				session.application.run(info);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void runTasks() {
+		for (Task task : tasks) {
+			task.perform();
+		}
+	}
+}
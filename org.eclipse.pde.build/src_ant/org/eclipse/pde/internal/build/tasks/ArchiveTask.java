@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.tools.ant.*;
+import org.apache.tools.ant.types.ArchiveFileSet;
+import org.apache.tools.ant.types.TarFileSet;
+import org.apache.tools.ant.types.ZipFileSet;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Internal task.
+ * Create a zip or a tar.gz archive using several threads to compress its content.
+ * The content is described with nested &lt;zipfileset&gt; or &lt;tarfileset&gt; elements
+ * supporting the prefix, fullpath, filemode and dirmode attributes. Files for which no mode
+ * is given keep their permissions and symbolic links are stored as links.
+ * When the same path is provided more than once, the first one is kept.
+ */
+public class ArchiveTask extends Task {
+	public static final String FORMAT_ZIP = "zip"; //$NON-NLS-1$
+	public static final String FORMAT_TAR = "tar"; //$NON-NLS-1$
+
+	private static final int DEFAULT_FILE_MODE = 0644;
+	private static final int DEFAULT_DIR_MODE = 0755;
+
+	private final List<ArchiveFileSet> fileSets = new ArrayList<>();
+	private File destination;
+	private String format = FORMAT_ZIP;
+	private int threadCount = -1;
+
+	static class Entry {
+		static final int FILE = 0;
+		static final int DIRECTORY = 1;
+		static final int SYMLINK = 2;
+
+		final String name;
+		final int type;
+		final int mode;
+		final File file;
+		final String linkTarget;
+		final long lastModified;
+
+		Entry(String name, int type, int mode, File file, String linkTarget, long lastModified) {
+			this.name = name;
+			this.type = type;
+			this.mode = mode;
+			this.file = file;
+			this.linkTarget = linkTarget;
+			this.lastModified = lastModified;
+		}
+	}
+
+	/**
+	 * The archive to create, an existing file is replaced.
+	 * @param destination
+	 */
+	public void setDestfile(File destination) {
+		this.destination = destination;
+	}
+
+	/**
+	 * Either zip or tar, tar archives are always gzipped.
+	 * @param format
+	 */
+	public void setFormat(String format) {
+		this.format = format;
+	}
+
+	/**
+	 * The number of compression threads, the number of processors by default.
+	 * @param count
+	 */
+	public void setThreadCount(String count) {
+		try {
+			threadCount = Integer.parseInt(count);
+		} catch (NumberFormatException e) {
+			//ignore
+		}
+	}
+
+	public void addZipfileset(ZipFileSet set) {
+		fileSets.add(set);
+	}
+
+	public void addTarfileset(TarFileSet set) {
+		fileSets.add(set);
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		if (destination == null)
+			throw new BuildException(TaskMessages.error_missingDestFile, getLocation());
+		boolean zip = FORMAT_ZIP.equalsIgnoreCase(format);
+		if (!zip && !FORMAT_TAR.equalsIgnoreCase(format))
+			throw new BuildException(NLS.bind(TaskMessages.error_unsupportedArchiveFormat, format), getLocation());
+
+		Collection<Entry> entries = collectEntries();
+		if (entries.isEmpty()) {
+			log("Nothing to archive in " + destination, Project.MSG_VERBOSE); //$NON-NLS-1$
+			return;
+		}
+
+		log("Building " + format + ": " + destination.getAbsolutePath()); //$NON-NLS-1$ //$NON-NLS-2$
+		File parent = destination.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+
+		int threads = threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Archiver"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		boolean done = false;
+		try {
+			if (zip) {
+				try (ParallelZipWriter writer = new ParallelZipWriter(destination, executor, threads)) {
+					for (Entry entry : entries)
+						writer.write(entry);
+					writer.finish();
+				}
+			} else {
+				FileChannel channel = FileChannel.open(destination.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				try (TarWriter writer = new TarWriter(new BufferedOutputStream(new ParallelGZIPOutputStream(channel, executor, threads), 64 * 1024))) {
+					for (Entry entry : entries)
+						writer.write(entry);
+				}
+			}
+			done = true;
+		} catch (IOException e) {
+			throw new BuildException(NLS.bind(TaskMessages.error_creatingArchive, destination, e.getMessage()), e, getLocation());
+		} finally {
+			executor.shutdownNow();
+			if (!done)
+				destination.delete();
+		}
+	}
+
+	private Collection<Entry> collectEntries() {
+		Map<String, Entry> entries = new LinkedHashMap<>();
+		long now = System.currentTimeMillis();
+		for (ArchiveFileSet set : fileSets) {
+			if (set.getSrc(getProject()) != null)
+				throw new BuildException(TaskMessages.error_archiveFileSetSource, getLocation());
+
+			DirectoryScanner scanner = set.getDirectoryScanner(getProject());
+			File base = scanner.getBasedir();
+			int fileMode = set.hasFileModeBeenSet() ? set.getFileMode(getProject()) & 07777 : -1;
+			int dirMode = set.hasDirModeBeenSet() ? set.getDirMode(getProject()) & 07777 : DEFAULT_DIR_MODE;
+			String[] files = scanner.getIncludedFiles();
+
+			String fullpath = set.getFullpath(getProject());
+			if (fullpath.length() > 0) {
+				if (files.length != 1)
+					throw new BuildException(TaskMessages.error_fullpathSeveralFiles, getLocation());
+				addFile(entries, fullpath, new File(base, files[0]), fileMode, dirMode, now);
+				continue;
+			}
+
+			String prefix = set.getPrefix(getProject()).replace('\\', '/');
+			if (prefix.length() > 0 && !prefix.endsWith("/")) //$NON-NLS-1$
+				prefix += '/';
+
+			//the content of linked folders is not archived, the link is
+			String[] directories = scanner.getIncludedDirectories();
+			List<String> links = new ArrayList<>();
+			for (String directory : directories) {
+				if (directory.length() > 0 && Files.isSymbolicLink(new File(base, directory).toPath()))
+					links.add(directory.replace(File.separatorChar, '/') + '/');
+			}
+			for (String directory : directories) {
+				if (directory.length() == 0)
+					continue;
+				String name = directory.replace(File.separatorChar, '/');
+				if (isInLink(name, links))
+					continue;
+				File folder = new File(base, directory);
+				if (links.contains(name + '/'))
+					addFile(entries, prefix + name, folder, fileMode, dirMode, now);
+				else
+					addEntry(entries, new Entry(prefix + name + '/', Entry.DIRECTORY, set.hasDirModeBeenSet() ? dirMode : getMode(folder, DEFAULT_DIR_MODE), null, null, folder.lastModified()), dirMode, now);
+			}
+			for (String file : files) {
+				String name = file.replace(File.separatorChar, '/');
+				if (!isInLink(name, links))
+					addFile(entries, prefix + name, new File(base, file), fileMode, dirMode, now);
+			}
+		}
+		return entries.values();
+	}
+
+	private static boolean isInLink(String name, List<String> links) {
+		for (String link : links) {
+			if (name.startsWith(link))
+				return true;
+		}
+		return false;
+	}
+
+	private void addFile(Map<String, Entry> entries, String name, File file, int fileMode, int dirMode, long now) {
+		Path path = file.toPath();
+		if (Files.isSymbolicLink(path)) {
+			try {
+				String target = Files.readSymbolicLink(path).toString().replace(File.separatorChar, '/');
+				long lastModified = Files.getLastModifiedTime(path, LinkOption.NOFOLLOW_LINKS).toMillis();
+				addEntry(entries, new Entry(name, Entry.SYMLINK, 0777, null, target, lastModified), dirMode, now);
+				return;
+			} catch (IOException e) {
+				log(NLS.bind(TaskMessages.warning_readingLink, file, e.getMessage()), Project.MSG_WARN);
+			}
+		}
+		addEntry(entries, new Entry(name, Entry.FILE, fileMode >= 0 ? fileMode : getMode(file, DEFAULT_FILE_MODE), file, null, file.lastModified()), dirMode, now);
+	}
+
+	private void addEntry(Map<String, Entry> entries, Entry entry, int dirMode, long now) {
+		//parent folders come first
+		int index = entry.name.indexOf('/');
+		while (index > 0 && index < entry.name.length() - 1) {
+			String parent = entry.name.substring(0, index + 1);
+			if (!entries.containsKey(parent))
+				entries.put(parent, new Entry(parent, Entry.DIRECTORY, dirMode, null, null, now));
+			index = entry.name.indexOf('/', index + 1);
+		}
+		if (entries.containsKey(entry.name)) {
+			if (entry.type != Entry.DIRECTORY)
+				log("Skipping duplicate entry " + entry.name, Project.MSG_VERBOSE); //$NON-NLS-1$
+			return;
+		}
+		entries.put(entry.name, entry);
+	}
+
+	private static int getMode(File file, int defaultMode) {
+		try {
+			int mode = 0;
+			for (PosixFilePermission permission : Files.getPosixFilePermissions(file.toPath())) {
+				//the enum is declared in the order of the bits, from owner read down to others execute
+				mode |= 0400 >> permission.ordinal();
+			}
+			return mode;
+		} catch (UnsupportedOperationException | IOException e) {
+			return defaultMode;
+		}
+	}
+}
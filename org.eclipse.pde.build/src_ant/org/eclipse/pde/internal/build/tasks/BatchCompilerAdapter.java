@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.taskdefs.Javac;
+import org.apache.tools.ant.taskdefs.compilers.CompilerAdapter;
+import org.apache.tools.ant.taskdefs.compilers.CompilerAdapterFactory;
+
+/**
+ * Compiler adapter used by the plug-in scripts generated with <code>batchCompilation</code> or
+ * <code>sharedClasspathIndex</code> set.
+ * <p>
+ * The arguments and the options of the compiler are the ones the JDT compiler adapter sets up from the
+ * attributes of the javac task, the tasks using attributes this adapter does not handle are run by the
+ * JDT one. When the javac task runs inside an <code>eclipse.compileBatch</code> task, the compilation is
+ * handed to the {@link CompilationBatch} of the dependency wave instead of being run on its own. When an
+ * <code>eclipse.classpathIndex</code> task is running, the classpath goes through the
+ * {@link ClasspathIndex} first. Otherwise this adapter behaves exactly like the JDT one.
+ * </p>
+ */
+public class BatchCompilerAdapter implements CompilerAdapter {
+	static final String JDT_COMPILER_ADAPTER = "org.eclipse.jdt.core.JDTCompilerAdapter"; //$NON-NLS-1$
+
+	private Javac javac;
+
+	@Override
+	public void setJavac(Javac attributes) {
+		this.javac = attributes;
+	}
+
+	@Override
+	public boolean execute() throws BuildException {
+		CompilerAdapter adapter = CompilerAdapterFactory.getCompiler(JDT_COMPILER_ADAPTER, javac);
+		adapter.setJavac(javac);
+
+		CompilationBatch batch = CompilationBatch.getCurrent();
+		if (batch == null && ClasspathIndex.getCurrent(javac.getProject()) == null)
+			return adapter.execute();
+
+		CompilationBatch.Unit unit = CompilationBatch.Unit.create(javac, adapter);
+		if (unit == null)
+			return adapter.execute();
+		return batch != null ? batch.compile(unit) : CompilationBatch.compileAlone(unit);
+	}
+}
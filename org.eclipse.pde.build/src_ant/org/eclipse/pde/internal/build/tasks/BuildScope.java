@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import org.apache.tools.ant.*;
+
+/**
+ * State shared by the tasks of one build.
+ * <p>
+ * A scope is opened on a project and registered as one of its build listeners. The projects created
+ * from it by the &lt;ant&gt;, &lt;antcall&gt; and &lt;subant&gt; tasks get the build listeners of
+ * their parent, so the tasks of all the scripts called from the project find the same scope, on any
+ * thread. Builds running next to each other in the same VM have their own projects, and their own
+ * scopes.
+ * </p>
+ */
+public class BuildScope implements BuildListener {
+	private final Map<String, Object> values = new ConcurrentHashMap<>();
+	private final List<Runnable> finishers = new CopyOnWriteArrayList<>();
+
+	/**
+	 * @return the scope the project belongs to, <code>null</code> if none is open
+	 */
+	public static BuildScope find(Project project) {
+		for (BuildListener listener : project.getBuildListeners()) {
+			if (listener instanceof BuildScope)
+				return (BuildScope) listener;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the scope the project belongs to, opened on the project if there is none yet
+	 */
+	public static BuildScope get(Project project) {
+		synchronized (project) {
+			BuildScope scope = find(project);
+			if (scope == null)
+				scope = open(project);
+			return scope;
+		}
+	}
+
+	/**
+	 * Open a new scope for the project and the projects created from it from now on.
+	 */
+	public static BuildScope open(Project project) {
+		BuildScope scope = new BuildScope();
+		project.addBuildListener(scope);
+		return scope;
+	}
+
+	/**
+	 * Close the scope, the projects created from the given one from now on no longer belong to it.
+	 */
+	public void close(Project project) {
+		project.removeBuildListener(this);
+		finish();
+	}
+
+	/**
+	 * Run the given action when the build finishes or the scope is closed, whether the build failed or not.
+	 */
+	public void whenFinished(Runnable action) {
+		finishers.add(action);
+	}
+
+	private void finish() {
+		try {
+			for (Runnable finisher : finishers)
+				finisher.run();
+		} finally {
+			finishers.clear();
+			values.clear();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key) {
+		return (T) values.get(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T computeIfAbsent(String key, Function<String, T> function) {
+		return (T) values.computeIfAbsent(key, function);
+	}
+
+	public void put(String key, Object value) {
+		values.put(key, value);
+	}
+
+	public void remove(String key) {
+		values.remove(key);
+	}
+
+	@Override
+	public void buildStarted(BuildEvent event) {
+		//nothing to do
+	}
+
+	@Override
+	public void buildFinished(BuildEvent event) {
+		finish();
+	}
+
+	@Override
+	public void targetStarted(BuildEvent event) {
+		//nothing to do
+	}
+
+	@Override
+	public void targetFinished(BuildEvent event) {
+		//nothing to do
+	}
+
+	@Override
+	public void taskStarted(BuildEvent event) {
+		//nothing to do
+	}
+
+	@Override
+	public void taskFinished(BuildEvent event) {
+		//nothing to do
+	}
+
+	@Override
+	public void messageLogged(BuildEvent event) {
+		//nothing to do
+	}
+}
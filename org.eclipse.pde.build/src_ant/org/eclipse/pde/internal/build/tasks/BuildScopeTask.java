@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.tools.ant.*;
+
+/**
+ * Internal task.
+ * Run the nested tasks in the {@link BuildScope} of the project, opened if needed, so that the scripts
+ * they call, for example from a &lt;parallel&gt; task, share the same limits. A scope opened by this
+ * task is closed when it ends.
+ */
+public class BuildScopeTask extends Task implements TaskContainer {
+	private final List<Task> tasks = new ArrayList<>();
+
+	@Override
+	public void addTask(Task task) {
+		tasks.add(task);
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		BuildScope scope = BuildScope.find(getProject());
+		BuildScope opened = scope == null ? BuildScope.open(getProject()) : null;
+		try {
+			for (Task task : tasks)
+				task.perform();
+		} finally {
+			if (opened != null)
+				opened.close(getProject());
+		}
+	}
+}
@@ -92,10 +92,13 @@ public class BuildScriptGeneratorTask extends Task {
 
 	@Override
 	public void execute() throws BuildException {
-		try {
+		BuildMetrics metrics = TaskHelper.startMetrics(this);
+		try (BuildMetrics.Phase phase = BuildMetrics.phase("buildScript")) { //$NON-NLS-1$
 			run();
 		} catch (CoreException e) {
 			throw new BuildException(TaskHelper.statusToString(e.getStatus(), null).toString());
+		} finally {
+			TaskHelper.endMetrics(this, metrics);
 		}
 	}
 
@@ -132,6 +135,33 @@ public class BuildScriptGeneratorTask extends Task {
 		if (Boolean.valueOf(value).booleanValue())
 			properties.put(IBuildPropertiesConstants.PROPERTY_SUPPRESS_RESOLUTION_ERRORS, "true"); //$NON-NLS-1$ 
 
+		value = getProject().getProperty(IBuildPropertiesConstants.PROPERTY_BUNDLE_TIMINGS);
+		if (Boolean.valueOf(value).booleanValue()) {
+			properties.put(IBuildPropertiesConstants.PROPERTY_BUNDLE_TIMINGS, "true"); //$NON-NLS-1$
+			//the scripts are generated before the bundles are built, the timings of a previous build are dropped
+			BundleTimingTask.reset(getProject(), getProject().getProperty(IBuildPropertiesConstants.PROPERTY_BUNDLE_TIMINGS_FILE));
+		}
+
+		value = getProject().getProperty(IBuildPropertiesConstants.PROPERTY_BATCH_COMPILATION);
+		if (Boolean.valueOf(value).booleanValue())
+			properties.put(IBuildPropertiesConstants.PROPERTY_BATCH_COMPILATION, "true"); //$NON-NLS-1$
+
+		value = getProject().getProperty(IBuildPropertiesConstants.PROPERTY_SHARED_CLASSPATH_INDEX);
+		if (Boolean.valueOf(value).booleanValue())
+			properties.put(IBuildPropertiesConstants.PROPERTY_SHARED_CLASSPATH_INDEX, "true"); //$NON-NLS-1$
+
+		value = getProject().getProperty(IBuildPropertiesConstants.PROPERTY_SHARED_COMPILER_SETTINGS);
+		if (Boolean.valueOf(value).booleanValue())
+			properties.put(IBuildPropertiesConstants.PROPERTY_SHARED_COMPILER_SETTINGS, "true"); //$NON-NLS-1$
+
+		value = getProject().getProperty(IBuildPropertiesConstants.PROPERTY_SHARED_NESTED_JARS);
+		if (Boolean.valueOf(value).booleanValue())
+			properties.put(IBuildPropertiesConstants.PROPERTY_SHARED_NESTED_JARS, "true"); //$NON-NLS-1$
+
+		value = getProject().getProperty(IBuildPropertiesConstants.PROPERTY_LINK_WORKSPACE_BINARIES);
+		if (Boolean.valueOf(value).booleanValue())
+			properties.put(IBuildPropertiesConstants.PROPERTY_LINK_WORKSPACE_BINARIES, "true"); //$NON-NLS-1$
+
 		value = getProject().getProperty(IBuildPropertiesConstants.PROPERTY_ANT_VERSION);
 		if (value != null)
 			properties.put(IBuildPropertiesConstants.PROPERTY_ANT_VERSION, value);
@@ -325,6 +355,38 @@ public class BuildScriptGeneratorTask extends Task {
 		}
 	}
 
+	public void setParallelAssembly(boolean parallel) {
+		generator.setParallelAssembly(parallel);
+	}
+
+	public void setParallelAssemblyThreadCount(String count) {
+		try {
+			generator.setAssemblyThreadCount(Integer.parseInt(count));
+		} catch (NumberFormatException e) {
+			//ignore
+		}
+	}
+
+	public void setSharedGathering(boolean shared) {
+		generator.setSharedGathering(shared);
+	}
+
+	public void setBatchPublishing(boolean batch) {
+		generator.setBatchPublishing(batch);
+	}
+
+	public void setResidentBuildRepository(boolean resident) {
+		generator.setResidentBuildRepository(resident);
+	}
+
+	public void setParallelArchiveCount(String count) {
+		try {
+			generator.setArchiveCount(Integer.parseInt(count));
+		} catch (NumberFormatException e) {
+			//ignore
+		}
+	}
+
 	public void setContextRepository(String contexts) {
 		String[] locations = Utils.getArrayFromString(contexts, ","); //$NON-NLS-1$
 		ArrayList<URI> uris = new ArrayList<>();
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.tools.ant.*;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.pde.internal.build.Utils;
+
+/**
+ * Internal task.
+ * Run the nested tasks and append how long they took to the timings file of the build, as one line
+ * for the given bundle and phase. The file is shared by the scripts of all the bundles, it can be
+ * summarized with the <code>eclipse.bundleTimingsSummary</code> task.
+ * <p>
+ * The time the nested tasks spend waiting for other bundles is not counted, see {@link #adjust(long)},
+ * and the work they leave for later is recorded when it is done, see {@link #defer()}.
+ * </p>
+ */
+public class BundleTimingTask extends Task implements TaskContainer {
+	static final String DEFAULT_FILE = "bundleTimings.csv"; //$NON-NLS-1$
+	static final String HEADER = "bundle,phase,start,millis,result,requires"; //$NON-NLS-1$
+
+	private static final Object LOCK = new Object();
+	private static final ThreadLocal<BundleTimingTask> running = new ThreadLocal<>();
+
+	private final List<Task> tasks = new ArrayList<>();
+	private String bundle = null;
+	private String phase = null;
+	private String requires = null;
+	private String file = null;
+	private long adjustment = 0;
+
+	/**
+	 * Work of a timed phase done after the phase ended, for example the publishing of a gathered
+	 * bundle queued in a publish batch.
+	 */
+	public static class Deferred {
+		private final BundleTimingTask task;
+
+		Deferred(BundleTimingTask task) {
+			this.task = task;
+		}
+
+		/**
+		 * Record the deferred work as another line for the bundle and phase, the lines of a phase add up.
+		 */
+		public void record(long start, long millis, boolean success) {
+			task.record(start, millis, success, false);
+		}
+	}
+
+	/**
+	 * Correct the time of the phase timed on the current thread, if any, by the given amount. The time
+	 * spent waiting for other bundles is taken out, the share of the work done for this bundle on
+	 * another thread is added.
+	 */
+	public static void adjust(long nanos) {
+		BundleTimingTask task = running.get();
+		if (task != null)
+			task.adjustment += nanos;
+	}
+
+	/**
+	 * @return the phase timed on the current thread, to record work it leaves for later, <code>null</code>
+	 * if none
+	 */
+	public static Deferred defer() {
+		BundleTimingTask task = running.get();
+		return task != null ? new Deferred(task) : null;
+	}
+
+	public void setBundle(String bundle) {
+		this.bundle = bundle;
+	}
+
+	public void setPhase(String phase) {
+		this.phase = phase;
+	}
+
+	/**
+	 * The comma separated bundles this phase waits for.
+	 */
+	public void setRequires(String requires) {
+		this.requires = requires;
+	}
+
+	/**
+	 * The timings file, <code>bundleTimings.csv</code> in the build directory by default.
+	 */
+	public void setFile(String file) {
+		this.file = file;
+	}
+
+	@Override
+	public void addTask(Task task) {
+		tasks.add(task);
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		long start = System.currentTimeMillis();
+		long begin = System.nanoTime();
+		boolean success = false;
+		BundleTimingTask outer = running.get();
+		running.set(this);
+		adjustment = 0;
+		try {
+			for (Task task : tasks)
+				task.perform();
+			success = true;
+		} finally {
+			running.set(outer);
+			record(start, Math.max(0, System.nanoTime() - begin + adjustment) / 1000000, success, true);
+		}
+	}
+
+	private void record(long start, long millis, boolean success, boolean withRequires) {
+		File location = getTimingsFile(getProject(), file);
+		if (location == null) {
+			log("No timings file for " + bundle + ", set the bundleTimingsFile property.", Project.MSG_VERBOSE); //$NON-NLS-1$ //$NON-NLS-2$
+			return;
+		}
+
+		StringBuilder line = new StringBuilder();
+		line.append(bundle).append(',').append(phase).append(',').append(start).append(',').append(millis).append(',');
+		line.append(success ? "ok" : "failed").append(','); //$NON-NLS-1$ //$NON-NLS-2$
+		if (withRequires && requires != null)
+			line.append(Utils.getStringFromArray(Utils.getArrayFromString(requires), " ")); //$NON-NLS-1$
+		line.append('\n');
+
+		synchronized (LOCK) {
+			File parent = location.getParentFile();
+			if (parent != null)
+				parent.mkdirs();
+			//the parallel builds may run in other processes
+			try (FileChannel channel = FileChannel.open(location.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND); FileLock lock = channel.lock()) {
+				if (channel.size() == 0)
+					line.insert(0, HEADER + '\n');
+				ByteBuffer buffer = ByteBuffer.wrap(line.toString().getBytes(StandardCharsets.UTF_8));
+				while (buffer.hasRemaining())
+					channel.write(buffer);
+			} catch (IOException e) {
+				log(NLS.bind(TaskMessages.warning_recordingTimings, new Object[] {bundle, location, e.getMessage()}), Project.MSG_WARN);
+			}
+		}
+	}
+
+	/**
+	 * Start a new timings file for the build, the first time the given project asks for it.
+	 */
+	static void reset(Project project, String file) {
+		File location = getTimingsFile(project, file);
+		if (location == null)
+			return;
+		BuildScope.get(project).computeIfAbsent(DEFAULT_FILE + ':' + location.getAbsolutePath(), key -> {
+			if (location.isFile() && !location.delete())
+				project.log(NLS.bind(TaskMessages.warning_deletingTimings, location), Project.MSG_WARN);
+			return Boolean.TRUE;
+		});
+	}
+
+	static File getTimingsFile(Project project, String file) {
+		if (file != null && file.length() > 0 && !file.startsWith("${")) //$NON-NLS-1$
+			return project.resolveFile(file);
+		String buildDirectory = project.getProperty("buildDirectory"); //$NON-NLS-1$
+		if (buildDirectory == null)
+			return null;
+		return new File(buildDirectory, DEFAULT_FILE);
+	}
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * The timings recorded by the {@link BundleTimingTask}s of a build.
+ * <p>
+ * The critical path is the longest chain of bundles where each one waits for the compilation of
+ * the previous one, it ends with the gathering and publishing of its last bundle. It is how long
+ * the build would take with an unlimited number of threads, compared to the total work which is
+ * how long it takes with a single one.
+ * </p>
+ */
+class BundleTimings {
+	private static final String PHASE_COMPILE = "build.jars"; //$NON-NLS-1$
+
+	static class BundleTiming {
+		final String id;
+		final Map<String, Long> phases = new TreeMap<>();
+		final Set<String> requires = new TreeSet<>();
+		long total = 0;
+		boolean failed = false;
+
+		BundleTiming(String id) {
+			this.id = id;
+		}
+
+		long getCompileTime() {
+			Long compile = phases.get(PHASE_COMPILE);
+			return compile != null ? compile.longValue() : 0;
+		}
+	}
+
+	private final Map<String, BundleTiming> bundles = new LinkedHashMap<>();
+	private long firstStart = Long.MAX_VALUE;
+	private long lastEnd = Long.MIN_VALUE;
+
+	//the critical path, computed on demand
+	private Map<String, Long> compiledAt = null;
+	private Map<String, String> compiledAfter = null;
+
+	static BundleTimings read(File file) throws IOException {
+		BundleTimings result = new BundleTimings();
+		for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+			if (line.length() == 0 || line.startsWith(BundleTimingTask.HEADER))
+				continue;
+			String[] fields = line.split(",", -1); //$NON-NLS-1$
+			if (fields.length < 5)
+				continue;
+			try {
+				result.add(fields[0], fields[1], Long.parseLong(fields[2]), Long.parseLong(fields[3]), !"failed".equals(fields[4]), fields.length > 5 ? fields[5] : null); //$NON-NLS-1$
+			} catch (NumberFormatException e) {
+				//skip the damaged lines, the file may be appended to by several processes
+			}
+		}
+		return result;
+	}
+
+	void add(String bundle, String phase, long start, long millis, boolean success, String requires) {
+		BundleTiming timing = bundles.computeIfAbsent(bundle, BundleTiming::new);
+		timing.phases.merge(phase, Long.valueOf(millis), Long::sum);
+		timing.total += millis;
+		timing.failed |= !success;
+		if (requires != null) {
+			for (StringTokenizer tokens = new StringTokenizer(requires); tokens.hasMoreTokens();)
+				timing.requires.add(tokens.nextToken());
+		}
+		firstStart = Math.min(firstStart, start);
+		lastEnd = Math.max(lastEnd, start + millis);
+		compiledAt = null;
+	}
+
+	Collection<BundleTiming> getBundles() {
+		return bundles.values();
+	}
+
+	long getTotalWork() {
+		long result = 0;
+		for (BundleTiming timing : bundles.values())
+			result += timing.total;
+		return result;
+	}
+
+	long getElapsed() {
+		return bundles.isEmpty() ? 0 : lastEnd - firstStart;
+	}
+
+	List<BundleTiming> getSlowest(int count) {
+		List<BundleTiming> result = new ArrayList<>(bundles.values());
+		result.sort((a, b) -> Long.compare(b.total, a.total));
+		return result.subList(0, Math.min(count, result.size()));
+	}
+
+	/**
+	 * @return the bundles of the critical path, in build order
+	 */
+	List<BundleTiming> getCriticalPath() {
+		computeCompilationChains();
+		BundleTiming last = null;
+		long longest = -1;
+		for (BundleTiming timing : bundles.values()) {
+			long end = compiledAt.get(timing.id).longValue() + timing.total - timing.getCompileTime();
+			if (end > longest) {
+				longest = end;
+				last = timing;
+			}
+		}
+		LinkedList<BundleTiming> result = new LinkedList<>();
+		for (String id = last != null ? last.id : null; id != null; id = compiledAfter.get(id))
+			result.addFirst(bundles.get(id));
+		return result;
+	}
+
+	long getCriticalPathLength() {
+		long result = 0;
+		List<BundleTiming> path = getCriticalPath();
+		for (BundleTiming timing : path)
+			result += timing.getCompileTime();
+		if (!path.isEmpty()) {
+			BundleTiming last = path.get(path.size() - 1);
+			result += last.total - last.getCompileTime();
+		}
+		return result;
+	}
+
+	private void computeCompilationChains() {
+		if (compiledAt != null)
+			return;
+		compiledAt = new HashMap<>();
+		compiledAfter = new HashMap<>();
+		Set<String> visiting = new HashSet<>();
+		for (String id : bundles.keySet())
+			computeCompiledAt(id, visiting);
+	}
+
+	private long computeCompiledAt(String id, Set<String> visiting) {
+		Long known = compiledAt.get(id);
+		if (known != null)
+			return known.longValue();
+		//a cycle between binary bundles, the bundle doesn't wait for itself
+		if (!visiting.add(id))
+			return 0;
+		BundleTiming timing = bundles.get(id);
+		long ready = 0;
+		String after = null;
+		for (String prerequisite : timing.requires) {
+			if (!bundles.containsKey(prerequisite))
+				continue;
+			long compiled = computeCompiledAt(prerequisite, visiting);
+			if (compiled > ready) {
+				ready = compiled;
+				after = prerequisite;
+			}
+		}
+		visiting.remove(id);
+		long result = ready + timing.getCompileTime();
+		compiledAt.put(id, Long.valueOf(result));
+		if (after != null)
+			compiledAfter.put(id, after);
+		return result;
+	}
+}
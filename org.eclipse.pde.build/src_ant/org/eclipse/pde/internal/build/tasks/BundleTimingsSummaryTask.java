@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.apache.tools.ant.*;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.pde.internal.build.tasks.BundleTimings.BundleTiming;
+
+/**
+ * Internal task.
+ * Summarize the timings recorded for the bundles of a build: the slowest bundles, and the length
+ * of the critical path compared to the total work.
+ */
+public class BundleTimingsSummaryTask extends Task {
+	private String file = null;
+	private File output = null;
+	private int top = 20;
+
+	/**
+	 * The timings file, <code>bundleTimings.csv</code> in the build directory by default.
+	 */
+	public void setFile(String file) {
+		this.file = file;
+	}
+
+	/**
+	 * A file to write the summary to, in addition to the log.
+	 */
+	public void setOutput(File output) {
+		this.output = output;
+	}
+
+	/**
+	 * How many of the slowest bundles to list.
+	 */
+	public void setTop(int top) {
+		this.top = top;
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		File location = BundleTimingTask.getTimingsFile(getProject(), file);
+		if (location == null || !location.isFile()) {
+			log(TaskMessages.warning_noTimings, Project.MSG_WARN);
+			return;
+		}
+
+		BundleTimings timings;
+		try {
+			timings = BundleTimings.read(location);
+		} catch (IOException e) {
+			throw new BuildException(NLS.bind(TaskMessages.error_readingTimings, location), e);
+		}
+
+		String summary = summarize(timings);
+		log(summary);
+		if (output != null) {
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)) {
+				writer.write(summary);
+			} catch (IOException e) {
+				throw new BuildException(NLS.bind(TaskMessages.error_writingTimingsSummary, output), e);
+			}
+		}
+	}
+
+	private String summarize(BundleTimings timings) {
+		StringBuilder result = new StringBuilder();
+		long totalWork = timings.getTotalWork();
+		long criticalPath = timings.getCriticalPathLength();
+		result.append(timings.getBundles().size()).append(" bundles, total work ").append(seconds(totalWork)); //$NON-NLS-1$
+		result.append(", elapsed ").append(seconds(timings.getElapsed())).append('\n'); //$NON-NLS-1$
+		result.append("Critical path ").append(seconds(criticalPath)); //$NON-NLS-1$
+		if (criticalPath > 0)
+			result.append(String.format(Locale.ENGLISH, ", at most %.1f bundles in parallel on average", Double.valueOf((double) totalWork / criticalPath))); //$NON-NLS-1$
+		result.append('\n');
+		for (BundleTiming timing : timings.getCriticalPath())
+			result.append("    ").append(timing.id).append(' ').append(seconds(timing.getCompileTime())).append('\n'); //$NON-NLS-1$
+
+		result.append("Slowest bundles\n"); //$NON-NLS-1$
+		int rank = 1;
+		for (BundleTiming timing : timings.getSlowest(top)) {
+			result.append(String.format(Locale.ENGLISH, "%4d. ", Integer.valueOf(rank++))).append(timing.id).append(' ').append(seconds(timing.total)); //$NON-NLS-1$
+			if (totalWork > 0)
+				result.append(String.format(Locale.ENGLISH, " (%.1f%%)", Double.valueOf(timing.total * 100.0 / totalWork))); //$NON-NLS-1$
+			for (Map.Entry<String, Long> phase : timing.phases.entrySet())
+				result.append(", ").append(phase.getKey()).append(' ').append(seconds(phase.getValue().longValue())); //$NON-NLS-1$
+			if (timing.failed)
+				result.append(", failed"); //$NON-NLS-1$
+			result.append('\n');
+		}
+		return result.toString();
+	}
+
+	private static String seconds(long millis) {
+		return String.format(Locale.ENGLISH, "%.1fs", Double.valueOf(millis / 1000.0)); //$NON-NLS-1$
+	}
+}
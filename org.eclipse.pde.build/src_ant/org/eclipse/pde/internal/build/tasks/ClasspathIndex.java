@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.*;
+import org.apache.tools.ant.Project;
+
+/**
+ * Index of the jars found on the classpaths of the compilations run by the {@link BatchCompilerAdapter},
+ * shared by the <code>eclipse.classpathIndex</code> tasks of the {@link BuildScope} of the build.
+ * <p>
+ * Each jar is opened once and kept open until the last task using the index ends. While a jar is
+ * open, the JVM keeps its central directory in memory and shares it with every other
+ * <code>ZipFile</code> opened on the same file, including the ones the compiler opens for each
+ * invocation. A jar whose size or modification time changed is opened again. The jars without
+ * class files are left out of the classpaths given to the compiler, unless their manifest has a
+ * <code>Class-Path</code>: the compiler follows it to other jars.
+ * </p>
+ */
+public class ClasspathIndex {
+	private static final String SCOPE_KEY = ClasspathIndex.class.getName();
+
+	private final BuildScope scope;
+	private int users = 0;
+
+	private final Map<String, Jar> jars = new ConcurrentHashMap<>();
+	private final AtomicInteger lookups = new AtomicInteger();
+	private final AtomicInteger opened = new AtomicInteger();
+	private final AtomicInteger removed = new AtomicInteger();
+
+	/**
+	 * An open jar, and what the index knows about it.
+	 */
+	static class Jar {
+		final long lastModified;
+		final long length;
+		final JarFile zip;
+		final boolean prunable;
+
+		Jar(File file) throws IOException {
+			lastModified = file.lastModified();
+			length = file.length();
+			zip = new JarFile(file, false);
+			boolean hasClasses = zip.stream().anyMatch(entry -> entry.getName().endsWith(".class")); //$NON-NLS-1$
+			Manifest manifest = hasClasses ? null : zip.getManifest();
+			prunable = !hasClasses && (manifest == null || manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) == null);
+		}
+
+		boolean isCurrent(File file) {
+			return lastModified == file.lastModified() && length == file.length();
+		}
+
+		void close() {
+			try {
+				zip.close();
+			} catch (IOException e) {
+				//nothing to do
+			}
+		}
+	}
+
+	private ClasspathIndex(BuildScope scope) {
+		this.scope = scope;
+	}
+
+	/**
+	 * @return the index shared by the compilations of the project's build, <code>null</code> if no
+	 * <code>eclipse.classpathIndex</code> task is running
+	 */
+	static ClasspathIndex getCurrent(Project project) {
+		BuildScope scope = BuildScope.find(project);
+		return scope != null ? scope.get(SCOPE_KEY) : null;
+	}
+
+	/**
+	 * @return the index of the project's build, created if no other task uses one; it must be released
+	 * with {@link #close()}
+	 */
+	static ClasspathIndex open(Project project) {
+		BuildScope scope = BuildScope.get(project);
+		synchronized (scope) {
+			ClasspathIndex index = scope.computeIfAbsent(SCOPE_KEY, key -> {
+				ClasspathIndex created = new ClasspathIndex(scope);
+				//the jars are closed even if a task using the index never ends
+				scope.whenFinished(created::closeJars);
+				return created;
+			});
+			index.users++;
+			return index;
+		}
+	}
+
+	/**
+	 * @return the statistics of the index, when it is released by its last user
+	 */
+	String close() {
+		synchronized (scope) {
+			if (--users > 0)
+				return null;
+			scope.remove(SCOPE_KEY);
+		}
+		int count = jars.size();
+		closeJars();
+		return count + " jars indexed, " + opened.get() + " opened for " + lookups.get() + " lookups, " + removed.get() + " classpath entries without class files left out"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	private void closeJars() {
+		for (Iterator<Jar> iterator = jars.values().iterator(); iterator.hasNext();) {
+			iterator.next().close();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Look up the jars of the classpath, and leave out the ones without class files if asked to.
+	 */
+	String apply(String classpath, boolean prune) {
+		List<String> entries = CompilationBatch.splitClasspath(classpath);
+		for (Iterator<String> iterator = entries.iterator(); iterator.hasNext();) {
+			String entry = iterator.next();
+			int rules = entry.indexOf('[');
+			File file = new File(rules == -1 ? entry : entry.substring(0, rules));
+			String name = file.getName().toLowerCase(Locale.ENGLISH);
+			if (!(name.endsWith(".jar") || name.endsWith(".zip")) || !file.isFile()) //$NON-NLS-1$ //$NON-NLS-2$
+				continue;
+			Jar jar = lookup(file);
+			if (prune && jar != null && jar.prunable) {
+				iterator.remove();
+				removed.incrementAndGet();
+			}
+		}
+		return CompilationBatch.joinClasspath(entries);
+	}
+
+	/**
+	 * @return the open jar, <code>null</code> if the file can't be read as a jar
+	 */
+	private Jar lookup(File file) {
+		lookups.incrementAndGet();
+		String path = file.getAbsolutePath();
+		Jar known = jars.get(path);
+		if (known != null && known.isCurrent(file))
+			return known;
+
+		//the jar is read outside of the map, the lookups of the other jars are not held up meanwhile
+		Jar read;
+		try {
+			read = new Jar(file);
+			opened.incrementAndGet();
+		} catch (IOException e) {
+			return null;
+		}
+		Jar[] replaced = new Jar[1];
+		Jar result = jars.compute(path, (key, jar) -> {
+			if (jar != null && jar != known && jar.isCurrent(file))
+				return jar;
+			replaced[0] = jar;
+			return read;
+		});
+		if (result != read)
+			read.close();
+		else if (replaced[0] != null)
+			replaced[0].close();
+		return result;
+	}
+}
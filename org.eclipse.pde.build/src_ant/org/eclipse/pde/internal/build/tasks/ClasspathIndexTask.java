@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.tools.ant.*;
+
+/**
+ * Internal task.
+ * Run the nested tasks with the {@link ClasspathIndex} shared by all the compilations performed with
+ * the {@link BatchCompilerAdapter} of the build, on any thread. The jars of the index are closed when
+ * the last of these tasks ends. The compile scripts generated with <code>sharedClasspathIndex</code> set wrap
+ * their content in this task.
+ */
+public class ClasspathIndexTask extends Task implements TaskContainer {
+	private final List<Task> tasks = new ArrayList<>();
+
+	@Override
+	public void addTask(Task task) {
+		tasks.add(task);
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		ClasspathIndex index = ClasspathIndex.open(getProject());
+		try {
+			for (Task task : tasks)
+				task.perform();
+		} finally {
+			String statistics = index.close();
+			if (statistics != null)
+				log(statistics, Project.MSG_VERBOSE);
+		}
+	}
+}
@@ -0,0 +1,771 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.taskdefs.Javac;
+import org.apache.tools.ant.taskdefs.LogOutputStream;
+import org.apache.tools.ant.taskdefs.compilers.CompilerAdapter;
+import org.apache.tools.ant.taskdefs.compilers.DefaultCompilerAdapter;
+import org.apache.tools.ant.types.Commandline;
+import org.apache.tools.ant.types.Path;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * The compilations of one dependency wave, run by an <code>eclipse.compileBatch</code> task.
+ * <p>
+ * The threads of the wave register with the batch. A javac task running on one of them hands its
+ * compilation unit to the batch. The units are grouped by compilation context: the same classpath
+ * with the same access rules, the same compiler arguments and the same compiler options. The first
+ * unit of a context waits for the others to join it, no longer than the linger time and only while
+ * some thread of the wave may still bring one, then the group is compiled by a single invocation of
+ * the batch compiler on the thread of that unit. The units of the same context arriving meanwhile
+ * form the next group. Each bundle of a group keeps its own output directory through a
+ * <code>[-d dir]</code> source path entry and gets its own log. Units alone in their group are compiled with
+ * the command line the JDT compiler adapter sets up.
+ * </p><p>
+ * The bundles of a wave never depend on each other, the types of one bundle are nonetheless visible
+ * to the others of its group. The class files written by a merged invocation are checked, a bundle
+ * referring to the types of another one of its group is compiled again on its own, against its own
+ * classpath, so that the error is reported. When a merged invocation fails, or does not write the
+ * class files where expected, its units are compiled again one by one so errors and logs are reported
+ * against the right bundle.
+ * </p>
+ */
+public class CompilationBatch {
+	private static final String BATCH_COMPILER = "org.eclipse.jdt.internal.compiler.batch.Main"; //$NON-NLS-1$
+	private static final String ADAPTER_PREFIX = "#ADAPTER#"; //$NON-NLS-1$
+	private static final String LOG_EXTENSION = ".log"; //$NON-NLS-1$
+	private static final String CLASS_EXTENSION = ".class"; //$NON-NLS-1$
+	private static final String SEPARATOR = "----------"; //$NON-NLS-1$
+	private static final Pattern PROBLEM = Pattern.compile("^\\d+\\. (\\w+) in (.+?)(?: \\(at line \\d+\\))?$"); //$NON-NLS-1$
+	//the coarsest modification time resolution of the usual file systems
+	private static final long TIME_RESOLUTION = 2000;
+
+	private static final ThreadLocal<CompilationBatch> current = new ThreadLocal<>();
+
+	//the units waiting for the compilation of their group to start, for each compilation context
+	private final Map<String, List<Unit>> pending = new HashMap<>();
+	private final long linger;
+	private int threads = 0;
+	private int blocked = 0;
+	private volatile boolean merge = true;
+	private int invocations = 0;
+	private int units = 0;
+
+	//the entry point of the batch compiler, for each class of JDT adapter. The adapter class holds
+	//its class loader, the value goes away with it
+	private static final ClassValue<Method> compilers = new ClassValue<Method>() {
+		@Override
+		protected Method computeValue(Class<?> adapter) {
+			try {
+				return Class.forName(BATCH_COMPILER, true, adapter.getClassLoader()).getMethod("compile", String[].class); //$NON-NLS-1$
+			} catch (ReflectiveOperationException e) {
+				throw new BuildException(e);
+			}
+		}
+	};
+
+	/**
+	 * A javac task, with the arguments the JDT compiler adapter sets up for it.
+	 */
+	static class Unit {
+		final Javac javac;
+		final Class<?> adapter;
+		String logFile;
+
+		//the command line and the compiler options of the adapter
+		String[] arguments;
+		Map<?, ?> options;
+		private int classpathArgument = -1;
+
+		//the arguments shared with the other units of a group, and what identifies the group
+		final List<String> common = new ArrayList<>();
+		final List<String> classpath = new ArrayList<>();
+		List<String> shared;
+		String key;
+		File destination;
+		String[] sources;
+		final List<String> files = new ArrayList<>();
+
+		Group group;
+
+		Unit(Javac javac, Class<?> adapter) {
+			this.javac = javac;
+			this.adapter = adapter;
+		}
+
+		/**
+		 * @param adapter the JDT compiler adapter, set up with the javac task
+		 * @return the unit of the given javac task, <code>null</code> if the task uses attributes the
+		 * batch does not handle
+		 */
+		static Unit create(Javac javac, CompilerAdapter adapter) {
+			if (!(adapter instanceof DefaultCompilerAdapter))
+				return null;
+			Unit unit = new Unit(javac, adapter.getClass());
+			try {
+				if (!unit.computeArguments((DefaultCompilerAdapter) adapter))
+					return null;
+			} catch (IOException | ReflectiveOperationException e) {
+				javac.log("Unable to batch the compilation: " + e, Project.MSG_VERBOSE); //$NON-NLS-1$
+				return null;
+			}
+			unit.key = unit.computeKey();
+			return unit;
+		}
+
+		/**
+		 * Get the command line of the batch compiler from the adapter itself, along with the compiler
+		 * options it maps the other attributes of the javac task to, so that a unit compiles exactly
+		 * as the adapter would. The classpath carries the access rules of the compiler settings file.
+		 * @return <code>false</code> if the task uses attributes the batch does not handle
+		 */
+		boolean computeArguments(DefaultCompilerAdapter compilerAdapter) throws IOException, ReflectiveOperationException {
+			destination = javac.getDestdir();
+			if (destination == null || !isEmpty(javac.getSourcepath()) || !isEmpty(javac.getExtdirs()) || !isEmpty(javac.getModulepath()) || !isEmpty(javac.getModulesourcepath()) || !isEmpty(javac.getUpgrademodulepath()))
+				return false;
+
+			Method setup = DefaultCompilerAdapter.class.getDeclaredMethod("setupJavacCommand"); //$NON-NLS-1$
+			setup.setAccessible(true);
+			arguments = ((Commandline) setup.invoke(compilerAdapter)).getArguments();
+			Field field = adapter.getDeclaredField("customDefaultOptions"); //$NON-NLS-1$
+			field.setAccessible(true);
+			options = (Map<?, ?>) field.get(compilerAdapter);
+
+			//the files to compile come last
+			int end = arguments.length - javac.getFileList().length;
+			if (end < 0)
+				return false;
+			for (int i = 0; i < end; i++) {
+				String argument = arguments[i];
+				if (argument.equals("-classpath") || argument.equals("-cp")) { //$NON-NLS-1$ //$NON-NLS-2$
+					if (classpathArgument != -1 || ++i == end)
+						return false;
+					classpathArgument = i;
+				} else if (argument.equals("-sourcepath") || argument.equals("-d")) { //$NON-NLS-1$ //$NON-NLS-2$
+					//the source folders and the destination are taken from the task
+					i++;
+				} else if (argument.equals("-log") && i + 1 < end) { //$NON-NLS-1$
+					logFile = arguments[++i];
+				} else if (argument.startsWith("@")) { //$NON-NLS-1$
+					//the compiler settings, the lines for the adapter are not compiler arguments
+					for (String line : Files.readAllLines(new File(argument.substring(1)).toPath(), StandardCharsets.UTF_8)) {
+						line = line.trim();
+						if (line.length() > 0 && !line.startsWith(ADAPTER_PREFIX))
+							common.addAll(Arrays.asList(line.split("\\s+"))); //$NON-NLS-1$
+					}
+				} else {
+					common.add(argument);
+				}
+			}
+			for (int i = end; i < arguments.length; i++)
+				files.add(arguments[i]);
+
+			if (classpathArgument != -1) {
+				ClasspathIndex index = ClasspathIndex.getCurrent(javac.getProject());
+				if (index != null)
+					arguments[classpathArgument] = index.apply(arguments[classpathArgument], true);
+				classpath.addAll(splitClasspath(arguments[classpathArgument]));
+			}
+
+			String[] sourceList = javac.getSrcdir() != null ? javac.getSrcdir().list() : new String[0];
+			sources = new String[sourceList.length];
+			for (int i = 0; i < sourceList.length; i++)
+				sources[i] = javac.getProject().resolveFile(sourceList[i]).getAbsolutePath();
+			return true;
+		}
+
+		private static boolean isEmpty(Path path) {
+			return path == null || path.size() == 0;
+		}
+
+		/**
+		 * @return the key of the group, <code>null</code> if this unit can't share an invocation
+		 */
+		String computeKey() {
+			if (!isPlain(destination.getAbsolutePath()))
+				return null;
+			if (logFile != null && !logFile.endsWith(LOG_EXTENSION))
+				return null;
+			for (String source : sources) {
+				if (!isPlain(source))
+					return null;
+			}
+			//files with their own encoding
+			for (String file : files) {
+				if (!isPlain(file))
+					return null;
+			}
+			//the sources and the destination of the unit become a source path entry of the merged invocation
+			String[] removed = new String[sources.length + 1];
+			System.arraycopy(sources, 0, removed, 0, sources.length);
+			removed[sources.length] = destination.getAbsolutePath();
+			String sharedClasspath = removeEntries(joinClasspath(classpath), removed);
+			shared = splitClasspath(sharedClasspath);
+
+			StringBuilder result = new StringBuilder();
+			for (String argument : common)
+				result.append(argument).append('\n');
+			if (options != null) {
+				Map<String, String> sorted = new TreeMap<>();
+				for (Map.Entry<?, ?> option : options.entrySet())
+					sorted.put(String.valueOf(option.getKey()), String.valueOf(option.getValue()));
+				result.append(sorted).append('\n');
+			}
+			return result.append(sharedClasspath).toString();
+		}
+
+		static boolean isPlain(String path) {
+			return path.indexOf('[') == -1 && path.indexOf(']') == -1 && path.indexOf(File.pathSeparatorChar) == -1;
+		}
+
+		static String removeEntries(String classpath, String[] removed) {
+			List<String> entries = splitClasspath(classpath);
+			entries.removeAll(Arrays.asList(removed));
+			return joinClasspath(entries);
+		}
+
+		boolean contains(String path) {
+			for (String source : sources) {
+				if (path.startsWith(source + File.separatorChar))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Units compiled together, by the thread of the first one.
+	 */
+	static class Group {
+		final List<Unit> units = new ArrayList<>();
+		final Map<Unit, Object> results = new HashMap<>();
+		//how long the compilation of each unit took, its share of a merged invocation
+		final Map<Unit, Long> times = new HashMap<>();
+		boolean done = false;
+	}
+
+	/**
+	 * @param linger how long, in milliseconds, the first unit of a compilation context waits for
+	 * others to join it
+	 */
+	CompilationBatch(long linger) {
+		this.linger = linger;
+	}
+
+	/**
+	 * @return the batch the current thread is registered with, <code>null</code> if none
+	 */
+	static CompilationBatch getCurrent() {
+		return current.get();
+	}
+
+	/**
+	 * Count one more thread in the wave, before it is started.
+	 */
+	synchronized void register() {
+		threads++;
+	}
+
+	/**
+	 * Batch the compilations of the current thread until {@link #leave()} is called.
+	 */
+	void bind() {
+		current.set(this);
+	}
+
+	void leave() {
+		current.remove();
+		synchronized (this) {
+			threads--;
+			//the units waiting for this thread can proceed
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Compile the given unit with the others of its compilation context. Only the time the unit's own
+	 * compilation took is counted in the timing of its bundle, not the time spent waiting for the others.
+	 * @return whether the compilation succeeded
+	 */
+	boolean compile(Unit unit) throws BuildException {
+		long begin = System.nanoTime();
+		try {
+			return compileInGroup(unit);
+		} finally {
+			Long time = unit.group != null ? unit.group.times.get(unit) : null;
+			BundleTimingTask.adjust((time != null ? time.longValue() : 0) - (System.nanoTime() - begin));
+		}
+	}
+
+	private boolean compileInGroup(Unit unit) throws BuildException {
+		Group group;
+		synchronized (this) {
+			units++;
+			if (unit.key == null || !merge) {
+				group = new Group();
+				group.units.add(unit);
+				unit.group = group;
+			} else {
+				List<Unit> queue = pending.computeIfAbsent(unit.key, key -> new ArrayList<>());
+				queue.add(unit);
+				blocked++;
+				notifyAll();
+				if (queue.size() == 1)
+					gather(unit);
+				while (unit.group == null)
+					await(0);
+				group = unit.group;
+			}
+		}
+
+		if (group.units.get(0) == unit) {
+			try {
+				run(group);
+			} finally {
+				synchronized (this) {
+					//the other units of the group stop waiting
+					blocked -= group.units.size() - 1;
+					group.done = true;
+					notifyAll();
+				}
+			}
+		} else {
+			synchronized (this) {
+				while (!group.done)
+					await(0);
+			}
+		}
+
+		Object result = group.results.get(unit);
+		if (result instanceof BuildException)
+			throw (BuildException) result;
+		return Boolean.TRUE.equals(result);
+	}
+
+	/**
+	 * Wait for the units of the same context as the given one, until the linger time is over or every
+	 * other thread of the wave is waiting too or done, then take them as the group of the given unit.
+	 */
+	private void gather(Unit first) {
+		long deadline = System.nanoTime() + linger * 1000000;
+		for (long remaining = linger; blocked < threads && remaining > 0; remaining = (deadline - System.nanoTime()) / 1000000)
+			await(remaining);
+
+		Group group = new Group();
+		group.units.addAll(pending.remove(first.key));
+		for (Unit unit : group.units)
+			unit.group = group;
+		//the first unit now works for the group
+		blocked--;
+		notifyAll();
+	}
+
+	private void await(long timeout) {
+		try {
+			wait(timeout);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BuildException(e);
+		}
+	}
+
+	/**
+	 * Split a classpath argument into its entries, the entries may end with access rules containing
+	 * path separators.
+	 */
+	static List<String> splitClasspath(String classpath) {
+		List<String> entries = new ArrayList<>();
+		int depth = 0;
+		int start = 0;
+		for (int i = 0; i <= classpath.length(); i++) {
+			char c = i < classpath.length() ? classpath.charAt(i) : File.pathSeparatorChar;
+			if (c == '[')
+				depth++;
+			else if (c == ']')
+				depth--;
+			else if (c == File.pathSeparatorChar && depth == 0) {
+				if (i > start)
+					entries.add(classpath.substring(start, i));
+				start = i + 1;
+			}
+		}
+		return entries;
+	}
+
+	static String joinClasspath(List<String> entries) {
+		StringBuilder result = new StringBuilder();
+		for (String entry : entries) {
+			if (result.length() > 0)
+				result.append(File.pathSeparatorChar);
+			result.append(entry);
+		}
+		return result.toString();
+	}
+
+	private void run(Group group) {
+		try {
+			long begin = System.nanoTime();
+			Set<Unit> separate = group.units.size() > 1 ? compileMerged(group) : new LinkedHashSet<>(group.units);
+			//the merged invocation is shared by the units, even when some have to be compiled again
+			long share = group.units.size() > 1 ? (System.nanoTime() - begin) / group.units.size() : 0;
+			for (Unit unit : group.units)
+				group.times.put(unit, Long.valueOf(share));
+			for (Unit unit : separate) {
+				countInvocation();
+				long start = System.nanoTime();
+				try {
+					group.results.put(unit, Boolean.valueOf(compileAlone(unit)));
+				} finally {
+					group.times.put(unit, Long.valueOf(share + System.nanoTime() - start));
+				}
+			}
+		} catch (BuildException e) {
+			for (Unit unit : group.units) {
+				if (!group.results.containsKey(unit))
+					group.results.put(unit, e);
+			}
+		}
+	}
+
+	private synchronized void countInvocation() {
+		invocations++;
+	}
+
+	/**
+	 * Compile a unit the way the JDT compiler adapter does.
+	 */
+	static boolean compileAlone(Unit unit) {
+		boolean result = invoke(unit, unit.arguments);
+		if (!result && unit.logFile != null)
+			unit.javac.log(NLS.bind(TaskMessages.error_compilationFailed, unit.logFile), Project.MSG_ERR);
+		return result;
+	}
+
+	/**
+	 * Compile all the units of a group in one invocation, each unit writes its class files to its
+	 * own destination.
+	 * @return the units to compile separately, because the invocation failed or they refer to the
+	 * types of another unit of the group
+	 */
+	private Set<Unit> compileMerged(Group group) {
+		Set<Unit> all = new LinkedHashSet<>(group.units);
+		Unit first = group.units.get(0);
+		List<String> arguments = new ArrayList<>(first.common);
+		if (!first.shared.isEmpty()) {
+			arguments.add("-classpath"); //$NON-NLS-1$
+			arguments.add(joinClasspath(first.shared));
+		}
+		StringBuilder sourcepath = new StringBuilder();
+		for (Unit unit : group.units) {
+			for (String source : unit.sources) {
+				if (sourcepath.length() > 0)
+					sourcepath.append(File.pathSeparatorChar);
+				sourcepath.append(source).append("[-d ").append(unit.destination.getAbsolutePath()).append(']'); //$NON-NLS-1$
+			}
+		}
+		arguments.add("-sourcepath"); //$NON-NLS-1$
+		arguments.add(sourcepath.toString());
+		arguments.add("-d"); //$NON-NLS-1$
+		arguments.add("none"); //$NON-NLS-1$
+
+		File log = null;
+		try {
+			if (first.logFile != null) {
+				log = File.createTempFile("compileBatch", LOG_EXTENSION); //$NON-NLS-1$
+				arguments.add("-log"); //$NON-NLS-1$
+				arguments.add(log.getAbsolutePath());
+			}
+			for (Unit unit : group.units)
+				arguments.addAll(unit.files);
+
+			//the class files written by this invocation are the ones modified since, older ones may be left from a previous build
+			long stamp = System.currentTimeMillis() / TIME_RESOLUTION * TIME_RESOLUTION;
+			countInvocation();
+			boolean result = invoke(first, arguments.toArray(new String[arguments.size()]));
+
+			Map<Unit, Map<String, File>> written = new HashMap<>();
+			int writing = 0;
+			for (Unit unit : group.units) {
+				Map<String, File> classes = new HashMap<>();
+				findClassFiles(unit.destination, "", stamp, classes); //$NON-NLS-1$
+				written.put(unit, classes);
+				if (unit.files.isEmpty() || !classes.isEmpty())
+					writing++;
+			}
+
+			Set<Unit> separate;
+			if (!result) {
+				first.javac.log("The merged compilation of " + group.units.size() + " bundles failed, compiling them separately.", Project.MSG_VERBOSE); //$NON-NLS-1$ //$NON-NLS-2$
+				separate = all;
+			} else if (writing < group.units.size()) {
+				//the per source destinations were not honoured, stop merging
+				if (writing == 0)
+					merge = false;
+				first.javac.log("The merged compilation did not write the class files of every bundle, compiling them separately.", Project.MSG_VERBOSE); //$NON-NLS-1$
+				separate = all;
+			} else {
+				separate = findCrossReferences(group, written);
+				if (!separate.isEmpty())
+					first.javac.log(separate.size() + " bundles of the merged compilation refer to the types of another one, compiling them separately.", Project.MSG_VERBOSE); //$NON-NLS-1$
+				if (log != null)
+					splitLog(log, group, separate);
+				for (Unit unit : group.units) {
+					if (!separate.contains(unit))
+						group.results.put(unit, Boolean.TRUE);
+				}
+			}
+			//a unit failing on its own must not leave the class files of the merged invocation behind
+			for (Unit unit : separate) {
+				for (File classFile : written.get(unit).values())
+					classFile.delete();
+			}
+			return separate;
+		} catch (IOException e) {
+			first.javac.log("Unable to check the merged compilation: " + e.getMessage(), Project.MSG_VERBOSE); //$NON-NLS-1$
+			return all;
+		} finally {
+			if (log != null)
+				log.delete();
+		}
+	}
+
+	/**
+	 * Collect the class files of the directory modified since the given time, by internal type name.
+	 */
+	private static void findClassFiles(File directory, String prefix, long since, Map<String, File> result) {
+		File[] children = directory.listFiles();
+		if (children == null)
+			return;
+		for (File child : children) {
+			String name = child.getName();
+			if (child.isDirectory())
+				findClassFiles(child, prefix + name + '/', since, result);
+			else if (name.endsWith(CLASS_EXTENSION) && child.lastModified() >= since)
+				result.put(prefix + name.substring(0, name.length() - CLASS_EXTENSION.length()), child);
+		}
+	}
+
+	/**
+	 * @return the units whose class files refer to a type written for another unit of the group, they
+	 * would not compile against their own classpath
+	 */
+	private static Set<Unit> findCrossReferences(Group group, Map<Unit, Map<String, File>> written) throws IOException {
+		Set<Unit> result = new LinkedHashSet<>();
+		for (Unit unit : group.units) {
+			Map<String, File> own = written.get(unit);
+			Set<String> others = new HashSet<>();
+			for (Unit other : group.units) {
+				if (other != unit)
+					others.addAll(written.get(other).keySet());
+			}
+			others.removeAll(own.keySet());
+			if (others.isEmpty())
+				continue;
+			for (File classFile : own.values()) {
+				if (refersTo(classFile, others)) {
+					result.add(unit);
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return whether the constant pool of the class file names one of the given types, directly or in
+	 * a descriptor or signature, <code>true</code> if it can't be read
+	 */
+	private static boolean refersTo(File classFile, Set<String> types) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(classFile)))) {
+			if (input.readInt() != 0xCAFEBABE)
+				return true;
+			input.readUnsignedShort();
+			input.readUnsignedShort();
+			int count = input.readUnsignedShort();
+			for (int i = 1; i < count; i++) {
+				int tag = input.readUnsignedByte();
+				switch (tag) {
+					case 1 : //utf8
+						if (namesType(input.readUTF(), types))
+							return true;
+						break;
+					case 3 : //integer
+					case 4 : //float
+					case 9 : //field
+					case 10 : //method
+					case 11 : //interface method
+					case 12 : //name and type
+					case 17 : //dynamic
+					case 18 : //invoke dynamic
+						input.skipBytes(4);
+						break;
+					case 5 : //long
+					case 6 : //double
+						input.skipBytes(8);
+						i++;
+						break;
+					case 7 : //class
+					case 8 : //string
+					case 16 : //method type
+					case 19 : //module
+					case 20 : //package
+						input.skipBytes(2);
+						break;
+					case 15 : //method handle
+						input.skipBytes(3);
+						break;
+					default :
+						return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static boolean namesType(String value, Set<String> types) {
+		if (types.contains(value))
+			return true;
+		for (int start = value.indexOf('L'); start != -1; start = value.indexOf('L', start + 1)) {
+			int end = start + 1;
+			while (end < value.length() && value.charAt(end) != ';' && value.charAt(end) != '<')
+				end++;
+			if (end < value.length() && types.contains(value.substring(start + 1, end)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Write the problems reported for the sources of each unit in the log of the unit, except for
+	 * the units compiled again separately.
+	 */
+	private static void splitLog(File log, Group group, Set<Unit> skipped) throws IOException {
+		Map<Unit, List<String>> problems = new HashMap<>();
+		List<String> lines = Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+		List<String> block = new ArrayList<>();
+		for (String line : lines) {
+			if (line.equals(SEPARATOR)) {
+				addProblem(block, group, problems);
+				block = new ArrayList<>();
+			} else {
+				block.add(line);
+			}
+		}
+		addProblem(block, group, problems);
+
+		for (Unit unit : group.units) {
+			if (unit.logFile == null || skipped.contains(unit))
+				continue;
+			List<String> unitProblems = problems.get(unit);
+			StringBuilder text = new StringBuilder();
+			if (unitProblems != null) {
+				int errors = 0, warnings = 0, infos = 0;
+				for (int i = 0; i < unitProblems.size(); i++) {
+					String problem = unitProblems.get(i);
+					Matcher matcher = PROBLEM.matcher(problem.indexOf('\n') != -1 ? problem.substring(0, problem.indexOf('\n')) : problem);
+					if (matcher.matches()) {
+						if (matcher.group(1).equals("ERROR")) //$NON-NLS-1$
+							errors++;
+						else if (matcher.group(1).equals("WARNING")) //$NON-NLS-1$
+							warnings++;
+						else
+							infos++;
+					}
+					text.append(SEPARATOR).append('\n');
+					text.append(i + 1).append(problem.substring(problem.indexOf('.'))).append('\n');
+				}
+				text.append(SEPARATOR).append('\n');
+				text.append(summary(unitProblems.size(), errors, warnings, infos)).append('\n');
+			}
+			File unitLog = new File(unit.logFile);
+			if (unitLog.getParentFile() != null)
+				unitLog.getParentFile().mkdirs();
+			Files.write(unitLog.toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private static void addProblem(List<String> block, Group group, Map<Unit, List<String>> problems) {
+		if (block.isEmpty())
+			return;
+		Matcher matcher = PROBLEM.matcher(block.get(0));
+		if (!matcher.matches())
+			return;
+		for (Unit unit : group.units) {
+			if (unit.contains(matcher.group(2))) {
+				StringBuilder problem = new StringBuilder();
+				for (String line : block)
+					problem.append(line).append('\n');
+				problem.setLength(problem.length() - 1);
+				problems.computeIfAbsent(unit, u -> new ArrayList<>()).add(problem.toString());
+				return;
+			}
+		}
+	}
+
+	private static String summary(int count, int errors, int warnings, int infos) {
+		StringBuilder result = new StringBuilder();
+		result.append(count).append(count == 1 ? " problem (" : " problems ("); //$NON-NLS-1$ //$NON-NLS-2$
+		String separator = ""; //$NON-NLS-1$
+		if (errors > 0) {
+			result.append(errors).append(errors == 1 ? " error" : " errors"); //$NON-NLS-1$ //$NON-NLS-2$
+			separator = ", "; //$NON-NLS-1$
+		}
+		if (warnings > 0) {
+			result.append(separator).append(warnings).append(warnings == 1 ? " warning" : " warnings"); //$NON-NLS-1$ //$NON-NLS-2$
+			separator = ", "; //$NON-NLS-1$
+		}
+		if (infos > 0)
+			result.append(separator).append(infos).append(infos == 1 ? " info" : " infos"); //$NON-NLS-1$ //$NON-NLS-2$
+		return result.append(')').toString();
+	}
+
+	/**
+	 * Run the batch compiler through its public API with the compiler options of the unit, its entry
+	 * point is looked up once. The output of the compiler goes to the log of the javac task.
+	 */
+	private static boolean invoke(Unit unit, String[] arguments) {
+		PrintWriter out = new PrintWriter(new LogOutputStream(unit.javac, Project.MSG_INFO));
+		PrintWriter err = new PrintWriter(new LogOutputStream(unit.javac, Project.MSG_WARN));
+		try {
+			Method compile = compilers.get(unit.adapter);
+			Constructor<?> constructor = compile.getDeclaringClass().getConstructor(PrintWriter.class, PrintWriter.class, Boolean.TYPE, Map.class);
+			Object compiler = constructor.newInstance(out, err, Boolean.FALSE, unit.options);
+			return ((Boolean) compile.invoke(compiler, new Object[] {arguments})).booleanValue();
+		} catch (InvocationTargetException e) {
+			throw new BuildException(e.getTargetException());
+		} catch (ReflectiveOperationException e) {
+			throw new BuildException(e);
+		} finally {
+			out.close();
+			err.close();
+		}
+	}
+
+	/**
+	 * @return how many units were compiled, and in how many compiler invocations
+	 */
+	synchronized String getStatistics() {
+		return units + " compilations in " + invocations + " compiler invocations"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.tools.ant.*;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Internal task.
+ * Run the nested tasks in parallel, like the &lt;parallel&gt; task, and batch the compilations they
+ * perform with the {@link BatchCompilerAdapter}. The compile scripts generated with
+ * <code>batchCompilation</code> set wrap each dependency wave in this task.
+ */
+public class CompileBatchTask extends Task implements TaskContainer {
+	private final List<Task> tasks = new ArrayList<>();
+	private int threadCount = 0;
+	private int threadsPerProcessor = 0;
+	private long linger = 200;
+	private int next = 0;
+
+	/**
+	 * The maximum number of nested tasks run at the same time, the number of processors by default.
+	 */
+	public void setThreadCount(int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	/**
+	 * The maximum number of nested tasks run at the same time for each processor, it takes
+	 * precedence over the thread count.
+	 */
+	public void setThreadsPerProcessor(int threadsPerProcessor) {
+		this.threadsPerProcessor = threadsPerProcessor;
+	}
+
+	/**
+	 * How long, in milliseconds, a compilation waits for others using the same classpath and arguments
+	 * to be merged with, 200 by default.
+	 */
+	public void setLinger(long linger) {
+		this.linger = linger;
+	}
+
+	@Override
+	public void addTask(Task task) {
+		tasks.add(task);
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		final CompilationBatch batch = new CompilationBatch(linger);
+		next = 0;
+		final List<BuildException> failures = new ArrayList<>();
+
+		int count = Runtime.getRuntime().availableProcessors();
+		if (threadsPerProcessor > 0)
+			count *= threadsPerProcessor;
+		else if (threadCount > 0)
+			count = threadCount;
+		Thread[] threads = new Thread[Math.max(1, Math.min(count, tasks.size()))];
+
+		for (int i = 0; i < threads.length; i++) {
+			//register before starting, a compilation must not be run before all the threads are known
+			batch.register();
+			threads[i] = new Thread(() -> {
+				batch.bind();
+				try {
+					for (Task task = nextTask(); task != null; task = nextTask()) {
+						try {
+							task.perform();
+						} catch (BuildException e) {
+							synchronized (failures) {
+								failures.add(e);
+							}
+						} catch (RuntimeException e) {
+							synchronized (failures) {
+								failures.add(new BuildException(e));
+							}
+						}
+					}
+				} finally {
+					batch.leave();
+				}
+			}, getTaskName() + ' ' + i);
+			threads[i].start();
+		}
+
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new BuildException(e);
+			}
+		}
+		log(batch.getStatistics(), Project.MSG_VERBOSE);
+
+		if (failures.size() == 1)
+			throw failures.get(0);
+		if (failures.size() > 1) {
+			StringBuilder message = new StringBuilder();
+			message.append(NLS.bind(TaskMessages.error_tasksFailed, String.valueOf(failures.size())));
+			for (BuildException failure : failures)
+				message.append('\n').append(failure.getMessage());
+			throw new BuildException(message.toString(), failures.get(0), getLocation());
+		}
+	}
+
+	private synchronized Task nextTask() {
+		return next < tasks.size() ? tasks.get(next++) : null;
+	}
+}
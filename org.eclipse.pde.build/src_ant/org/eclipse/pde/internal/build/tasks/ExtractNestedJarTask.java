@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.tools.ant.*;
+
+/**
+ * Internal task.
+ * Extract a nested jar, or a folder, of a jarred bundle to the extraction cache of the build. The
+ * checksum and size of the extracted files are recorded next to them, the files whose entry still has
+ * the same checksum and size are left as they are, and the files whose entry is no longer in the bundle
+ * are deleted. Concurrent extractions of the same entry wait for each other, so this task can be run by
+ * every plug-in compiling against the entry, and in parallel.
+ */
+public class ExtractNestedJarTask extends Task {
+	//the records of the extracted files, in the extraction folder
+	static final String RECORDS = ".extracted"; //$NON-NLS-1$
+	private static final String RECORD_EXTENSION = ".properties"; //$NON-NLS-1$
+
+	private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+	private File jar;
+	private String entry;
+	private File toDir;
+
+	/**
+	 * The jarred bundle.
+	 */
+	public void setJar(File jar) {
+		this.jar = jar;
+	}
+
+	/**
+	 * The path of the nested jar or folder in the bundle.
+	 */
+	public void setEntry(String entry) {
+		this.entry = entry;
+	}
+
+	/**
+	 * The folder to extract the entry to, the path of the entry is kept.
+	 */
+	public void setTodir(File toDir) {
+		this.toDir = toDir;
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		if (jar == null || entry == null || toDir == null)
+			throw new BuildException("jar, entry and todir must be set.", getLocation()); //$NON-NLS-1$
+		if (!jar.isFile())
+			throw new BuildException("src '" + jar + "' doesn't exist.", getLocation()); //$NON-NLS-1$ //$NON-NLS-2$
+
+		String name = entry.replace('\\', '/');
+		while (name.startsWith("/")) //$NON-NLS-1$
+			name = name.substring(1);
+		if (name.endsWith("/")) //$NON-NLS-1$
+			name = name.substring(0, name.length() - 1);
+
+		Object lock = locks.computeIfAbsent(new File(toDir, name).getAbsolutePath(), key -> new Object());
+		synchronized (lock) {
+			File recordFile = new File(toDir, RECORDS + '/' + name + RECORD_EXTENSION);
+			try (ZipFile zip = new ZipFile(jar)) {
+				Properties previous = readRecord(recordFile);
+				Properties record = new Properties();
+				int extracted = 0;
+				int current = 0;
+				for (ZipEntry zipEntry : getEntries(zip, name)) {
+					String stamp = Long.toHexString(zipEntry.getCrc()) + ':' + zipEntry.getSize();
+					record.setProperty(zipEntry.getName(), stamp);
+					File target = new File(toDir, zipEntry.getName());
+					if (stamp.equals(previous.getProperty(zipEntry.getName())) && target.isFile() && target.length() == zipEntry.getSize())
+						current++;
+					else {
+						extract(zip, zipEntry, target);
+						extracted++;
+					}
+				}
+				int removed = 0;
+				for (String previousName : previous.stringPropertyNames()) {
+					if (!record.containsKey(previousName) && new File(toDir, previousName).delete())
+						removed++;
+				}
+				if (extracted > 0 || removed > 0 || !record.equals(previous))
+					writeRecord(recordFile, record);
+
+				if (extracted + current == 0)
+					log(jar + " has no entry " + entry, Project.MSG_VERBOSE); //$NON-NLS-1$
+				else
+					log("Extracted " + extracted + " files of " + jar + '!' + entry + ", " + current + " up to date, " + removed + " removed", Project.MSG_VERBOSE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			} catch (IOException e) {
+				throw new BuildException("Error while extracting " + entry + " from " + jar, e, getLocation()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+	}
+
+	private Properties readRecord(File recordFile) throws IOException {
+		Properties record = new Properties();
+		if (recordFile.isFile()) {
+			try (InputStream input = new FileInputStream(recordFile)) {
+				record.load(input);
+			}
+		}
+		return record;
+	}
+
+	/*
+	 * The record is replaced as a whole, a build interrupted while extracting finds the previous one
+	 */
+	private void writeRecord(File recordFile, Properties record) throws IOException {
+		recordFile.getParentFile().mkdirs();
+		File temp = File.createTempFile(recordFile.getName(), ".tmp", recordFile.getParentFile()); //$NON-NLS-1$
+		try {
+			try (OutputStream output = new FileOutputStream(temp)) {
+				record.store(output, null);
+			}
+			move(temp, recordFile);
+		} finally {
+			temp.delete();
+		}
+	}
+
+	/*
+	 * The entry itself when it is a file, its content when it is a folder
+	 */
+	private List<ZipEntry> getEntries(ZipFile zip, String name) {
+		ZipEntry file = zip.getEntry(name);
+		if (file != null && !file.isDirectory())
+			return Collections.singletonList(file);
+
+		List<ZipEntry> result = new ArrayList<>();
+		String prefix = name + '/';
+		for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements();) {
+			ZipEntry zipEntry = entries.nextElement();
+			if (!zipEntry.isDirectory() && zipEntry.getName().startsWith(prefix))
+				result.add(zipEntry);
+		}
+		return result;
+	}
+
+	/*
+	 * Extract to a temporary file first, a build running next to this one never sees a partial file
+	 */
+	private void extract(ZipFile zip, ZipEntry zipEntry, File target) throws IOException {
+		File parent = target.getParentFile();
+		if (!target.getCanonicalPath().startsWith(toDir.getCanonicalPath() + File.separator))
+			throw new IOException(zipEntry.getName() + " is outside of " + toDir); //$NON-NLS-1$
+		parent.mkdirs();
+		File temp = File.createTempFile(target.getName(), ".tmp", parent); //$NON-NLS-1$
+		try {
+			try (InputStream input = zip.getInputStream(zipEntry)) {
+				Files.copy(input, temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp.setLastModified(zipEntry.getTime());
+			move(temp, target);
+		} finally {
+			temp.delete();
+		}
+	}
+
+	private static void move(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
@@ -102,7 +102,8 @@ public class FetchTask extends Task {
 
 	@Override
 	public void execute() throws BuildException {
-		try {
+		BuildMetrics metrics = TaskHelper.startMetrics(this);
+		try (BuildMetrics.Phase phase = BuildMetrics.phase("fetch")) { //$NON-NLS-1$
 			BundleHelper.getDefault().setLog(this);
 
 			String fetchCache = getProject().getProperty(IBuildPropertiesConstants.PROPERTY_FETCH_CACHE);
@@ -113,6 +114,8 @@ public class FetchTask extends Task {
 			BundleHelper.getDefault().setLog(null);
 		} catch (CoreException e) {
 			throw new BuildException(TaskHelper.statusToString(e.getStatus(), null).toString());
+		} finally {
+			TaskHelper.endMetrics(this, metrics);
 		}
 	}
 
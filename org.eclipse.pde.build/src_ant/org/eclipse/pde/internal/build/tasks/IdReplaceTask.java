@@ -14,7 +14,6 @@
 package org.eclipse.pde.internal.build.tasks;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
@@ -126,9 +125,9 @@ public class IdReplaceTask extends Task {
 
 	@Override
 	public void execute() {
-		StringBuffer buffer = null;
+		TextRewriter text = null;
 		try {
-			buffer = readFile(new File(filePath));
+			text = new TextRewriter(new File(filePath));
 		} catch (IOException e) {
 			throw new BuildException(e);
 		}
@@ -136,25 +135,25 @@ public class IdReplaceTask extends Task {
 		String mainStartTag = isProduct ? PRODUCT_START_TAG : FEATURE_START_TAG;
 
 		//Skip feature declaration because it contains the word "plugin"
-		int startComment = scan(buffer, 0, COMMENT_START_TAG);
-		int endComment = startComment > -1 ? scan(buffer, startComment, COMMENT_END_TAG) : -1;
-		int startFeature = scan(buffer, 0, mainStartTag, true);
+		int startComment = text.scan(0, COMMENT_START_TAG);
+		int endComment = startComment > -1 ? text.scan(startComment, COMMENT_END_TAG) : -1;
+		int startFeature = text.scan(0, mainStartTag, true);
 
 		while (startComment != -1 && startFeature > startComment && startFeature < endComment) {
-			startFeature = scan(buffer, endComment, mainStartTag, true);
-			startComment = scan(buffer, endComment, COMMENT_START_TAG);
-			endComment = startComment > -1 ? scan(buffer, startComment, COMMENT_END_TAG) : -1;
+			startFeature = text.scan(endComment, mainStartTag, true);
+			startComment = text.scan(endComment, COMMENT_START_TAG);
+			endComment = startComment > -1 ? text.scan(startComment, COMMENT_END_TAG) : -1;
 		}
 
 		if (startFeature == -1)
 			return;
 
-		int endFeature = scan(buffer, startFeature, ">"); //$NON-NLS-1$
+		int endFeature = text.scan(startFeature, ">"); //$NON-NLS-1$
 
 		if (selfVersion != null) {
 			boolean versionFound = false;
 			while (!versionFound) {
-				int startVersionWord = scan(buffer, startFeature, VERSION);
+				int startVersionWord = text.scan(startFeature, VERSION);
 				if (startVersionWord == -1 || startVersionWord > endFeature) {
 					if (!isProduct)
 						return;
@@ -162,17 +161,17 @@ public class IdReplaceTask extends Task {
 					if (selfVersion == null || selfVersion.equals(GENERIC_VERSION_NUMBER))
 						break;
 
-					buffer.insert(endFeature, INSERT_VERSION);
-					startVersionWord = endFeature + 1;
-					endFeature += INSERT_VERSION.length();
+					text.insert(endFeature, createVersionAttribute(selfVersion));
+					contentChanged = true;
+					break;
 				}
-				if (!Character.isWhitespace(buffer.charAt(startVersionWord - 1))) {
+				if (!Character.isWhitespace(text.charAt(startVersionWord - 1))) {
 					startFeature = startVersionWord + VERSION.length();
 					continue;
 				}
 				//Verify that the word version found is the actual attribute
 				int endVersionWord = startVersionWord + VERSION.length();
-				while (Character.isWhitespace(buffer.charAt(endVersionWord)) && endVersionWord < endFeature) {
+				while (Character.isWhitespace(text.charAt(endVersionWord)) && endVersionWord < endFeature) {
 					endVersionWord++;
 				}
 				if (endVersionWord > endFeature) { //version has not been found
@@ -180,31 +179,31 @@ public class IdReplaceTask extends Task {
 					return;
 				}
 
-				if (buffer.charAt(endVersionWord) != '=') {
+				if (text.charAt(endVersionWord) != '=') {
 					startFeature = endVersionWord;
 					continue;
 				}
 
-				int startVersionId = scan(buffer, startVersionWord + 1, BACKSLASH);
-				int endVersionId = scan(buffer, startVersionId + 1, BACKSLASH);
-				buffer.replace(startVersionId + 1, endVersionId, selfVersion);
-				endFeature = endFeature + (selfVersion.length() - (endVersionId - startVersionId));
+				int startVersionId = text.scan(startVersionWord + 1, BACKSLASH);
+				int endVersionId = text.scan(startVersionId + 1, BACKSLASH);
+				text.replace(startVersionId + 1, endVersionId, selfVersion);
 				contentChanged = true;
 				versionFound = true;
 			}
 		}
 
+		//All the offsets below are in the original text, edits are applied when the file is written
 		int startElement = endFeature;
 		int startId = 0;
 		while (true) {
-			int startPlugin = scan(buffer, startElement + 1, PLUGIN_START_TAG, true);
-			int startInclude = scan(buffer, startElement + 1, isProduct ? FEATURE_START_TAG : INCLUDES_START_TAG, true);
+			int startPlugin = text.scan(startElement + 1, PLUGIN_START_TAG, true);
+			int startInclude = text.scan(startElement + 1, isProduct ? FEATURE_START_TAG : INCLUDES_START_TAG, true);
 
 			if (startPlugin == -1 && startInclude == -1)
 				break;
 
-			startComment = scan(buffer, startElement + 1, COMMENT_START_TAG);
-			endComment = startComment > -1 ? scan(buffer, startComment, COMMENT_END_TAG) : -1;
+			startComment = text.scan(startElement + 1, COMMENT_START_TAG);
+			endComment = startComment > -1 ? text.scan(startComment, COMMENT_END_TAG) : -1;
 
 			int foundElement = -1;
 			boolean isPlugin = false;
@@ -231,29 +230,29 @@ public class IdReplaceTask extends Task {
 			int endElement, startElementId = -1, endElementId = -1;
 			int startVersionWord = -1, startVersionId = -1, endVersionId = -1;
 
-			endElement = scan(buffer, foundElement, ">"); //$NON-NLS-1$
-			startId = scan(buffer, foundElement, ID);
-			startVersionWord = scan(buffer, foundElement, VERSION);
+			endElement = text.scan(foundElement, ">"); //$NON-NLS-1$
+			startId = text.scan(foundElement, ID);
+			startVersionWord = text.scan(foundElement, VERSION);
 
 			// Which comes first, version or id.
 			if (startId < startVersionWord || startVersionWord == -1) {
-				startElementId = scan(buffer, startId + 1, BACKSLASH);
-				endElementId = scan(buffer, startElementId + 1, BACKSLASH);
+				startElementId = text.scan(startId + 1, BACKSLASH);
+				endElementId = text.scan(startElementId + 1, BACKSLASH);
 
 				// search for version again since the id could have "version" in it.
-				startVersionWord = scan(buffer, endElementId + 1, VERSION);
+				startVersionWord = text.scan(endElementId + 1, VERSION);
 				if (startVersionWord > 0) {
-					startVersionId = scan(buffer, startVersionWord + 1, BACKSLASH);
-					endVersionId = scan(buffer, startVersionId + 1, BACKSLASH);
+					startVersionId = text.scan(startVersionWord + 1, BACKSLASH);
+					endVersionId = text.scan(startVersionId + 1, BACKSLASH);
 				}
 			} else if (startVersionWord > 0) {
-				startVersionId = scan(buffer, startVersionWord + 1, BACKSLASH);
-				endVersionId = scan(buffer, startVersionId + 1, BACKSLASH);
+				startVersionId = text.scan(startVersionWord + 1, BACKSLASH);
+				endVersionId = text.scan(startVersionId + 1, BACKSLASH);
 
 				// search for id again since the version qualifier could contain "id"
-				startId = scan(buffer, endVersionId + 1, ID);
-				startElementId = scan(buffer, startId + 1, BACKSLASH);
-				endElementId = scan(buffer, startElementId + 1, BACKSLASH);
+				startId = text.scan(endVersionId + 1, ID);
+				startElementId = text.scan(startId + 1, BACKSLASH);
+				endElementId = text.scan(startElementId + 1, BACKSLASH);
 			}
 
 			if (startVersionId > endElement)
@@ -262,24 +261,15 @@ public class IdReplaceTask extends Task {
 			if (startId == -1 || (!isProduct && startVersionId == -1))
 				break;
 
-			String version = null;
-			if (startVersionId == -1) {
-				buffer.insert(endElement - 1, INSERT_VERSION);
-				startVersionId = endElement + 8;
-				endVersionId = startVersionId + 6;
-				endElement += 13;
-				version = GENERIC_VERSION_NUMBER;
-			} else {
-				version = buffer.substring(startVersionId + 1, endVersionId);
-			}
-			String elementId = buffer.substring(startElementId + 1, endElementId);
+			boolean insertVersion = startVersionId == -1;
+			String version = insertVersion ? GENERIC_VERSION_NUMBER : text.substring(startVersionId + 1, endVersionId);
+			String elementId = text.substring(startElementId + 1, endElementId);
 
 			if (!version.equals(GENERIC_VERSION_NUMBER) && !version.endsWith(QUALIFIER)) {
 				startElement = endElement;
 				continue;
 			}
 
-			startVersionId++;
 			String replacementVersion = null;
 			Version v = new Version(version);
 			String lookupKey = elementId + ':' + v.getMajor() + '.' + v.getMinor() + '.' + v.getMicro();
@@ -288,22 +278,27 @@ public class IdReplaceTask extends Task {
 			} else {
 				replacementVersion = featureIds.get(lookupKey);
 			}
-			int change = 0;
-			if (replacementVersion == null) {
+			if (replacementVersion == null)
 				System.err.println("Could not find " + elementId); //$NON-NLS-1$
+
+			if (insertVersion) {
+				//the generic version is inserted even if there is no replacement, but that alone is not a change 
+				text.insert(endElement - 1, replacementVersion == null ? INSERT_VERSION : createVersionAttribute(replacementVersion));
+				startElement = endElement - 2;
 			} else {
-				buffer.replace(startVersionId, endVersionId, replacementVersion);
-				contentChanged = true;
-				change = endVersionId - startVersionId - replacementVersion.length();
+				if (replacementVersion != null)
+					text.replace(startVersionId + 1, endVersionId, replacementVersion);
+				startElement = (endElementId > endVersionId) ? endElementId : endVersionId;
 			}
-			startElement = (endElementId > endVersionId) ? endElementId - change : endVersionId - change;
+			if (replacementVersion != null)
+				contentChanged = true;
 		}
 
 		if (!contentChanged)
 			return;
 
-		try (OutputStreamWriter w = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(filePath)), StandardCharsets.UTF_8)) {
-			w.write(buffer.toString());
+		try {
+			text.write(new File(filePath));
 		} catch (FileNotFoundException e) {
 			// ignore
 		} catch (IOException e) {
@@ -311,47 +306,7 @@ public class IdReplaceTask extends Task {
 		}
 	}
 
-	private int scan(StringBuffer buf, int start, String targetName) {
-		return scan(buf, start, new String[] {targetName}, false);
-	}
-
-	private int scan(StringBuffer buf, int start, String targetName, boolean wholeWord) {
-		return scan(buf, start, new String[] {targetName}, wholeWord);
-	}
-
-	private int scan(StringBuffer buf, int start, String[] targets, boolean wholeWord) {
-		for (int i = start; i < buf.length(); i++) {
-			for (String candidate : targets) {
-				if (i < buf.length() - candidate.length()) {
-					String match = buf.substring(i, i + candidate.length());
-					if (candidate.equalsIgnoreCase(match)) {
-						if (!wholeWord || Character.isWhitespace(buf.charAt(i + candidate.length())))
-							return i;
-					}
-				}
-			}
-		}
-		return -1;
-	}
-
-	private StringBuffer readFile(File targetName) throws IOException {
-		InputStreamReader reader = new InputStreamReader(new BufferedInputStream(new FileInputStream(targetName)), StandardCharsets.UTF_8);
-		StringBuffer result = new StringBuffer();
-		char[] buf = new char[4096];
-		int count;
-		try {
-			count = reader.read(buf, 0, buf.length);
-			while (count != -1) {
-				result.append(buf, 0, count);
-				count = reader.read(buf, 0, buf.length);
-			}
-		} finally {
-			try {
-				reader.close();
-			} catch (IOException e) {
-				// ignore exceptions here
-			}
-		}
-		return result;
+	private String createVersionAttribute(String version) {
+		return ' ' + VERSION + "=\"" + version + "\" "; //$NON-NLS-1$ //$NON-NLS-2$
 	}
 }
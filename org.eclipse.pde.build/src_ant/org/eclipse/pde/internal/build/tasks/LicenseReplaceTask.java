@@ -16,14 +16,15 @@ package org.eclipse.pde.internal.build.tasks;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.Enumeration;
-import java.util.Properties;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
-import org.apache.tools.ant.types.FileSet;
-import org.apache.tools.ant.types.PatternSet.NameEntry;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.pde.build.Constants;
+import org.eclipse.pde.internal.build.Utils;
 
 /** 
  * Internal task.
@@ -34,10 +35,16 @@ public class LicenseReplaceTask extends Task {
 	// Path of the file where we are replacing the values
 	private String filePath;
 
+	// Paths of the features processed in a batch
+	private String filePaths;
+
 	// Path to license text
 	private String licensePath;
 
-	private class Feature {
+	// Property telling that the license is replaced by another invocation
+	private String unless;
+
+	private static class Feature {
 		private static final String FEATURE_START_TAG = "<feature";//$NON-NLS-1$
 		private static final String LICENSE_START_TAG = "<license"; //$NON-NLS-1$;
 		private static final String LICENSE_END_TAG = "</license>"; //$NON-NLS-1$;
@@ -49,7 +56,8 @@ public class LicenseReplaceTask extends Task {
 		private final String featureFilePath;
 		private String urlText;
 		private String license;
-		private StringBuffer buffer;
+		private TextRewriter buffer;
+		private int startLicense = -1;
 		private int startLicenseText = -1;
 		private int endLicenseText = -1;
 		private int startURLText = -1;
@@ -123,25 +131,21 @@ public class LicenseReplaceTask extends Task {
 				}
 			}
 
-			int start = buffer.indexOf("license-feature="); //$NON-NLS-1$
-			if (start != -1) {
-				int end = buffer.indexOf("\"", start); //$NON-NLS-1$
-				if (end < buffer.length()) {
-					end = buffer.indexOf("\"", end + 1); //$NON-NLS-1$
-					if (end != -1) {
-						buffer.replace(start, end + 1, ""); //$NON-NLS-1$
-					}
-				}
-			}
+			// The license feature attributes are only found in the feature header
+			removeAttribute("license-feature="); //$NON-NLS-1$
+			removeAttribute("license-feature-version="); //$NON-NLS-1$
+		}
 
-			start = buffer.indexOf("license-feature-version="); //$NON-NLS-1$
-			if (start != -1) {
-				int end = buffer.indexOf("\"", start); //$NON-NLS-1$
-				if (end < buffer.length()) {
-					end = buffer.indexOf("\"", end + 1); //$NON-NLS-1$
-					if (end != -1) {
-						buffer.replace(start, end + 1, ""); //$NON-NLS-1$
-					}
+		private void removeAttribute(String attribute) {
+			String text = buffer.getText();
+			int start = text.indexOf(attribute);
+			if (start == -1 || start > startLicense)
+				return;
+			int end = text.indexOf('"', start);
+			if (end != -1) {
+				end = text.indexOf('"', end + 1);
+				if (end != -1) {
+					buffer.replace(start, end + 1, ""); //$NON-NLS-1$
 				}
 			}
 		}
@@ -150,8 +154,8 @@ public class LicenseReplaceTask extends Task {
 			if (!contentChanged)
 				return;
 
-			try (OutputStreamWriter w = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(featureFilePath)), StandardCharsets.UTF_8)) {
-				w.write(buffer.toString());
+			try {
+				buffer.write(new File(featureFilePath));
 			} catch (FileNotFoundException e) {
 				// ignore
 			} catch (IOException e) {
@@ -168,7 +172,7 @@ public class LicenseReplaceTask extends Task {
 		private void parse() {
 			buffer = null;
 			try {
-				buffer = readFile(new File(featureFilePath));
+				buffer = new TextRewriter(new File(featureFilePath));
 			} catch (IOException e) {
 				throw new BuildException(e);
 			}
@@ -180,22 +184,23 @@ public class LicenseReplaceTask extends Task {
 			int endFeature = scan(buffer, startFeature, ">"); //$NON-NLS-1$
 			insertionPoint = endFeature + 1;
 
-			int startLicense = scanNoComment(buffer, 0, LICENSE_START_TAG, false);
+			startLicense = scanNoComment(buffer, 0, LICENSE_START_TAG, false);
 			if (startLicense == -1)
 				return;
 
 			int endLicense = scan(buffer, startLicense, ">"); //$NON-NLS-1$
 
+			int startAttribute = startLicense;
 			boolean urlFound = false;
 			while (!urlFound) {
-				startURLWord = scan(buffer, startLicense, URL_ATTR);
+				startURLWord = scan(buffer, startAttribute, URL_ATTR);
 				if (startURLWord == -1 || startURLWord > endLicense) {
-					startURLText = startLicense + LICENSE_START_TAG.length();
+					startURLText = startAttribute + LICENSE_START_TAG.length();
 					endURLText = startURLText;
 				} else {
 
 					if (!Character.isWhitespace(buffer.charAt(startURLWord - 1))) {
-						startLicense = startURLWord + URL_ATTR.length();
+						startAttribute = startURLWord + URL_ATTR.length();
 						continue;
 					}
 
@@ -210,7 +215,7 @@ public class LicenseReplaceTask extends Task {
 					}
 
 					if (buffer.charAt(endURLWord) != '=') {
-						startLicense = endURLWord;
+						startAttribute = endURLWord;
 						continue;
 					}
 					startURLText = scan(buffer, startURLWord + 1, DOUBLE_QUOTE);
@@ -224,64 +229,72 @@ public class LicenseReplaceTask extends Task {
 			license = buffer.substring(startLicenseText, endLicenseText);
 		}
 
-		private StringBuffer readFile(File targetName) throws IOException {
-			InputStreamReader reader = new InputStreamReader(new BufferedInputStream(new FileInputStream(targetName)), StandardCharsets.UTF_8);
-			StringBuffer result = new StringBuffer();
-			char[] buf = new char[4096];
-			int count;
-			try {
-				count = reader.read(buf, 0, buf.length);
-				while (count != -1) {
-					result.append(buf, 0, count);
-					count = reader.read(buf, 0, buf.length);
-				}
-			} finally {
-				try {
-					reader.close();
-				} catch (IOException e) {
-					// ignore exceptions here
-				}
-			}
-			return result;
+		private int scan(TextRewriter buf, int start, String targetName) {
+			return buf.scan(start, targetName, false);
 		}
 
-		private int scan(StringBuffer buf, int start, String targetName) {
-			return scan(buf, start, new String[] {targetName}, false);
+		private int scan(TextRewriter buf, int start, String targetName, boolean wholeWord) {
+			return buf.scan(start, targetName, wholeWord);
 		}
 
-		private int scan(StringBuffer buf, int start, String targetName, boolean wholeWord) {
-			return scan(buf, start, new String[] {targetName}, wholeWord);
-		}
+		private int scanNoComment(TextRewriter buf, int start, String thisTarget, boolean wholeWord) {
+			int startComment = scan(buf, start, COMMENT_START_TAG);
+			int endComment = startComment > -1 ? scan(buf, startComment, COMMENT_END_TAG) : -1;
+			int startTarget = scan(buf, start, thisTarget, wholeWord);
 
-		private int scan(StringBuffer buf, int start, String[] targets, boolean wholeWord) {
-			for (int i = start; i < buf.length(); i++) {
-				for (String candidate : targets) {
-					if (i < buf.length() - candidate.length()) {
-						String match = buf.substring(i, i + candidate.length());
-						if (candidate.equalsIgnoreCase(match)) {
-							if (!wholeWord || Character.isWhitespace(buf.charAt(i + candidate.length())))
-								return i;
-						}
-					}
-				}
+			while (startComment != -1 && startTarget > startComment && startTarget < endComment) {
+				startTarget = scan(buf, endComment, thisTarget, wholeWord);
+				startComment = scan(buf, endComment, COMMENT_START_TAG);
+				endComment = startComment > -1 ? scan(buf, startComment, COMMENT_END_TAG) : -1;
 			}
-			return -1;
+			return startTarget;
 		}
+	}
 
-		private int scanNoComment(StringBuffer bug, int start, String thisTarget, boolean wholeWord) {
-			int startComment = scan(buffer, start, COMMENT_START_TAG);
-			int endComment = startComment > -1 ? scan(buffer, startComment, COMMENT_END_TAG) : -1;
-			int startTarget = scan(buffer, start, thisTarget, wholeWord);
-
-			while (startComment != -1 && startTarget > startComment && startTarget < endComment) {
-				startTarget = scan(buffer, endComment, thisTarget, wholeWord);
-				startComment = scan(buffer, endComment, COMMENT_START_TAG);
-				endComment = startComment > -1 ? scan(buffer, startComment, COMMENT_END_TAG) : -1;
+	/**
+	 * The license information read from a license feature. It is shared by all the features
+	 * of the build referring to the same license feature for as long as the content of the
+	 * license feature is not modified.
+	 */
+	private static class License {
+		private final String url;
+		private final String text;
+		// the feature*.properties file names, their content and the keys they define
+		private final String[] propertyFiles;
+		private final String[] propertyContents;
+		private final Properties[] properties;
+		private final byte[] digest;
+
+		License(Feature licenseFeature, File licenseDirectory, String[] propertyFiles, byte[] digest) throws IOException {
+			this.url = licenseFeature.getUrl();
+			this.text = licenseFeature.getLicenseText();
+			this.propertyFiles = propertyFiles;
+			this.propertyContents = new String[propertyFiles.length];
+			this.properties = new Properties[propertyFiles.length];
+			this.digest = digest;
+			for (int i = 0; i < propertyFiles.length; i++) {
+				File propertyFile = new File(licenseDirectory, propertyFiles[i]);
+				try (FileReader reader = new FileReader(propertyFile)) {
+					StringBuilder content = new StringBuilder((int) propertyFile.length());
+					char[] buffer = new char[1024];
+					int bytesRead = reader.read(buffer);
+					while (bytesRead > -1) {
+						content.append(buffer, 0, bytesRead);
+						bytesRead = reader.read(buffer);
+					}
+					propertyContents[i] = content.toString();
+				}
+				try (InputStream is = new BufferedInputStream(new FileInputStream(propertyFile))) {
+					properties[i] = new Properties();
+					properties[i].load(is);
+				}
 			}
-			return startTarget;
 		}
 	}
 
+	// Key of the license features read during the build, by location, in its scope
+	private static final String SCOPE_KEY = LicenseReplaceTask.class.getName();
+
 	/**
 	 * The directory containing the feature 
 	 * @param path
@@ -290,6 +303,14 @@ public class LicenseReplaceTask extends Task {
 		filePath = path;
 	}
 
+	/**
+	 * The directories containing the features to process with the same license feature
+	 * @param paths a list of directories separated by the platform path separator 
+	 */
+	public void setFeatureFilePaths(String paths) {
+		filePaths = paths;
+	}
+
 	/**
 	 * The directory containing the license feature
 	 * @param path
@@ -298,45 +319,53 @@ public class LicenseReplaceTask extends Task {
 		licensePath = path;
 	}
 
+	/**
+	 * The name of a property which, when set, means the license of the features is replaced
+	 * by the batched invocation of a feature including them
+	 * @param property
+	 */
+	public void setUnless(String property) {
+		unless = property;
+	}
+
 	@Override
 	public void execute() {
-		Feature payloadFeature = new Feature(filePath);
-		Feature licenseFeature = new Feature(licensePath);
-
-		// Replace license information in target feature.xml
-		payloadFeature.replace(licenseFeature.getUrl(), licenseFeature.getLicenseText());
-		payloadFeature.write();
-
-		// Append license feature_*.properties files to target feature_*.properties files
-		FileSet fileSet = new FileSet();
-		fileSet.setProject(getProject());
-		fileSet.setDir(new File(licensePath));
-		NameEntry fileInclude = fileSet.createInclude();
-		fileInclude.setName("feature*.properties"); //$NON-NLS-1$
-
-		String[] propertyFiles = fileSet.getDirectoryScanner().getIncludedFiles();
-
-		for (String propertyFile : propertyFiles) {
-			File featurePropertyFile = new File(filePath, propertyFile);
-			File licensePropertyFile = new File(licensePath, propertyFile);
-			FileInputStream fis = null;
-			if (featurePropertyFile.exists()) {
-				try {
-					fis = new FileInputStream(licensePropertyFile);
-					Properties licenseProperties = new Properties();
-					licenseProperties.load(fis);
-					fis.close();
+		if (unless != null && getProject().getProperty(unless) != null)
+			return;
+
+		List<String> targets = new ArrayList<>();
+		if (filePath != null)
+			targets.add(filePath);
+		if (filePaths != null)
+			targets.addAll(Arrays.asList(Utils.getArrayFromString(filePaths, File.pathSeparator)));
+
+		Map<File, License> licenses = BuildScope.get(getProject()).computeIfAbsent(SCOPE_KEY, key -> new HashMap<>());
+		License license = getLicense(licenses, new File(licensePath).toPath().toAbsolutePath().normalize().toFile());
+		for (String target : targets) {
+			// Replace license information in target feature.xml
+			Feature payloadFeature = new Feature(target);
+			payloadFeature.replace(license.url, license.text);
+			payloadFeature.write();
+
+			appendProperties(license, target);
+		}
+	}
 
-					fis = new FileInputStream(featurePropertyFile);
+	/*
+	 * Append license feature_*.properties files to target feature_*.properties files
+	 */
+	private void appendProperties(License license, String target) {
+		for (int i = 0; i < license.propertyFiles.length; i++) {
+			File featurePropertyFile = new File(target, license.propertyFiles[i]);
+			if (featurePropertyFile.exists()) {
+				try (InputStream is = new BufferedInputStream(new FileInputStream(featurePropertyFile))) {
 					Properties featureProperties = new Properties();
-					featureProperties.load(fis);
-					fis.close();
+					featureProperties.load(is);
 
-					Enumeration<Object> licenseKeys = licenseProperties.keys();
-					while (licenseKeys.hasMoreElements()) {
-						String licenseKey = (String) licenseKeys.nextElement();
+					for (Object licenseKey : license.properties[i].keySet()) {
 						if (featureProperties.containsKey(licenseKey)) {
-							throw new BuildException(NLS.bind(TaskMessages.error_conflictingProperties, new String[] {licenseKey, licensePropertyFile.getAbsolutePath(), featurePropertyFile.getAbsolutePath()}));
+							File licensePropertyFile = new File(licensePath, license.propertyFiles[i]);
+							throw new BuildException(NLS.bind(TaskMessages.error_conflictingProperties, new String[] {(String) licenseKey, licensePropertyFile.getAbsolutePath(), featurePropertyFile.getAbsolutePath()}));
 						}
 					}
 				} catch (FileNotFoundException e) {
@@ -347,17 +376,51 @@ public class LicenseReplaceTask extends Task {
 			}
 
 			// Now append (or create) necessary feature_*.properties files
+			try (FileWriter featurePropertyWriter = new FileWriter(featurePropertyFile, true)) {
+				featurePropertyWriter.write(license.propertyContents[i]);
+			} catch (IOException e) {
+				throw new BuildException(e);
+			}
+		}
+	}
 
-			try (FileWriter featurePropertyWriter = new FileWriter(featurePropertyFile, true); FileReader licensePropertyReader = new FileReader(licensePropertyFile)) {
-				char[] buffer = new char[1024];
-				int bytesRead = licensePropertyReader.read(buffer);
-				while (bytesRead > -1) {
-					featurePropertyWriter.write(buffer, 0, bytesRead);
-					bytesRead = licensePropertyReader.read(buffer);
-				}
+	/*
+	 * Return the license read from the given license feature directory, reusing the one read
+	 * by a previous invocation of the build when the content of the license feature is the same.
+	 */
+	private static License getLicense(Map<File, License> licenses, File licenseDirectory) {
+		String[] propertyFiles = licenseDirectory.list((dir, name) -> name.startsWith("feature") && name.endsWith(".properties") && new File(dir, name).isFile()); //$NON-NLS-1$ //$NON-NLS-2$
+		if (propertyFiles == null)
+			propertyFiles = new String[0];
+		Arrays.sort(propertyFiles);
+
+		byte[] digest;
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			md.update(Files.readAllBytes(new File(licenseDirectory, Constants.FEATURE_FILENAME_DESCRIPTOR).toPath()));
+			for (String propertyFile : propertyFiles) {
+				md.update(propertyFile.getBytes(StandardCharsets.UTF_8));
+				md.update((byte) 0);
+				md.update(Files.readAllBytes(new File(licenseDirectory, propertyFile).toPath()));
+			}
+			digest = md.digest();
+		} catch (IOException | NoSuchAlgorithmException e) {
+			throw new BuildException(e);
+		}
+
+		synchronized (licenses) {
+			License license = licenses.get(licenseDirectory);
+			if (license != null && MessageDigest.isEqual(license.digest, digest))
+				return license;
+
+			Feature licenseFeature = new Feature(licenseDirectory.getPath());
+			try {
+				license = new License(licenseFeature, licenseDirectory, propertyFiles, digest);
 			} catch (IOException e) {
 				throw new BuildException(e);
 			}
+			licenses.put(licenseDirectory, license);
+			return license;
 		}
 	}
 }
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import org.apache.tools.ant.*;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Internal task.
+ * Run the nested tasks while holding one of the permits of a named semaphore, shared by the tasks of
+ * the {@link BuildScope} of the build. This is used to limit how many steps of a given kind run at the
+ * same time when scripts are executed from a &lt;parallel&gt; task, for example to cap the number of
+ * archives being written concurrently during the assembly.
+ * <p>
+ * A limit is reentrant: the tasks nested in a limit, including the ones they run on new threads, don't
+ * need another permit of the same name. The limits held are handed to the nested tasks when they start;
+ * the other threads, for example the ones of a pool created while a limit is held, don't hold it.
+ * </p>
+ */
+public class LimitTask extends Task implements TaskContainer {
+	private static final String SCOPE_KEY = LimitTask.class.getName() + '.';
+
+	/*
+	 * The limits held by the current thread
+	 */
+	private static final ThreadLocal<Set<Limit>> held = ThreadLocal.withInitial(Collections::emptySet);
+
+	private final List<Task> tasks = new ArrayList<>();
+	private String name;
+	private String permits;
+
+	private static class Limit {
+		final int permits;
+		final Semaphore semaphore;
+
+		Limit(int permits) {
+			this.permits = permits;
+			this.semaphore = new Semaphore(permits, true);
+		}
+	}
+
+	/**
+	 * The name of the semaphore to acquire. All the tasks of the build using the same name share the
+	 * same permits.
+	 * @param name
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * The number of permits of the semaphore. All the tasks using a given name must give the same
+	 * number. If the value is not a positive number the nested tasks are not limited.
+	 * @param permits
+	 */
+	public void setPermits(String permits) {
+		this.permits = permits;
+	}
+
+	@Override
+	public void addTask(Task task) {
+		tasks.add(task);
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		Limit limit = getLimit();
+		Set<Limit> current = held.get();
+		if (limit == null || current.contains(limit)) {
+			runTasks(current);
+			return;
+		}
+
+		try {
+			limit.semaphore.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BuildException(e);
+		}
+		Set<Limit> holding = new HashSet<>(current);
+		holding.add(limit);
+		holding = Collections.unmodifiableSet(holding);
+		held.set(holding);
+		try {
+			runTasks(holding);
+		} finally {
+			held.set(current);
+			limit.semaphore.release();
+		}
+	}
+
+	/*
+	 * Run the nested tasks, the ones of them started on other threads get the given limits
+	 */
+	private void runTasks(Set<Limit> holding) {
+		NestedTasks nested = holding.isEmpty() ? null : new NestedTasks(tasks, holding);
+		if (nested != null)
+			getProject().addBuildListener(nested);
+		try {
+			for (Task task : tasks) {
+				task.perform();
+			}
+		} finally {
+			if (nested != null)
+				getProject().removeBuildListener(nested);
+		}
+	}
+
+	private Limit getLimit() {
+		if (name == null)
+			return null;
+
+		int count = 0;
+		try {
+			count = Integer.parseInt(permits);
+		} catch (NumberFormatException e) {
+			//no limit
+		}
+		if (count <= 0)
+			return null;
+
+		final int requested = count;
+		Limit limit = BuildScope.get(getProject()).computeIfAbsent(SCOPE_KEY + name, key -> new Limit(requested));
+		if (limit.permits != requested)
+			throw new BuildException(NLS.bind(TaskMessages.error_conflictingLimit, new String[] {name, Integer.toString(limit.permits), Integer.toString(requested)}), getLocation());
+		return limit;
+	}
+
+	/*
+	 * Hands the limits held by a limit task to the tasks nested in it when they start, on whatever thread
+	 */
+	private static class NestedTasks implements BuildListener {
+		private final Set<Task> nested = Collections.newSetFromMap(new IdentityHashMap<>());
+		private final Set<Limit> holding;
+		private final ThreadLocal<Deque<Set<Limit>>> previous = ThreadLocal.withInitial(ArrayDeque::new);
+
+		NestedTasks(List<Task> tasks, Set<Limit> holding) {
+			this.holding = holding;
+			for (Task task : tasks)
+				add(task);
+		}
+
+		private void add(Task task) {
+			nested.add(task);
+			if (task instanceof UnknownElement) {
+				List<UnknownElement> children = ((UnknownElement) task).getChildren();
+				if (children != null) {
+					for (UnknownElement child : children)
+						add(child);
+				}
+			}
+		}
+
+		@Override
+		public void taskStarted(BuildEvent event) {
+			if (!nested.contains(event.getTask()))
+				return;
+			Set<Limit> current = held.get();
+			previous.get().push(current);
+			if (!current.containsAll(holding)) {
+				Set<Limit> union = new HashSet<>(current);
+				union.addAll(holding);
+				held.set(Collections.unmodifiableSet(union));
+			}
+		}
+
+		@Override
+		public void taskFinished(BuildEvent event) {
+			if (!nested.contains(event.getTask()))
+				return;
+			Deque<Set<Limit>> stack = previous.get();
+			if (!stack.isEmpty())
+				held.set(stack.pop());
+		}
+
+		@Override
+		public void buildStarted(BuildEvent event) {
+			//nothing to do
+		}
+
+		@Override
+		public void buildFinished(BuildEvent event) {
+			//nothing to do
+		}
+
+		@Override
+		public void targetStarted(BuildEvent event) {
+			//nothing to do
+		}
+
+		@Override
+		public void targetFinished(BuildEvent event) {
+			//nothing to do
+		}
+
+		@Override
+		public void messageLogged(BuildEvent event) {
+			//nothing to do
+		}
+	}
+}
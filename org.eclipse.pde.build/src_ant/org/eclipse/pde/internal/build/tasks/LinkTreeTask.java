@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import org.apache.tools.ant.*;
+import org.apache.tools.ant.types.selectors.SelectorUtils;
+
+/**
+ * Internal task.
+ * Mirror a directory tree into another directory using hard links for the files.
+ * Files that can't be linked (for example because the destination is on another
+ * file store) are copied instead. Existing files in the destination are replaced,
+ * or only when they are older than the source if overwrite is false; a replaced file
+ * is deleted first, nothing is ever written through an existing link.
+ * The files can be selected with comma separated include and exclude patterns.
+ * When the copies may be modified later, for example by custom steps, the files
+ * can be copied instead of linked so that the source tree is left untouched.
+ */
+public class LinkTreeTask extends Task {
+	private File source;
+	private File destination;
+	private boolean failOnError = true;
+	private String[] includes = null;
+	private String[] excludes = null;
+	private boolean copy = false;
+	private boolean overwrite = true;
+
+	/**
+	 * The directory to mirror.
+	 * @param source
+	 */
+	public void setSrc(File source) {
+		this.source = source;
+	}
+
+	/**
+	 * The directory receiving the links. It is created if needed.
+	 * @param destination
+	 */
+	public void setDest(File destination) {
+		this.destination = destination;
+	}
+
+	public void setFailOnError(boolean failOnError) {
+		this.failOnError = failOnError;
+	}
+
+	/**
+	 * The patterns of the files to mirror, all the files by default.
+	 * @param includes
+	 */
+	public void setIncludes(String includes) {
+		this.includes = getPatterns(includes);
+	}
+
+	/**
+	 * The patterns of the files not to mirror.
+	 * @param excludes
+	 */
+	public void setExcludes(String excludes) {
+		this.excludes = getPatterns(excludes);
+	}
+
+	/**
+	 * Copy the files instead of linking them, <code>false</code> by default.
+	 * @param copy
+	 */
+	public void setCopy(boolean copy) {
+		this.copy = copy;
+	}
+
+	/**
+	 * Replace the files of the destination even when they are not older than the source,
+	 * <code>true</code> by default.
+	 * @param overwrite
+	 */
+	public void setOverwrite(boolean overwrite) {
+		this.overwrite = overwrite;
+	}
+
+	private static String[] getPatterns(String patterns) {
+		if (patterns == null || patterns.trim().length() == 0)
+			return null;
+		String[] result = patterns.trim().split("\\s*,\\s*"); //$NON-NLS-1$
+		for (int i = 0; i < result.length; i++) {
+			//same as the file sets, a trailing slash means the whole folder
+			result[i] = result[i].replace('\\', '/');
+			if (result[i].endsWith("/")) //$NON-NLS-1$
+				result[i] += "**"; //$NON-NLS-1$
+		}
+		return result;
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		if (source == null || destination == null)
+			throw new BuildException(TaskMessages.error_missingLinkTreeAttributes);
+		if (!source.isDirectory())
+			return;
+
+		try {
+			int copied = mirrorTree(source.toPath(), destination.toPath(), includes, excludes, !copy, overwrite);
+			if (copied > 0 && !copy)
+				log(copied + " files of " + source + " copied instead of linked", Project.MSG_VERBOSE); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (IOException e) {
+			if (failOnError)
+				throw new BuildException(e);
+			log(e.getMessage(), Project.MSG_WARN);
+		}
+	}
+
+	/**
+	 * Mirror the content of the source folder into the destination folder.
+	 * @return the number of files that had to be copied because they could not be linked
+	 */
+	public static int linkTree(final Path sourceRoot, final Path destinationRoot) throws IOException {
+		return linkTree(sourceRoot, destinationRoot, null, null);
+	}
+
+	/**
+	 * Mirror the files of the source folder matching the patterns into the destination folder.
+	 * @param includes the patterns of the files to mirror, all the files if <code>null</code>
+	 * @param excludes the patterns of the files not to mirror, can be <code>null</code>
+	 * @return the number of files that had to be copied because they could not be linked
+	 */
+	public static int linkTree(final Path sourceRoot, final Path destinationRoot, final String[] includes, final String[] excludes) throws IOException {
+		return mirrorTree(sourceRoot, destinationRoot, includes, excludes, true);
+	}
+
+	/**
+	 * Mirror the files of the source folder matching the patterns into the destination folder.
+	 * @param includes the patterns of the files to mirror, all the files if <code>null</code>
+	 * @param excludes the patterns of the files not to mirror, can be <code>null</code>
+	 * @param link whether to link the files, they are all copied if <code>false</code>
+	 * @return the number of files that were copied
+	 */
+	public static int mirrorTree(final Path sourceRoot, final Path destinationRoot, final String[] includes, final String[] excludes, final boolean link) throws IOException {
+		return mirrorTree(sourceRoot, destinationRoot, includes, excludes, link, true);
+	}
+
+	/**
+	 * Mirror the files of the source folder matching the patterns into the destination folder.
+	 * @param includes the patterns of the files to mirror, all the files if <code>null</code>
+	 * @param excludes the patterns of the files not to mirror, can be <code>null</code>
+	 * @param link whether to link the files, they are all copied if <code>false</code>
+	 * @param overwrite whether to replace the files of the destination that are not older than the source
+	 * @return the number of files that were copied
+	 */
+	public static int mirrorTree(final Path sourceRoot, final Path destinationRoot, final String[] includes, final String[] excludes, final boolean link, final boolean overwrite) throws IOException {
+		final int[] copied = new int[1];
+		Files.walkFileTree(sourceRoot, new SimpleFileVisitor<Path>() {
+			private boolean canLink = link;
+
+			private boolean isSelected(String path) {
+				return (includes == null || matches(includes, path)) && (excludes == null || !matches(excludes, path));
+			}
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				if (includes == null && excludes == null)
+					Files.createDirectories(destinationRoot.resolve(sourceRoot.relativize(dir)));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Path relative = sourceRoot.relativize(file);
+				if (!isSelected(relative.toString().replace(File.separatorChar, '/')))
+					return FileVisitResult.CONTINUE;
+				Path target = destinationRoot.resolve(relative);
+				if (!overwrite && Files.exists(target, LinkOption.NOFOLLOW_LINKS) && Files.getLastModifiedTime(target, LinkOption.NOFOLLOW_LINKS).compareTo(attrs.lastModifiedTime()) >= 0)
+					return FileVisitResult.CONTINUE;
+				Files.createDirectories(target.getParent());
+				Files.deleteIfExists(target);
+				if (attrs.isSymbolicLink()) {
+					Files.createSymbolicLink(target, Files.readSymbolicLink(file));
+					return FileVisitResult.CONTINUE;
+				}
+				if (canLink) {
+					try {
+						Files.createLink(target, file);
+						return FileVisitResult.CONTINUE;
+					} catch (UnsupportedOperationException | IOException e) {
+						//don't try again for the rest of the tree
+						canLink = false;
+					}
+				}
+				Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+				copied[0]++;
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return copied[0];
+	}
+
+	private static boolean matches(String[] patterns, String path) {
+		for (String pattern : patterns) {
+			if (SelectorUtils.matchPath(pattern, path))
+				return true;
+		}
+		return false;
+	}
+}
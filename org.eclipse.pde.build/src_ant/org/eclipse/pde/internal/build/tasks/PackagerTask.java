@@ -85,7 +85,8 @@ public class PackagerTask extends Task {
 
 	@Override
 	public void execute() throws BuildException {
-		try {
+		BuildMetrics metrics = TaskHelper.startMetrics(this);
+		try (BuildMetrics.Phase phase = BuildMetrics.phase("packager")) { //$NON-NLS-1$
 			initializeAntProperties(antProperties);
 			generator.setImmutableAntProperties(antProperties);
 			generator.setProduct(getProject().getProperty("product")); //$NON-NLS-1$
@@ -96,6 +97,7 @@ public class PackagerTask extends Task {
 			throw new BuildException(TaskHelper.statusToString(e.getStatus(), null).toString());
 		} finally {
 			BundleHelper.getDefault().setLog(null);
+			TaskHelper.endMetrics(this, metrics);
 		}
 	}
 
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A gzip output stream compressing blocks of its input concurrently.
+ * <p>
+ * The input is cut in fixed size blocks. Each block is deflated on the given executor,
+ * primed with the last 32k of the previous block as dictionary and terminated by a sync
+ * flush, so that the compressed blocks simply concatenate into a single deflate stream.
+ * The result is a regular single member gzip file.
+ * </p>
+ */
+class ParallelGZIPOutputStream extends OutputStream {
+	private static final int BLOCK_SIZE = 128 * 1024;
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+
+	private final WritableByteChannel out;
+	private final ExecutorService executor;
+	private final int maxPending;
+	private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+	private final CRC32 crc = new CRC32();
+
+	private byte[] block = new byte[BLOCK_SIZE];
+	private int count = 0;
+	private byte[] previous = null;
+	private int previousLength = 0;
+	private long total = 0;
+	private boolean closed = false;
+
+	public ParallelGZIPOutputStream(WritableByteChannel out, ExecutorService executor, int threads) throws IOException {
+		this.out = out;
+		this.executor = executor;
+		this.maxPending = Math.max(2, threads * 2);
+		//magic, deflate, no flags, no mtime, no extra flags, unix
+		writeFully(new byte[] {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 3});
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (count == BLOCK_SIZE)
+			submit(false);
+		block[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (count == BLOCK_SIZE)
+				submit(false);
+			int chunk = Math.min(len, BLOCK_SIZE - count);
+			System.arraycopy(b, off, block, count, chunk);
+			count += chunk;
+			off += chunk;
+			len -= chunk;
+		}
+	}
+
+	private void submit(boolean last) throws IOException {
+		final byte[] data = block;
+		final int length = count;
+		final byte[] dictionary = previous;
+		final int dictionaryEnd = previousLength;
+		crc.update(data, 0, length);
+		total += length;
+		pending.add(executor.submit(() -> deflate(data, length, dictionary, dictionaryEnd, last)));
+
+		previous = length >= DICTIONARY_SIZE ? data : null;
+		previousLength = length;
+		block = new byte[BLOCK_SIZE];
+		count = 0;
+
+		while (pending.size() >= maxPending)
+			writePending();
+	}
+
+	private static byte[] deflate(byte[] data, int length, byte[] dictionary, int dictionaryEnd, boolean last) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			if (dictionary != null)
+				deflater.setDictionary(dictionary, dictionaryEnd - DICTIONARY_SIZE, DICTIONARY_SIZE);
+			deflater.setInput(data, 0, length);
+			ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+			byte[] buffer = new byte[64 * 1024];
+			if (last) {
+				deflater.finish();
+				while (!deflater.finished()) {
+					int n = deflater.deflate(buffer);
+					result.write(buffer, 0, n);
+				}
+			} else {
+				//a sync flush ends the block on a byte boundary without marking it as the last one
+				int n;
+				do {
+					n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+					result.write(buffer, 0, n);
+				} while (n == buffer.length);
+			}
+			return result.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writePending() throws IOException {
+		Future<byte[]> next = pending.poll();
+		try {
+			writeFully(next.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private void writeFully(byte[] bytes) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining())
+			out.write(buffer);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		try {
+			submit(true);
+			while (!pending.isEmpty())
+				writePending();
+			long value = crc.getValue();
+			writeFully(new byte[] {(byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24), (byte) total, (byte) (total >> 8), (byte) (total >> 16), (byte) (total >> 24)});
+		} finally {
+			for (Future<byte[]> future : pending)
+				future.cancel(true);
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,389 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Zip writer used by {@link ArchiveTask}.
+ * <p>
+ * Entries are read and deflated on an executor while the calling thread writes the
+ * already compressed entries, in order, to the output channel. An entry that does
+ * not shrink when deflated (typically a jar) is stored. Unix permissions and symbolic
+ * links are recorded in the external attributes like Info-ZIP does, and the zip64
+ * extensions are used when the archive outgrows the classic format.
+ * </p>
+ */
+class ParallelZipWriter implements Closeable {
+	//entries bigger than this are compressed to a temporary file instead of memory
+	private static final long IN_MEMORY_LIMIT = 4 * 1024 * 1024;
+	private static final long ZIP64_LIMIT = 0xFFFFFFFFL;
+	private static final int ZIP64_ENTRY_LIMIT = 0xFFFF;
+
+	private static final int VERSION_DEFAULT = 20;
+	private static final int VERSION_ZIP64 = 45;
+	private static final int MADE_BY_UNIX = 3 << 8;
+	private static final int FLAG_UTF8 = 1 << 11;
+
+	private static final int S_IFREG = 0100000;
+	private static final int S_IFDIR = 040000;
+	private static final int S_IFLNK = 0120000;
+
+	private final FileChannel out;
+	private final Path temporaryFolder;
+	private final ExecutorService executor;
+	private final int maxPending;
+	private final ArrayDeque<Future<Compressed>> pending = new ArrayDeque<>();
+	private final List<CentralEntry> central = new ArrayList<>();
+	private final ByteBuffer header = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+
+	private static class Compressed {
+		ArchiveTask.Entry entry;
+		int method;
+		long crc;
+		long size;
+		long compressedSize;
+		byte[] data; // the bytes to write or null
+		Path file; // the file to copy when data is null
+		boolean temporary;
+	}
+
+	private static class CentralEntry {
+		byte[] name;
+		int externalAttributes;
+		int method;
+		long dosTime;
+		long crc;
+		long size;
+		long compressedSize;
+		long offset;
+	}
+
+	public ParallelZipWriter(File destination, ExecutorService executor, int threads) throws IOException {
+		this.out = FileChannel.open(destination.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.temporaryFolder = destination.getAbsoluteFile().getParentFile().toPath();
+		this.executor = executor;
+		this.maxPending = Math.max(2, threads * 2);
+	}
+
+	public void write(final ArchiveTask.Entry entry) throws IOException {
+		pending.add(executor.submit(() -> compress(entry)));
+		while (pending.size() >= maxPending)
+			writePending();
+	}
+
+	private Compressed compress(ArchiveTask.Entry entry) throws IOException {
+		Compressed result = new Compressed();
+		result.entry = entry;
+		result.method = Deflater.DEFLATED;
+		if (entry.type == ArchiveTask.Entry.DIRECTORY) {
+			result.method = 0;
+			result.data = new byte[0];
+			return result;
+		}
+		if (entry.type == ArchiveTask.Entry.SYMLINK) {
+			//the content of a link entry is the path it points to
+			result.method = 0;
+			result.data = entry.linkTarget.getBytes(StandardCharsets.UTF_8);
+			result.size = result.compressedSize = result.data.length;
+			CRC32 crc = new CRC32();
+			crc.update(result.data);
+			result.crc = crc.getValue();
+			return result;
+		}
+
+		Path source = entry.file.toPath();
+		long length = Files.size(source);
+		if (length <= IN_MEMORY_LIMIT) {
+			byte[] content = Files.readAllBytes(source);
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			result.crc = crc.getValue();
+			result.size = content.length;
+			byte[] deflated = deflate(content);
+			if (deflated != null) {
+				result.data = deflated;
+			} else {
+				result.method = 0;
+				result.data = content;
+			}
+			result.compressedSize = result.data.length;
+			return result;
+		}
+
+		Path temp = Files.createTempFile(temporaryFolder, "zip", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try (InputStream input = Files.newInputStream(source); OutputStream output = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+			CRC32 crc = new CRC32();
+			byte[] buffer = new byte[64 * 1024];
+			byte[] deflated = new byte[64 * 1024];
+			int n;
+			long size = 0;
+			while ((n = input.read(buffer)) != -1) {
+				crc.update(buffer, 0, n);
+				size += n;
+				deflater.setInput(buffer, 0, n);
+				while (!deflater.needsInput()) {
+					int count = deflater.deflate(deflated);
+					output.write(deflated, 0, count);
+				}
+			}
+			deflater.finish();
+			while (!deflater.finished()) {
+				int count = deflater.deflate(deflated);
+				output.write(deflated, 0, count);
+			}
+			result.crc = crc.getValue();
+			result.size = size;
+			result.compressedSize = deflater.getBytesWritten();
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		} finally {
+			deflater.end();
+		}
+		if (result.compressedSize < result.size) {
+			result.file = temp;
+			result.temporary = true;
+		} else {
+			Files.delete(temp);
+			result.method = 0;
+			result.file = source;
+			result.compressedSize = result.size;
+		}
+		return result;
+	}
+
+	/**
+	 * Deflate the given content, return null if that does not make it smaller.
+	 */
+	private static byte[] deflate(byte[] content) {
+		if (content.length == 0)
+			return null;
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(content);
+			deflater.finish();
+			byte[] buffer = new byte[content.length];
+			int count = 0;
+			while (!deflater.finished() && count < buffer.length)
+				count += deflater.deflate(buffer, count, buffer.length - count);
+			if (!deflater.finished() || count >= content.length)
+				return null;
+			return Arrays.copyOf(buffer, count);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writePending() throws IOException {
+		Compressed next;
+		try {
+			next = pending.poll().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			throw new IOException(cause);
+		}
+		try {
+			writeEntry(next);
+		} finally {
+			if (next.temporary)
+				Files.deleteIfExists(next.file);
+		}
+	}
+
+	private void writeEntry(Compressed compressed) throws IOException {
+		ArchiveTask.Entry entry = compressed.entry;
+		CentralEntry record = new CentralEntry();
+		record.name = entry.name.getBytes(StandardCharsets.UTF_8);
+		record.method = compressed.method;
+		record.dosTime = toDosTime(entry.lastModified);
+		record.crc = compressed.crc;
+		record.size = compressed.size;
+		record.compressedSize = compressed.compressedSize;
+		record.offset = out.position();
+		int type = entry.type == ArchiveTask.Entry.DIRECTORY ? S_IFDIR : entry.type == ArchiveTask.Entry.SYMLINK ? S_IFLNK : S_IFREG;
+		record.externalAttributes = ((type | (entry.mode & 07777)) << 16) | (entry.type == ArchiveTask.Entry.DIRECTORY ? 0x10 : 0);
+		central.add(record);
+
+		boolean zip64 = record.size >= ZIP64_LIMIT || record.compressedSize >= ZIP64_LIMIT;
+		header.clear();
+		header.putInt(0x04034b50);
+		header.putShort((short) (zip64 ? VERSION_ZIP64 : VERSION_DEFAULT));
+		header.putShort((short) FLAG_UTF8);
+		header.putShort((short) record.method);
+		header.putInt((int) record.dosTime);
+		header.putInt((int) record.crc);
+		header.putInt(zip64 ? -1 : (int) record.compressedSize);
+		header.putInt(zip64 ? -1 : (int) record.size);
+		header.putShort((short) record.name.length);
+		header.putShort((short) (zip64 ? 20 : 0));
+		writeHeader(record.name);
+		if (zip64) {
+			header.clear();
+			header.putShort((short) 1);
+			header.putShort((short) 16);
+			header.putLong(record.size);
+			header.putLong(record.compressedSize);
+			writeHeader(null);
+		}
+
+		if (compressed.data != null) {
+			writeFully(ByteBuffer.wrap(compressed.data));
+		} else {
+			try (FileChannel input = FileChannel.open(compressed.file, StandardOpenOption.READ)) {
+				long position = 0;
+				while (position < record.compressedSize) {
+					long count = input.transferTo(position, record.compressedSize - position, out);
+					if (count <= 0)
+						throw new IOException(NLS.bind(TaskMessages.error_fileChanged, compressed.file));
+					position += count;
+				}
+			}
+		}
+	}
+
+	private void writeHeader(byte[] name) throws IOException {
+		header.flip();
+		writeFully(header);
+		if (name != null)
+			writeFully(ByteBuffer.wrap(name));
+	}
+
+	private void writeFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			out.write(buffer);
+	}
+
+	/**
+	 * Write the remaining entries and the central directory.
+	 */
+	public void finish() throws IOException {
+		while (!pending.isEmpty())
+			writePending();
+
+		long centralStart = out.position();
+		for (CentralEntry record : central) {
+			boolean sizes64 = record.size >= ZIP64_LIMIT || record.compressedSize >= ZIP64_LIMIT;
+			boolean offset64 = record.offset >= ZIP64_LIMIT;
+			int extraLength = (sizes64 ? 16 : 0) + (offset64 ? 8 : 0);
+			header.clear();
+			header.putInt(0x02014b50);
+			header.putShort((short) (MADE_BY_UNIX | VERSION_ZIP64));
+			header.putShort((short) (extraLength > 0 ? VERSION_ZIP64 : VERSION_DEFAULT));
+			header.putShort((short) FLAG_UTF8);
+			header.putShort((short) record.method);
+			header.putInt((int) record.dosTime);
+			header.putInt((int) record.crc);
+			header.putInt(sizes64 ? -1 : (int) record.compressedSize);
+			header.putInt(sizes64 ? -1 : (int) record.size);
+			header.putShort((short) record.name.length);
+			header.putShort((short) (extraLength > 0 ? extraLength + 4 : 0));
+			header.putShort((short) 0); //comment
+			header.putShort((short) 0); //disk
+			header.putShort((short) 0); //internal attributes
+			header.putInt(record.externalAttributes);
+			header.putInt(offset64 ? -1 : (int) record.offset);
+			writeHeader(record.name);
+			if (extraLength > 0) {
+				header.clear();
+				header.putShort((short) 1);
+				header.putShort((short) extraLength);
+				if (sizes64) {
+					header.putLong(record.size);
+					header.putLong(record.compressedSize);
+				}
+				if (offset64)
+					header.putLong(record.offset);
+				writeHeader(null);
+			}
+		}
+		long centralEnd = out.position();
+		long centralSize = centralEnd - centralStart;
+		int count = central.size();
+
+		boolean zip64 = count >= ZIP64_ENTRY_LIMIT || centralStart >= ZIP64_LIMIT || centralSize >= ZIP64_LIMIT;
+		if (zip64) {
+			header.clear();
+			header.putInt(0x06064b50);
+			header.putLong(44);
+			header.putShort((short) (MADE_BY_UNIX | VERSION_ZIP64));
+			header.putShort((short) VERSION_ZIP64);
+			header.putInt(0);
+			header.putInt(0);
+			header.putLong(count);
+			header.putLong(count);
+			header.putLong(centralSize);
+			header.putLong(centralStart);
+			//locator
+			header.putInt(0x07064b50);
+			header.putInt(0);
+			header.putLong(centralEnd);
+			header.putInt(1);
+			writeHeader(null);
+		}
+		header.clear();
+		header.putInt(0x06054b50);
+		header.putShort((short) 0);
+		header.putShort((short) 0);
+		header.putShort((short) (zip64 ? 0xFFFF : count));
+		header.putShort((short) (zip64 ? 0xFFFF : count));
+		header.putInt(zip64 ? -1 : (int) centralSize);
+		header.putInt(zip64 ? -1 : (int) centralStart);
+		header.putShort((short) 0);
+		writeHeader(null);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			//only reached with pending entries when failing, wait for them to clean up their temporary files
+			for (Future<Compressed> future : pending) {
+				try {
+					Compressed compressed = future.get();
+					if (compressed.temporary)
+						Files.deleteIfExists(compressed.file);
+				} catch (InterruptedException | ExecutionException e) {
+					//ignore
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private static long toDosTime(long time) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(time);
+		int year = calendar.get(Calendar.YEAR);
+		if (year < 1980)
+			return (1 << 21) | (1 << 16);
+		return (year - 1980) << 25 | (calendar.get(Calendar.MONTH) + 1) << 21 | calendar.get(Calendar.DAY_OF_MONTH) << 16 | calendar.get(Calendar.HOUR_OF_DAY) << 11 | calendar.get(Calendar.MINUTE) << 5 | calendar.get(Calendar.SECOND) >> 1;
+	}
+}
@@ -14,7 +14,6 @@
 package org.eclipse.pde.internal.build.tasks;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
 
@@ -63,103 +62,65 @@ public class PluginVersionReplaceTask extends Task {
 
 	@Override
 	public void execute() {
-		StringBuffer buffer = null;
+		TextRewriter text = null;
 		try {
-			buffer = readFile(new File(pluginFilePath));
+			text = new TextRewriter(new File(pluginFilePath));
 		} catch (IOException e) {
 			throw new BuildException(e);
 		}
 
 		//Find the word plugin or fragment
-		int startPlugin = scan(buffer, 0, plugin ? PLUGIN_START_TAG : FRAGMENT_START_TAG);
-		int startComment = scan(buffer, 0, COMMENT_START_TAG);
-		int endComment = startComment > -1 ? scan(buffer, startComment, COMMENT_END_TAG) : -1;
+		int startPlugin = text.scan(0, plugin ? PLUGIN_START_TAG : FRAGMENT_START_TAG);
+		int startComment = text.scan(0, COMMENT_START_TAG);
+		int endComment = startComment > -1 ? text.scan(startComment, COMMENT_END_TAG) : -1;
 
 		while (startComment != -1 && startPlugin > startComment && startPlugin < endComment) {
-			startPlugin = scan(buffer, endComment, plugin ? PLUGIN_START_TAG : FRAGMENT_START_TAG);
-			startComment = scan(buffer, endComment, COMMENT_START_TAG);
-			endComment = startComment > -1 ? scan(buffer, startComment, COMMENT_END_TAG) : -1;
+			startPlugin = text.scan(endComment, plugin ? PLUGIN_START_TAG : FRAGMENT_START_TAG);
+			startComment = text.scan(endComment, COMMENT_START_TAG);
+			endComment = startComment > -1 ? text.scan(startComment, COMMENT_END_TAG) : -1;
 		}
 
 		if (startPlugin == -1)
 			return;
 
-		int endPlugin = scan(buffer, startPlugin + 1, ">"); //$NON-NLS-1$
+		int endPlugin = text.scan(startPlugin + 1, ">"); //$NON-NLS-1$
 
 		//Find the version tag in the plugin header
 		boolean versionFound = false;
 		while (!versionFound) {
-			int versionAttr = scan(buffer, startPlugin, VERSION);
+			int versionAttr = text.scan(startPlugin, VERSION);
 			if (versionAttr == -1 || versionAttr > endPlugin)
 				return;
-			if (!Character.isWhitespace(buffer.charAt(versionAttr - 1))) {
+			if (!Character.isWhitespace(text.charAt(versionAttr - 1))) {
 				startPlugin = versionAttr + VERSION.length();
 				continue;
 			}
 			//Verify that the word version found is the actual attribute
 			int endVersionWord = versionAttr + VERSION.length();
-			while (Character.isWhitespace(buffer.charAt(endVersionWord)) && endVersionWord < endPlugin) {
+			while (Character.isWhitespace(text.charAt(endVersionWord)) && endVersionWord < endPlugin) {
 				endVersionWord++;
 			}
 			if (endVersionWord > endPlugin) //version has not been found 
 				return;
 
-			if (buffer.charAt(endVersionWord) != '=') {
+			if (text.charAt(endVersionWord) != '=') {
 				startPlugin = endVersionWord;
 				continue;
 			}
 
 			//Version has been found, extract the version id and replace it
-			int startVersionId = scan(buffer, versionAttr + 1, BACKSLASH);
-			int endVersionId = scan(buffer, startVersionId + 1, BACKSLASH);
+			int startVersionId = text.scan(versionAttr + 1, BACKSLASH);
+			int endVersionId = text.scan(startVersionId + 1, BACKSLASH);
 
-			buffer.replace(startVersionId + 1, endVersionId, newVersion);
+			text.replace(startVersionId + 1, endVersionId, newVersion);
 			versionFound = true;
 		}
-		try (OutputStreamWriter w = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(pluginFilePath)), StandardCharsets.UTF_8)) {
-			w.write(buffer.toString());
+		try {
+			text.write(new File(pluginFilePath));
 		} catch (FileNotFoundException e) {
 			// ignore
 		} catch (IOException e) {
 			throw new BuildException(e);
 		}
 	}
-
-	private int scan(StringBuffer buf, int start, String targetName) {
-		return scan(buf, start, new String[] {targetName});
-	}
-
-	private int scan(StringBuffer buf, int start, String[] targets) {
-		for (int i = start; i < buf.length(); i++) {
-			for (String target2 : targets) {
-				if (i < buf.length() - target2.length()) {
-					String match = buf.substring(i, i + target2.length());
-					if (target2.equalsIgnoreCase(match))
-						return i;
-				}
-			}
-		}
-		return -1;
-	}
-
-	private StringBuffer readFile(File targetName) throws IOException {
-		InputStreamReader reader = new InputStreamReader(new BufferedInputStream(new FileInputStream(targetName)), StandardCharsets.UTF_8);
-		StringBuffer result = new StringBuffer();
-		char[] buf = new char[4096];
-		int count;
-		try {
-			count = reader.read(buf, 0, buf.length);
-			while (count != -1) {
-				result.append(buf, 0, count);
-				count = reader.read(buf, 0, buf.length);
-			}
-		} finally {
-			try {
-				reader.close();
-			} catch (IOException e) {
-				// ignore exceptions here
-			}
-		}
-		return result;
-	}
 }
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Minimal ustar writer used by {@link ArchiveTask}.
+ * Names, link targets and sizes which do not fit in the ustar header, and names which are not ASCII, are
+ * written in a pax extended header.
+ */
+class TarWriter implements Closeable {
+	private static final int RECORD = 512;
+	private static final int NAME_LENGTH = 100;
+	private static final int PREFIX_LENGTH = 155;
+	private static final long MAX_OCTAL_SIZE = 077777777777L;
+
+	private static final byte TYPE_FILE = '0';
+	private static final byte TYPE_SYMLINK = '2';
+	private static final byte TYPE_DIRECTORY = '5';
+	private static final byte TYPE_PAX = 'x';
+
+	private final OutputStream out;
+	private final byte[] copyBuffer = new byte[64 * 1024];
+
+	public TarWriter(OutputStream out) {
+		this.out = out;
+	}
+
+	public void write(ArchiveTask.Entry entry) throws IOException {
+		switch (entry.type) {
+			case ArchiveTask.Entry.DIRECTORY :
+				writeHeader(entry.name, TYPE_DIRECTORY, entry.mode, 0, entry.lastModified, null);
+				break;
+			case ArchiveTask.Entry.SYMLINK :
+				writeHeader(entry.name, TYPE_SYMLINK, entry.mode, 0, entry.lastModified, entry.linkTarget);
+				break;
+			default :
+				long size = entry.file.length();
+				writeHeader(entry.name, TYPE_FILE, entry.mode, size, entry.lastModified, null);
+				long copied = 0;
+				try (InputStream input = new FileInputStream(entry.file)) {
+					int n;
+					while (copied < size && (n = input.read(copyBuffer, 0, (int) Math.min(copyBuffer.length, size - copied))) != -1) {
+						out.write(copyBuffer, 0, n);
+						copied += n;
+					}
+				}
+				if (copied != size)
+					throw new IOException(NLS.bind(TaskMessages.error_fileChanged, entry.file));
+				pad(size);
+		}
+	}
+
+	private void writeHeader(String name, byte type, int mode, long size, long lastModified, String linkTarget) throws IOException {
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		byte[] linkBytes = linkTarget != null ? linkTarget.getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+		byte[] prefix = new byte[0];
+		byte[] shortName = nameBytes;
+		if (nameBytes.length > NAME_LENGTH) {
+			int split = findSplit(nameBytes);
+			if (split > 0) {
+				prefix = Arrays.copyOfRange(nameBytes, 0, split);
+				shortName = Arrays.copyOfRange(nameBytes, split + 1, nameBytes.length);
+			}
+		}
+
+		StringBuilder pax = new StringBuilder();
+		//the ustar fields have no encoding, readers only know the names are UTF-8 from the pax header
+		if (shortName.length > NAME_LENGTH || !isAscii(nameBytes)) {
+			appendPaxRecord(pax, "path", name); //$NON-NLS-1$
+			prefix = new byte[0];
+			shortName = Arrays.copyOf(nameBytes, Math.min(nameBytes.length, NAME_LENGTH));
+		}
+		if (linkBytes.length > NAME_LENGTH || !isAscii(linkBytes)) {
+			appendPaxRecord(pax, "linkpath", linkTarget); //$NON-NLS-1$
+			linkBytes = Arrays.copyOf(linkBytes, Math.min(linkBytes.length, NAME_LENGTH));
+		}
+		if (size > MAX_OCTAL_SIZE)
+			appendPaxRecord(pax, "size", Long.toString(size)); //$NON-NLS-1$
+		if (pax.length() > 0) {
+			byte[] records = pax.toString().getBytes(StandardCharsets.UTF_8);
+			byte[] paxName = ("PaxHeaders/" + new String(shortName, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+			writeRecord(Arrays.copyOf(paxName, Math.min(paxName.length, NAME_LENGTH)), new byte[0], TYPE_PAX, 0644, records.length, lastModified, new byte[0]);
+			out.write(records);
+			pad(records.length);
+		}
+		writeRecord(shortName, prefix, type, mode, size > MAX_OCTAL_SIZE ? 0 : size, lastModified, linkBytes);
+	}
+
+	private void writeRecord(byte[] name, byte[] prefix, byte type, int mode, long size, long lastModified, byte[] link) throws IOException {
+		byte[] header = new byte[RECORD];
+		System.arraycopy(name, 0, header, 0, name.length);
+		writeOctal(header, 100, 8, mode & 07777);
+		writeOctal(header, 108, 8, 0);
+		writeOctal(header, 116, 8, 0);
+		writeOctal(header, 124, 12, size);
+		writeOctal(header, 136, 12, Math.max(0, lastModified / 1000));
+		header[156] = type;
+		System.arraycopy(link, 0, header, 157, link.length);
+		System.arraycopy("ustar\00000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8); //$NON-NLS-1$
+		System.arraycopy(prefix, 0, header, 345, prefix.length);
+
+		//the checksum is computed with the checksum field filled with spaces
+		for (int i = 148; i < 156; i++)
+			header[i] = ' ';
+		long checksum = 0;
+		for (byte b : header)
+			checksum += b & 0xff;
+		writeOctal(header, 148, 7, checksum);
+		out.write(header);
+	}
+
+	private static int findSplit(byte[] name) {
+		for (int i = Math.min(name.length - 1, PREFIX_LENGTH); i > 0; i--) {
+			if (name[i] == '/' && name.length - i - 1 <= NAME_LENGTH && name.length - i - 1 > 0)
+				return i;
+		}
+		return -1;
+	}
+
+	private static boolean isAscii(byte[] bytes) {
+		for (byte b : bytes) {
+			if (b < 0)
+				return false;
+		}
+		return true;
+	}
+
+	private static void appendPaxRecord(StringBuilder pax, String key, String value) {
+		//the length of a record includes the digits of the length itself
+		int length = key.getBytes(StandardCharsets.UTF_8).length + value.getBytes(StandardCharsets.UTF_8).length + 3;
+		int digits = String.valueOf(length).length();
+		if (String.valueOf(length + digits).length() > digits)
+			digits++;
+		pax.append(length + digits).append(' ').append(key).append('=').append(value).append('\n');
+	}
+
+	private static void writeOctal(byte[] header, int offset, int length, long value) {
+		String octal = Long.toOctalString(value);
+		int start = offset + length - 1 - octal.length();
+		for (int i = offset; i < start; i++)
+			header[i] = '0';
+		for (int i = 0; i < octal.length(); i++)
+			header[start + i] = (byte) octal.charAt(i);
+		header[offset + length - 1] = 0;
+	}
+
+	private void pad(long size) throws IOException {
+		int remainder = (int) (size % RECORD);
+		if (remainder != 0)
+			out.write(new byte[RECORD - remainder]);
+	}
+
+	@Override
+	public void close() throws IOException {
+		//end of archive: two empty records
+		out.write(new byte[2 * RECORD]);
+		out.close();
+	}
+}
@@ -13,7 +13,14 @@
  *******************************************************************************/
 package org.eclipse.pde.internal.build.tasks;
 
+import java.io.File;
+import java.io.IOException;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.Task;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.pde.internal.build.BuildMetrics;
+import org.eclipse.pde.internal.build.IBuildPropertiesConstants;
 
 public class TaskHelper {
 	public static StringBuffer statusToString(IStatus status, StringBuffer b) {
@@ -27,4 +34,32 @@ public class TaskHelper {
 		}
 		return b;
 	}
+
+	/**
+	 * Start recording the metrics of the given task if a report is asked for. They are recorded by
+	 * the thread running the task and the threads it starts, until {@link #endMetrics(Task, BuildMetrics)}.
+	 * @return the metrics recorded, <code>null</code> if no report is asked for
+	 */
+	public static BuildMetrics startMetrics(Task task) {
+		String report = task.getProject().getProperty(IBuildPropertiesConstants.PROPERTY_METRICS_REPORT);
+		if (report == null || report.length() == 0 || report.startsWith("${")) //$NON-NLS-1$
+			return null;
+		return BuildMetrics.enable();
+	}
+
+	/**
+	 * Stop recording the given metrics and append them to the report of the task's project.
+	 * @param metrics the metrics returned by {@link #startMetrics(Task)}
+	 */
+	public static void endMetrics(Task task, BuildMetrics metrics) {
+		if (metrics == null)
+			return;
+		BuildMetrics.disable(metrics);
+		File report = task.getProject().resolveFile(task.getProject().getProperty(IBuildPropertiesConstants.PROPERTY_METRICS_REPORT));
+		try {
+			metrics.appendReport(report, task.getTaskName());
+		} catch (IOException e) {
+			task.log(NLS.bind(TaskMessages.error_writingMetrics, report, e.getMessage()), Project.MSG_WARN);
+		}
+	}
 }
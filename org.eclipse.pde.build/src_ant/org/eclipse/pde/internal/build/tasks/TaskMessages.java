@@ -42,6 +42,35 @@ public class TaskMessages extends NLS {
 	public static String error_noCallAfterReplace;
 	public static String error_licenseRootWithoutLicenseRef;
 	public static String error_conflictingProperties;
+	public static String error_writingMetrics;
+	public static String error_conflictingLimit;
+
+	public static String error_missingDestFile;
+	public static String error_unsupportedArchiveFormat;
+	public static String error_creatingArchive;
+	public static String error_archiveFileSetSource;
+	public static String error_fullpathSeveralFiles;
+	public static String error_fileChanged;
+	public static String warning_readingLink;
+
+	public static String error_notZipFile;
+	public static String error_zip64Archive;
+	public static String error_invalidCentralDirectory;
+	public static String error_encryptedEntry;
+	public static String error_invalidEntryHeader;
+	public static String error_brandedArchiveTooLarge;
+	public static String warning_brandedArchive;
+
+	public static String warning_recordingTimings;
+	public static String warning_deletingTimings;
+	public static String warning_noTimings;
+	public static String error_readingTimings;
+	public static String error_writingTimingsSummary;
+
+	public static String error_compilationFailed;
+	public static String error_tasksFailed;
+
+	public static String error_missingLinkTreeAttributes;
 
 	static {
 		// load message values from bundle file
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.pde.internal.build.tasks;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Internal helper used by the tasks rewriting feature.xml, .product and plugin.xml files.
+ * <p>
+ * The text is read once and never modified. Lookups are case insensitive, do not allocate
+ * and remember where the next occurrence of each target is, so scanning forward through the
+ * file costs a single pass per target no matter how many elements it contains.
+ * Replacements are recorded against the original offsets and streamed to the output
+ * together with the unchanged text when the file is written.
+ * </p>
+ */
+class TextRewriter {
+	private final String text;
+	private final int length;
+
+	// last lookup per target: {start, result}
+	private final Map<String, int[]> lookups = new HashMap<>();
+	private final Map<String, int[]> wordLookups = new HashMap<>();
+
+	// recorded edits
+	private final List<Edit> edits = new ArrayList<>();
+
+	private static class Edit {
+		final int start;
+		final int end;
+		final String replacement;
+
+		Edit(int start, int end, String replacement) {
+			this.start = start;
+			this.end = end;
+			this.replacement = replacement;
+		}
+	}
+
+	public TextRewriter(File file) throws IOException {
+		this(readFile(file));
+	}
+
+	public TextRewriter(String text) {
+		this.text = text;
+		this.length = text.length();
+	}
+
+	public int length() {
+		return length;
+	}
+
+	public char charAt(int index) {
+		return text.charAt(index);
+	}
+
+	public String substring(int start, int end) {
+		return text.substring(start, end);
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Return the offset of the first occurrence of the target at or after start, or -1.
+	 */
+	public int scan(int start, String target) {
+		return scan(start, target, false);
+	}
+
+	/**
+	 * Return the offset of the first occurrence of the target at or after start, or -1.
+	 * When wholeWord is set, the occurrence must be followed by a whitespace.
+	 * The last character of the text is never considered as a possible match start.
+	 */
+	public int scan(int start, String target, boolean wholeWord) {
+		Map<String, int[]> cache = wholeWord ? wordLookups : lookups;
+		int[] last = cache.get(target);
+		if (last == null) {
+			last = new int[] {Integer.MAX_VALUE, -1};
+			cache.put(target, last);
+		}
+		//there is no match in [last start, last result), reuse the result if start falls in that range
+		if (start >= last[0] && (last[1] == -1 || start <= last[1]))
+			return last[1];
+
+		int result = -1;
+		int targetLength = target.length();
+		for (int i = Math.max(start, 0); i < length - targetLength; i++) {
+			if (text.regionMatches(true, i, target, 0, targetLength)) {
+				if (!wholeWord || Character.isWhitespace(text.charAt(i + targetLength))) {
+					result = i;
+					break;
+				}
+			}
+		}
+		last[0] = start;
+		last[1] = result;
+		return result;
+	}
+
+	/**
+	 * Replace the original text found in [start, end) by the given replacement.
+	 * Edits may be recorded in any order but may not overlap.
+	 */
+	public void replace(int start, int end, String replacement) {
+		if (start < 0 || start > end || end > length)
+			throw new IndexOutOfBoundsException();
+		edits.add(new Edit(start, end, replacement));
+	}
+
+	public void insert(int offset, String insertion) {
+		replace(offset, offset, insertion);
+	}
+
+	public boolean isModified() {
+		return !edits.isEmpty();
+	}
+
+	/**
+	 * Stream the text with all the recorded edits applied.
+	 */
+	public void write(Writer writer) throws IOException {
+		//stable sort, insertions at the same offset keep their recording order
+		edits.sort((e1, e2) -> Integer.compare(e1.start, e2.start));
+		int copied = 0;
+		for (Edit edit : edits) {
+			if (edit.start < copied)
+				throw new IllegalStateException();
+			writer.write(text, copied, edit.start - copied);
+			writer.write(edit.replacement);
+			copied = edit.end;
+		}
+		writer.write(text, copied, length - copied);
+	}
+
+	public void write(File file) throws IOException {
+		try (Writer w = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(file)), StandardCharsets.UTF_8)) {
+			write(w);
+		}
+	}
+
+	static String readFile(File file) throws IOException {
+		try (Reader reader = new InputStreamReader(new BufferedInputStream(new FileInputStream(file)), StandardCharsets.UTF_8)) {
+			StringBuilder result = new StringBuilder((int) Math.min(file.length(), Integer.MAX_VALUE - 8));
+			char[] buf = new char[8192];
+			int count;
+			while ((count = reader.read(buf, 0, buf.length)) != -1) {
+				result.append(buf, 0, count);
+			}
+			return result.toString();
+		}
+	}
+}